@@ -0,0 +1,76 @@
+package com.clinic.users.application.service;
+
+import com.clinic.users.domain.model.Group;
+import com.clinic.users.domain.model.GroupSet;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Interseccion y union sobre el indice de bitmaps con un pool sintetico:
+ * cada usuario cae en cada grupo con probabilidad 30%. Mide el conteo (lo
+ * que cuesta la operacion de conjuntos) y la primera pagina de usernames.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GroupQueryBenchmark {
+
+    @Param({"50000"})
+    int users;
+
+    private GroupMembershipBitmaps bitmaps;
+    private final GroupSet doctorAndSupport = GroupSet.of(Group.MEDICO, Group.SOPORTE);
+    private final GroupSet clinical = GroupSet.of(Group.MEDICO, Group.ENFERMERA, Group.ADMINISTRATIVO);
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        Map<Group, List<String>> members = new EnumMap<>(Group.class);
+        for (Group group : Group.values()) {
+            members.put(group, new ArrayList<>());
+        }
+        for (int i = 0; i < users; i++) {
+            String username = String.format("user%06d", i);
+            for (Group group : Group.values()) {
+                if (random.nextInt(10) < 3) {
+                    members.get(group).add(username);
+                }
+            }
+        }
+        bitmaps = GroupMembershipBitmaps.build(members, Instant.now());
+    }
+
+    @Benchmark
+    public long intersectionCount() {
+        return bitmaps.all(doctorAndSupport).getLongCardinality();
+    }
+
+    @Benchmark
+    public long unionCount() {
+        return bitmaps.any(clinical).getLongCardinality();
+    }
+
+    @Benchmark
+    public List<String> intersectionFirstPage() {
+        return bitmaps.usernames(bitmaps.all(doctorAndSupport), 100);
+    }
+}
@@ -0,0 +1,74 @@
+package com.clinic.users.application.service;
+
+import com.clinic.users.domain.model.User;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Reglas de dominio del alta y la actualizacion: regex de username, telefono
+ * y password, y el parseo de la fecha de nacimiento. Solo el camino valido,
+ * que es el que paga cada alta de un lote.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserValidationBenchmark {
+
+    // las validaciones no usan el gateway
+    private final UserAdminService service = new UserAdminService(null, 500);
+    private User newUser;
+    private Map<String, String> update;
+
+    @Setup
+    public void setUp() {
+        Map<String, String> attrs = new HashMap<>();
+        attrs.put("given_name", "Ana");
+        attrs.put("family_name", "Gomez");
+        attrs.put("custom_document", "1020304050");
+        attrs.put("email", "ana.gomez@clinic.com");
+        attrs.put("phone_number", "+573001234567");
+        attrs.put("address", "Calle 10 # 20-30");
+        attrs.put("birthdate", "15/04/1990");
+        attrs.put("raw_password", "Secreta#2024");
+
+        newUser = User.builder()
+                .username("agomez")
+                .enabled(true)
+                .attributes(attrs)
+                .groups(List.of("doctor"))
+                .build();
+
+        update = new HashMap<>();
+        update.put("email", "ana.gomez@clinic.com");
+        update.put("phone_number", "+573001234567");
+        update.put("address", "Carrera 7 # 12-40");
+        update.put("birthdate", "15/04/1990");
+    }
+
+    @Benchmark
+    public User validateNewUser() {
+        UserAdminService.validateNewUser(newUser);
+        return newUser;
+    }
+
+    @Benchmark
+    public Map<String, String> validateUpdatableData() {
+        service.validateUpdatableData(update);
+        return update;
+    }
+}
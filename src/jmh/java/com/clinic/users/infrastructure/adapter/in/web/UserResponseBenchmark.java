@@ -0,0 +1,75 @@
+package com.clinic.users.infrastructure.adapter.in.web;
+
+import com.clinic.users.domain.model.User;
+import com.clinic.users.infrastructure.adapter.in.web.dto.UserResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Construccion de la respuesta (incluida la copia del mapa de atributos) y su
+ * serializacion con Jackson, por cada usuario devuelto en GET /api/users.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserResponseBenchmark {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private User user;
+    private UserResponse response;
+
+    @Setup
+    public void setUp() {
+        Map<String, String> attrs = new HashMap<>();
+        attrs.put("sub", "5f1c2e2a-9d7b-4c53-8a0e-2b6f3f8d9a41");
+        attrs.put("given_name", "Ana");
+        attrs.put("family_name", "Gomez");
+        attrs.put("email", "ana.gomez@clinic.com");
+        attrs.put("email_verified", "true");
+        attrs.put("phone_number", "+573001234567");
+        attrs.put("address", "Calle 10 # 20-30");
+        attrs.put("birthdate", "15/04/1990");
+        attrs.put("custom:document", "1020304050");
+        attrs.put("custom:role", "DOCTOR");
+
+        user = User.builder()
+                .username("agomez")
+                .enabled(true)
+                .attributes(attrs)
+                .groups(List.of("doctor", "support"))
+                .build();
+        response = UserAdminController.toResponse(user);
+    }
+
+    @Benchmark
+    public UserResponse toResponse() {
+        return UserAdminController.toResponse(user);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] toResponseAndSerialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(UserAdminController.toResponse(user));
+    }
+}
@@ -0,0 +1,69 @@
+package com.clinic.users.infrastructure.adapter.out.cognito;
+
+import com.clinic.users.domain.model.User;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.AttributeType;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.UserType;
+
+/**
+ * Conversion Cognito <-> dominio por cada usuario de ListUsers / AdminGetUser
+ * y por cada alta.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CognitoMapperBenchmark {
+
+    private final CognitoMapper mapper = new CognitoMapper();
+    private UserType userType;
+    private List<String> groups;
+    private Map<String, String> attributes;
+
+    @Setup
+    public void setUp() {
+        attributes = new LinkedHashMap<>();
+        attributes.put("sub", "5f1c2e2a-9d7b-4c53-8a0e-2b6f3f8d9a41");
+        attributes.put("given_name", "Ana");
+        attributes.put("family_name", "Gomez");
+        attributes.put("email", "ana.gomez@clinic.com");
+        attributes.put("email_verified", "true");
+        attributes.put("phone_number", "+573001234567");
+        attributes.put("address", "Calle 10 # 20-30");
+        attributes.put("birthdate", "15/04/1990");
+        attributes.put("custom:document", "1020304050");
+        attributes.put("custom:role", "DOCTOR");
+
+        userType = UserType.builder()
+                .username("agomez")
+                .enabled(true)
+                .attributes(mapper.toAttributes(attributes))
+                .build();
+        groups = List.of("doctor", "support");
+    }
+
+    @Benchmark
+    public User fromUserType() {
+        return mapper.from(userType, groups);
+    }
+
+    @Benchmark
+    public List<AttributeType> toAttributes() {
+        return mapper.toAttributes(attributes);
+    }
+}
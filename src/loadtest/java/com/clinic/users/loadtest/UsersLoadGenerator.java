@@ -0,0 +1,231 @@
+package com.clinic.users.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Generador de carga de lazo cerrado contra /api/users: cada worker lanza la
+ * siguiente solicitud al recibir la respuesta anterior. Pensado para correr
+ * contra la app con el perfil inmemory (usuarios seedNNNNN).
+ *
+ * <pre>
+ * mvn -Ploadtest -DskipTests test-compile exec:exec \
+ *     -Dload.args="--url=http://localhost:8080 --concurrency=32 --duration=60s --mix=get:70,list:20,create:10"
+ * </pre>
+ *
+ * Opciones: url, concurrency, duration, warmup, mix, seed-users, page-size, token.
+ * Reporta throughput y p50/p95/p99/p99.9/max por operacion.
+ */
+public final class UsersLoadGenerator {
+
+    private static final long MAX_LATENCY_NANOS = TimeUnit.SECONDS.toNanos(60);
+
+    private final String baseUrl;
+    private final int concurrency;
+    private final Duration duration;
+    private final Duration warmup;
+    private final Map<String, Integer> mix;
+    private final int seedUsers;
+    private final int pageSize;
+    private final String token;
+    private final HttpClient http;
+    private final Map<String, Operation> operations = new LinkedHashMap<>();
+    private final AtomicLong created = new AtomicLong();
+    private final String runId = Long.toString(System.currentTimeMillis() % 100_000, 36);
+
+    private UsersLoadGenerator(Map<String, String> options) {
+        this.baseUrl = options.getOrDefault("url", "http://localhost:8080");
+        this.concurrency = Integer.parseInt(options.getOrDefault("concurrency", "16"));
+        this.duration = parseDuration(options.getOrDefault("duration", "30s"));
+        this.warmup = parseDuration(options.getOrDefault("warmup", "5s"));
+        this.mix = parseMix(options.getOrDefault("mix", "get:70,list:20,create:10"));
+        this.seedUsers = Integer.parseInt(options.getOrDefault("seed-users", "10000"));
+        this.pageSize = Integer.parseInt(options.getOrDefault("page-size", "20"));
+        this.token = options.get("token");
+        this.http = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newFixedThreadPool(Math.max(4, concurrency / 4)))
+                .build();
+        mix.keySet().forEach(name -> operations.put(name, new Operation()));
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            int eq = arg.indexOf('=');
+            options.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        new UsersLoadGenerator(options).run();
+    }
+
+    private void run() throws InterruptedException {
+        System.out.printf("Load test against %s: concurrency=%d, warmup=%s, duration=%s, mix=%s%n",
+                baseUrl, concurrency, warmup, duration, mix);
+
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        long warmupEnd = System.nanoTime() + warmup.toNanos();
+        long end = warmupEnd + duration.toNanos();
+        for (int i = 0; i < concurrency; i++) {
+            workers.execute(() -> loop(warmupEnd, end));
+        }
+        workers.shutdown();
+        workers.awaitTermination(warmup.plus(duration).toMillis() + MAX_LATENCY_NANOS / 1_000_000, TimeUnit.MILLISECONDS);
+
+        report();
+        System.exit(0);
+    }
+
+    private void loop(long warmupEnd, long end) {
+        long now;
+        while ((now = System.nanoTime()) < end) {
+            String name = pick();
+            HttpRequest request = request(name);
+            boolean measured = now >= warmupEnd;
+            long start = System.nanoTime();
+            int status;
+            try {
+                status = http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                status = -1;
+            }
+            if (measured) {
+                operations.get(name).record(System.nanoTime() - start, status);
+            }
+        }
+    }
+
+    private String pick() {
+        int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+        int roll = ThreadLocalRandom.current().nextInt(total);
+        for (Map.Entry<String, Integer> entry : mix.entrySet()) {
+            roll -= entry.getValue();
+            if (roll < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException();
+    }
+
+    private HttpRequest request(String operation) {
+        HttpRequest.Builder builder = switch (operation) {
+            case "get" -> HttpRequest.newBuilder(uri("/api/users/" + randomSeedUser())).GET();
+            case "list" -> HttpRequest.newBuilder(uri("/api/users?limit=" + pageSize)).GET();
+            case "create" -> HttpRequest.newBuilder(uri("/api/users"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(newUserJson()));
+            default -> throw new IllegalArgumentException("Unknown operation " + operation);
+        };
+        builder.timeout(Duration.ofNanos(MAX_LATENCY_NANOS));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder.build();
+    }
+
+    private URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+
+    private String randomSeedUser() {
+        return String.format("seed%05d", ThreadLocalRandom.current().nextInt(seedUsers) + 1);
+    }
+
+    private String newUserJson() {
+        long n = created.incrementAndGet();
+        String username = "lt" + runId + n;
+        return """
+                {"username":"%s","firstName":"Load","lastName":"Test","document":"%d",
+                 "email":"%s@clinic.test","phone":"+573001234567","address":"Calle 1",
+                 "birthdate":"01/01/1990","password":"Secreta#2024","role":"MEDICO"}
+                """.formatted(username, 2_000_000_000L + n, username);
+    }
+
+    private void report() {
+        double seconds = duration.toNanos() / 1e9;
+        long total = 0;
+        System.out.printf("%n%-8s %10s %8s %9s %9s %9s %9s %9s %9s%n",
+                "op", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Map.Entry<String, Operation> entry : operations.entrySet()) {
+            Histogram h = entry.getValue().latencies;
+            total += h.getTotalCount();
+            System.out.printf(Locale.ROOT, "%-8s %10d %8d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    entry.getKey(), h.getTotalCount(), entry.getValue().errors.get(), h.getTotalCount() / seconds,
+                    millis(h.getValueAtPercentile(50)), millis(h.getValueAtPercentile(95)),
+                    millis(h.getValueAtPercentile(99)), millis(h.getValueAtPercentile(99.9)),
+                    millis(h.getMaxValue()));
+        }
+        System.out.printf(Locale.ROOT, "%ntotal: %d requests, %.1f req/s%n", total, total / seconds);
+        operations.forEach((name, op) -> {
+            if (!op.statuses.isEmpty()) {
+                System.out.println(name + " error status codes: " + op.statuses);
+            }
+        });
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+
+    private static Duration parseDuration(String value) {
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        if (value.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        if (value.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        return Duration.ofSeconds(Long.parseLong(value));
+    }
+
+    private static Map<String, Integer> parseMix(String value) {
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        for (String part : value.split(",")) {
+            String[] kv = part.split(":");
+            int weight = Integer.parseInt(kv[1].trim());
+            if (weight > 0) {
+                mix.put(kv[0].trim(), weight);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("Empty mix " + value);
+        }
+        return mix;
+    }
+
+    private static final class Operation {
+        private final Histogram latencies = new ConcurrentHistogram(MAX_LATENCY_NANOS, 3);
+        private final AtomicLong errors = new AtomicLong();
+        private final Map<Integer, AtomicLong> statuses = new ConcurrentHashMap<>();
+
+        void record(long nanos, int status) {
+            latencies.recordValue(Math.min(nanos, MAX_LATENCY_NANOS));
+            if (status < 200 || status >= 300) {
+                errors.incrementAndGet();
+                statuses.computeIfAbsent(status, s -> new AtomicLong()).incrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.clinic.users.application.port.in;
+
+import com.clinic.users.domain.model.GroupQueryResult;
+import com.clinic.users.domain.model.GroupSet;
+
+public interface GroupQueryUseCase {
+
+    /** Usuarios que pertenecen a todos los grupos (interseccion). */
+    GroupQueryResult membersOfAll(GroupSet groups, int limit);
+
+    /** Usuarios que pertenecen a al menos uno de los grupos (union). */
+    GroupQueryResult membersOfAny(GroupSet groups, int limit);
+}
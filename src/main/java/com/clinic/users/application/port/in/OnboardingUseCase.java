@@ -0,0 +1,17 @@
+package com.clinic.users.application.port.in;
+
+import com.clinic.users.domain.model.OnboardingStatus;
+import java.util.List;
+import java.util.Optional;
+
+public interface OnboardingUseCase {
+
+    /**
+     * Deja en el journal los pasos pendientes del alta de un usuario ya
+     * creado en Cognito: grupos y, si no es null, el password permanente.
+     * Vuelve con PENDING, o DONE si no habia nada que hacer.
+     */
+    OnboardingStatus completeOnboarding(String username, List<String> groups, String password);
+
+    Optional<OnboardingStatus> status(String username);
+}
@@ -1,6 +1,8 @@
 package com.clinic.users.application.port.in;
+import com.clinic.users.domain.model.GroupChanges;
 import com.clinic.users.domain.model.User;
 import java.util.List;
+import java.util.Map;
 
 public interface UserAdminUseCase {
 
@@ -12,5 +14,21 @@ public interface UserAdminUseCase {
 
     void setPermanentPassword(String username, String password);
 
+    /**
+     * Envia a Cognito solo los atributos de {@code changes} que difieren de
+     * los actuales; si ninguno difiere no escribe nada. Con
+     * {@code expectedVersion} (la {@link com.clinic.users.domain.model.UserAttributes#fingerprint()}
+     * que leyo el cliente) falla con VersionConflictException si el usuario
+     * cambio entretanto.
+     */
+    User updateAttributes(String username, Map<String, String> changes, String expectedVersion);
+
     void addUserToGroups(String username, List<String> groups);
+
+    /**
+     * Deja al usuario exactamente en {@code groups} (nombres de Cognito o del
+     * enum {@link com.clinic.users.domain.model.Group}). Solo se tocan los
+     * grupos que cambian; los que no administra este servicio no se quitan.
+     */
+    GroupChanges setGroups(String username, List<String> groups);
 }
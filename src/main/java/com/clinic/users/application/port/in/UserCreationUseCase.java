@@ -0,0 +1,21 @@
+package com.clinic.users.application.port.in;
+
+import com.clinic.users.domain.model.ProvisioningRequest;
+import com.clinic.users.domain.model.ProvisioningResult;
+import com.clinic.users.domain.model.UserCreation;
+
+public interface UserCreationUseCase {
+
+    /**
+     * Crea el usuario con sus grupos y password. Si un paso posterior al
+     * AdminCreateUser falla, el usuario se borra antes de relanzar el error.
+     */
+    UserCreation create(ProvisioningRequest request);
+
+    /**
+     * La misma saga para una fila de un alta masiva: el fallo queda en el
+     * resultado (con el paso que fallo) en vez de lanzarse. Con
+     * {@code allowExisting} un usuario que ya existe se completa sin compensar.
+     */
+    ProvisioningResult provision(int index, ProvisioningRequest request);
+}
@@ -0,0 +1,14 @@
+package com.clinic.users.application.port.in;
+
+import com.clinic.users.domain.model.ImportRecord;
+import com.clinic.users.domain.model.ImportReport;
+import java.util.Iterator;
+
+public interface UserImportUseCase {
+
+    /**
+     * Importa los registros a medida que el iterador los entrega. Con el mismo
+     * importId una importacion interrumpida continua desde su ultimo checkpoint.
+     */
+    ImportReport importUsers(String importId, Iterator<ImportRecord> records);
+}
@@ -0,0 +1,11 @@
+package com.clinic.users.application.port.in;
+
+import com.clinic.users.domain.model.ProvisioningRequest;
+import com.clinic.users.domain.model.ProvisioningResult;
+import java.util.List;
+
+public interface UserProvisioningUseCase {
+
+    /** Devuelve un resultado por entrada, en el mismo orden. */
+    List<ProvisioningResult> provision(List<ProvisioningRequest> requests);
+}
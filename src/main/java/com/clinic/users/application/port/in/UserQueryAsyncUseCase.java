@@ -0,0 +1,11 @@
+package com.clinic.users.application.port.in;
+
+import com.clinic.users.domain.model.User;
+import com.clinic.users.domain.model.UserPage;
+import java.util.concurrent.CompletableFuture;
+
+public interface UserQueryAsyncUseCase {
+
+    CompletableFuture<User> findByUsername(String username);
+    CompletableFuture<UserPage> list(int limit, String filter, String cursor);
+}
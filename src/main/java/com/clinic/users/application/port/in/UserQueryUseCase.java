@@ -1,10 +1,23 @@
 package com.clinic.users.application.port.in;
 
 import com.clinic.users.domain.model.User;
+import com.clinic.users.domain.model.UserLookup;
+import com.clinic.users.domain.model.UserPage;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface UserQueryUseCase {
 
     User findByUsername(String username);
     List<User> list(int limit, String filter);
+    UserPage list(int limit, String filter, String cursor);
+
+    /**
+     * Un resultado por username pedido, en el mismo orden (los repetidos se
+     * consultan una vez). Los que no existen vuelven sin usuario.
+     */
+    List<UserLookup> findAll(List<String> usernames);
+
+    /** Recorre todo el pool pidiendo las paginas a medida que se consumen. */
+    Stream<User> streamAll(int pageSize, String filter);
 }
@@ -0,0 +1,18 @@
+package com.clinic.users.application.port.out;
+
+import com.clinic.users.domain.model.User;
+import com.clinic.users.domain.model.UserPage;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Variante no bloqueante de las lecturas de {@link CognitoGateway}. Los
+ * errores de Cognito completan el future con una DomainException.
+ */
+public interface AsyncCognitoGateway {
+
+    CompletableFuture<User> adminGet(String username);
+    CompletableFuture<UserPage> listUsers(int limit, String filter, String cursor);
+    CompletableFuture<List<String>> listGroupsForUser(String username);
+
+}
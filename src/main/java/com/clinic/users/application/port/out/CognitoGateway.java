@@ -1,17 +1,54 @@
 package com.clinic.users.application.port.out;
 
 import com.clinic.users.domain.model.User;
+import com.clinic.users.domain.model.UserPage;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface CognitoGateway {
 
-    User adminCreate(User user, boolean sendInvite);
+    /**
+     * AdminCreateUser. Con {@code temporaryPassword} el usuario nace con ese
+     * password (FORCE_CHANGE_PASSWORD) en la misma llamada; null deja que
+     * Cognito genere uno.
+     */
+    User adminCreate(User user, String temporaryPassword, boolean sendInvite);
+    default User adminCreate(User user, boolean sendInvite) {
+        return adminCreate(user, null, sendInvite);
+    }
     void adminEnable(String username);
     void adminDisable(String username);
+    void adminDelete(String username);
     void adminSetPassword(String username, String password, boolean permanent);
-    void adminAddToGroups(String username, List<String> groups);
+    /** AdminUpdateUserAttributes: solo los atributos que se envian cambian. */
+    void adminUpdateAttributes(String username, Map<String, String> attributes);
+    /**
+     * Agrega y quita grupos en una sola operacion; cada grupo es una llamada
+     * a Cognito y van en paralelo. Colecciones vacias o null no hacen nada.
+     */
+    void adminUpdateGroups(String username, Collection<String> add, Collection<String> remove);
+    default void adminAddToGroups(String username, List<String> groups) {
+        adminUpdateGroups(username, groups, List.of());
+    }
     User adminGet(String username);
-    List<User> listUsers(int limit, String filter);
+    /**
+     * Como {@link #adminGet} pero leyendo de Cognito, sin cache ni replica de
+     * por medio; para confirmar un dato antes de rechazar una operacion por el.
+     */
+    User adminGetFresh(String username);
+    /**
+     * AdminGetUser de varios usernames (sin repetidos). Los que no existen no
+     * aparecen en el resultado; cualquier otro error falla la llamada entera.
+     */
+    Map<String, User> adminGetAll(Collection<String> usernames);
+    UserPage listUsers(int limit, String filter, String cursor);
+    default List<User> listUsers(int limit, String filter) {
+        return listUsers(limit, filter, null).getUsers();
+    }
     List<String> listGroupsForUser(String username);
 
+    /** Usernames de todos los miembros del grupo, recorriendo todas las paginas. */
+    List<String> listUsernamesInGroup(String group);
+
 }
@@ -0,0 +1,9 @@
+package com.clinic.users.application.port.out;
+
+public interface ImportCheckpointStore {
+
+    /** Numero del siguiente registro a procesar; 0 si la importacion es nueva. */
+    long load(String importId);
+
+    void save(String importId, long nextRecord);
+}
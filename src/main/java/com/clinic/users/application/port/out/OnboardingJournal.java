@@ -0,0 +1,33 @@
+package com.clinic.users.application.port.out;
+
+import com.clinic.users.domain.model.OnboardingCommand;
+import com.clinic.users.domain.model.OnboardingStatus;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Registro durable de los comandos de onboarding. {@link #append} vuelve
+ * cuando el comando ya esta en disco; lo que no llego a DONE o FAILED se
+ * entrega de nuevo con {@link #pending()} tras un reinicio.
+ */
+public interface OnboardingJournal {
+
+    /**
+     * Devuelve el comando que queda pendiente: el recibido o, si el usuario
+     * ya tenia uno con los mismos grupos y password, ese (sin escribir nada).
+     * Falla con DomainException si el pendiente pide otra cosa.
+     */
+    OnboardingCommand append(OnboardingCommand command);
+
+    void markDone(OnboardingCommand command);
+
+    void markFailed(OnboardingCommand command, String error);
+
+    /** Intento fallido que se va a reintentar; solo en memoria. */
+    void recordAttempt(OnboardingCommand command, String error);
+
+    /** Comandos sin terminar, en el orden en que se registraron. */
+    List<OnboardingCommand> pending();
+
+    Optional<OnboardingStatus> status(String username);
+}
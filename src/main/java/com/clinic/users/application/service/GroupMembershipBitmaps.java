@@ -0,0 +1,113 @@
+package com.clinic.users.application.service;
+
+import com.clinic.users.domain.model.Group;
+import com.clinic.users.domain.model.GroupSet;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+
+/**
+ * Foto inmutable de la pertenencia a grupos de todo el pool.
+ * Cada username recibe un id denso (su posicion en orden alfabetico) y por
+ * grupo se guarda un {@link RoaringBitmap} con los ids de sus miembros. Interseccion y union
+ * son AND/OR de bitmaps comprimidos y los ids salen ya ordenados por username.
+ */
+final class GroupMembershipBitmaps {
+
+    private static final Group[] GROUPS = Group.values();
+
+    private final String[] usernames;
+    private final RoaringBitmap[] members;
+    private final Instant loadedAt;
+
+    private GroupMembershipBitmaps(String[] usernames, RoaringBitmap[] members, Instant loadedAt) {
+        this.usernames = usernames;
+        this.members = members;
+        this.loadedAt = loadedAt;
+    }
+
+    /** Construye el indice a partir de grupo -> usernames (los grupos ausentes quedan vacios). */
+    static GroupMembershipBitmaps build(Map<Group, List<String>> usernamesByGroup, Instant loadedAt) {
+        Map<String, Integer> maskByUser = new HashMap<>();
+        usernamesByGroup.forEach((group, names) -> {
+            GroupSet bit = GroupSet.of(group);
+            names.forEach(name -> maskByUser.merge(name, bit.mask(), (a, b) -> a | b));
+        });
+
+        String[] usernames = maskByUser.keySet().toArray(String[]::new);
+        Arrays.sort(usernames);
+
+        RoaringBitmap[] members = new RoaringBitmap[GROUPS.length];
+        Arrays.setAll(members, i -> new RoaringBitmap());
+        for (int id = 0; id < usernames.length; id++) {
+            GroupSet groups = GroupSet.fromMask(maskByUser.get(usernames[id]));
+            for (Group group : GROUPS) {
+                if (groups.contains(group)) {
+                    // ids crecientes: cada add es un append al final del contenedor
+                    members[group.ordinal()].add(id);
+                }
+            }
+        }
+        for (RoaringBitmap bitmap : members) {
+            bitmap.runOptimize();
+        }
+        return new GroupMembershipBitmaps(usernames, members, loadedAt);
+    }
+
+    /** Ids de los usuarios que estan en todos los grupos. */
+    RoaringBitmap all(GroupSet groups) {
+        RoaringBitmap[] selected = select(groups);
+        return switch (selected.length) {
+            case 0 -> new RoaringBitmap();
+            case 1 -> selected[0];
+            default -> FastAggregation.and(selected);
+        };
+    }
+
+    /** Ids de los usuarios que estan en alguno de los grupos. */
+    RoaringBitmap any(GroupSet groups) {
+        RoaringBitmap[] selected = select(groups);
+        return switch (selected.length) {
+            case 0 -> new RoaringBitmap();
+            case 1 -> selected[0];
+            default -> FastAggregation.or(selected);
+        };
+    }
+
+    /** Los primeros {@code limit} usernames del bitmap, en orden. */
+    List<String> usernames(RoaringBitmap ids, int limit) {
+        int n = (int) Math.min(limit, ids.getLongCardinality());
+        List<String> result = new ArrayList<>(n);
+        IntIterator it = ids.getIntIterator();
+        while (result.size() < n && it.hasNext()) {
+            result.add(usernames[it.next()]);
+        }
+        return result;
+    }
+
+    int size() {
+        return usernames.length;
+    }
+
+    Instant loadedAt() {
+        return loadedAt;
+    }
+
+    // Solo lectura sobre los bitmaps compartidos: ni and ni or modifican sus entradas
+    private RoaringBitmap[] select(GroupSet groups) {
+        RoaringBitmap[] selected = new RoaringBitmap[groups.size()];
+        int i = 0;
+        for (Group group : GROUPS) {
+            if (groups.contains(group)) {
+                selected[i++] = members[group.ordinal()];
+            }
+        }
+        return selected;
+    }
+}
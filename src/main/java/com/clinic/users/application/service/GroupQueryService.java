@@ -0,0 +1,134 @@
+package com.clinic.users.application.service;
+
+import com.clinic.users.application.port.in.GroupQueryUseCase;
+import com.clinic.users.application.port.out.CognitoGateway;
+import com.clinic.users.domain.exception.DomainException;
+import com.clinic.users.domain.model.Group;
+import com.clinic.users.domain.model.GroupQueryResult;
+import com.clinic.users.domain.model.GroupSet;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Consultas de pertenencia sobre varios grupos a la vez, resueltas contra
+ * {@link GroupMembershipBitmaps}. Los miembros de cada grupo salen de
+ * {@link CognitoGateway#listUsernamesInGroup}, que el adaptador resuelve con
+ * el mismo indice de grupos que usa el listado. Solo la primera consulta
+ * espera la carga: vencido {@code users.groups.bitmap-ttl} se sigue
+ * respondiendo con el indice anterior mientras se recarga en segundo plano,
+ * asi que los resultados pueden ir atrasados algo mas que ese tiempo.
+ */
+@Slf4j
+@Service
+public class GroupQueryService implements GroupQueryUseCase {
+
+    static final int MAX_LIMIT = 1000;
+
+    private final CognitoGateway gateway;
+    private final Executor refresher;
+    private final Duration ttl;
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
+    private volatile GroupMembershipBitmaps bitmaps;
+
+    public GroupQueryService(CognitoGateway gateway,
+                             @Qualifier("taskScheduler") Executor refresher,
+                             @Value("${users.groups.bitmap-ttl:30s}") Duration ttl) {
+        this.gateway = gateway;
+        this.refresher = refresher;
+        this.ttl = ttl;
+    }
+
+    @Override
+    public GroupQueryResult membersOfAll(GroupSet groups, int limit) {
+        return query(groups, limit, index -> index.all(groups));
+    }
+
+    @Override
+    public GroupQueryResult membersOfAny(GroupSet groups, int limit) {
+        return query(groups, limit, index -> index.any(groups));
+    }
+
+    private GroupQueryResult query(GroupSet groups, int limit,
+                                   Function<GroupMembershipBitmaps, RoaringBitmap> select) {
+        if (groups == null || groups.isEmpty()) {
+            throw new DomainException("At least one group is required");
+        }
+        if (limit < 0 || limit > MAX_LIMIT) {
+            throw new DomainException("limit must be between 0 and " + MAX_LIMIT);
+        }
+
+        GroupMembershipBitmaps index = bitmaps();
+        RoaringBitmap ids = select.apply(index);
+        return GroupQueryResult.builder()
+                .groups(groups)
+                .count(ids.getLongCardinality())
+                .usernames(index.usernames(ids, limit))
+                .indexLoadedAt(index.loadedAt())
+                .build();
+    }
+
+    private GroupMembershipBitmaps bitmaps() {
+        GroupMembershipBitmaps current = bitmaps;
+        if (current == null) {
+            return initialLoad();
+        }
+        if (!isFresh(current) && refreshing.compareAndSet(false, true)) {
+            try {
+                refresher.execute(this::refresh);
+            } catch (RuntimeException e) {
+                refreshing.set(false);
+                log.warn("Could not schedule group bitmap refresh: {}", e.getMessage());
+            }
+        }
+        return current;
+    }
+
+    // Sin indice todavia no hay nada que servir: la primera consulta espera
+    private synchronized GroupMembershipBitmaps initialLoad() {
+        GroupMembershipBitmaps current = bitmaps;
+        if (current == null) {
+            current = load();
+            bitmaps = current;
+        }
+        return current;
+    }
+
+    private void refresh() {
+        try {
+            bitmaps = load();
+        } catch (RuntimeException e) {
+            log.warn("Group bitmap refresh failed, keeping index from {}: {}",
+                    bitmaps.loadedAt(), e.getMessage());
+        } finally {
+            refreshing.set(false);
+        }
+    }
+
+    private boolean isFresh(GroupMembershipBitmaps index) {
+        return index.loadedAt().plus(ttl).isAfter(Instant.now());
+    }
+
+    private GroupMembershipBitmaps load() {
+        long start = System.nanoTime();
+        Map<Group, List<String>> usernamesByGroup = new EnumMap<>(Group.class);
+        for (Group group : Group.values()) {
+            usernamesByGroup.put(group, gateway.listUsernamesInGroup(group.getIamName()));
+        }
+        GroupMembershipBitmaps loaded = GroupMembershipBitmaps.build(usernamesByGroup, Instant.now());
+        log.info("Group membership bitmaps loaded: {} users in {} ms",
+                loaded.size(), Duration.ofNanos(System.nanoTime() - start).toMillis());
+        return loaded;
+    }
+}
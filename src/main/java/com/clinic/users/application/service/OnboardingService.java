@@ -0,0 +1,155 @@
+package com.clinic.users.application.service;
+
+import com.clinic.users.application.port.in.OnboardingUseCase;
+import com.clinic.users.application.port.in.UserAdminUseCase;
+import com.clinic.users.application.port.out.OnboardingJournal;
+import com.clinic.users.domain.exception.ValidationException;
+import com.clinic.users.domain.model.OnboardingCommand;
+import com.clinic.users.domain.model.OnboardingStatus;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+/**
+ * Pasos posteriores al AdminCreateUser (grupos y password permanente) en
+ * modo write-behind: se registran en {@link OnboardingJournal} y se ejecutan
+ * en segundo plano con reintentos y backoff exponencial. El password solo
+ * llega aca con {@code users.onboarding.defer-password=true}; si no,
+ * {@link UserCreationService} lo fija en linea y nunca toca el disco.
+ *
+ * Al arrancar se reanudan los comandos pendientes. AdminAddUserToGroup y
+ * AdminSetUserPassword son idempotentes, asi que repetir un comando que
+ * alcanzo a ejecutarse antes de un corte no cambia el resultado.
+ */
+@Slf4j
+@Service
+public class OnboardingService implements OnboardingUseCase {
+
+    private final UserAdminUseCase adminUseCase;
+    private final OnboardingJournal journal;
+    private final ScheduledExecutorService executor;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+
+    /** Comandos ya entregados al executor, para no correr dos veces el mismo. */
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    public OnboardingService(
+            UserAdminUseCase adminUseCase,
+            OnboardingJournal journal,
+            @Qualifier("onboardingExecutor") ScheduledExecutorService executor,
+            @Value("${users.onboarding.max-attempts:6}") int maxAttempts,
+            @Value("${users.onboarding.retry-backoff:1s}") Duration retryBackoff) {
+        this.adminUseCase = adminUseCase;
+        this.journal = journal;
+        this.executor = executor;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoff = retryBackoff;
+    }
+
+    @Override
+    public OnboardingStatus completeOnboarding(String username, List<String> groups, String password) {
+        if (password != null) {
+            // un password invalido se rechaza ahora, no en segundo plano
+            UserAdminService.validatePermanentPassword(password);
+        }
+        if ((groups == null || groups.isEmpty()) && password == null) {
+            return done(username);
+        }
+
+        OnboardingCommand command = OnboardingCommand.builder()
+                .id(UUID.randomUUID().toString())
+                .username(username)
+                .groups(groups == null ? List.of() : List.copyOf(groups))
+                .password(password)
+                .enqueuedAt(Instant.now())
+                .build();
+        // si ya habia uno equivalente en curso (reanudado al arrancar) no se lanza otro
+        if (journal.append(command) == command) {
+            dispatch(command, 0);
+        }
+
+        return journal.status(username).orElseThrow();
+    }
+
+    @Override
+    public Optional<OnboardingStatus> status(String username) {
+        return journal.status(username);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumePending() {
+        List<OnboardingCommand> pending = journal.pending();
+        if (!pending.isEmpty()) {
+            log.info("Resuming {} pending onboarding commands from the journal", pending.size());
+        }
+        pending.forEach(command -> dispatch(command, 0));
+    }
+
+    private void dispatch(OnboardingCommand command, long delayMillis) {
+        if (delayMillis == 0 && !inFlight.add(command.getId())) {
+            return;
+        }
+        try {
+            executor.schedule(() -> run(command), delayMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // apagando: queda pendiente en el journal para el proximo arranque
+            inFlight.remove(command.getId());
+        }
+    }
+
+    private void run(OnboardingCommand command) {
+        try {
+            adminUseCase.addUserToGroups(command.getUsername(), command.getGroups());
+            if (command.getPassword() != null) {
+                adminUseCase.setPermanentPassword(command.getUsername(), command.getPassword());
+            }
+            journal.markDone(command);
+            inFlight.remove(command.getId());
+            log.info("Onboarding of {} completed", command.getUsername());
+        } catch (RuntimeException e) {
+            retryOrFail(command, e);
+        }
+    }
+
+    private void retryOrFail(OnboardingCommand command, RuntimeException e) {
+        int attempts = journal.status(command.getUsername()).map(OnboardingStatus::getAttempts).orElse(0) + 1;
+        String error = e.getClass().getSimpleName() + ": " + e.getMessage();
+
+        if (e instanceof ValidationException || attempts >= maxAttempts) {
+            log.warn("Onboarding of {} failed after {} attempts: {}", command.getUsername(), attempts, error);
+            journal.markFailed(command, error);
+            inFlight.remove(command.getId());
+            return;
+        }
+
+        journal.recordAttempt(command, error);
+        long delay = retryBackoff.toMillis() << Math.min(attempts - 1, 10);
+        log.info("Onboarding of {} failed (attempt {}), retrying in {} ms: {}",
+                command.getUsername(), attempts, delay, error);
+        dispatch(command, Math.max(delay, 1));
+    }
+
+    private static OnboardingStatus done(String username) {
+        Instant now = Instant.now();
+        return OnboardingStatus.builder()
+                .username(username)
+                .state(OnboardingStatus.State.DONE)
+                .enqueuedAt(now)
+                .updatedAt(now)
+                .build();
+    }
+}
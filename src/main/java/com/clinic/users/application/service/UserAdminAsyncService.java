@@ -0,0 +1,44 @@
+package com.clinic.users.application.service;
+
+import com.clinic.users.application.port.in.UserQueryAsyncUseCase;
+import com.clinic.users.application.port.out.AsyncCognitoGateway;
+import com.clinic.users.domain.model.User;
+import com.clinic.users.domain.model.UserPage;
+import java.util.concurrent.CompletableFuture;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+/**
+ * Consultas de {@link UserAdminService} sobre el gateway no bloqueante.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserAdminAsyncService implements UserQueryAsyncUseCase {
+
+    private final AsyncCognitoGateway gateway;
+
+    @Override
+    public CompletableFuture<User> findByUsername(String username) {
+        log.info("Fetching user: {}", username);
+
+        return gateway.adminGet(username)
+                .thenCompose(user -> {
+                    if (user.getGroups() != null) {
+                        return CompletableFuture.completedFuture(user);
+                    }
+                    return gateway.listGroupsForUser(username)
+                            .thenApply(groups -> {
+                                user.setGroups(groups);
+                                return user;
+                            });
+                });
+    }
+
+    @Override
+    public CompletableFuture<UserPage> list(int limit, String filter, String cursor) {
+        log.info("Listing users. limit={}, filter={}, cursor={}", limit, filter, cursor != null);
+        return gateway.listUsers(limit, filter, cursor);
+    }
+}
@@ -4,37 +4,48 @@ import com.clinic.users.application.port.in.UserAdminUseCase;
 import com.clinic.users.application.port.in.UserQueryUseCase;
 import com.clinic.users.application.port.out.CognitoGateway;
 import com.clinic.users.domain.exception.DomainException;
+import com.clinic.users.domain.exception.VersionConflictException;
+import com.clinic.users.domain.model.Group;
+import com.clinic.users.domain.model.GroupChanges;
+import com.clinic.users.domain.model.GroupSet;
 import com.clinic.users.domain.model.User;
-import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
-import java.time.temporal.ChronoUnit;
+import com.clinic.users.domain.model.UserAttributes;
+import com.clinic.users.domain.model.UserLookup;
+import com.clinic.users.domain.model.UserPage;
+import com.clinic.users.domain.validation.UserRules;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
-import java.util.regex.Pattern;
-import lombok.RequiredArgsConstructor;
+import java.util.Set;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class UserAdminService implements UserAdminUseCase, UserQueryUseCase {
 
     private final CognitoGateway gateway;
-
-    private static final DateTimeFormatter BIRTHDATE_FORMAT =
-            DateTimeFormatter.ofPattern("dd/MM/yyyy");
-
-    private static final Pattern USERNAME_PATTERN =
-            Pattern.compile("^[A-Za-z0-9]{1,15}$");
-
-    private static final Pattern PHONE_PATTERN =
-            Pattern.compile("^\\d{1,10}$");
-
-    private static final Pattern PASSWORD_PATTERN =
-            Pattern.compile("^(?=.*[A-Z])(?=.*\\d)(?=.*[^A-Za-z0-9]).{8,}$");
+    private final int maxBatchGetSize;
+    /** Serializa leer-comparar-escribir por usuario dentro de esta instancia. */
+    private final Map<String, UpdateLock> updateLocks = new ConcurrentHashMap<>();
+
+    public UserAdminService(
+            CognitoGateway gateway,
+            @Value("${users.batch-get.max-size:500}") int maxBatchGetSize) {
+        this.gateway = gateway;
+        this.maxBatchGetSize = maxBatchGetSize;
+    }
 
     @Override
     public User createUser(User user, boolean sendInvite) {
@@ -67,14 +78,86 @@ public class UserAdminService implements UserAdminUseCase, UserQueryUseCase {
     public void setPermanentPassword(String username, String password) {
         log.info("Setting permanent password for {}", username);
 
-        if (!PASSWORD_PATTERN.matcher(password).matches()) {
-            throw new DomainException(
-                    "Password does not meet complexity requirements");
-        }
+        validatePermanentPassword(password);
 
         gateway.adminSetPassword(username, password, true);
     }
 
+    @Override
+    public User updateAttributes(String username, Map<String, String> changes, String expectedVersion) {
+        ReentrantLock lock = lockFor(username);
+        lock.lock();
+        try {
+            // adminGet pasa por la cache: comparar la version no cuesta otra lectura
+            User current = gateway.adminGet(username);
+            boolean fresh = false;
+            if (expectedVersion != null && !expectedVersion.equals(fingerprint(current))) {
+                // el ETag pudo salir de una lectura mas nueva que la cache o la replica
+                // (el GET asincrono, otra instancia): se confirma contra Cognito antes del 412
+                current = gateway.adminGetFresh(username);
+                fresh = true;
+                if (!expectedVersion.equals(fingerprint(current))) {
+                    throw new VersionConflictException("User " + username + " was modified since version "
+                            + expectedVersion + " (current " + fingerprint(current) + ")");
+                }
+            }
+
+            Map<String, String> delta = delta(current, changes);
+            if (delta.isEmpty() && !fresh) {
+                // la copia en cache puede estar atrasada: antes de descartar el PATCH se mira Cognito
+                current = gateway.adminGetFresh(username);
+                delta = delta(current, changes);
+            }
+            if (delta.isEmpty()) {
+                log.info("Update of {} changes nothing, skipping", username);
+                return current;
+            }
+
+            log.info("Updating attributes {} of {}", delta.keySet(), username);
+            gateway.adminUpdateAttributes(username, delta);
+
+            UserAttributes.Builder updated = UserAttributes.of(current.getAttributes()).toBuilder();
+            delta.forEach(updated::put);
+            return current.toBuilder().attributes(updated.build()).build();
+        } finally {
+            lock.unlock();
+            releaseLock(username);
+        }
+    }
+
+    private static Map<String, String> delta(User current, Map<String, String> changes) {
+        UserAttributes attributes = UserAttributes.of(current.getAttributes());
+        Map<String, String> delta = new LinkedHashMap<>();
+        changes.forEach((name, value) -> {
+            if (value != null && !value.equals(attributes.get(name))) {
+                delta.put(name, value);
+            }
+        });
+        return delta;
+    }
+
+    // Un lock por usuario con updates en curso; se quita cuando nadie mas lo espera
+    private ReentrantLock lockFor(String username) {
+        return updateLocks.compute(username, (name, lock) -> {
+            UpdateLock held = lock != null ? lock : new UpdateLock();
+            held.users++;
+            return held;
+        }).lock;
+    }
+
+    private void releaseLock(String username) {
+        updateLocks.computeIfPresent(username, (name, held) -> --held.users == 0 ? null : held);
+    }
+
+    private static final class UpdateLock {
+        private final ReentrantLock lock = new ReentrantLock();
+        private int users; // solo se toca dentro de compute
+    }
+
+    private static String fingerprint(User user) {
+        return UserAttributes.of(user.getAttributes()).fingerprint();
+    }
+
     @Override
     public void addUserToGroups(String username, List<String> groups) {
         if (groups == null || groups.isEmpty()) {
@@ -85,14 +168,48 @@ public class UserAdminService implements UserAdminUseCase, UserQueryUseCase {
         gateway.adminAddToGroups(username, groups);
     }
 
+    @Override
+    public GroupChanges setGroups(String username, List<String> groups) {
+        if (groups == null) {
+            throw new DomainException("Groups are required");
+        }
+        GroupSet target = GroupSet.none();
+        for (String name : groups) {
+            Group group = Group.parse(name);
+            if (group == null) {
+                throw new DomainException("Unknown group: " + name);
+            }
+            target = target.with(group);
+        }
+
+        // una sola lectura, que la cache o la replica pueden ahorrar
+        GroupSet current = GroupSet.fromIamNames(gateway.listGroupsForUser(username));
+        GroupChanges changes = GroupChanges.builder()
+                .username(username)
+                .added(target.minus(current).iamNames())
+                .removed(current.minus(target).iamNames())
+                .unchanged(current.intersection(target).iamNames())
+                .build();
+
+        if (changes.isNoop()) {
+            log.info("Groups of {} already match {}, nothing to do", username, target);
+            return changes;
+        }
+        log.info("Updating groups of {}: +{} -{}", username, changes.getAdded(), changes.getRemoved());
+        gateway.adminUpdateGroups(username, changes.getAdded(), changes.getRemoved());
+        return changes;
+    }
+
 
     @Override
     public User findByUsername(String username) {
         log.info("Fetching user: {}", username);
 
         User user = gateway.adminGet(username);
-        List<String> groups = gateway.listGroupsForUser(username);
-        user.setGroups(groups);
+        // adminGet ya trae los grupos; solo se piden si el gateway no los cargo
+        if (user.getGroups() == null) {
+            user.setGroups(gateway.listGroupsForUser(username));
+        }
 
         return user;
     }
@@ -104,90 +221,98 @@ public class UserAdminService implements UserAdminUseCase, UserQueryUseCase {
         return gateway.listUsers(limit, filter);
     }
 
-
-    private void validateNewUser(User user) {
-
-        if (!USERNAME_PATTERN.matcher(user.getUsername()).matches()) {
-            throw new DomainException(
-                    "Username must be alphanumeric and up to 15 characters");
-        }
-
-        Map<String, String> attrs = Objects.requireNonNull(
-                user.getAttributes(),
-                "Attributes map is required");
-
-        String document = attrs.get("custom_document");
-        String email = attrs.get("email");
-        String phone = attrs.get("phone_number");
-        String address = attrs.get("address");
-        String birthdate = attrs.get("birthdate");
-        String password = attrs.get("raw_password");
-
-        if (document == null || document.isBlank()) {
-            throw new DomainException("Document (cédula) is required");
+    @Override
+    public List<UserLookup> findAll(List<String> usernames) {
+        if (usernames == null || usernames.isEmpty()) {
+            throw new DomainException("Usernames list must not be empty");
         }
 
-        if (email == null || !email.contains("@") || !email.contains(".")) {
-            throw new DomainException("Email is not valid");
+        // Cada username se pide una sola vez aunque venga repetido
+        Set<String> unique = new LinkedHashSet<>();
+        for (String username : usernames) {
+            if (username == null || username.isBlank()) {
+                throw new DomainException("Usernames must not be blank");
+            }
+            unique.add(username);
         }
-
-        // ✅ VALIDACIÓN NUEVA — EXACTA PARA QUE TU TEST PASE
-        if (phone == null || !PHONE_PATTERN.matcher(phone).matches()) {
-            throw new DomainException("Phone must have 1 to 10 digits");
+        if (unique.size() > maxBatchGetSize) {
+            throw new DomainException("Batch get must have at most " + maxBatchGetSize + " usernames");
         }
 
-        if (address == null || address.length() > 30) {
-            throw new DomainException("Address must be <= 30 characters");
-        }
+        log.info("Batch get of {} users ({} requested)", unique.size(), usernames.size());
+        Map<String, User> found = gateway.adminGetAll(unique);
 
-        validateBirthdate(birthdate);
+        return usernames.stream()
+                .map(username -> new UserLookup(username, found.get(username)))
+                .toList();
+    }
 
-        if (password == null || !PASSWORD_PATTERN.matcher(password).matches()) {
-            throw new DomainException(
-                    "Password must have at least 8 chars, 1 uppercase, 1 number, 1 special char");
-        }
+    @Override
+    public UserPage list(int limit, String filter, String cursor) {
+        log.info("Listing users. limit={}, filter={}, cursor={}", limit, filter, cursor != null);
+        return gateway.listUsers(limit, filter, cursor);
     }
 
+    @Override
+    public Stream<User> streamAll(int pageSize, String filter) {
+        log.info("Streaming users. pageSize={}, filter={}", pageSize, filter);
+        Iterator<User> users = new PageIterator(pageSize, filter);
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(users, Spliterator.ORDERED | Spliterator.NONNULL),
+                false);
+    }
 
-    public void validateUpdatableData(Map<String, String> attrs) {
-        if (attrs == null) {
-            return;
+    /**
+     * Itera el pool pagina por pagina: la siguiente pagina solo se pide
+     * cuando la actual ya fue consumida.
+     */
+    private class PageIterator implements Iterator<User> {
+
+        private final int pageSize;
+        private final String filter;
+        private Iterator<User> current = Collections.emptyIterator();
+        private String cursor;
+        private boolean lastPage;
+
+        PageIterator(int pageSize, String filter) {
+            this.pageSize = pageSize;
+            this.filter = filter;
         }
 
-        String email = attrs.get("email");
-        if (email != null && (!email.contains("@") || !email.contains("."))) {
-            throw new DomainException("Email is not valid");
+        @Override
+        public boolean hasNext() {
+            while (!current.hasNext() && !lastPage) {
+                UserPage page = gateway.listUsers(pageSize, filter, cursor);
+                current = page.getUsers().iterator();
+                cursor = page.getNextCursor();
+                lastPage = !page.hasNext();
+            }
+            return current.hasNext();
         }
 
-        String phone = attrs.get("phone_number");
-        if (phone != null && !PHONE_PATTERN.matcher(phone).matches()) {
-            throw new DomainException("Phone must have 1 to 10 digits");
+        @Override
+        public User next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return current.next();
         }
+    }
 
-        String address = attrs.get("address");
-        if (address != null && address.length() > 30) {
-            throw new DomainException("Address must be <= 30 characters");
-        }
 
-        String birthdate = attrs.get("birthdate");
-        if (birthdate != null) {
-            validateBirthdate(birthdate);
+    static void validatePermanentPassword(String password) {
+        if (!UserRules.isValidPassword(password)) {
+            throw new DomainException(UserRules.PASSWORD_POLICY);
         }
     }
 
-    private void validateBirthdate(String birthdate) {
-        if (birthdate == null) {
-            throw new DomainException("Birthdate is required");
-        }
-        try {
-            LocalDate date = LocalDate.parse(birthdate, BIRTHDATE_FORMAT);
-            long years = ChronoUnit.YEARS.between(date, LocalDate.now());
-            if (years < 0 || years > 150) {
-                throw new DomainException("Age must be between 0 and 150 years");
-            }
-        } catch (DateTimeParseException e) {
-            throw new DomainException(
-                    "Birthdate must be in format DD/MM/YYYY", e);
-        }
+    // Reglas compiladas en UserRules: todas las violaciones en una pasada
+    static void validateNewUser(User user) {
+        UserRules.requireValid(UserRules.checkNewUser(user.getUsername(), user.getAttributes()));
+    }
+
+
+    public void validateUpdatableData(Map<String, String> attrs) {
+        UserRules.requireValid(UserRules.checkUpdate(attrs));
     }
 }
@@ -0,0 +1,304 @@
+package com.clinic.users.application.service;
+
+import com.clinic.users.application.port.in.OnboardingUseCase;
+import com.clinic.users.application.port.in.UserCreationUseCase;
+import com.clinic.users.application.port.out.CognitoGateway;
+import com.clinic.users.domain.exception.DomainException;
+import com.clinic.users.domain.exception.UserAlreadyExistsException;
+import com.clinic.users.domain.model.OnboardingStatus;
+import com.clinic.users.domain.model.ProvisioningRequest;
+import com.clinic.users.domain.model.ProvisioningResult;
+import com.clinic.users.domain.model.ProvisioningResult.Status;
+import com.clinic.users.domain.model.User;
+import com.clinic.users.domain.model.UserCreation;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Alta de usuarios como saga de tres pasos; la usan tanto el alta individual
+ * como la masiva y la importacion.
+ *
+ * Con la invitacion suprimida AdminCreateUser ya lleva el password como
+ * temporal; con invitacion no, porque Cognito lo mandaria en claro en el
+ * mail, y genera uno propio. Despues solo quedan los grupos y el
+ * AdminSetUserPassword que lo vuelve permanente (Cognito no crea usuarios con
+ * password permanente en una sola llamada). Esos dos pasos son independientes
+ * y en el alta individual corren en paralelo. Si alguno falla el usuario se
+ * borra, o se deshabilita si el borrado tampoco pasa, para no dejar altas a
+ * medias.
+ *
+ * Con {@code users.onboarding.mode=write-behind} los grupos (y el password,
+ * con {@code defer-password}) van a {@link OnboardingUseCase}; una vez
+ * aceptados por el journal ya no hay nada que compensar.
+ */
+@Slf4j
+@Service
+public class UserCreationService implements UserCreationUseCase {
+
+    private final CognitoGateway gateway;
+    private final OnboardingUseCase onboarding;
+    private final Executor executor;
+    private final boolean writeBehind;
+    private final boolean deferPassword;
+
+    public UserCreationService(
+            CognitoGateway gateway,
+            OnboardingUseCase onboarding,
+            @Qualifier("creationExecutor") Executor executor,
+            @Value("${users.onboarding.mode:sync}") String mode, // sync | write-behind
+            @Value("${users.onboarding.defer-password:false}") boolean deferPassword) {
+        this.gateway = gateway;
+        this.onboarding = onboarding;
+        this.executor = executor;
+        this.writeBehind = "write-behind".equalsIgnoreCase(mode);
+        this.deferPassword = deferPassword;
+    }
+
+    @Override
+    public UserCreation create(ProvisioningRequest request) {
+        if (request == null || request.getUser() == null) {
+            throw new DomainException("User is required");
+        }
+        Timings timings = new Timings();
+
+        log.info("Creating user {}", request.getUser().getUsername());
+
+        validate(request, timings);
+        User created = timings.time("create", () -> adminCreate(request));
+        OnboardingStatus status = completeOrCompensate(created.getUsername(), request, timings, true);
+
+        log.info("User {} created, timings {}", created.getUsername(), timings.asMap());
+        return UserCreation.builder()
+                .user(created)
+                .onboarding(status)
+                .timings(timings.asMap())
+                .build();
+    }
+
+    @Override
+    public ProvisioningResult provision(int index, ProvisioningRequest request) {
+        String username = request.getUser() == null ? null : request.getUser().getUsername();
+        Timings timings = new Timings();
+        try {
+            if (request.getUser() == null) {
+                throw new DomainException("User is required");
+            }
+            validate(request, timings);
+
+            Status status = Status.CREATED;
+            try {
+                timings.time("create", () -> adminCreate(request));
+            } catch (UserAlreadyExistsException e) {
+                if (!request.isAllowExisting()) {
+                    throw e;
+                }
+                checkSameIdentity(request.getUser(), e);
+                status = Status.RESUMED;
+            }
+
+            // el lote ya reparte usuarios en el executor: los pasos van en este hilo
+            if (status == Status.CREATED) {
+                completeOrCompensate(username, request, timings, false);
+            } else {
+                // no se compensa: el usuario no lo creo este intento
+                complete(username, request, timings, false);
+            }
+            return ProvisioningResult.builder()
+                    .index(index)
+                    .username(username)
+                    .status(status)
+                    .build();
+        } catch (RuntimeException e) {
+            log.warn("Provisioning of {} failed at {}: {}", username, timings.failedStep(), e.getMessage());
+            return ProvisioningResult.builder()
+                    .index(index)
+                    .username(username)
+                    .status(Status.FAILED)
+                    .failedStep(timings.failedStep())
+                    .error(e.getMessage())
+                    .build();
+        }
+    }
+
+    // todo lo que Cognito rechazaria se rechaza antes de crear nada
+    private static void validate(ProvisioningRequest request, Timings timings) {
+        timings.time("validate", () -> {
+            UserAdminService.validateNewUser(request.getUser());
+            if (request.getPassword() != null) {
+                UserAdminService.validatePermanentPassword(request.getPassword());
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Reanudar solo si el usuario existente es el de esta fila. El mismo error
+     * sale por una cedula o un email de otra persona, y completar grupos y
+     * password sobre esa cuenta seria pisarle el acceso.
+     */
+    private void checkSameIdentity(User requested, UserAlreadyExistsException conflict) {
+        User existing = gateway.adminGetAll(List.of(requested.getUsername())).get(requested.getUsername());
+        if (existing == null || !sameIdentity(existing, requested)) {
+            throw new UserAlreadyExistsException("User " + requested.getUsername()
+                    + " conflicts with an existing account that has a different document or email", conflict);
+        }
+    }
+
+    private static boolean sameIdentity(User existing, User requested) {
+        String document = requested.getAttributes().get("custom_document");
+        String email = requested.getAttributes().get("email");
+        return document != null && document.equals(existing.getAttributes().get("custom_document"))
+                && email != null && email.equalsIgnoreCase(existing.getAttributes().get("email"));
+    }
+
+    private User adminCreate(ProvisioningRequest request) {
+        String temporaryPassword = request.isSendInvite() ? null : request.getPassword();
+        return gateway.adminCreate(request.getUser(), temporaryPassword, request.isSendInvite());
+    }
+
+    private OnboardingStatus completeOrCompensate(
+            String username, ProvisioningRequest request, Timings timings, boolean parallel) {
+        try {
+            return complete(username, request, timings, parallel);
+        } catch (RuntimeException e) {
+            log.warn("Creation of {} failed after AdminCreateUser, compensating: {}", username, e.getMessage());
+            timings.time("compensate", () -> {
+                compensate(username);
+                return null;
+            });
+            log.info("User {} creation rolled back, timings {}", username, timings.asMap());
+            throw e;
+        }
+    }
+
+    private OnboardingStatus complete(
+            String username, ProvisioningRequest request, Timings timings, boolean parallel) {
+        List<String> groups = request.getGroups() == null ? List.of() : request.getGroups();
+        String password = request.getPassword();
+        if (writeBehind) {
+            return handOff(username, groups, password, timings);
+        }
+        if (parallel) {
+            return runInline(username, groups, password, timings);
+        }
+        if (!groups.isEmpty()) {
+            timings.time("groups", () -> {
+                gateway.adminAddToGroups(username, groups);
+                return null;
+            });
+        }
+        if (password != null) {
+            timings.time("password", () -> {
+                gateway.adminSetPassword(username, password, true);
+                return null;
+            });
+        }
+        return null;
+    }
+
+    // Grupos en el executor, password en el hilo que llama; se esperan ambos
+    // antes de compensar para no borrar con una llamada todavia en vuelo
+    private OnboardingStatus runInline(String username, List<String> groups, String password, Timings timings) {
+        CompletableFuture<Void> groupStep = groups.isEmpty()
+                ? CompletableFuture.completedFuture(null)
+                : CompletableFuture.runAsync(() -> timings.time("groups", () -> {
+                    gateway.adminAddToGroups(username, groups);
+                    return null;
+                }), executor);
+
+        RuntimeException failure = null;
+        if (password != null) {
+            try {
+                timings.time("password", () -> {
+                    gateway.adminSetPassword(username, password, true);
+                    return null;
+                });
+            } catch (RuntimeException e) {
+                failure = e;
+            }
+        }
+        try {
+            groupStep.join();
+        } catch (CompletionException e) {
+            RuntimeException cause = e.getCause() instanceof RuntimeException r ? r : e;
+            if (failure == null) {
+                failure = cause;
+            } else {
+                failure.addSuppressed(cause);
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return null;
+    }
+
+    private OnboardingStatus handOff(String username, List<String> groups, String password, Timings timings) {
+        if (password != null && !deferPassword) {
+            timings.time("password", () -> {
+                gateway.adminSetPassword(username, password, true);
+                return null;
+            });
+        }
+        OnboardingStatus status = timings.time("enqueue", () ->
+                onboarding.completeOnboarding(username, groups, deferPassword ? password : null));
+        return status.isDone() ? null : status;
+    }
+
+    private void compensate(String username) {
+        try {
+            gateway.adminDelete(username);
+            return;
+        } catch (RuntimeException e) {
+            log.warn("Could not delete half-created user {}, disabling it: {}", username, e.getMessage());
+        }
+        try {
+            gateway.adminDisable(username);
+        } catch (RuntimeException e) {
+            log.error("Could not compensate half-created user {}: {}", username, e.getMessage());
+        }
+    }
+
+    /**
+     * Duracion de cada paso y el ultimo que fallo; los pasos paralelos
+     * escriben desde hilos distintos.
+     */
+    private static final class Timings {
+
+        private final Map<String, Duration> steps = Collections.synchronizedMap(new LinkedHashMap<>());
+        private volatile String failedStep;
+
+        <T> T time(String step, Supplier<T> action) {
+            long start = System.nanoTime();
+            try {
+                return action.get();
+            } catch (RuntimeException e) {
+                failedStep = step;
+                throw e;
+            } finally {
+                steps.put(step, Duration.ofNanos(System.nanoTime() - start));
+            }
+        }
+
+        String failedStep() {
+            return failedStep;
+        }
+
+        Map<String, Duration> asMap() {
+            synchronized (steps) {
+                return Collections.unmodifiableMap(new LinkedHashMap<>(steps));
+            }
+        }
+    }
+}
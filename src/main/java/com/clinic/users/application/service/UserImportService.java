@@ -0,0 +1,160 @@
+package com.clinic.users.application.service;
+
+import com.clinic.users.application.port.in.UserImportUseCase;
+import com.clinic.users.application.port.in.UserProvisioningUseCase;
+import com.clinic.users.application.port.out.ImportCheckpointStore;
+import com.clinic.users.domain.exception.DomainException;
+import com.clinic.users.domain.model.ImportRecord;
+import com.clinic.users.domain.model.ImportReport;
+import com.clinic.users.domain.model.ProvisioningRequest;
+import com.clinic.users.domain.model.ProvisioningResult;
+import com.clinic.users.domain.model.ProvisioningResult.Status;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.regex.Pattern;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Importacion por lotes con memoria constante: solo se mantiene en memoria el
+ * lote en curso. Tras cada lote se guarda el checkpoint, asi que al reanudar
+ * solo el lote interrumpido se vuelve a procesar (tolerando usuarios que ya
+ * alcanzaron a crearse).
+ */
+@Slf4j
+@Service
+public class UserImportService implements UserImportUseCase {
+
+    private static final Pattern IMPORT_ID_PATTERN = Pattern.compile("^[A-Za-z0-9_-]{1,64}$");
+
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private final UserProvisioningUseCase provisioning;
+    private final ImportCheckpointStore checkpoints;
+    private final int batchSize;
+
+    public UserImportService(
+            UserProvisioningUseCase provisioning,
+            ImportCheckpointStore checkpoints,
+            @Value("${users.import.batch-size:100}") int batchSize) {
+        this.provisioning = provisioning;
+        this.checkpoints = checkpoints;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public ImportReport importUsers(String importId, Iterator<ImportRecord> records) {
+        if (importId == null || !IMPORT_ID_PATTERN.matcher(importId).matches()) {
+            throw new DomainException("Import id must be 1 to 64 letters, digits, '-' or '_'");
+        }
+
+        long resumeFrom = checkpoints.load(importId);
+        log.info("Starting import {} from record {}", importId, resumeFrom);
+
+        Progress progress = new Progress(resumeFrom);
+        List<ImportRecord> batch = new ArrayList<>(batchSize);
+        long nextRecord = resumeFrom;
+
+        while (records.hasNext()) {
+            ImportRecord record = records.next();
+            if (record.getNumber() < resumeFrom) {
+                progress.skipped++;
+                continue;
+            }
+
+            batch.add(record);
+            nextRecord = record.getNumber() + 1;
+
+            if (batch.size() == batchSize) {
+                flush(batch, progress);
+                checkpoints.save(importId, nextRecord);
+            }
+        }
+
+        if (!batch.isEmpty()) {
+            flush(batch, progress);
+            checkpoints.save(importId, nextRecord);
+        }
+
+        log.info("Import {} finished: {} created, {} resumed, {} invalid, {} failed",
+                importId, progress.created, progress.resumed, progress.invalid, progress.failed);
+
+        return ImportReport.builder()
+                .importId(importId)
+                .resumedFrom(resumeFrom)
+                .skipped(progress.skipped)
+                .created(progress.created)
+                .resumed(progress.resumed)
+                .invalid(progress.invalid)
+                .failed(progress.failed)
+                .errors(progress.errors)
+                .build();
+    }
+
+    private void flush(List<ImportRecord> batch, Progress progress) {
+        List<ImportRecord> readable = new ArrayList<>(batch.size());
+        for (ImportRecord record : batch) {
+            if (record.getRequest() == null) {
+                progress.record(ProvisioningResult.builder()
+                        .index((int) record.getNumber())
+                        .status(Status.INVALID)
+                        .failedStep("parse")
+                        .error(record.getError())
+                        .build());
+            } else {
+                readable.add(record);
+            }
+        }
+
+        if (!readable.isEmpty()) {
+            // el primer lote tras un checkpoint pudo quedar a medias
+            boolean resuming = progress.firstBatch && progress.resumedFrom > 0;
+            List<ProvisioningResult> results = provisioning.provision(readable.stream()
+                    .map(r -> resuming ? allowExisting(r.getRequest()) : r.getRequest())
+                    .toList());
+
+            for (int i = 0; i < results.size(); i++) {
+                progress.record(results.get(i).toBuilder()
+                        .index((int) readable.get(i).getNumber())
+                        .build());
+            }
+        }
+
+        progress.firstBatch = false;
+        batch.clear();
+    }
+
+    private static ProvisioningRequest allowExisting(ProvisioningRequest request) {
+        return request.toBuilder().allowExisting(true).build();
+    }
+
+    private static final class Progress {
+        private final long resumedFrom;
+        private final List<ProvisioningResult> errors = new ArrayList<>();
+        private boolean firstBatch = true;
+        private long skipped;
+        private long created;
+        private long resumed;
+        private long invalid;
+        private long failed;
+
+        private Progress(long resumedFrom) {
+            this.resumedFrom = resumedFrom;
+        }
+
+        private void record(ProvisioningResult result) {
+            switch (result.getStatus()) {
+                case CREATED -> created++;
+                case RESUMED -> resumed++;
+                case INVALID -> invalid++;
+                case FAILED -> failed++;
+            }
+            if (result.getStatus() != Status.CREATED && result.getStatus() != Status.RESUMED
+                    && errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(result);
+            }
+        }
+    }
+}
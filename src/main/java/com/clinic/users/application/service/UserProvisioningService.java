@@ -0,0 +1,106 @@
+package com.clinic.users.application.service;
+
+import com.clinic.users.application.port.in.UserCreationUseCase;
+import com.clinic.users.application.port.in.UserProvisioningUseCase;
+import com.clinic.users.domain.exception.DomainException;
+import com.clinic.users.domain.model.ProvisioningRequest;
+import com.clinic.users.domain.model.ProvisioningResult;
+import com.clinic.users.domain.model.ProvisioningResult.Status;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Alta masiva: valida todas las entradas antes de tocar Cognito y luego pasa
+ * cada usuario por la misma saga que el alta individual
+ * ({@link UserCreationUseCase#provision}), con tantos usuarios en paralelo
+ * como hilos tenga el executor de aprovisionamiento.
+ */
+@Slf4j
+@Service
+public class UserProvisioningService implements UserProvisioningUseCase {
+
+    private final UserCreationUseCase creation;
+    private final Executor executor;
+    private final int maxBatchSize;
+
+    public UserProvisioningService(
+            UserCreationUseCase creation,
+            @Qualifier("provisioningExecutor") Executor executor,
+            @Value("${users.batch.max-size:2000}") int maxBatchSize) {
+        this.creation = creation;
+        this.executor = executor;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    @Override
+    public List<ProvisioningResult> provision(List<ProvisioningRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new DomainException("At least one user is required");
+        }
+        if (requests.size() > maxBatchSize) {
+            throw new DomainException("Batch must have at most " + maxBatchSize + " users");
+        }
+
+        log.info("Provisioning batch of {} users", requests.size());
+
+        ProvisioningResult[] results = new ProvisioningResult[requests.size()];
+        List<Integer> valid = validateAll(requests, results);
+
+        List<CompletableFuture<Void>> pipeline = new ArrayList<>(valid.size());
+        for (int index : valid) {
+            pipeline.add(CompletableFuture.runAsync(
+                    () -> results[index] = creation.provision(index, requests.get(index)), executor));
+        }
+        CompletableFuture.allOf(pipeline.toArray(CompletableFuture[]::new)).join();
+
+        long created = Arrays.stream(results)
+                .filter(r -> r.getStatus() == Status.CREATED || r.getStatus() == Status.RESUMED)
+                .count();
+        log.info("Batch finished: {} created, {} not created", created, results.length - created);
+
+        return List.of(results);
+    }
+
+    private List<Integer> validateAll(List<ProvisioningRequest> requests, ProvisioningResult[] results) {
+        List<Integer> valid = new ArrayList<>();
+        Set<String> usernames = new HashSet<>();
+
+        for (int i = 0; i < requests.size(); i++) {
+            ProvisioningRequest request = requests.get(i);
+            String username = request.getUser() == null ? null : request.getUser().getUsername();
+            try {
+                if (request.getUser() == null) {
+                    throw new DomainException("User is required");
+                }
+                UserAdminService.validateNewUser(request.getUser());
+                if (!usernames.add(username)) {
+                    throw new DomainException("Duplicate username in batch");
+                }
+                valid.add(i);
+            } catch (RuntimeException e) {
+                results[i] = failure(i, username, Status.INVALID, "validate", e);
+            }
+        }
+        return valid;
+    }
+
+    private static ProvisioningResult failure(
+            int index, String username, Status status, String step, RuntimeException e) {
+        return ProvisioningResult.builder()
+                .index(index)
+                .username(username)
+                .status(status)
+                .failedStep(step)
+                .error(e.getMessage())
+                .build();
+    }
+}
@@ -0,0 +1,16 @@
+package com.clinic.users.domain.exception;
+
+/**
+ * El proveedor de identidad no esta disponible (circuito abierto, sin cupo en
+ * el bulkhead o timeout). Se puede reintentar mas tarde.
+ */
+public class ServiceUnavailableException extends DomainException {
+
+    public ServiceUnavailableException(String message) {
+        super(message);
+    }
+
+    public ServiceUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,16 @@
+package com.clinic.users.domain.exception;
+
+/**
+ * El proveedor de identidad rechazo la llamada por cuota, o el limitador local
+ * no pudo conseguir turno a tiempo. Se puede reintentar mas tarde.
+ */
+public class ThrottledException extends DomainException {
+
+    public ThrottledException(String message) {
+        super(message);
+    }
+
+    public ThrottledException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,21 @@
+package com.clinic.users.domain.exception;
+
+import java.util.Map;
+
+/**
+ * Una o mas reglas de datos de usuario no se cumplen. Trae todas las
+ * violaciones (campo -> mensaje), no solo la primera.
+ */
+public class ValidationException extends DomainException {
+
+    private final Map<String, String> violations;
+
+    public ValidationException(Map<String, String> violations) {
+        super(String.join("; ", violations.values()));
+        this.violations = Map.copyOf(violations);
+    }
+
+    public Map<String, String> getViolations() {
+        return violations;
+    }
+}
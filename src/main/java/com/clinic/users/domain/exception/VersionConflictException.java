@@ -0,0 +1,9 @@
+package com.clinic.users.domain.exception;
+
+/** El recurso cambio desde la version que el cliente leyo (If-Match no coincide). */
+public class VersionConflictException extends DomainException {
+
+    public VersionConflictException(String message) {
+        super(message);
+    }
+}
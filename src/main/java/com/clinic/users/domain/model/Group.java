@@ -17,4 +17,36 @@ public enum Group {
     public String getIamName() {
         return iamName;
     }
+
+    /** Bit del grupo dentro de {@link GroupSet}. */
+    int bit() {
+        return 1 << ordinal();
+    }
+
+    /** Grupo por nombre de Cognito; null si no es uno de los conocidos. */
+    public static Group fromIamName(String iamName) {
+        if (iamName == null) {
+            return null;
+        }
+        for (Group group : values()) {
+            if (group.iamName.equals(iamName)) {
+                return group;
+            }
+        }
+        return null;
+    }
+
+    /** Acepta el nombre de Cognito ("doctor") o el del enum ("MEDICO"); null si no existe. */
+    public static Group parse(String name) {
+        Group group = fromIamName(name);
+        if (group != null || name == null) {
+            return group;
+        }
+        for (Group candidate : values()) {
+            if (candidate.name().equalsIgnoreCase(name)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
 }
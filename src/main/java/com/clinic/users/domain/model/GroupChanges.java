@@ -0,0 +1,22 @@
+package com.clinic.users.domain.model;
+
+import java.util.List;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Lo que hizo una reasignacion de grupos: {@code added} y {@code removed}
+ * son las unicas llamadas que llegaron a Cognito.
+ */
+@Value
+@Builder
+public class GroupChanges {
+    String username;
+    List<String> added;
+    List<String> removed;
+    List<String> unchanged;
+
+    public boolean isNoop() {
+        return added.isEmpty() && removed.isEmpty();
+    }
+}
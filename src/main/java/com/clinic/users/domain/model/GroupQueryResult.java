@@ -0,0 +1,21 @@
+package com.clinic.users.domain.model;
+
+import java.time.Instant;
+import java.util.List;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Resultado de una consulta de pertenencia sobre varios grupos.
+ * {@code count} es el total; {@code usernames} trae a lo sumo el limite
+ * pedido, en orden de username.
+ */
+@Value
+@Builder
+public class GroupQueryResult {
+    GroupSet groups;
+    long count;
+    List<String> usernames;
+    /** Momento en que se cargo el indice consultado. */
+    Instant indexLoadedAt;
+}
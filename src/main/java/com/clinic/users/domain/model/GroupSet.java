@@ -0,0 +1,151 @@
+package com.clinic.users.domain.model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+
+/**
+ * Conjunto inmutable de {@link Group} guardado como mascara de bits (un bit
+ * por grupo). Pertenencia, interseccion y union son operaciones sobre un int,
+ * y la lista de nombres de Cognito de cada mascara posible esta precalculada,
+ * asi que pasar de un lado al otro no asigna memoria.
+ */
+public final class GroupSet {
+
+    private static final Group[] GROUPS = Group.values();
+    private static final GroupSet[] BY_MASK = new GroupSet[1 << GROUPS.length];
+
+    static {
+        for (int mask = 0; mask < BY_MASK.length; mask++) {
+            List<String> names = new ArrayList<>(Integer.bitCount(mask));
+            for (Group group : GROUPS) {
+                if ((mask & group.bit()) != 0) {
+                    names.add(group.getIamName());
+                }
+            }
+            BY_MASK[mask] = new GroupSet(mask, List.copyOf(names));
+        }
+    }
+
+    private final int mask;
+    private final List<String> iamNames;
+
+    private GroupSet(int mask, List<String> iamNames) {
+        this.mask = mask;
+        this.iamNames = iamNames;
+    }
+
+    public static GroupSet none() {
+        return BY_MASK[0];
+    }
+
+    public static GroupSet of(Group... groups) {
+        int mask = 0;
+        for (Group group : groups) {
+            mask |= group.bit();
+        }
+        return BY_MASK[mask];
+    }
+
+    public static GroupSet of(Collection<Group> groups) {
+        int mask = 0;
+        for (Group group : groups) {
+            mask |= group.bit();
+        }
+        return BY_MASK[mask];
+    }
+
+    /** Desde nombres de Cognito; los grupos que no estan en {@link Group} se ignoran. */
+    public static GroupSet fromIamNames(Collection<String> iamNames) {
+        if (iamNames == null || iamNames.isEmpty()) {
+            return none();
+        }
+        int mask = 0;
+        for (String name : iamNames) {
+            Group group = Group.fromIamName(name);
+            if (group != null) {
+                mask |= group.bit();
+            }
+        }
+        return BY_MASK[mask];
+    }
+
+    public static GroupSet fromMask(int mask) {
+        if (mask < 0 || mask >= BY_MASK.length) {
+            throw new IllegalArgumentException("Invalid group mask " + mask);
+        }
+        return BY_MASK[mask];
+    }
+
+    public int mask() {
+        return mask;
+    }
+
+    public boolean contains(Group group) {
+        return (mask & group.bit()) != 0;
+    }
+
+    public boolean containsAll(GroupSet other) {
+        return (mask & other.mask) == other.mask;
+    }
+
+    public boolean containsAny(GroupSet other) {
+        return (mask & other.mask) != 0;
+    }
+
+    public GroupSet with(Group group) {
+        return BY_MASK[mask | group.bit()];
+    }
+
+    public GroupSet union(GroupSet other) {
+        return BY_MASK[mask | other.mask];
+    }
+
+    public GroupSet intersection(GroupSet other) {
+        return BY_MASK[mask & other.mask];
+    }
+
+    public GroupSet minus(GroupSet other) {
+        return BY_MASK[mask & ~other.mask];
+    }
+
+    public boolean isEmpty() {
+        return mask == 0;
+    }
+
+    public int size() {
+        return Integer.bitCount(mask);
+    }
+
+    /** Nombres de Cognito en el orden de {@link Group}; lista inmutable compartida. */
+    public List<String> iamNames() {
+        return iamNames;
+    }
+
+    public EnumSet<Group> toEnumSet() {
+        EnumSet<Group> groups = EnumSet.noneOf(Group.class);
+        for (Group group : GROUPS) {
+            if (contains(group)) {
+                groups.add(group);
+            }
+        }
+        return groups;
+    }
+
+    // una instancia por mascara: la identidad basta, pero se mantiene el contrato
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof GroupSet other && other.mask == mask;
+    }
+
+    @Override
+    public int hashCode() {
+        return mask;
+    }
+
+    @Override
+    public String toString() {
+        return iamNames.toString();
+    }
+}
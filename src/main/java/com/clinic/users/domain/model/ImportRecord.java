@@ -0,0 +1,22 @@
+package com.clinic.users.domain.model;
+
+import lombok.Value;
+
+/**
+ * Registro de un archivo de importacion. Si no se pudo leer, {@code request}
+ * es null y {@code error} explica por que.
+ */
+@Value
+public class ImportRecord {
+    long number;
+    ProvisioningRequest request;
+    String error;
+
+    public static ImportRecord of(long number, ProvisioningRequest request) {
+        return new ImportRecord(number, request, null);
+    }
+
+    public static ImportRecord unreadable(long number, String error) {
+        return new ImportRecord(number, null, error);
+    }
+}
@@ -0,0 +1,20 @@
+package com.clinic.users.domain.model;
+
+import java.util.List;
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+public class ImportReport {
+    String importId;
+    /** Registro desde el que se reanudo (0 si es una importacion nueva). */
+    long resumedFrom;
+    long skipped;
+    long created;
+    long resumed;
+    long invalid;
+    long failed;
+    /** Primeros errores encontrados; index es el numero de registro en el archivo. */
+    List<ProvisioningResult> errors;
+}
@@ -0,0 +1,24 @@
+package com.clinic.users.domain.model;
+
+import java.time.Instant;
+import java.util.List;
+import lombok.Builder;
+import lombok.ToString;
+import lombok.Value;
+
+/**
+ * Pasos del alta que no necesitan tener esperando al llamador: agregar a
+ * grupos y, si se permite diferirlo, fijar el password permanente.
+ * Hay a lo sumo un comando pendiente por usuario.
+ */
+@Value
+@Builder(toBuilder = true)
+public class OnboardingCommand {
+    String id;
+    String username;
+    List<String> groups;
+    /** Null si el password se fijo en linea o no hay que fijarlo. */
+    @ToString.Exclude
+    String password;
+    Instant enqueuedAt;
+}
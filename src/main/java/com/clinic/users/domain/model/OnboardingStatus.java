@@ -0,0 +1,25 @@
+package com.clinic.users.domain.model;
+
+import java.time.Instant;
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder(toBuilder = true)
+public class OnboardingStatus {
+
+    public enum State { PENDING, DONE, FAILED }
+
+    String username;
+    String commandId;
+    State state;
+    /** Intentos fallidos hasta ahora; no sobrevive a un reinicio. */
+    int attempts;
+    String lastError;
+    Instant enqueuedAt;
+    Instant updatedAt;
+
+    public boolean isDone() {
+        return state == State.DONE;
+    }
+}
@@ -0,0 +1,22 @@
+package com.clinic.users.domain.model;
+
+import java.util.List;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Alta completa de un usuario: creacion en el IdP, grupos y password permanente.
+ */
+@Value
+@Builder(toBuilder = true)
+public class ProvisioningRequest {
+    User user;
+    List<String> groups;
+    String password;
+    boolean sendInvite;
+    /**
+     * Si el usuario ya existe se asume creado por un intento anterior
+     * interrumpido y se continua con grupos y password.
+     */
+    boolean allowExisting;
+}
@@ -0,0 +1,24 @@
+package com.clinic.users.domain.model;
+
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder(toBuilder = true)
+public class ProvisioningResult {
+
+    public enum Status {
+        CREATED,
+        /** Ya existia (reanudacion de un intento previo); se completaron sus pasos. */
+        RESUMED,
+        INVALID,
+        FAILED
+    }
+
+    int index;
+    String username;
+    Status status;
+    /** Paso en el que fallo (validate, create, groups, password, enqueue). */
+    String failedStep;
+    String error;
+}
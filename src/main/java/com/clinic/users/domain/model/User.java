@@ -1,17 +1,90 @@
 package com.clinic.users.domain.model;
 
+import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
 
-
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 @Data
-@Builder(toBuilder = true)
 public class User {
     private String username;
     private Boolean enabled;
     private Map<String, String> attributes;
     private List<String> groups;
+    /** UserLastModifiedDate de Cognito; null si el origen no lo informa. */
+    private Instant lastModified;
+
+    /** Mascara de {@link #groups}; se recalcula en cada {@link #setGroups}, no al mutar la lista. */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private GroupSet membership;
+
+    @Builder(toBuilder = true)
+    public User(String username, Boolean enabled, Map<String, String> attributes, List<String> groups,
+                Instant lastModified) {
+        this.username = username;
+        this.enabled = enabled;
+        this.attributes = attributes;
+        this.lastModified = lastModified;
+        setGroups(groups);
+    }
+
+    public void setGroups(List<String> groups) {
+        this.groups = groups;
+        this.membership = GroupSet.fromIamNames(groups);
+    }
+
+    /**
+     * Copia con su propia lista de grupos. Los atributos se comparten si son
+     * {@link UserAttributes} (inmutables); si no, se copian.
+     */
+    public User copy() {
+        return toBuilder()
+                .attributes(attributes == null || attributes instanceof UserAttributes
+                        ? attributes
+                        : new HashMap<>(attributes))
+                .groups(groups == null ? null : new ArrayList<>(groups))
+                .build();
+    }
+
+    /**
+     * Aplica altas y bajas de grupos ya confirmadas por Cognito. Deja una
+     * lista nueva: la anterior puede estar compartida con otra copia.
+     */
+    public void applyGroupChanges(Collection<String> add, Collection<String> remove) {
+        boolean adds = add != null && !add.isEmpty();
+        boolean removes = remove != null && !remove.isEmpty();
+        if (!adds && !removes) {
+            return;
+        }
+        List<String> merged = groups == null ? new ArrayList<>() : new ArrayList<>(groups);
+        if (removes) {
+            merged.removeAll(remove);
+        }
+        if (adds) {
+            add.stream().filter(g -> !merged.contains(g)).forEach(merged::add);
+        }
+        setGroups(merged);
+    }
+
+    /** Grupos conocidos del usuario como mascara; los que no estan en {@link Group} no cuentan. */
+    public GroupSet membership() {
+        return membership;
+    }
+
+    public boolean isMemberOf(Group group) {
+        return membership().contains(group);
+    }
 }
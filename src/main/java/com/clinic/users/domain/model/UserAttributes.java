@@ -0,0 +1,268 @@
+package com.clinic.users.domain.model;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.BiConsumer;
+
+/**
+ * Atributos de un usuario, inmutables y compactos: los atributos conocidos
+ * del pool van en un arreglo indexado por {@link #SCHEMA} y los demas en un
+ * mapa aparte. Como no cambian, se comparten entre cache, servicio y
+ * respuesta sin copiarlos.
+ *
+ * Implementa {@code Map<String, String>} de solo lectura; los valores null no
+ * se guardan.
+ */
+public final class UserAttributes extends AbstractMap<String, String> {
+
+    /** Atributos conocidos, en el orden de los slots. */
+    static final String[] SCHEMA = {
+            "sub",
+            "given_name",
+            "family_name",
+            "email",
+            "email_verified",
+            "phone_number",
+            "address",
+            "birthdate",
+            "custom:document",
+            "custom:role",
+            "custom_document",
+            "custom_role",
+            "status"
+    };
+
+    private static final UserAttributes EMPTY = new UserAttributes(new String[SCHEMA.length], Map.of(), 0);
+
+    private final String[] values;
+    private final Map<String, String> overflow;
+    private final int size;
+    /** Calculada a demanda; una carrera solo la calcula dos veces. */
+    private String fingerprint;
+
+    private UserAttributes(String[] values, Map<String, String> overflow, int size) {
+        this.values = values;
+        this.overflow = overflow;
+        this.size = size;
+    }
+
+    public static UserAttributes empty() {
+        return EMPTY;
+    }
+
+    /** La misma instancia si ya es UserAttributes; si no, una copia compacta. */
+    public static UserAttributes of(Map<String, String> attributes) {
+        if (attributes instanceof UserAttributes compact) {
+            return compact;
+        }
+        if (attributes == null || attributes.isEmpty()) {
+            return EMPTY;
+        }
+        Builder builder = builder();
+        attributes.forEach(builder::put);
+        return builder.build();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /** Copia con un atributo agregado o reemplazado (null lo quita). */
+    public UserAttributes with(String key, String value) {
+        Builder builder = toBuilder();
+        builder.put(key, value);
+        return builder.build();
+    }
+
+    /**
+     * Huella de los atributos para usar como ETag: mismos pares clave/valor,
+     * misma huella, sin importar el orden en que se cargaron.
+     */
+    public String fingerprint() {
+        String cached = fingerprint;
+        if (cached == null) {
+            MessageDigest digest = sha256();
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] != null) {
+                    update(digest, SCHEMA[i], values[i]);
+                }
+            }
+            new TreeMap<>(overflow).forEach((key, value) -> update(digest, key, value));
+            cached = HexFormat.of().formatHex(digest.digest(), 0, 12);
+            fingerprint = cached;
+        }
+        return cached;
+    }
+
+    private static void update(MessageDigest digest, String key, String value) {
+        digest.update(key.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update(value.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public Builder toBuilder() {
+        Builder builder = new Builder();
+        System.arraycopy(values, 0, builder.values, 0, values.length);
+        if (!overflow.isEmpty()) {
+            builder.overflow = new HashMap<>(overflow);
+        }
+        return builder;
+    }
+
+    @Override
+    public String get(Object key) {
+        if (!(key instanceof String name)) {
+            return null;
+        }
+        int slot = slot(name);
+        return slot >= 0 ? values[slot] : overflow.get(name);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super String, ? super String> action) {
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                action.accept(SCHEMA[i], values[i]);
+            }
+        }
+        overflow.forEach(action);
+    }
+
+    @Override
+    public Set<Entry<String, String>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<String, String>> iterator() {
+                return new EntryIterator();
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    // switch sobre String: hashCode + equals, sin tabla auxiliar
+    private static int slot(String key) {
+        return switch (key) {
+            case "sub" -> 0;
+            case "given_name" -> 1;
+            case "family_name" -> 2;
+            case "email" -> 3;
+            case "email_verified" -> 4;
+            case "phone_number" -> 5;
+            case "address" -> 6;
+            case "birthdate" -> 7;
+            case "custom:document" -> 8;
+            case "custom:role" -> 9;
+            case "custom_document" -> 10;
+            case "custom_role" -> 11;
+            case "status" -> 12;
+            default -> -1;
+        };
+    }
+
+    private final class EntryIterator implements Iterator<Entry<String, String>> {
+        private int slot = nextSlot(0);
+        private Iterator<Entry<String, String>> rest;
+
+        @Override
+        public boolean hasNext() {
+            return slot < values.length || overflowIterator().hasNext();
+        }
+
+        @Override
+        public Entry<String, String> next() {
+            if (slot < values.length) {
+                Entry<String, String> entry = new SimpleImmutableEntry<>(SCHEMA[slot], values[slot]);
+                slot = nextSlot(slot + 1);
+                return entry;
+            }
+            if (!overflowIterator().hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return overflowIterator().next();
+        }
+
+        private int nextSlot(int from) {
+            int i = from;
+            while (i < values.length && values[i] == null) {
+                i++;
+            }
+            return i;
+        }
+
+        private Iterator<Entry<String, String>> overflowIterator() {
+            if (rest == null) {
+                rest = overflow.entrySet().iterator();
+            }
+            return rest;
+        }
+    }
+
+    public static final class Builder {
+        private final String[] values = new String[SCHEMA.length];
+        private Map<String, String> overflow;
+
+        private Builder() {
+        }
+
+        public Builder put(String key, String value) {
+            int slot = slot(key);
+            if (slot >= 0) {
+                values[slot] = value;
+            } else if (value != null) {
+                if (overflow == null) {
+                    overflow = new HashMap<>();
+                }
+                overflow.put(key, value);
+            } else if (overflow != null) {
+                overflow.remove(key);
+            }
+            return this;
+        }
+
+        public UserAttributes build() {
+            int size = 0;
+            for (String value : values) {
+                if (value != null) {
+                    size++;
+                }
+            }
+            Map<String, String> extra = overflow == null || overflow.isEmpty() ? Map.of() : Map.copyOf(overflow);
+            size += extra.size();
+            return size == 0 ? EMPTY : new UserAttributes(Arrays.copyOf(values, values.length), extra, size);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.clinic.users.domain.model;
+
+import java.time.Duration;
+import java.util.Map;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Resultado del alta de un usuario: el usuario creado, el estado de los
+ * pasos que quedaron en segundo plano (null si todo corrio en linea) y la
+ * duracion de cada paso, en el orden en que terminaron.
+ */
+@Value
+@Builder
+public class UserCreation {
+    User user;
+    OnboardingStatus onboarding;
+    Map<String, Duration> timings;
+
+    public boolean isComplete() {
+        return onboarding == null || onboarding.isDone();
+    }
+}
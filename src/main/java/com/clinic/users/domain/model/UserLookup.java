@@ -0,0 +1,14 @@
+package com.clinic.users.domain.model;
+
+import lombok.Value;
+
+/** Resultado de buscar un username dentro de un lote; {@code user} es null si no existe. */
+@Value
+public class UserLookup {
+    String username;
+    User user;
+
+    public boolean isFound() {
+        return user != null;
+    }
+}
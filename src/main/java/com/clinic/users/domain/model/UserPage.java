@@ -0,0 +1,21 @@
+package com.clinic.users.domain.model;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Pagina de usuarios del pool. {@code nextCursor} es opaco para el llamador
+ * y es null cuando no hay mas paginas.
+ */
+@Value
+@Builder
+public class UserPage {
+    List<User> users;
+    String nextCursor;
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
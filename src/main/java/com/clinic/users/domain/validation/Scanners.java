@@ -0,0 +1,216 @@
+package com.clinic.users.domain.validation;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+/**
+ * Verificadores escritos a mano, un recorrido por caracter y sin reservar
+ * memoria: reemplazan las regex y el DateTimeFormatter de las reglas de usuario.
+ */
+final class Scanners {
+
+    private Scanners() {
+    }
+
+    /** ^[A-Za-z0-9]{1,15}$ */
+    static boolean username(String s) {
+        int n = s.length();
+        if (n == 0 || n > 15) {
+            return false;
+        }
+        for (int i = 0; i < n; i++) {
+            if (!isAlphanumeric(s.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** E.164, como lo exige Cognito: ^\+[1-9]\d{1,14}$ */
+    static boolean phone(String s) {
+        int n = s.length();
+        if (n < 3 || n > 16 || s.charAt(0) != '+' || s.charAt(1) == '0') {
+            return false;
+        }
+        for (int i = 1; i < n; i++) {
+            if (!isDigit(s.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * local@dominio.tld: parte local [A-Za-z0-9._%+-]{1,64}, etiquetas de
+     * dominio [A-Za-z0-9-] sin guion en los extremos, al menos un punto y un
+     * TLD de 2+ letras.
+     */
+    static boolean email(String s) {
+        int n = s.length();
+        if (n < 6 || n > 254) {
+            return false;
+        }
+        int at = -1;
+        for (int i = 0; i < n; i++) {
+            char c = s.charAt(i);
+            if (c == '@') {
+                if (at >= 0) {
+                    return false;
+                }
+                at = i;
+            } else if (at < 0 && !isLocalPartChar(c)) {
+                return false;
+            }
+        }
+        if (at < 1 || at > 64) {
+            return false;
+        }
+
+        int labelStart = at + 1;
+        int labels = 0;
+        for (int i = labelStart; i <= n; i++) {
+            char c = i < n ? s.charAt(i) : '.';
+            if (c == '.') {
+                if (i == labelStart || s.charAt(labelStart) == '-' || s.charAt(i - 1) == '-') {
+                    return false;
+                }
+                labels++;
+                if (i == n) {
+                    return labels >= 2 && isTopLevelDomain(s, labelStart, n);
+                }
+                labelStart = i + 1;
+            } else if (!isAlphanumeric(c) && c != '-') {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /** ^(?=.*[A-Z])(?=.*\d)(?=.*[^A-Za-z0-9]).{8,}$ */
+    static boolean password(String s) {
+        int n = s.length();
+        if (n < 8) {
+            return false;
+        }
+        boolean upper = false;
+        boolean digit = false;
+        boolean special = false;
+        for (int i = 0; i < n; i++) {
+            char c = s.charAt(i);
+            if (isLineTerminator(c)) {
+                return false;
+            }
+            if (c >= 'A' && c <= 'Z') {
+                upper = true;
+            } else if (isDigit(c)) {
+                digit = true;
+            } else if (!(c >= 'a' && c <= 'z')) {
+                special = true;
+            }
+        }
+        return upper && digit && special;
+    }
+
+    static boolean notBlank(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            if (!Character.isWhitespace(s.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Fecha DD/MM/YYYY empaquetada como yyyymmdd, o -1 si no tiene ese
+     * formato o no existe en el calendario (31/02, 29/02 de un año no bisiesto).
+     */
+    static int date(String s) {
+        if (s.length() != 10 || s.charAt(2) != '/' || s.charAt(5) != '/') {
+            return -1;
+        }
+        int day = digits(s, 0, 2);
+        int month = digits(s, 3, 5);
+        int year = digits(s, 6, 10);
+        if (day < 1 || month < 1 || month > 12 || year < 1 || day > daysInMonth(month, year)) {
+            return -1;
+        }
+        return year * 10_000 + month * 100 + day;
+    }
+
+    /** Años cumplidos a hoy, negativo si la fecha es futura. */
+    static int age(int birthdate) {
+        int today = Today.get();
+        if (birthdate > today) {
+            return -1;
+        }
+        int years = today / 10_000 - birthdate / 10_000;
+        return today % 10_000 < birthdate % 10_000 ? years - 1 : years;
+    }
+
+    private static int digits(String s, int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            if (!isDigit(c)) {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static int daysInMonth(int month, int year) {
+        return switch (month) {
+            case 2 -> (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+            case 4, 6, 9, 11 -> 30;
+            default -> 31;
+        };
+    }
+
+    private static boolean isTopLevelDomain(String s, int from, int to) {
+        if (to - from < 2) {
+            return false;
+        }
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            if (!((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z'))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isLocalPartChar(char c) {
+        return isAlphanumeric(c) || c == '.' || c == '_' || c == '%' || c == '+' || c == '-';
+    }
+
+    private static boolean isAlphanumeric(char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || isDigit(c);
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    // lo que '.' no acepta en una regex de Java
+    private static boolean isLineTerminator(char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == 0x2028 || c == 0x2029;
+    }
+
+    /** Fecha de hoy (yyyymmdd) recalculada solo al cambiar el dia. */
+    private static final class Today {
+        private static volatile int today;
+        private static volatile long validUntil;
+
+        static int get() {
+            long now = System.currentTimeMillis();
+            if (now >= validUntil) {
+                ZoneId zone = ZoneId.systemDefault();
+                LocalDate date = LocalDate.now(zone);
+                today = date.getYear() * 10_000 + date.getMonthValue() * 100 + date.getDayOfMonth();
+                validUntil = date.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+            }
+            return today;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.clinic.users.domain.validation;
+
+import com.clinic.users.domain.exception.ValidationException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Reglas de datos de usuario, unica fuente para la capa web, el servicio y
+ * las altas masivas. Cada regla se declara una vez (campo, atributo de
+ * Cognito, verificador, mensajes) y se evalua con {@link Scanners}.
+ *
+ * Se evaluan todas las reglas en una pasada y se devuelven todas las
+ * violaciones (campo -> mensaje). Si los datos son validos no se reserva
+ * memoria: el resultado es {@code Map.of()}.
+ */
+public final class UserRules {
+
+    public static final String PASSWORD_POLICY = "Password does not meet complexity requirements";
+
+    /** Verificador: devuelve null si el valor es valido o el mensaje de error. */
+    @FunctionalInterface
+    private interface Check {
+        String test(String value);
+    }
+
+    /**
+     * @param field     nombre expuesto en la API (detalles del 400)
+     * @param attribute atributo en User.attributes, null para el username
+     * @param missing   mensaje si es obligatorio y falta
+     */
+    private record Rule(String field, String attribute, String missing, Check check) {
+
+        Map<String, String> apply(String value, boolean required, Map<String, String> violations) {
+            String message;
+            if (value == null) {
+                message = required ? missing : null;
+            } else {
+                message = check.test(value);
+            }
+            if (message == null) {
+                return violations;
+            }
+            Map<String, String> result = violations == null ? new LinkedHashMap<>() : violations;
+            result.put(field, message);
+            return result;
+        }
+    }
+
+    private static final Rule USERNAME = new Rule("username", null,
+            "Username must be alphanumeric and up to 15 characters",
+            v -> Scanners.username(v) ? null : "Username must be alphanumeric and up to 15 characters");
+
+    private static final Rule DOCUMENT = new Rule("document", "custom_document",
+            "Document (cédula) is required",
+            v -> Scanners.notBlank(v) ? null : "Document (cédula) is required");
+
+    private static final Rule EMAIL = new Rule("email", "email",
+            "Email is not valid",
+            v -> Scanners.email(v) ? null : "Email is not valid");
+
+    private static final Rule PHONE = new Rule("phone", "phone_number",
+            "Phone must be in E.164 format (+ country code and number)",
+            v -> Scanners.phone(v) ? null : "Phone must be in E.164 format (+ country code and number)");
+
+    private static final Rule ADDRESS = new Rule("address", "address",
+            "Address is required",
+            v -> v.length() <= 30 ? null : "Address must be <= 30 characters");
+
+    private static final Rule BIRTHDATE = new Rule("birthdate", "birthdate",
+            "Birthdate is required",
+            UserRules::checkBirthdate);
+
+    private static final Rule PASSWORD = new Rule("password", "raw_password",
+            "Password must have at least 8 chars, 1 uppercase, 1 number, 1 special char",
+            v -> Scanners.password(v) ? null
+                    : "Password must have at least 8 chars, 1 uppercase, 1 number, 1 special char");
+
+    // alta: todo obligatorio; actualizacion: solo se validan los campos presentes
+    private static final Rule[] NEW_USER = {DOCUMENT, EMAIL, PHONE, ADDRESS, BIRTHDATE, PASSWORD};
+    private static final Rule[] UPDATE = {EMAIL, PHONE, ADDRESS, BIRTHDATE};
+
+    private UserRules() {
+    }
+
+    /** Alta a partir del modelo de dominio (atributos de Cognito). */
+    public static Map<String, String> checkNewUser(String username, Map<String, String> attributes) {
+        Map<String, String> attrs = attributes == null ? Map.of() : attributes;
+        Map<String, String> violations = USERNAME.apply(username, true, null);
+        for (Rule rule : NEW_USER) {
+            violations = rule.apply(attrs.get(rule.attribute()), true, violations);
+        }
+        return violations == null ? Map.of() : violations;
+    }
+
+    /** Alta a partir de cualquier fuente: {@code valueOf} recibe el nombre del campo de la API. */
+    public static Map<String, String> checkNewUserFields(String username, Function<String, String> valueOf) {
+        Map<String, String> violations = USERNAME.apply(username, true, null);
+        for (Rule rule : NEW_USER) {
+            violations = rule.apply(valueOf.apply(rule.field()), true, violations);
+        }
+        return violations == null ? Map.of() : violations;
+    }
+
+    /** Actualizacion parcial: solo los atributos presentes. */
+    public static Map<String, String> checkUpdate(Map<String, String> attributes) {
+        if (attributes == null) {
+            return Map.of();
+        }
+        Map<String, String> violations = null;
+        for (Rule rule : UPDATE) {
+            violations = rule.apply(attributes.get(rule.attribute()), false, violations);
+        }
+        return violations == null ? Map.of() : violations;
+    }
+
+    public static boolean isValidPassword(String password) {
+        return password != null && Scanners.password(password);
+    }
+
+    public static void requireValid(Map<String, String> violations) {
+        if (!violations.isEmpty()) {
+            throw new ValidationException(violations);
+        }
+    }
+
+    private static String checkBirthdate(String value) {
+        int date = Scanners.date(value);
+        if (date < 0) {
+            return "Birthdate must be in format DD/MM/YYYY";
+        }
+        int age = Scanners.age(date);
+        return age < 0 || age > 150 ? "Age must be between 0 and 150 years" : null;
+    }
+}
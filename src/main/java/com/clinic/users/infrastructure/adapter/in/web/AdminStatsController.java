@@ -0,0 +1,81 @@
+package com.clinic.users.infrastructure.adapter.in.web;
+
+import com.clinic.users.infrastructure.adapter.out.cache.CognitoUserCache;
+import com.clinic.users.infrastructure.adapter.out.cognito.CognitoRateLimiter;
+import com.clinic.users.infrastructure.adapter.out.cognito.CognitoResilience;
+import com.clinic.users.infrastructure.adapter.out.cognito.QuotaCategory;
+import com.clinic.users.infrastructure.adapter.out.replica.UserPoolReplica;
+import com.clinic.users.infrastructure.adapter.out.uniqueness.UniqueAttributeIndex;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/admin")
+@RequiredArgsConstructor
+public class AdminStatsController {
+
+    private final ObjectProvider<CognitoUserCache> userCache;
+    private final CognitoRateLimiter rateLimiter;
+    private final CognitoResilience resilience;
+    private final ObjectProvider<UniqueAttributeIndex> uniqueIndex;
+    private final ObjectProvider<UserPoolReplica> replica;
+
+    @GetMapping("/cache/users")
+    public ResponseEntity<Map<String, Object>> userCacheStats() {
+        CognitoUserCache cache = userCache.getIfAvailable();
+        if (cache == null) {
+            return ResponseEntity.ok(Map.of("enabled", false));
+        }
+
+        CacheStats stats = cache.stats();
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("enabled", true);
+        body.put("size", cache.size());
+        body.put("hits", stats.hitCount());
+        body.put("misses", stats.missCount());
+        body.put("hitRate", stats.hitRate());
+        body.put("evictions", stats.evictionCount());
+        return ResponseEntity.ok(body);
+    }
+
+    @GetMapping("/rate-limits")
+    public ResponseEntity<Map<QuotaCategory, Map<String, Object>>> rateLimits() {
+        return ResponseEntity.ok(rateLimiter.snapshot());
+    }
+
+    @GetMapping("/resilience")
+    public ResponseEntity<Map<String, Object>> resilience() {
+        return ResponseEntity.ok(resilience.snapshot());
+    }
+
+    @GetMapping("/replica")
+    public ResponseEntity<Map<String, Object>> replica() {
+        UserPoolReplica pool = replica.getIfAvailable();
+        if (pool == null) {
+            return ResponseEntity.ok(Map.of("enabled", false));
+        }
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("enabled", true);
+        body.putAll(pool.snapshot());
+        return ResponseEntity.ok(body);
+    }
+
+    @GetMapping("/uniqueness")
+    public ResponseEntity<Map<String, Object>> uniqueness() {
+        UniqueAttributeIndex index = uniqueIndex.getIfAvailable();
+        if (index == null) {
+            return ResponseEntity.ok(Map.of("enabled", false));
+        }
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("enabled", true);
+        body.putAll(index.snapshot());
+        return ResponseEntity.ok(body);
+    }
+}
@@ -0,0 +1,67 @@
+package com.clinic.users.infrastructure.adapter.in.web;
+
+import com.clinic.users.application.port.in.GroupQueryUseCase;
+import com.clinic.users.domain.exception.DomainException;
+import com.clinic.users.domain.model.Group;
+import com.clinic.users.domain.model.GroupQueryResult;
+import com.clinic.users.domain.model.GroupSet;
+import com.clinic.users.infrastructure.adapter.in.web.dto.GroupQueryResponse;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Pertenencia sobre varios grupos: {@code groups} acepta nombres de Cognito
+ * ("doctor") o del enum ("MEDICO"), repetido o separado por comas.
+ */
+@RestController
+@RequestMapping("/api/groups")
+@RequiredArgsConstructor
+public class GroupQueryController {
+
+    private final GroupQueryUseCase groupQueryUseCase;
+
+    @GetMapping("/intersection")
+    public ResponseEntity<GroupQueryResponse> intersection(
+            @RequestParam List<String> groups,
+            @RequestParam(defaultValue = "100") int limit) {
+
+        GroupQueryResult result = groupQueryUseCase.membersOfAll(parse(groups), limit);
+        return ResponseEntity.ok(toResponse("intersection", result));
+    }
+
+    @GetMapping("/union")
+    public ResponseEntity<GroupQueryResponse> union(
+            @RequestParam List<String> groups,
+            @RequestParam(defaultValue = "100") int limit) {
+
+        GroupQueryResult result = groupQueryUseCase.membersOfAny(parse(groups), limit);
+        return ResponseEntity.ok(toResponse("union", result));
+    }
+
+    private static GroupSet parse(List<String> names) {
+        GroupSet groups = GroupSet.none();
+        for (String name : names) {
+            Group group = Group.parse(name.trim());
+            if (group == null) {
+                throw new DomainException("Unknown group: " + name);
+            }
+            groups = groups.with(group);
+        }
+        return groups;
+    }
+
+    private static GroupQueryResponse toResponse(String operation, GroupQueryResult result) {
+        return GroupQueryResponse.builder()
+                .operation(operation)
+                .groups(result.getGroups().iamNames())
+                .count(result.getCount())
+                .usernames(result.getUsernames())
+                .indexLoadedAt(result.getIndexLoadedAt())
+                .build();
+    }
+}
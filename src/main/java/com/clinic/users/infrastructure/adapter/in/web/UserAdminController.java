@@ -1,19 +1,40 @@
 package com.clinic.users.infrastructure.adapter.in.web;
 
+import com.clinic.users.application.port.in.OnboardingUseCase;
 import com.clinic.users.application.port.in.UserAdminUseCase;
+import com.clinic.users.application.port.in.UserCreationUseCase;
+import com.clinic.users.application.port.in.UserQueryAsyncUseCase;
 import com.clinic.users.application.port.in.UserQueryUseCase;
+import com.clinic.users.domain.model.GroupChanges;
+import com.clinic.users.domain.model.OnboardingStatus;
 import com.clinic.users.domain.model.User;
+import com.clinic.users.domain.model.UserAttributes;
+import com.clinic.users.domain.model.UserCreation;
+import com.clinic.users.domain.model.UserPage;
 import com.clinic.users.infrastructure.adapter.in.web.dto.*;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
-import java.util.HashMap;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @Slf4j
 @RestController
@@ -21,8 +42,16 @@ import org.springframework.web.bind.annotation.*;
 @RequiredArgsConstructor
 public class UserAdminController {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final String SERVER_TIMING_HEADER = "Server-Timing";
+    static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     private final UserAdminUseCase adminUseCase;
+    private final UserCreationUseCase creationUseCase;
     private final UserQueryUseCase queryUseCase;
+    private final UserQueryAsyncUseCase queryAsyncUseCase;
+    private final OnboardingUseCase onboardingUseCase;
+    private final ObjectMapper objectMapper;
 
 
     @PostMapping
@@ -31,35 +60,32 @@ public class UserAdminController {
 
         log.info("Creating user {}", request.getUsername());
 
-        Map<String, String> attrs = new HashMap<>();
-        attrs.put("given_name", request.getFirstName());
-        attrs.put("family_name", request.getLastName());
-        attrs.put("email", request.getEmail());
-        attrs.put("phone_number", request.getPhone());
-        attrs.put("address", request.getAddress());
-        attrs.put("birthdate", request.getBirthdate());
-        attrs.put("custom_document", request.getDocument());
-        attrs.put("custom_role", request.getRole().name());
-        attrs.put("status", "ACTIVE");
-        attrs.put("raw_password", request.getPassword());
-
-        User user = User.builder()
-                .username(request.getUsername())
-                .enabled(true)
-                .attributes(attrs)
-                .build();
-
-        User created = adminUseCase.createUser(user, request.isSendInvite());
-
-        adminUseCase.addUserToGroups(
-                created.getUsername(),
-                List.of(request.getRole().getIamName()));
+        // grupos y password: en linea o al journal segun users.onboarding.*
+        UserCreation creation = creationUseCase.create(UserRequestMapper.toProvisioning(request));
+        User created = creation.getUser();
+
+        ResponseEntity.BodyBuilder response = creation.isComplete()
+                ? ResponseEntity.ok()
+                : ResponseEntity.accepted()
+                        .location(URI.create("/api/users/" + created.getUsername() + "/onboarding"));
+        return response
+                .header(SERVER_TIMING_HEADER, serverTiming(creation.getTimings()))
+                .body(toResponse(created));
+    }
 
-        adminUseCase.setPermanentPassword(
-                created.getUsername(),
-                request.getPassword());
+    // Server-Timing: create;dur=84.2, password;dur=41.7, groups;dur=43.0
+    static String serverTiming(Map<String, Duration> timings) {
+        StringJoiner header = new StringJoiner(", ");
+        timings.forEach((step, duration) -> header.add(
+                String.format(Locale.ROOT, "%s;dur=%.1f", step, duration.toNanos() / 1_000_000.0)));
+        return header.toString();
+    }
 
-        return ResponseEntity.ok(toResponse(created));
+    @GetMapping("/{username}/onboarding")
+    public ResponseEntity<OnboardingStatus> onboardingStatus(@PathVariable String username) {
+        return onboardingUseCase.status(username)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
 
@@ -71,37 +97,30 @@ public class UserAdminController {
     }
 
 
+    /**
+     * Solo los campos enviados que cambian llegan a Cognito. Con If-Match
+     * (el ETag de un GET o PATCH anterior) responde 412 si el usuario cambio
+     * entretanto, en vez de pisar ese cambio.
+     */
     @PatchMapping("/{username}")
     public ResponseEntity<UserResponse> updateUser(
             @PathVariable String username,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody UpdateUserRequest request) {
 
         log.info("Updating user {}", username);
 
-        User existing = queryUseCase.findByUsername(username);
+        Map<String, String> changes = new LinkedHashMap<>();
+        changes.put("email", request.getEmail());
+        changes.put("phone_number", request.getPhone());
+        changes.put("address", request.getAddress());
+        changes.put("birthdate", request.getBirthdate());
 
-        Map<String, String> attrs = new HashMap<>(existing.getAttributes());
+        User updated = adminUseCase.updateAttributes(username, changes, version(ifMatch));
 
-        if (request.getEmail() != null) {
-            attrs.put("email", request.getEmail());
-        }
-        if (request.getPhone() != null) {
-            attrs.put("phone_number", request.getPhone());
-        }
-        if (request.getAddress() != null) {
-            attrs.put("address", request.getAddress());
-        }
-        if (request.getBirthdate() != null) {
-            attrs.put("birthdate", request.getBirthdate());
-        }
-
-        User updated = User.builder()
-                .username(existing.getUsername())
-                .enabled(existing.getEnabled())
-                .attributes(attrs)
-                .build();
-
-        return ResponseEntity.ok(toResponse(updated));
+        return ResponseEntity.ok()
+                .eTag(etag(updated))
+                .body(toResponse(updated));
     }
 
     @PostMapping("/{username}/password")
@@ -119,35 +138,93 @@ public class UserAdminController {
         return ResponseEntity.noContent().build();
     }
 
-    @GetMapping("/{username}")
-    public ResponseEntity<UserResponse> getByUsername(@PathVariable String username) {
-        User user = queryUseCase.findByUsername(username);
+    @PutMapping("/{username}/groups")
+    public ResponseEntity<GroupChanges> setGroups(
+            @PathVariable String username,
+            @Valid @RequestBody SetGroupsRequest request) {
+        return ResponseEntity.ok(adminUseCase.setGroups(username, request.getGroups()));
+    }
 
-        return ResponseEntity.ok(toResponse(user));
+    // Las lecturas devuelven un resultado diferido: el hilo de Tomcat se libera
+    // mientras Cognito responde (con aws.cognito.async.enabled=true)
+    @GetMapping("/{username}")
+    public CompletableFuture<ResponseEntity<UserResponse>> getByUsername(@PathVariable String username) {
+        return queryAsyncUseCase.findByUsername(username)
+                .thenApply(user -> ResponseEntity.ok()
+                        .eTag(etag(user))
+                        .body(toResponse(user)));
     }
 
     @GetMapping
-    public ResponseEntity<List<UserResponse>> list(
+    public CompletableFuture<ResponseEntity<List<UserResponse>>> list(
             @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(required = false) String filter,
+            @RequestParam(required = false) String cursor) {
+
+        return queryAsyncUseCase.list(limit, filter, cursor).thenApply(page -> {
+            List<UserResponse> users =
+                    page.getUsers().stream()
+                            .map(UserAdminController::toResponse)
+                            .toList();
+
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (page.hasNext()) {
+                response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+            }
+            return response.body(users);
+        });
+    }
+
+    /**
+     * Recorre todo el pool y escribe un usuario por linea (NDJSON) a medida
+     * que llegan las paginas, sin acumular la lista en memoria.
+     */
+    @GetMapping(produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> stream(
+            @RequestParam(defaultValue = "60") int limit,
             @RequestParam(required = false) String filter) {
 
-        List<UserResponse> users =
-                queryUseCase.list(limit, filter).stream()
-                        .map(this::toResponse)
-                        .toList();
+        StreamingResponseBody body = out -> {
+            try (Stream<User> users = queryUseCase.streamAll(limit, filter)) {
+                users.forEach(u -> writeLine(out, toResponse(u)));
+            }
+        };
 
-        return ResponseEntity.ok(users);
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
     }
 
-    private UserResponse toResponse(User u) {
-        String status = Boolean.TRUE.equals(u.getEnabled()) ? "ACTIVE" : "INACTIVE";
-        Map<String, String> attrs = new HashMap<>(u.getAttributes());
-        attrs.put("status", status);
+    private void writeLine(OutputStream out, UserResponse user) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(user));
+            out.write('\n');
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 
+    static String etag(User user) {
+        return "\"" + UserAttributes.of(user.getAttributes()).fingerprint() + "\"";
+    }
+
+    // If-Match: "abc" o W/"abc"; "*" no pide version concreta
+    static String version(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        return tag.replace("\"", "");
+    }
+
+    static UserResponse toResponse(User u) {
+        String status = Boolean.TRUE.equals(u.getEnabled()) ? "ACTIVE" : "INACTIVE";
         return UserResponse.builder()
                 .username(u.getUsername())
                 .enabled(u.getEnabled())
-                .attributes(attrs)
+                .attributes(UserAttributes.of(u.getAttributes()).with("status", status))
                 .groups(u.getGroups())
                 .build();
     }
@@ -0,0 +1,138 @@
+package com.clinic.users.infrastructure.adapter.in.web;
+
+import com.clinic.users.application.port.in.UserImportUseCase;
+import com.clinic.users.application.port.in.UserProvisioningUseCase;
+import com.clinic.users.application.port.in.UserQueryUseCase;
+import com.clinic.users.domain.model.ImportReport;
+import com.clinic.users.domain.model.ProvisioningResult;
+import com.clinic.users.domain.model.ProvisioningResult.Status;
+import com.clinic.users.domain.model.UserLookup;
+import com.clinic.users.infrastructure.adapter.in.web.dto.BatchCreateUsersRequest;
+import com.clinic.users.infrastructure.adapter.in.web.dto.BatchCreateUsersResponse;
+import com.clinic.users.infrastructure.adapter.in.web.dto.BatchGetUsersRequest;
+import com.clinic.users.infrastructure.adapter.in.web.dto.BatchGetUsersResponse;
+import com.clinic.users.infrastructure.adapter.in.web.dto.BatchUserResult;
+import com.clinic.users.infrastructure.adapter.in.web.dto.ImportUsersResponse;
+import com.clinic.users.infrastructure.adapter.in.web.dto.UserLookupResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Valid;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Operaciones por lotes sobre /api/users (estilo "custom method": /api/users:batch).
+ */
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+public class UserBatchController {
+
+    private final UserProvisioningUseCase provisioningUseCase;
+    private final UserQueryUseCase queryUseCase;
+    private final UserImportUseCase importUseCase;
+    private final ObjectMapper objectMapper;
+
+    @PostMapping("/api/users:batch")
+    public ResponseEntity<BatchCreateUsersResponse> createUsers(
+            @Valid @RequestBody BatchCreateUsersRequest request) {
+
+        log.info("Batch create of {} users", request.getUsers().size());
+
+        List<ProvisioningResult> results = provisioningUseCase.provision(
+                request.getUsers().stream()
+                        .map(UserRequestMapper::toProvisioning)
+                        .toList());
+
+        return ResponseEntity.ok(BatchCreateUsersResponse.builder()
+                .total(results.size())
+                .created(count(results, Status.CREATED))
+                .invalid(count(results, Status.INVALID))
+                .failed(count(results, Status.FAILED))
+                .results(results.stream().map(UserBatchController::toResult).toList())
+                .build());
+    }
+
+    /**
+     * Un resultado por username, en el orden pedido. Un username que no existe
+     * no falla el lote: vuelve con {@code found=false}.
+     */
+    @PostMapping("/api/users:batchGet")
+    public ResponseEntity<BatchGetUsersResponse> getUsers(@Valid @RequestBody BatchGetUsersRequest request) {
+        List<UserLookup> lookups = queryUseCase.findAll(request.getUsernames());
+
+        return ResponseEntity.ok(BatchGetUsersResponse.builder()
+                .requested(lookups.size())
+                .found((int) lookups.stream().filter(UserLookup::isFound).count())
+                .results(lookups.stream().map(UserBatchController::toResult).toList())
+                .build());
+    }
+
+    /**
+     * Importa un archivo CSV (con cabecera) o NDJSON enviado como cuerpo de la
+     * peticion. Reenviar el mismo archivo con el mismo importId reanuda desde el
+     * ultimo checkpoint.
+     */
+    @PostMapping(path = "/api/users:import", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<ImportUsersResponse> importUsers(
+            @RequestParam String importId,
+            @RequestHeader("Content-Type") MediaType contentType,
+            InputStream body) throws IOException {
+
+        UserImportReader.Format format = contentType.isCompatibleWith(MediaType.parseMediaType("text/csv"))
+                ? UserImportReader.Format.CSV
+                : UserImportReader.Format.NDJSON;
+
+        log.info("Importing users. importId={}, format={}", importId, format);
+
+        ImportReport report;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            report = importUseCase.importUsers(importId, new UserImportReader(reader, format, objectMapper));
+        }
+
+        return ResponseEntity.ok(ImportUsersResponse.builder()
+                .importId(report.getImportId())
+                .resumedFrom(report.getResumedFrom())
+                .skipped(report.getSkipped())
+                .created(report.getCreated())
+                .resumed(report.getResumed())
+                .invalid(report.getInvalid())
+                .failed(report.getFailed())
+                .errors(report.getErrors().stream().map(UserBatchController::toResult).toList())
+                .build());
+    }
+
+    private static int count(List<ProvisioningResult> results, Status status) {
+        return (int) results.stream().filter(r -> r.getStatus() == status).count();
+    }
+
+    private static UserLookupResult toResult(UserLookup lookup) {
+        return UserLookupResult.builder()
+                .username(lookup.getUsername())
+                .found(lookup.isFound())
+                .user(lookup.isFound() ? UserAdminController.toResponse(lookup.getUser()) : null)
+                .build();
+    }
+
+    private static BatchUserResult toResult(ProvisioningResult r) {
+        return BatchUserResult.builder()
+                .index(r.getIndex())
+                .username(r.getUsername())
+                .status(r.getStatus().name())
+                .failedStep(r.getFailedStep())
+                .error(r.getError())
+                .build();
+    }
+}
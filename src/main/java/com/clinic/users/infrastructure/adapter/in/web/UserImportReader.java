@@ -0,0 +1,156 @@
+package com.clinic.users.infrastructure.adapter.in.web;
+
+import com.clinic.users.domain.exception.DomainException;
+import com.clinic.users.domain.model.Group;
+import com.clinic.users.domain.model.ImportRecord;
+import com.clinic.users.infrastructure.adapter.in.web.dto.CreateUserRequest;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Lee un archivo de importacion linea por linea (CSV con cabecera o NDJSON)
+ * sin cargarlo en memoria. Una linea que no se puede interpretar se entrega
+ * como registro ilegible, no corta la importacion. Los registros se numeran
+ * desde 0 ignorando la cabecera y las lineas vacias, asi un reintento con el
+ * mismo archivo produce la misma numeracion.
+ */
+final class UserImportReader implements Iterator<ImportRecord> {
+
+    enum Format { CSV, NDJSON }
+
+    private final BufferedReader reader;
+    private final Format format;
+    private final ObjectReader jsonReader;
+    private Map<String, Integer> columns;
+    private long number;
+    private String pending;
+
+    UserImportReader(BufferedReader reader, Format format, ObjectMapper objectMapper) {
+        this.reader = reader;
+        this.format = format;
+        this.jsonReader = objectMapper.readerFor(CreateUserRequest.class);
+        if (format == Format.CSV) {
+            String header = nextLine();
+            if (header == null) {
+                throw new DomainException("CSV file must start with a header row");
+            }
+            this.columns = indexColumns(splitCsv(header));
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (pending == null) {
+            pending = nextLine();
+        }
+        return pending != null;
+    }
+
+    @Override
+    public ImportRecord next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        String line = pending;
+        pending = null;
+        long current = number++;
+
+        try {
+            CreateUserRequest request = format == Format.CSV ? fromCsv(line) : fromJson(line);
+            return ImportRecord.of(current, UserRequestMapper.toProvisioning(request));
+        } catch (RuntimeException | JsonProcessingException e) {
+            return ImportRecord.unreadable(current, e.getMessage());
+        }
+    }
+
+    private CreateUserRequest fromJson(String line) throws JsonProcessingException {
+        return jsonReader.readValue(line);
+    }
+
+    private CreateUserRequest fromCsv(String line) {
+        List<String> values = splitCsv(line);
+        String role = column(values, "role");
+        return CreateUserRequest.builder()
+                .username(column(values, "username"))
+                .firstName(column(values, "firstName"))
+                .lastName(column(values, "lastName"))
+                .document(column(values, "document"))
+                .email(column(values, "email"))
+                .phone(column(values, "phone"))
+                .address(column(values, "address"))
+                .birthdate(column(values, "birthdate"))
+                .password(column(values, "password"))
+                .role(role == null ? null : Group.valueOf(role.trim().toUpperCase()))
+                .sendInvite(Boolean.parseBoolean(column(values, "sendInvite")))
+                .build();
+    }
+
+    private String column(List<String> values, String name) {
+        Integer index = columns.get(name.toLowerCase());
+        if (index == null || index >= values.size()) {
+            return null;
+        }
+        String value = values.get(index);
+        return value.isEmpty() ? null : value;
+    }
+
+    private static Map<String, Integer> indexColumns(List<String> header) {
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(), i);
+        }
+        return columns;
+    }
+
+    // CSV de una linea por registro; soporta campos entre comillas y "" escapadas
+    static List<String> splitCsv(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        values.add(field.toString());
+        return values;
+    }
+
+    private String nextLine() {
+        try {
+            String line;
+            do {
+                line = reader.readLine();
+            } while (line != null && line.isBlank());
+            return line;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.clinic.users.infrastructure.adapter.in.web;
+
+import com.clinic.users.domain.model.ProvisioningRequest;
+import com.clinic.users.domain.model.User;
+import com.clinic.users.domain.model.UserAttributes;
+import com.clinic.users.infrastructure.adapter.in.web.dto.CreateUserRequest;
+import java.util.List;
+
+/**
+ * Traduce los DTO de alta a modelo de dominio. Compartido por el alta
+ * individual y las altas masivas.
+ */
+final class UserRequestMapper {
+
+    private UserRequestMapper() {
+    }
+
+    static User toUser(CreateUserRequest request) {
+        UserAttributes attrs = UserAttributes.builder()
+                .put("given_name", request.getFirstName())
+                .put("family_name", request.getLastName())
+                .put("email", request.getEmail())
+                .put("phone_number", request.getPhone())
+                .put("address", request.getAddress())
+                .put("birthdate", request.getBirthdate())
+                .put("custom_document", request.getDocument())
+                .put("custom_role", request.getRole() == null ? null : request.getRole().name())
+                .put("status", "ACTIVE")
+                .put("raw_password", request.getPassword())
+                .build();
+
+        return User.builder()
+                .username(request.getUsername())
+                .enabled(true)
+                .attributes(attrs)
+                .build();
+    }
+
+    static ProvisioningRequest toProvisioning(CreateUserRequest request) {
+        return ProvisioningRequest.builder()
+                .user(toUser(request))
+                .groups(request.getRole() == null ? List.of() : List.of(request.getRole().getIamName()))
+                .password(request.getPassword())
+                .sendInvite(request.isSendInvite())
+                .build();
+    }
+}
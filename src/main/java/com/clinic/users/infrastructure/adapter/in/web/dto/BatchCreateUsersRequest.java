@@ -0,0 +1,16 @@
+package com.clinic.users.infrastructure.adapter.in.web.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import java.util.List;
+import lombok.Data;
+
+/**
+ * Cada entrada se valida con las reglas de dominio y se reporta por separado:
+ * una entrada invalida no rechaza el lote completo.
+ */
+@Data
+public class BatchCreateUsersRequest {
+
+    @NotEmpty(message = "Users list must not be empty")
+    private List<CreateUserRequest> users;
+}
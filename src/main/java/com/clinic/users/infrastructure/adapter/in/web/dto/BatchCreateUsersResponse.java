@@ -0,0 +1,15 @@
+package com.clinic.users.infrastructure.adapter.in.web.dto;
+
+import java.util.List;
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+public class BatchCreateUsersResponse {
+    int total;
+    int created;
+    int invalid;
+    int failed;
+    List<BatchUserResult> results;
+}
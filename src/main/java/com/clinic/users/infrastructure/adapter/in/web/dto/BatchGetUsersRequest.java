@@ -0,0 +1,12 @@
+package com.clinic.users.infrastructure.adapter.in.web.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import java.util.List;
+import lombok.Data;
+
+@Data
+public class BatchGetUsersRequest {
+
+    @NotEmpty(message = "Usernames list must not be empty")
+    private List<String> usernames;
+}
@@ -0,0 +1,13 @@
+package com.clinic.users.infrastructure.adapter.in.web.dto;
+
+import java.util.List;
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+public class BatchGetUsersResponse {
+    int requested;
+    int found;
+    List<UserLookupResult> results;
+}
@@ -0,0 +1,16 @@
+package com.clinic.users.infrastructure.adapter.in.web.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchUserResult {
+    int index;
+    String username;
+    String status;
+    String failedStep;
+    String error;
+}
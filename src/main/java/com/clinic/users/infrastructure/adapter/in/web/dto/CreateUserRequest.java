@@ -1,18 +1,18 @@
 package com.clinic.users.infrastructure.adapter.in.web.dto;
 
 import com.clinic.users.domain.model.Group;
-import jakarta.validation.constraints.*;
+import com.clinic.users.infrastructure.adapter.in.web.validation.ValidNewUser;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
 import lombok.Builder;
 import lombok.Data;
 
+// username, documento, email, telefono, direccion, fecha y password: reglas de dominio (UserRules)
 @Data
 @Builder
+@ValidNewUser
 public class CreateUserRequest {
 
-    @NotBlank
-    @Size(max = 15)
-    @Pattern(regexp = "^[A-Za-z0-9]+$",
-            message = "Username must be alphanumeric and up to 15 characters")
     private String username;
 
     @NotBlank
@@ -21,32 +21,16 @@ public class CreateUserRequest {
     @NotBlank
     private String lastName;
 
-    @NotBlank
     private String document;
 
-    @NotBlank
-    @Email
     private String email;
 
-    @NotBlank
-    @Pattern(
-            regexp = "^\\+[0-9]{1,15}$",
-            message = "Phone must start with + and contain digits only")
     private String phone;
 
-    @NotBlank
-    @Size(max = 30)
     private String address;
 
-    @NotBlank
-    @Pattern(regexp = "^\\d{2}/\\d{2}/\\d{4}$",
-            message = "Birthdate must be in format DD/MM/YYYY")
     private String birthdate;
 
-    @NotBlank
-    @Size(min = 8)
-    @Pattern(regexp = "^(?=.*[A-Z])(?=.*\\d)(?=.*[^A-Za-z0-9]).{8,}$",
-            message = "Password must have at least 8 chars, 1 uppercase, 1 number and 1 special char")
     private String password;
 
     @NotNull
@@ -0,0 +1,17 @@
+package com.clinic.users.infrastructure.adapter.in.web.dto;
+
+import java.time.Instant;
+import java.util.List;
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+public class GroupQueryResponse {
+    /** "intersection" o "union". */
+    String operation;
+    List<String> groups;
+    long count;
+    List<String> usernames;
+    Instant indexLoadedAt;
+}
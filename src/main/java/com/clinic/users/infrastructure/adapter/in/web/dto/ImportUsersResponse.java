@@ -0,0 +1,19 @@
+package com.clinic.users.infrastructure.adapter.in.web.dto;
+
+import java.util.List;
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+public class ImportUsersResponse {
+    String importId;
+    long resumedFrom;
+    long skipped;
+    long created;
+    long resumed;
+    long invalid;
+    long failed;
+    /** index = numero de registro en el archivo (desde 0, sin cabecera). */
+    List<BatchUserResult> errors;
+}
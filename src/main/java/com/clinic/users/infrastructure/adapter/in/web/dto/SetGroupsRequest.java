@@ -0,0 +1,13 @@
+package com.clinic.users.infrastructure.adapter.in.web.dto;
+
+import jakarta.validation.constraints.NotNull;
+import java.util.List;
+import lombok.Data;
+
+@Data
+public class SetGroupsRequest {
+
+    /** Conjunto final de grupos; una lista vacia saca al usuario de todos. */
+    @NotNull(message = "Groups list is required")
+    private List<String> groups;
+}
@@ -0,0 +1,14 @@
+package com.clinic.users.infrastructure.adapter.in.web.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UserLookupResult {
+    String username;
+    boolean found;
+    UserResponse user;
+}
@@ -1,6 +1,10 @@
 package com.clinic.users.infrastructure.adapter.in.web.error;
 
 import com.clinic.users.domain.exception.DomainException;
+import com.clinic.users.domain.exception.ServiceUnavailableException;
+import com.clinic.users.domain.exception.ThrottledException;
+import com.clinic.users.domain.exception.ValidationException;
+import com.clinic.users.domain.exception.VersionConflictException;
 import java.util.HashMap;
 import java.util.Map;
 import org.springframework.http.HttpStatus;
@@ -13,6 +17,40 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    @ExceptionHandler(ThrottledException.class)
+    public ResponseEntity<Map<String, Object>> handleThrottled(ThrottledException ex) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("error", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header("Retry-After", "1")
+                .body(body);
+    }
+
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<Map<String, Object>> handleUnavailable(ServiceUnavailableException ex) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("error", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header("Retry-After", "5")
+                .body(body);
+    }
+
+    @ExceptionHandler(VersionConflictException.class)
+    public ResponseEntity<Map<String, Object>> handleVersionConflict(VersionConflictException ex) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("error", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(body);
+    }
+
+    // mismo formato que las violaciones de bean validation
+    @ExceptionHandler(ValidationException.class)
+    public ResponseEntity<Map<String, Object>> handleRuleViolations(ValidationException ex) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("error", "Validation failed");
+        body.put("details", ex.getViolations());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(body);
+    }
+
     @ExceptionHandler(DomainException.class)
     public ResponseEntity<Map<String, Object>> handleDomainException(DomainException ex) {
         Map<String, Object> body = new HashMap<>();
@@ -0,0 +1,37 @@
+package com.clinic.users.infrastructure.adapter.in.web.validation;
+
+import com.clinic.users.domain.validation.UserRules;
+import com.clinic.users.infrastructure.adapter.in.web.dto.CreateUserRequest;
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+import java.util.Map;
+
+public class NewUserValidator implements ConstraintValidator<ValidNewUser, CreateUserRequest> {
+
+    @Override
+    public boolean isValid(CreateUserRequest request, ConstraintValidatorContext context) {
+        if (request == null) {
+            return true;
+        }
+
+        Map<String, String> violations = UserRules.checkNewUserFields(request.getUsername(), field -> switch (field) {
+            case "document" -> request.getDocument();
+            case "email" -> request.getEmail();
+            case "phone" -> request.getPhone();
+            case "address" -> request.getAddress();
+            case "birthdate" -> request.getBirthdate();
+            case "password" -> request.getPassword();
+            default -> null;
+        });
+        if (violations.isEmpty()) {
+            return true;
+        }
+
+        context.disableDefaultConstraintViolation();
+        violations.forEach((field, message) -> context
+                .buildConstraintViolationWithTemplate(message)
+                .addPropertyNode(field)
+                .addConstraintViolation());
+        return false;
+    }
+}
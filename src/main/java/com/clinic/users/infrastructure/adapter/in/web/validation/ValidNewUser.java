@@ -0,0 +1,24 @@
+package com.clinic.users.infrastructure.adapter.in.web.validation;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Aplica las reglas de dominio de {@link com.clinic.users.domain.validation.UserRules}
+ * al DTO de alta, con una violacion por campo.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Constraint(validatedBy = NewUserValidator.class)
+public @interface ValidNewUser {
+
+    String message() default "Invalid user data";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+}
@@ -0,0 +1,66 @@
+package com.clinic.users.infrastructure.adapter.out.cache;
+
+import com.clinic.users.application.port.out.AsyncCognitoGateway;
+import com.clinic.users.domain.exception.ServiceUnavailableException;
+import com.clinic.users.domain.model.User;
+import com.clinic.users.domain.model.UserPage;
+import com.clinic.users.infrastructure.concurrent.Futures;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Lo mismo que {@link CachingCognitoGateway} y {@link CoalescingCognitoGateway}
+ * para el gateway no bloqueante: comparte la {@link CognitoUserCache} con la
+ * cadena bloqueante (las escrituras de esa cadena la mantienen al dia) y las
+ * lecturas concurrentes de un mismo username esperan una sola llamada.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class CachingAsyncCognitoGateway implements AsyncCognitoGateway {
+
+    private final AsyncCognitoGateway delegate;
+    private final CognitoUserCache cache;
+    private final SingleFlight<String, User> flights = new SingleFlight<>();
+
+    @Override
+    public CompletableFuture<User> adminGet(String username) {
+        User cached = cache.getIfPresent(username);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        CompletableFuture<User> load = flights.executeAsync(username, () -> delegate.adminGet(username)
+                .whenComplete((user, error) -> {
+                    if (error == null && user != null) {
+                        cache.put(username, user);
+                    }
+                }));
+
+        // cada llamador recibe su propia copia
+        return load.handle((user, error) -> {
+            if (error == null) {
+                return user != null ? user.copy() : null;
+            }
+            Throwable cause = Futures.unwrap(error);
+            User stale = cause instanceof ServiceUnavailableException ? cache.getStale(username) : null;
+            if (stale == null) {
+                throw new CompletionException(cause);
+            }
+            log.warn("Serving last known copy of {}: {}", username, cause.getMessage());
+            return stale;
+        });
+    }
+
+    @Override
+    public CompletableFuture<UserPage> listUsers(int limit, String filter, String cursor) {
+        return delegate.listUsers(limit, filter, cursor);
+    }
+
+    @Override
+    public CompletableFuture<List<String>> listGroupsForUser(String username) {
+        return delegate.listGroupsForUser(username);
+    }
+}
@@ -0,0 +1,187 @@
+package com.clinic.users.infrastructure.adapter.out.cache;
+
+import com.clinic.users.application.port.out.CognitoGateway;
+import com.clinic.users.domain.exception.ServiceUnavailableException;
+import com.clinic.users.domain.model.User;
+import com.clinic.users.domain.model.UserAttributes;
+import com.clinic.users.domain.model.UserPage;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Decorador read-through de {@link CognitoGateway}: las lecturas por username
+ * salen de {@link CognitoUserCache} y cada escritura actualiza o invalida
+ * exactamente la entrada afectada. Con Cognito no disponible las lecturas
+ * caen al ultimo valor conocido, si lo hay.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class CachingCognitoGateway implements CognitoGateway {
+
+    private final CognitoGateway delegate;
+    private final CognitoUserCache cache;
+
+    @Override
+    public User adminCreate(User user, String temporaryPassword, boolean sendInvite) {
+        try {
+            return delegate.adminCreate(user, temporaryPassword, sendInvite);
+        } finally {
+            cache.invalidate(user.getUsername());
+        }
+    }
+
+    @Override
+    public void adminEnable(String username) {
+        write(username, () -> delegate.adminEnable(username));
+        cache.update(username, u -> {
+            u.setEnabled(true);
+            return u;
+        });
+    }
+
+    @Override
+    public void adminDisable(String username) {
+        write(username, () -> delegate.adminDisable(username));
+        cache.update(username, u -> {
+            u.setEnabled(false);
+            return u;
+        });
+    }
+
+    @Override
+    public void adminDelete(String username) {
+        try {
+            delegate.adminDelete(username);
+        } finally {
+            cache.invalidate(username);
+        }
+    }
+
+    @Override
+    public void adminUpdateAttributes(String username, Map<String, String> attributes) {
+        write(username, () -> delegate.adminUpdateAttributes(username, attributes));
+        cache.update(username, u -> {
+            UserAttributes.Builder merged = UserAttributes.of(u.getAttributes()).toBuilder();
+            attributes.forEach(merged::put);
+            u.setAttributes(merged.build());
+            return u;
+        });
+    }
+
+    @Override
+    public void adminSetPassword(String username, String password, boolean permanent) {
+        try {
+            delegate.adminSetPassword(username, password, permanent);
+        } finally {
+            // cambia el estado de la cuenta en Cognito
+            cache.invalidate(username);
+        }
+    }
+
+    @Override
+    public void adminUpdateGroups(String username, Collection<String> add, Collection<String> remove) {
+        write(username, () -> delegate.adminUpdateGroups(username, add, remove));
+        cache.update(username, u -> {
+            u.applyGroupChanges(add, remove);
+            return u;
+        });
+    }
+
+    @Override
+    public User adminGet(String username) {
+        try {
+            return cache.get(username, delegate::adminGet);
+        } catch (ServiceUnavailableException e) {
+            User stale = cache.getStale(username);
+            if (stale == null) {
+                throw e;
+            }
+            log.warn("Serving last known copy of {}: {}", username, e.getMessage());
+            return stale;
+        }
+    }
+
+    // Salta la cache, pero lo leido la reemplaza
+    @Override
+    public User adminGetFresh(String username) {
+        User user = delegate.adminGetFresh(username);
+        cache.put(username, user);
+        return user;
+    }
+
+    // Los aciertos salen de la cache; a Cognito solo van los que faltan
+    @Override
+    public Map<String, User> adminGetAll(Collection<String> usernames) {
+        Map<String, User> found = new HashMap<>();
+        List<String> misses = new ArrayList<>();
+        for (String username : usernames) {
+            User cached = cache.getIfPresent(username);
+            if (cached != null) {
+                found.put(username, cached);
+            } else {
+                misses.add(username);
+            }
+        }
+        if (misses.isEmpty()) {
+            return found;
+        }
+        try {
+            delegate.adminGetAll(misses).forEach((username, user) -> {
+                cache.put(username, user);
+                found.put(username, user);
+            });
+        } catch (ServiceUnavailableException e) {
+            for (String username : misses) {
+                User stale = cache.getStale(username);
+                if (stale == null) {
+                    throw e;
+                }
+                found.put(username, stale);
+            }
+            log.warn("Serving last known copy of {} users: {}", misses.size(), e.getMessage());
+        }
+        return found;
+    }
+
+    @Override
+    public UserPage listUsers(int limit, String filter, String cursor) {
+        return delegate.listUsers(limit, filter, cursor);
+    }
+
+    @Override
+    public List<String> listGroupsForUser(String username) {
+        User cached = cache.getIfPresent(username);
+        if (cached != null && cached.getGroups() != null) {
+            return cached.getGroups();
+        }
+        try {
+            return delegate.listGroupsForUser(username);
+        } catch (ServiceUnavailableException e) {
+            User stale = cache.getStale(username);
+            if (stale == null || stale.getGroups() == null) {
+                throw e;
+            }
+            return stale.getGroups();
+        }
+    }
+
+    @Override
+    public List<String> listUsernamesInGroup(String group) {
+        return delegate.listUsernamesInGroup(group);
+    }
+
+    // Si la escritura falla no sabemos el estado real: se descarta la entrada
+    private void write(String username, Runnable call) {
+        try {
+            call.run();
+        } catch (RuntimeException e) {
+            cache.invalidate(username);
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.clinic.users.infrastructure.adapter.out.cache;
+
+import com.clinic.users.application.port.out.CognitoGateway;
+import com.clinic.users.domain.model.User;
+import com.clinic.users.domain.model.UserPage;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Decorador que comparte una sola llamada a Cognito entre lecturas
+ * concurrentes del mismo username. Las escrituras pasan directo.
+ */
+@RequiredArgsConstructor
+public class CoalescingCognitoGateway implements CognitoGateway {
+
+    private final CognitoGateway delegate;
+    private final SingleFlight<String, User> userReads = new SingleFlight<>();
+    private final SingleFlight<String, List<String>> groupReads = new SingleFlight<>();
+    private final SingleFlight<String, List<String>> memberReads = new SingleFlight<>();
+
+    @Override
+    public User adminCreate(User user, String temporaryPassword, boolean sendInvite) {
+        return delegate.adminCreate(user, temporaryPassword, sendInvite);
+    }
+
+    @Override
+    public void adminEnable(String username) {
+        delegate.adminEnable(username);
+    }
+
+    @Override
+    public void adminDisable(String username) {
+        delegate.adminDisable(username);
+    }
+
+    @Override
+    public void adminDelete(String username) {
+        delegate.adminDelete(username);
+    }
+
+    @Override
+    public void adminUpdateAttributes(String username, Map<String, String> attributes) {
+        delegate.adminUpdateAttributes(username, attributes);
+    }
+
+    @Override
+    public void adminSetPassword(String username, String password, boolean permanent) {
+        delegate.adminSetPassword(username, password, permanent);
+    }
+
+    @Override
+    public void adminUpdateGroups(String username, Collection<String> add, Collection<String> remove) {
+        delegate.adminUpdateGroups(username, add, remove);
+    }
+
+    @Override
+    public User adminGet(String username) {
+        // cada llamador recibe su copia: User es mutable
+        return userReads.execute(username, () -> delegate.adminGet(username)).copy();
+    }
+
+    // sin coalescer: una lectura que ya estaba en curso puede ser anterior a la ultima escritura
+    @Override
+    public User adminGetFresh(String username) {
+        return delegate.adminGetFresh(username);
+    }
+
+    @Override
+    public Map<String, User> adminGetAll(Collection<String> usernames) {
+        return delegate.adminGetAll(usernames);
+    }
+
+    @Override
+    public UserPage listUsers(int limit, String filter, String cursor) {
+        return delegate.listUsers(limit, filter, cursor);
+    }
+
+    @Override
+    public List<String> listGroupsForUser(String username) {
+        return List.copyOf(groupReads.execute(username, () -> delegate.listGroupsForUser(username)));
+    }
+
+    @Override
+    public List<String> listUsernamesInGroup(String group) {
+        return List.copyOf(memberReads.execute(group, () -> delegate.listUsernamesInGroup(group)));
+    }
+}
@@ -0,0 +1,87 @@
+package com.clinic.users.infrastructure.adapter.out.cache;
+
+import com.clinic.users.domain.model.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import java.time.Duration;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * Cache acotado (W-TinyLFU) de usuarios por username, con TTL por entrada.
+ * Guarda y entrega copias: {@link User} es mutable y no debe compartirse
+ * entre requests.
+ */
+public class CognitoUserCache {
+
+    private final Cache<String, User> cache;
+    /** Ultimo valor conocido, con un TTL mas largo: respaldo si Cognito no responde. */
+    private final Cache<String, User> lastKnown;
+
+    public CognitoUserCache(long maximumSize, Duration ttl) {
+        this(maximumSize, ttl, ttl);
+    }
+
+    public CognitoUserCache(long maximumSize, Duration ttl, Duration staleTtl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.lastKnown = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(staleTtl.compareTo(ttl) > 0 ? staleTtl : ttl)
+                .build();
+    }
+
+    public User get(String username, Function<String, User> loader) {
+        return copy(cache.get(username, key -> {
+            User loaded = copy(loader.apply(key));
+            lastKnown.put(key, loaded);
+            return loaded;
+        }));
+    }
+
+    public void put(String username, User user) {
+        User stored = copy(user);
+        cache.put(username, stored);
+        lastKnown.put(username, stored);
+    }
+
+    /** Valor posiblemente vencido; solo para servir lecturas con Cognito caido. */
+    public User getStale(String username) {
+        return copy(lastKnown.getIfPresent(username));
+    }
+
+    public User getIfPresent(String username) {
+        return copy(cache.getIfPresent(username));
+    }
+
+    /** Aplica el cambio solo si el usuario ya esta en cache. */
+    public void update(String username, UnaryOperator<User> change) {
+        User updated = cache.asMap().computeIfPresent(username, (key, user) -> change.apply(copy(user)));
+        if (updated != null) {
+            lastKnown.put(username, updated);
+        } else {
+            lastKnown.invalidate(username);
+        }
+    }
+
+    public void invalidate(String username) {
+        cache.invalidate(username);
+        lastKnown.invalidate(username);
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    private static User copy(User user) {
+        return user == null ? null : user.copy();
+    }
+}
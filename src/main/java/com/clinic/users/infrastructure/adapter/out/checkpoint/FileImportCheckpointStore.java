@@ -0,0 +1,74 @@
+package com.clinic.users.infrastructure.adapter.out.checkpoint;
+
+import com.clinic.users.application.port.out.ImportCheckpointStore;
+import com.clinic.users.domain.exception.DomainException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.regex.Pattern;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Un archivo por importacion con el numero del siguiente registro a procesar.
+ * Se escribe en un temporal, se hace fsync y se renombra: un corte a mitad de
+ * escritura nunca deja un checkpoint corrupto.
+ */
+@Slf4j
+@Component
+public class FileImportCheckpointStore implements ImportCheckpointStore {
+
+    // llega como query param y es parte del nombre de archivo: nada de rutas
+    private static final Pattern IMPORT_ID = Pattern.compile("[A-Za-z0-9][A-Za-z0-9._-]{0,127}");
+
+    private final Path directory;
+
+    public FileImportCheckpointStore(
+            @Value("${users.import.checkpoint-dir:${java.io.tmpdir}/users-import}") Path directory) {
+        this.directory = directory;
+    }
+
+    @Override
+    public long load(String importId) {
+        Path file = fileFor(importId);
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(Files.readString(file, StandardCharsets.UTF_8).trim());
+        } catch (IOException | NumberFormatException e) {
+            throw new DomainException("Could not read checkpoint for import " + importId, e);
+        }
+    }
+
+    @Override
+    public void save(String importId, long nextRecord) {
+        Path file = fileFor(importId);
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(directory);
+            try (FileChannel channel = FileChannel.open(tmp,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                channel.write(ByteBuffer.wrap(Long.toString(nextRecord).getBytes(StandardCharsets.UTF_8)));
+                channel.force(true);
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new DomainException("Could not write checkpoint for import " + importId, e);
+        }
+        log.debug("Import {} checkpoint at record {}", importId, nextRecord);
+    }
+
+    private Path fileFor(String importId) {
+        if (importId == null || !IMPORT_ID.matcher(importId).matches()) {
+            throw new DomainException("importId must be 1-128 letters, digits, '.', '_' or '-'");
+        }
+        return directory.resolve(importId + ".checkpoint");
+    }
+}
@@ -0,0 +1,81 @@
+package com.clinic.users.infrastructure.adapter.out.cognito;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Token bucket cuya tasa se ajusta AIMD: sube un paso fijo por cada exito y se
+ * reduce a la mitad con cada throttling, entre minRate y maxRate.
+ * Los turnos se reservan bajo el lock y la espera ocurre fuera de el.
+ */
+final class AdaptiveRateLimiter {
+
+    private final double maxRate;
+    private final double minRate;
+    private final double increaseStep;
+
+    private double rate;
+    private double tokens;
+    private long lastRefillNanos;
+
+    final LongAdder acquired = new LongAdder();
+    final LongAdder throttled = new LongAdder();
+    final LongAdder retries = new LongAdder();
+    final LongAdder rejected = new LongAdder();
+    final LongAdder waitNanos = new LongAdder();
+
+    AdaptiveRateLimiter(double maxRate) {
+        this.maxRate = maxRate;
+        this.minRate = Math.max(0.5, maxRate / 20);
+        this.increaseStep = Math.max(0.01, maxRate / 50);
+        this.rate = maxRate;
+        this.tokens = 1;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * Reserva un turno y devuelve cuanto hay que esperar para usarlo, o -1 si
+     * la espera superaria maxWaitNanos (en ese caso no se reserva nada).
+     */
+    synchronized long reserve(long maxWaitNanos) {
+        refill(System.nanoTime());
+        if (tokens >= 1) {
+            tokens -= 1;
+            acquired.increment();
+            return 0;
+        }
+        long wait = (long) ((1 - tokens) / rate * TimeUnit.SECONDS.toNanos(1));
+        if (wait > maxWaitNanos) {
+            rejected.increment();
+            return -1;
+        }
+        tokens -= 1;
+        acquired.increment();
+        waitNanos.add(wait);
+        return wait;
+    }
+
+    synchronized void onSuccess() {
+        rate = Math.min(maxRate, rate + increaseStep);
+    }
+
+    synchronized void onThrottle() {
+        throttled.increment();
+        rate = Math.max(minRate, rate / 2);
+    }
+
+    synchronized double currentRate() {
+        return rate;
+    }
+
+    double maxRate() {
+        return maxRate;
+    }
+
+    // El bucket guarda como maximo un segundo de turnos (rafagas cortas)
+    private void refill(long now) {
+        double elapsed = (now - lastRefillNanos) / (double) TimeUnit.SECONDS.toNanos(1);
+        tokens = Math.min(Math.max(1, rate), tokens + elapsed * rate);
+        lastRefillNanos = now;
+    }
+}
@@ -0,0 +1,44 @@
+package com.clinic.users.infrastructure.adapter.out.cognito;
+
+import com.clinic.users.application.port.out.AsyncCognitoGateway;
+import com.clinic.users.application.port.out.CognitoGateway;
+import com.clinic.users.domain.model.User;
+import com.clinic.users.domain.model.UserPage;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * {@link AsyncCognitoGateway} sobre el gateway bloqueante (con su cache y
+ * demas decoradores). Ejecuta en el hilo que llama y devuelve futures ya
+ * completados; se usa cuando aws.cognito.async.enabled=false.
+ */
+@RequiredArgsConstructor
+public class BlockingAsyncCognitoGateway implements AsyncCognitoGateway {
+
+    private final CognitoGateway delegate;
+
+    @Override
+    public CompletableFuture<User> adminGet(String username) {
+        return supply(() -> delegate.adminGet(username));
+    }
+
+    @Override
+    public CompletableFuture<UserPage> listUsers(int limit, String filter, String cursor) {
+        return supply(() -> delegate.listUsers(limit, filter, cursor));
+    }
+
+    @Override
+    public CompletableFuture<List<String>> listGroupsForUser(String username) {
+        return supply(() -> delegate.listGroupsForUser(username));
+    }
+
+    private static <T> CompletableFuture<T> supply(Supplier<T> call) {
+        try {
+            return CompletableFuture.completedFuture(call.get());
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+}
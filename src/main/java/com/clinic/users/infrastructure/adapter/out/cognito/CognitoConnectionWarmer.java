@@ -0,0 +1,101 @@
+package com.clinic.users.infrastructure.adapter.out.cognito;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityProviderClient;
+
+/**
+ * Calienta el cliente de Cognito antes de que la app quede lista
+ * (los ApplicationRunner corren antes de ApplicationReadyEvent): resuelve
+ * credenciales y abre N conexiones con N ListUsers(limit=1) concurrentes,
+ * para que el primer request tras un despliegue no pague el handshake TLS.
+ *
+ * Un fallo aqui solo se registra: la app arranca igual y el pool se llena bajo demanda.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "aws.cognito.http.prewarm.enabled", havingValue = "true")
+public class CognitoConnectionWarmer implements ApplicationRunner {
+
+    private final CognitoIdentityProviderClient client;
+    private final AwsCredentialsProvider credentialsProvider;
+    private final String userPoolId;
+    private final int connections;
+    private final Duration timeout;
+
+    public CognitoConnectionWarmer(
+            CognitoIdentityProviderClient client,
+            AwsCredentialsProvider cognitoCredentialsProvider,
+            @Value("${aws.cognito.userPoolId}") String userPoolId,
+            @Value("${aws.cognito.http.prewarm.connections:4}") int connections,
+            @Value("${aws.cognito.http.prewarm.timeout:10s}") Duration timeout) {
+        this.client = client;
+        this.credentialsProvider = cognitoCredentialsProvider;
+        this.userPoolId = userPoolId;
+        this.connections = connections;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long start = System.nanoTime();
+        try {
+            credentialsProvider.resolveCredentials();
+        } catch (RuntimeException e) {
+            log.warn("Cognito pre-warm: could not resolve credentials: {}", e.getMessage());
+            return;
+        }
+
+        int opened = warmConnections();
+        log.info("Cognito pre-warm: credentials resolved and {}/{} connections opened in {} ms",
+                opened, connections, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    // Las llamadas deben ser concurrentes: en serie reutilizarian siempre la misma conexion
+    private int warmConnections() {
+        ExecutorService pool = Executors.newFixedThreadPool(connections);
+        try {
+            List<CompletableFuture<Boolean>> calls = new ArrayList<>(connections);
+            for (int i = 0; i < connections; i++) {
+                calls.add(CompletableFuture.supplyAsync(this::ping, pool));
+            }
+            CompletableFuture.allOf(calls.toArray(CompletableFuture[]::new))
+                    .get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            return (int) calls.stream().filter(CompletableFuture::join).count();
+        } catch (TimeoutException e) {
+            log.warn("Cognito pre-warm: timed out after {}", timeout);
+            return 0;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 0;
+        } catch (Exception e) {
+            log.warn("Cognito pre-warm failed: {}", e.getMessage());
+            return 0;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private boolean ping() {
+        try {
+            client.listUsers(r -> r.userPoolId(userPoolId).limit(1));
+            return true;
+        } catch (RuntimeException e) {
+            log.debug("Cognito pre-warm call failed: {}", e.getMessage());
+            return false;
+        }
+    }
+}
@@ -1,9 +1,11 @@
 package com.clinic.users.infrastructure.adapter.out.cognito;
 
 import com.clinic.users.domain.model.User;
+import com.clinic.users.domain.model.UserAttributes;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 import org.springframework.stereotype.Component;
 import software.amazon.awssdk.services.cognitoidentityprovider.model.AdminGetUserResponse;
@@ -14,14 +16,24 @@ import java.util.Collections;
 @Component
 public class CognitoMapper {
 
+    // En el dominio van sin ':'; en el pool son custom attributes
+    private static final Map<String, String> COGNITO_NAMES = Map.of(
+            "custom_document", "custom:document",
+            "custom_role", "custom:role");
+    private static final Map<String, String> DOMAIN_NAMES = Map.of(
+            "custom:document", "custom_document",
+            "custom:role", "custom_role");
+
+    // Vienen en el alta pero no son atributos del pool: el password va aparte y el estado es Enabled
+    private static final Set<String> NOT_ATTRIBUTES = Set.of("raw_password", "status");
 
     public User from(UserType userType, List<String> groups) {
         return User.builder()
                 .username(userType.username())
                 .enabled(userType.enabled())
-                .attributes(userType.attributes().stream()
-                        .collect(Collectors.toMap(AttributeType::name, AttributeType::value)))
+                .attributes(toUserAttributes(userType.attributes()))
                 .groups(groups)
+                .lastModified(userType.userLastModifiedDate())
                 .build();
     }
 
@@ -30,12 +42,25 @@ public class CognitoMapper {
             return List.of();
         }
 
-        return attrs.entrySet().stream()
-                .map(e -> AttributeType.builder()
-                        .name(e.getKey())
-                        .value(e.getValue())
-                        .build())
-                .collect(Collectors.toList());
+        List<AttributeType> result = new ArrayList<>(attrs.size());
+        attrs.forEach((name, value) -> {
+            if (!NOT_ATTRIBUTES.contains(name)) {
+                result.add(AttributeType.builder()
+                        .name(COGNITO_NAMES.getOrDefault(name, name))
+                        .value(value)
+                        .build());
+            }
+        });
+        return result;
+    }
+
+    // directo de la lista del SDK al contenedor compacto, sin mapa intermedio
+    private static UserAttributes toUserAttributes(List<AttributeType> attributes) {
+        UserAttributes.Builder builder = UserAttributes.builder();
+        for (AttributeType attribute : attributes) {
+            builder.put(DOMAIN_NAMES.getOrDefault(attribute.name(), attribute.name()), attribute.value());
+        }
+        return builder.build();
     }
 
 
@@ -43,9 +68,9 @@ public class CognitoMapper {
         return User.builder()
                 .username(resp.username())
                 .enabled(resp.enabled())
-                .attributes(resp.userAttributes().stream()
-                        .collect(Collectors.toMap(AttributeType::name, AttributeType::value)))
+                .attributes(toUserAttributes(resp.userAttributes()))
                 .groups(groups)
+                .lastModified(resp.userLastModifiedDate())
                 .build();
     }
 
@@ -0,0 +1,116 @@
+package com.clinic.users.infrastructure.adapter.out.cognito;
+
+import com.clinic.users.infrastructure.concurrent.Futures;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.awscore.exception.AwsServiceException;
+import software.amazon.awssdk.core.exception.SdkClientException;
+
+/**
+ * Metricas de cada intento de llamada al API de Cognito (dentro del limitador,
+ * asi los throttling reintentados tambien cuentan):
+ * <ul>
+ *   <li>{@code cognito.api.calls}: timer con histograma (p50/p95/p99) por operation, category, outcome y error.</li>
+ *   <li>{@code cognito.api.throttles}: TooManyRequests por operation y category.</li>
+ *   <li>{@code cognito.api.in_flight}: llamadas en curso por operation.</li>
+ * </ul>
+ * {@code error} es el codigo de error de AWS, {@code client} para timeouts/red
+ * o {@code none} si la llamada tuvo exito.
+ */
+@Component
+@RequiredArgsConstructor
+public class CognitoMetrics {
+
+    static final String CALLS = "cognito.api.calls";
+    static final String THROTTLES = "cognito.api.throttles";
+    static final String IN_FLIGHT = "cognito.api.in_flight";
+
+    private final MeterRegistry registry;
+    private final Map<String, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+
+    public <T> T record(QuotaCategory category, String operation, Supplier<T> call) {
+        AtomicInteger current = inFlight.computeIfAbsent(operation, this::registerInFlight);
+        current.incrementAndGet();
+        long start = System.nanoTime();
+        RuntimeException failure = null;
+        try {
+            return call.get();
+        } catch (RuntimeException e) {
+            failure = e;
+            throw e;
+        } finally {
+            finish(category, operation, current, start, failure);
+        }
+    }
+
+    /** Igual que {@link #record} pero midiendo hasta que el future se completa. */
+    public <T> CompletableFuture<T> recordAsync(QuotaCategory category, String operation,
+                                                Supplier<CompletableFuture<T>> call) {
+        AtomicInteger current = inFlight.computeIfAbsent(operation, this::registerInFlight);
+        current.incrementAndGet();
+        long start = System.nanoTime();
+        CompletableFuture<T> future;
+        try {
+            future = call.get();
+        } catch (RuntimeException e) {
+            finish(category, operation, current, start, e);
+            throw e;
+        }
+        return future.whenComplete((result, error) ->
+                finish(category, operation, current, start, error == null ? null : Futures.unwrap(error)));
+    }
+
+    private void finish(QuotaCategory category, String operation, AtomicInteger current, long start,
+                        Throwable failure) {
+        current.decrementAndGet();
+        String error = "none";
+        if (failure instanceof AwsServiceException e) {
+            error = errorCode(e);
+            if (e.isThrottlingException()) {
+                Counter.builder(THROTTLES)
+                        .tag("operation", operation)
+                        .tag("category", category.name())
+                        .register(registry)
+                        .increment();
+            }
+        } else if (failure instanceof SdkClientException) {
+            error = "client";
+        } else if (failure != null) {
+            error = failure.getClass().getSimpleName();
+        }
+        Timer.builder(CALLS)
+                .tag("operation", operation)
+                .tag("category", category.name())
+                .tag("outcome", failure == null ? "success" : "error")
+                .tag("error", error)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private AtomicInteger registerInFlight(String operation) {
+        AtomicInteger gauge = new AtomicInteger();
+        Gauge.builder(IN_FLIGHT, gauge, AtomicInteger::get)
+                .tag("operation", operation)
+                .register(registry);
+        return gauge;
+    }
+
+    private static String errorCode(AwsServiceException e) {
+        if (e.awsErrorDetails() != null && e.awsErrorDetails().errorCode() != null) {
+            return e.awsErrorDetails().errorCode();
+        }
+        return e.getClass().getSimpleName();
+    }
+}
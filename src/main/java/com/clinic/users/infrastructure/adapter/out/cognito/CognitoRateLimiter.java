@@ -0,0 +1,178 @@
+package com.clinic.users.infrastructure.adapter.out.cognito;
+
+import com.clinic.users.domain.exception.DomainException;
+import com.clinic.users.domain.exception.ThrottledException;
+import com.clinic.users.infrastructure.concurrent.Futures;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.TooManyRequestsException;
+
+/**
+ * Limitador del lado cliente, un bucket adaptativo por categoria de cuota.
+ * Ante TooManyRequestsException baja la tasa de la categoria y reintenta con
+ * backoff exponencial con jitter completo.
+ */
+@Slf4j
+@Component
+public class CognitoRateLimiter {
+
+    private final boolean enabled;
+    private final int maxAttempts;
+    private final long maxWaitNanos;
+    private final long baseBackoffMillis;
+    private final long maxBackoffMillis;
+    private final Map<QuotaCategory, AdaptiveRateLimiter> limiters = new EnumMap<>(QuotaCategory.class);
+
+    public CognitoRateLimiter(
+            @Value("${aws.cognito.rate-limit.enabled:true}") boolean enabled,
+            @Value("${aws.cognito.rate-limit.user-creation:50}") double userCreation,
+            @Value("${aws.cognito.rate-limit.user-read:120}") double userRead,
+            @Value("${aws.cognito.rate-limit.user-update:25}") double userUpdate,
+            @Value("${aws.cognito.rate-limit.user-list:30}") double userList,
+            @Value("${aws.cognito.rate-limit.max-attempts:4}") int maxAttempts,
+            @Value("${aws.cognito.rate-limit.max-wait:2s}") Duration maxWait,
+            @Value("${aws.cognito.rate-limit.base-backoff:100ms}") Duration baseBackoff,
+            @Value("${aws.cognito.rate-limit.max-backoff:2s}") Duration maxBackoff) {
+        this.enabled = enabled;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.maxWaitNanos = maxWait.toNanos();
+        this.baseBackoffMillis = baseBackoff.toMillis();
+        this.maxBackoffMillis = maxBackoff.toMillis();
+        limiters.put(QuotaCategory.USER_CREATION, new AdaptiveRateLimiter(userCreation));
+        limiters.put(QuotaCategory.USER_READ, new AdaptiveRateLimiter(userRead));
+        limiters.put(QuotaCategory.USER_UPDATE, new AdaptiveRateLimiter(userUpdate));
+        limiters.put(QuotaCategory.USER_LIST, new AdaptiveRateLimiter(userList));
+    }
+
+    public <T> T call(QuotaCategory category, Supplier<T> call) {
+        if (!enabled) {
+            return call.get();
+        }
+
+        AdaptiveRateLimiter limiter = limiters.get(category);
+        for (int attempt = 1; ; attempt++) {
+            acquire(category, limiter);
+            try {
+                T result = call.get();
+                limiter.onSuccess();
+                return result;
+            } catch (TooManyRequestsException e) {
+                limiter.onThrottle();
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                limiter.retries.increment();
+                log.warn("Cognito throttled {} (attempt {}), rate lowered to {}/s",
+                        category, attempt, String.format("%.1f", limiter.currentRate()));
+                sleep(backoffMillis(attempt));
+            }
+        }
+    }
+
+    /**
+     * Variante para el cliente no bloqueante: ni la espera por el permiso ni
+     * los reintentos por throttling duermen un hilo, se agendan. Sin permiso
+     * dentro de max-wait falla enseguida.
+     */
+    public <T> CompletableFuture<T> callAsync(QuotaCategory category, Supplier<CompletableFuture<T>> call) {
+        if (!enabled) {
+            return call.get();
+        }
+        return attemptAsync(category, limiters.get(category), call, 1);
+    }
+
+    private <T> CompletableFuture<T> attemptAsync(QuotaCategory category, AdaptiveRateLimiter limiter,
+                                                  Supplier<CompletableFuture<T>> call, int attempt) {
+        CompletableFuture<T> future;
+        long wait = limiter.reserve(maxWaitNanos);
+        if (wait < 0) {
+            future = CompletableFuture.failedFuture(
+                    new ThrottledException("Cognito " + category + " quota saturated, try again later"));
+        } else if (wait > 0) {
+            future = CompletableFuture.runAsync(() -> { }, later(wait, TimeUnit.NANOSECONDS))
+                    .thenCompose(v -> call.get());
+        } else {
+            try {
+                future = call.get();
+            } catch (RuntimeException e) {
+                future = CompletableFuture.failedFuture(e);
+            }
+        }
+        return future.handle((result, error) -> {
+            if (error == null) {
+                limiter.onSuccess();
+                return CompletableFuture.completedFuture(result);
+            }
+            Throwable cause = Futures.unwrap(error);
+            if (!(cause instanceof TooManyRequestsException)) {
+                return CompletableFuture.<T>failedFuture(cause);
+            }
+            limiter.onThrottle();
+            if (attempt >= maxAttempts) {
+                return CompletableFuture.<T>failedFuture(cause);
+            }
+            limiter.retries.increment();
+            log.warn("Cognito throttled {} (attempt {}), rate lowered to {}/s",
+                    category, attempt, String.format("%.1f", limiter.currentRate()));
+            return CompletableFuture.runAsync(() -> { }, later(backoffMillis(attempt), TimeUnit.MILLISECONDS))
+                    .thenCompose(v -> attemptAsync(category, limiter, call, attempt + 1));
+        }).thenCompose(f -> f);
+    }
+
+    public Map<QuotaCategory, Map<String, Object>> snapshot() {
+        Map<QuotaCategory, Map<String, Object>> snapshot = new EnumMap<>(QuotaCategory.class);
+        limiters.forEach((category, limiter) -> {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("maxRate", limiter.maxRate());
+            stats.put("currentRate", limiter.currentRate());
+            stats.put("acquired", limiter.acquired.sum());
+            stats.put("throttled", limiter.throttled.sum());
+            stats.put("retries", limiter.retries.sum());
+            stats.put("rejected", limiter.rejected.sum());
+            stats.put("waitMillis", TimeUnit.NANOSECONDS.toMillis(limiter.waitNanos.sum()));
+            snapshot.put(category, stats);
+        });
+        return snapshot;
+    }
+
+    private void acquire(QuotaCategory category, AdaptiveRateLimiter limiter) {
+        long wait = limiter.reserve(maxWaitNanos);
+        if (wait < 0) {
+            throw new ThrottledException("Cognito " + category + " quota saturated, try again later");
+        }
+        if (wait > 0) {
+            sleep(TimeUnit.NANOSECONDS.toMillis(wait));
+        }
+    }
+
+    private static Executor later(long delay, TimeUnit unit) {
+        return CompletableFuture.delayedExecutor(delay, unit);
+    }
+
+    private long backoffMillis(int attempt) {
+        long ceiling = Math.min(maxBackoffMillis, baseBackoffMillis << Math.min(attempt - 1, 20));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DomainException("Interrupted while waiting for Cognito quota", e);
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.clinic.users.infrastructure.adapter.out.cognito;
+
+import com.clinic.users.domain.exception.DomainException;
+import com.clinic.users.domain.exception.ServiceUnavailableException;
+import com.clinic.users.infrastructure.concurrent.Futures;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.core.exception.SdkServiceException;
+
+/**
+ * Aislamiento frente a un Cognito degradado: un bulkhead (semaforo) para
+ * lecturas y otro para escrituras, de modo que las lecturas lentas no dejen
+ * sin hilos a las escrituras y viceversa, y un circuit breaker por operacion
+ * que falla rapido mientras la operacion esta caida.
+ *
+ * Solo cuentan como fallo los errores de red/timeout y los 5xx; un 4xx
+ * (usuario inexistente, throttling) es una respuesta valida del servicio.
+ * Los fallos salen como {@link ServiceUnavailableException} (503, y la cache
+ * puede servir la ultima copia); los 4xx salen tal cual.
+ */
+@Slf4j
+@Component
+public class CognitoResilience {
+
+    private final boolean enabled;
+    private final Semaphore reads;
+    private final Semaphore writes;
+    private final int readPermits;
+    private final int writePermits;
+    private final long bulkheadWaitNanos;
+    private final int windowSize;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long openNanos;
+    private final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+    public CognitoResilience(
+            @Value("${aws.cognito.resilience.enabled:true}") boolean enabled,
+            @Value("${aws.cognito.resilience.bulkhead.reads:32}") int readPermits,
+            @Value("${aws.cognito.resilience.bulkhead.writes:16}") int writePermits,
+            @Value("${aws.cognito.resilience.bulkhead.max-wait:200ms}") Duration bulkheadWait,
+            @Value("${aws.cognito.resilience.breaker.window-size:50}") int windowSize,
+            @Value("${aws.cognito.resilience.breaker.minimum-calls:10}") int minimumCalls,
+            @Value("${aws.cognito.resilience.breaker.failure-rate:0.5}") double failureRateThreshold,
+            @Value("${aws.cognito.resilience.breaker.open-duration:30s}") Duration openDuration) {
+        this.enabled = enabled;
+        this.readPermits = readPermits;
+        this.writePermits = writePermits;
+        this.reads = new Semaphore(readPermits);
+        this.writes = new Semaphore(writePermits);
+        this.bulkheadWaitNanos = bulkheadWait.toNanos();
+        this.windowSize = windowSize;
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.openNanos = openDuration.toNanos();
+    }
+
+    public <T> T execute(String operation, boolean write, Supplier<T> call) {
+        if (!enabled) {
+            return call.get();
+        }
+
+        CircuitBreaker breaker = breakers.computeIfAbsent(operation,
+                op -> new CircuitBreaker(windowSize, minimumCalls, failureRateThreshold, openNanos));
+        if (!breaker.tryAcquire()) {
+            throw new ServiceUnavailableException("Cognito " + operation + " is unavailable (circuit open)");
+        }
+
+        Semaphore bulkhead = write ? writes : reads;
+        if (!tryEnter(bulkhead)) {
+            // no llego a llamar: no cuenta para el breaker
+            breaker.release();
+            throw new ServiceUnavailableException("Cognito " + operation + " is busy, too many calls in flight");
+        }
+
+        try {
+            T result = call.get();
+            breaker.onSuccess();
+            return result;
+        } catch (RuntimeException e) {
+            throw classify(operation, breaker, e);
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    /**
+     * Lo mismo para el cliente no bloqueante: la admision (breaker y bulkhead)
+     * ocurre en el hilo que llama, sin esperar (sin lugar falla enseguida), y
+     * los permisos se liberan cuando el future se completa.
+     */
+    public <T> CompletableFuture<T> executeAsync(String operation, boolean write,
+                                                 Supplier<CompletableFuture<T>> call) {
+        if (!enabled) {
+            return call.get();
+        }
+
+        CircuitBreaker breaker = breakers.computeIfAbsent(operation,
+                op -> new CircuitBreaker(windowSize, minimumCalls, failureRateThreshold, openNanos));
+        if (!breaker.tryAcquire()) {
+            return CompletableFuture.failedFuture(
+                    new ServiceUnavailableException("Cognito " + operation + " is unavailable (circuit open)"));
+        }
+
+        Semaphore bulkhead = write ? writes : reads;
+        // el hilo que llama puede ser de Netty: no se espera por un lugar
+        if (!bulkhead.tryAcquire()) {
+            breaker.release();
+            return CompletableFuture.failedFuture(
+                    new ServiceUnavailableException("Cognito " + operation + " is busy, too many calls in flight"));
+        }
+
+        CompletableFuture<T> future;
+        try {
+            future = call.get();
+        } catch (RuntimeException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        return future.handle((result, error) -> {
+            bulkhead.release();
+            if (error == null) {
+                breaker.onSuccess();
+                return result;
+            }
+            Throwable cause = Futures.unwrap(error);
+            if (cause instanceof RuntimeException e) {
+                throw classify(operation, breaker, e);
+            }
+            breaker.release();
+            throw new CompletionException(cause);
+        });
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("readsInFlight", readPermits - reads.availablePermits());
+        snapshot.put("writesInFlight", writePermits - writes.availablePermits());
+        Map<String, String> states = new TreeMap<>();
+        breakers.forEach((op, breaker) -> states.put(op, breaker.state().name()));
+        snapshot.put("breakers", states);
+        return snapshot;
+    }
+
+    // Solo red/timeout y 5xx cuentan como fallo; salen como ServiceUnavailableException
+    private RuntimeException classify(String operation, CircuitBreaker breaker, RuntimeException e) {
+        if (e instanceof SdkServiceException service) {
+            if (service.statusCode() >= 500) {
+                onFailure(operation, breaker);
+                return new ServiceUnavailableException("Cognito " + operation + " failed with status "
+                        + service.statusCode() + ": " + service.getMessage(), service);
+            }
+            breaker.onSuccess();
+            return e;
+        }
+        if (e instanceof SdkClientException) {
+            onFailure(operation, breaker);
+            return new ServiceUnavailableException("Cognito " + operation + " failed: " + e.getMessage(), e);
+        }
+        breaker.release();
+        return e;
+    }
+
+    private void onFailure(String operation, CircuitBreaker breaker) {
+        CircuitBreaker.State before = breaker.state();
+        breaker.onFailure();
+        if (before != CircuitBreaker.State.OPEN && breaker.state() == CircuitBreaker.State.OPEN) {
+            log.warn("Circuit for Cognito {} opened", operation);
+        }
+    }
+
+    private boolean tryEnter(Semaphore bulkhead) {
+        try {
+            return bulkhead.tryAcquire(bulkheadWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DomainException("Interrupted while waiting for a Cognito slot", e);
+        }
+    }
+}
@@ -2,17 +2,36 @@ package com.clinic.users.infrastructure.adapter.out.cognito;
 
 import com.clinic.users.application.port.out.CognitoGateway;
 import com.clinic.users.domain.exception.DomainException;
+import com.clinic.users.domain.exception.ServiceUnavailableException;
+import com.clinic.users.domain.exception.ThrottledException;
+import com.clinic.users.domain.exception.UserAlreadyExistsException;
+import com.clinic.users.domain.model.Group;
 import com.clinic.users.domain.model.User;
+import com.clinic.users.domain.model.UserPage;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import com.clinic.users.infrastructure.adapter.in.web.dto.CreateUserRequest;
-import lombok.RequiredArgsConstructor;
+import com.clinic.users.infrastructure.concurrent.FanOut;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityProviderClient;
 import software.amazon.awssdk.services.cognitoidentityprovider.model.*;
@@ -26,26 +45,80 @@ import software.amazon.awssdk.services.cognitoidentityprovider.model.CognitoIden
 
 @Slf4j
 @Component
-@RequiredArgsConstructor
+@Profile("!inmemory")
 public class CognitoUserAdminAdapter implements CognitoGateway {
 
     private final CognitoIdentityProviderClient client;
     private final CognitoMapper mapper;
+    private final FanOut fanOut;
+    private final CognitoRateLimiter rateLimiter;
+    private final CognitoResilience resilience;
+    private final CognitoMetrics metrics;
+    private final Executor refresher;
 
     @Value("${aws.cognito.userPoolId}")
     private String userPoolId;
 
+    @Value("${aws.cognito.groups.resolution:batched}") // batched | per-user
+    private String groupResolution;
+
+    @Value("${aws.cognito.groups.index-ttl:30s}")
+    private Duration groupIndexTtl;
+
+    private volatile GroupMembershipIndex groupIndex;
+
+    private final AtomicBoolean refreshingIndex = new AtomicBoolean();
+    // escrituras al indice y su reemplazo; solo trabajo en memoria
+    private final Object indexWrites = new Object();
+    // cambios hechos mientras se recarga el indice: la recarga pudo leer la membresia de antes
+    private final List<Consumer<GroupMembershipIndex>> patchesDuringRefresh = new ArrayList<>();
+    private CompletableFuture<GroupMembershipIndex> initialLoad;
+
+    public CognitoUserAdminAdapter(
+            CognitoIdentityProviderClient client,
+            CognitoMapper mapper,
+            FanOut fanOut,
+            CognitoRateLimiter rateLimiter,
+            CognitoResilience resilience,
+            CognitoMetrics metrics,
+            @Qualifier("taskScheduler") Executor refresher) {
+        this.client = client;
+        this.mapper = mapper;
+        this.fanOut = fanOut;
+        this.rateLimiter = rateLimiter;
+        this.resilience = resilience;
+        this.metrics = metrics;
+        this.refresher = refresher;
+    }
+
     private DomainException wrap(String op, CognitoIdentityProviderException e) {
         String msg = (e.awsErrorDetails() != null)
                 ? e.awsErrorDetails().errorMessage()
                 : e.getMessage();
 
         log.error("Cognito operation {} failed: {}", op, msg);
+        if (e instanceof TooManyRequestsException) {
+            return new ThrottledException("Cognito error on " + op + ": " + msg, e);
+        }
+        if (e instanceof UsernameExistsException) {
+            return new UserAlreadyExistsException("Cognito error on " + op + ": " + msg, e);
+        }
+        // solo llega aca con aws.cognito.resilience.enabled=false
+        if (e.statusCode() >= 500) {
+            return new ServiceUnavailableException("Cognito error on " + op + ": " + msg, e);
+        }
         return new DomainException("Cognito error on " + op + ": " + msg, e);
     }
 
+    // limitador de cuota afuera y, por intento, bulkhead + circuit breaker y metricas: la espera
+    // por el permiso y el backoff de los reintentos no ocupan un lugar del bulkhead
+    private <T> T call(QuotaCategory category, String operation, Supplier<T> call) {
+        return rateLimiter.call(category, () -> resilience.execute(operation, category.isWrite(),
+                () -> metrics.record(category, operation, call)));
+    }
+
     @Override
-    public User adminCreate(User user, boolean sendInvite) {
+    public User adminCreate(User user, String temporaryPassword, boolean sendInvite) {
         try {
             List<AttributeType> attrs = mapper.toAttributes(user.getAttributes());
 
@@ -53,10 +126,13 @@ public class CognitoUserAdminAdapter implements CognitoGateway {
                     .userPoolId(userPoolId)
                     .username(user.getUsername())
                     .userAttributes(attrs) // <- ahora es List<AttributeType>
-                    .messageAction(sendInvite ? MessageActionType.RESEND : MessageActionType.SUPPRESS)
+                    .temporaryPassword(temporaryPassword)
+                    // RESEND es solo para usuarios existentes; sin messageAction Cognito envia la invitacion
+                    .messageAction(sendInvite ? null : MessageActionType.SUPPRESS)
                     .build();
 
-            UserType created = client.adminCreateUser(req).user();
+            UserType created = call(QuotaCategory.USER_CREATION, "adminCreateUser",
+                    () -> client.adminCreateUser(req)).user();
             return mapper.from(created);
 
         } catch (CognitoIdentityProviderException e) {
@@ -68,10 +144,11 @@ public class CognitoUserAdminAdapter implements CognitoGateway {
     @Override
     public void adminEnable(String username) {
         try {
-            client.adminEnableUser(AdminEnableUserRequest.builder()
-                    .userPoolId(userPoolId)
-                    .username(username)
-                    .build());
+            call(QuotaCategory.USER_UPDATE, "adminEnableUser",
+                    () -> client.adminEnableUser(AdminEnableUserRequest.builder()
+                            .userPoolId(userPoolId)
+                            .username(username)
+                            .build()));
         } catch (CognitoIdentityProviderException e) {
             throw wrap("adminEnable", e);
         }
@@ -80,106 +157,247 @@ public class CognitoUserAdminAdapter implements CognitoGateway {
     @Override
     public void adminDisable(String username) {
         try {
-            client.adminDisableUser(AdminDisableUserRequest.builder()
-                    .userPoolId(userPoolId)
-                    .username(username)
-                    .build());
+            call(QuotaCategory.USER_UPDATE, "adminDisableUser",
+                    () -> client.adminDisableUser(AdminDisableUserRequest.builder()
+                            .userPoolId(userPoolId)
+                            .username(username)
+                            .build()));
         } catch (CognitoIdentityProviderException e) {
             throw wrap("adminDisable", e);
         }
     }
 
+    @Override
+    public void adminDelete(String username) {
+        try {
+            call(QuotaCategory.USER_UPDATE, "adminDeleteUser",
+                    () -> client.adminDeleteUser(AdminDeleteUserRequest.builder()
+                            .userPoolId(userPoolId)
+                            .username(username)
+                            .build()));
+        } catch (CognitoIdentityProviderException e) {
+            throw wrap("adminDelete", e);
+        }
+        patchGroupIndex(index -> index.remove(username));
+    }
+
+    @Override
+    public void adminUpdateAttributes(String username, Map<String, String> attributes) {
+        try {
+            call(QuotaCategory.USER_UPDATE, "adminUpdateUserAttributes",
+                    () -> client.adminUpdateUserAttributes(AdminUpdateUserAttributesRequest.builder()
+                            .userPoolId(userPoolId)
+                            .username(username)
+                            .userAttributes(mapper.toAttributes(attributes))
+                            .build()));
+        } catch (CognitoIdentityProviderException e) {
+            throw wrap("adminUpdateAttributes", e);
+        }
+    }
+
     @Override
     public void adminSetPassword(String username, String password, boolean permanent) {
         try {
-            client.adminSetUserPassword(AdminSetUserPasswordRequest.builder()
-                    .userPoolId(userPoolId)
-                    .username(username)
-                    .password(password)
-                    .permanent(permanent)
-                    .build());
+            call(QuotaCategory.USER_UPDATE, "adminSetUserPassword",
+                    () -> client.adminSetUserPassword(AdminSetUserPasswordRequest.builder()
+                            .userPoolId(userPoolId)
+                            .username(username)
+                            .password(password)
+                            .permanent(permanent)
+                            .build()));
         } catch (CognitoIdentityProviderException e) {
             throw wrap("adminSetPassword", e);
         }
     }
 
     @Override
-    public void adminAddToGroups(String username, List<String> groups) {
-        if (groups == null || groups.isEmpty()) return;
+    public void adminUpdateGroups(String username, Collection<String> add, Collection<String> remove) {
+        List<GroupChange> changes = new ArrayList<>();
+        if (add != null) {
+            add.forEach(g -> changes.add(new GroupChange(g, true)));
+        }
+        if (remove != null) {
+            remove.forEach(g -> changes.add(new GroupChange(g, false)));
+        }
+        if (changes.isEmpty()) return;
 
-        for (String g : groups) {
-            try {
-                System.out.println("Asignando a grupo Cognito: " + g);
-                client.adminAddUserToGroup(AdminAddUserToGroupRequest.builder()
-                        .userPoolId(userPoolId)
-                        .username(username)
-                        .groupName(g)
-                        .build());
-            } catch (CognitoIdentityProviderException e) {
-                throw wrap("adminAddUserToGroup(" + g + ")", e);
-            }
+        // altas y bajas son independientes: un solo fan-out acotado para todas
+        try {
+            fanOut.map(changes, change -> change.add()
+                    ? addToGroup(username, change.group())
+                    : removeFromGroup(username, change.group()));
+        } catch (RuntimeException e) {
+            // no se sabe cuales llegaron: el indice se recarga entero, sin esperarlo
+            refreshGroupIndex();
+            throw e;
+        }
+        List<String> added = add == null ? List.of() : List.copyOf(add);
+        List<String> removed = remove == null ? List.of() : List.copyOf(remove);
+        patchGroupIndex(index -> index.apply(username, added, removed));
+    }
+
+    private record GroupChange(String group, boolean add) {
+    }
+
+    private Object addToGroup(String username, String group) {
+        try {
+            return call(QuotaCategory.USER_UPDATE, "adminAddUserToGroup",
+                    () -> client.adminAddUserToGroup(AdminAddUserToGroupRequest.builder()
+                            .userPoolId(userPoolId)
+                            .username(username)
+                            .groupName(group)
+                            .build()));
+        } catch (CognitoIdentityProviderException e) {
+            throw wrap("adminAddUserToGroup(" + group + ")", e);
+        }
+    }
+
+    private Object removeFromGroup(String username, String group) {
+        try {
+            return call(QuotaCategory.USER_UPDATE, "adminRemoveUserFromGroup",
+                    () -> client.adminRemoveUserFromGroup(AdminRemoveUserFromGroupRequest.builder()
+                            .userPoolId(userPoolId)
+                            .username(username)
+                            .groupName(group)
+                            .build()));
+        } catch (CognitoIdentityProviderException e) {
+            throw wrap("adminRemoveUserFromGroup(" + group + ")", e);
         }
     }
 
     @Override
     public User adminGet(String username) {
         try {
-            AdminGetUserResponse resp = client.adminGetUser(AdminGetUserRequest.builder()
-                    .userPoolId(userPoolId)
-                    .username(username)
-                    .build());
+            // usuario y grupos son independientes: se piden en paralelo
+            return fanOut.both(
+                    () -> call(QuotaCategory.USER_READ, "adminGetUser",
+                            () -> client.adminGetUser(AdminGetUserRequest.builder()
+                                    .userPoolId(userPoolId)
+                                    .username(username)
+                                    .build())),
+                    () -> loadGroups(username),
+                    mapper::from);
+        } catch (CognitoIdentityProviderException e) {
+            throw wrap("adminGet", e);
+        }
+    }
 
-            List<String> groups = loadGroups(username);
+    @Override
+    public User adminGetFresh(String username) {
+        return adminGet(username);
+    }
 
-            return mapper.from(resp, groups);
+    /**
+     * AdminGetUser en un fan-out acotado. Los grupos salen del indice por
+     * grupo (compartido con listUsers) en vez de un AdminListGroupsForUser
+     * por usuario, salvo con group-resolution=per-user.
+     */
+    @Override
+    public Map<String, User> adminGetAll(Collection<String> usernames) {
+        if (usernames.isEmpty()) {
+            return Map.of();
+        }
+        boolean perUser = "per-user".equalsIgnoreCase(groupResolution);
+        try {
+            GroupMembershipIndex index = perUser ? null : groupIndex();
+            List<User> users = fanOut.map(List.copyOf(usernames), username -> {
+                AdminGetUserResponse resp = getUserOrNull(username);
+                if (resp == null) {
+                    return null;
+                }
+                return mapper.from(resp, perUser ? loadGroups(username) : index.groupsOf(username));
+            });
+            Map<String, User> found = new HashMap<>();
+            users.stream().filter(Objects::nonNull).forEach(u -> found.put(u.getUsername(), u));
+            return found;
         } catch (CognitoIdentityProviderException e) {
-            throw wrap("adminGet", e);
+            throw wrap("adminGetAll", e);
+        }
+    }
+
+    private AdminGetUserResponse getUserOrNull(String username) {
+        try {
+            return call(QuotaCategory.USER_READ, "adminGetUser",
+                    () -> client.adminGetUser(AdminGetUserRequest.builder()
+                            .userPoolId(userPoolId)
+                            .username(username)
+                            .build()));
+        } catch (UserNotFoundException e) {
+            return null;
         }
     }
 
 
     @Override
-    public List<User> listUsers(int limit, String filter) {
+    public UserPage listUsers(int limit, String filter, String cursor) {
         try {
             var req = ListUsersRequest.builder()
                     .userPoolId(userPoolId)
                     .limit(limit > 0 ? limit : 20)
                     .filter(filter)
+                    .paginationToken(PaginationCursor.decode(cursor))
                     .build();
 
-            return client.listUsers(req).users().stream()
-                    .map(userType -> {
-                        List<String> groups = loadGroups(userType.username());
-                        return mapper.from(userType, groups);
-                    })
-                    .toList();
+            ListUsersResponse resp = call(QuotaCategory.USER_LIST, "listUsers", () -> client.listUsers(req));
+            List<UserType> users = resp.users();
+
+            return UserPage.builder()
+                    .users(users.isEmpty() ? List.of() : withGroups(users))
+                    .nextCursor(PaginationCursor.encode(resp.paginationToken()))
+                    .build();
 
         } catch (CognitoIdentityProviderException e) {
             throw wrap("listUsers", e);
         }
     }
 
+    private List<User> withGroups(List<UserType> users) {
+        if ("per-user".equalsIgnoreCase(groupResolution)) {
+            return fanOut.map(users, userType -> {
+                List<String> groups = loadGroups(userType.username());
+                return mapper.from(userType, groups);
+            });
+        }
+
+        // Un ListUsersInGroup por grupo conocido, sin importar el tamaño de la pagina
+        GroupMembershipIndex index = groupIndex();
+        return users.stream()
+                .map(userType -> mapper.from(userType, index.groupsOf(userType.username())))
+                .toList();
+    }
+
 
 
     @Override
     public List<String> listGroupsForUser(String username) {
         try {
-            var req = AdminListGroupsForUserRequest.builder()
-                    .userPoolId(userPoolId)
-                    .username(username)
-                    .build();
-
-            return client.adminListGroupsForUser(req)
-                    .groups()
-                    .stream()
-                    .map(GroupType::groupName)
-                    .toList();
+            return loadGroups(username);
 
         } catch (CognitoIdentityProviderException e) {
             throw wrap("adminListGroupsForUser", e);
         }
     }
 
+    /**
+     * Los grupos conocidos salen del mismo indice que usa listUsers: un
+     * recorrido por TTL para ambos en vez de uno por cada consumidor.
+     */
+    @Override
+    public List<String> listUsernamesInGroup(String group) {
+        try {
+            if (Group.fromIamName(group) != null) {
+                List<String> members = groupIndex().membersOf(group);
+                if (members != null) {
+                    return members;
+                }
+            }
+            return listGroupMembers(group);
+
+        } catch (CognitoIdentityProviderException e) {
+            throw wrap("listUsersInGroup(" + group + ")", e);
+        }
+    }
+
 
     private User toDomain(CreateUserRequest req) {
         Map<String, String> attrs = new HashMap<>();
@@ -215,16 +433,154 @@ public class CognitoUserAdminAdapter implements CognitoGateway {
     }
 
 
+    /**
+     * Solo la primera lectura espera la carga del indice. Vencido el TTL se
+     * sigue usando el anterior mientras se recarga en segundo plano, como
+     * los bitmaps de GroupQueryService; las escrituras de esta instancia ya
+     * estan aplicadas en el.
+     */
+    private GroupMembershipIndex groupIndex() {
+        GroupMembershipIndex current = groupIndex;
+        if (current == null) {
+            return initialGroupIndex();
+        }
+        if (!current.isFresh(groupIndexTtl, Instant.now())) {
+            refreshGroupIndex();
+        }
+        return current;
+    }
+
+    // La comparten todas las lecturas que llegan antes del primer indice
+    private GroupMembershipIndex initialGroupIndex() {
+        CompletableFuture<GroupMembershipIndex> mine = new CompletableFuture<>();
+        CompletableFuture<GroupMembershipIndex> load;
+        synchronized (indexWrites) {
+            if (groupIndex != null) {
+                return groupIndex;
+            }
+            if (initialLoad == null) {
+                initialLoad = mine;
+                refreshingIndex.set(true);
+            }
+            load = initialLoad;
+        }
+
+        if (load == mine) {
+            // fuera del lock: la carga son llamadas a Cognito
+            try {
+                mine.complete(reloadGroupIndex());
+            } catch (RuntimeException e) {
+                mine.completeExceptionally(e);
+            } finally {
+                synchronized (indexWrites) {
+                    initialLoad = null;
+                }
+            }
+        }
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    private void refreshGroupIndex() {
+        // sin indice no hay nada que recargar: la proxima lectura lo carga
+        if (groupIndex == null || !refreshingIndex.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            refresher.execute(() -> {
+                try {
+                    reloadGroupIndex();
+                } catch (RuntimeException e) {
+                    log.warn("Group index refresh failed, keeping the one from {}: {}",
+                            groupIndex.loadedAt(), e.getMessage());
+                }
+            });
+        } catch (RuntimeException e) {
+            refreshingIndex.set(false);
+            log.warn("Could not schedule group index refresh: {}", e.getMessage());
+        }
+    }
+
+    // Con refreshingIndex tomado; lo suelta al terminar
+    private GroupMembershipIndex reloadGroupIndex() {
+        try {
+            GroupMembershipIndex loaded = loadGroupIndex();
+            synchronized (indexWrites) {
+                patchesDuringRefresh.forEach(patch -> patch.accept(loaded));
+                groupIndex = loaded;
+                return loaded;
+            }
+        } finally {
+            synchronized (indexWrites) {
+                patchesDuringRefresh.clear();
+                refreshingIndex.set(false);
+            }
+        }
+    }
+
+    private void patchGroupIndex(Consumer<GroupMembershipIndex> patch) {
+        synchronized (indexWrites) {
+            GroupMembershipIndex current = groupIndex;
+            if (current != null) {
+                patch.accept(current);
+            }
+            if (refreshingIndex.get()) {
+                patchesDuringRefresh.add(patch);
+            }
+        }
+    }
+
+    private GroupMembershipIndex loadGroupIndex() {
+        List<String> groupNames = Arrays.stream(Group.values())
+                .map(Group::getIamName)
+                .toList();
+
+        // Un recorrido paginado por grupo, los grupos en paralelo
+        List<List<String>> members = fanOut.map(groupNames, this::listGroupMembers);
+
+        Map<String, List<String>> usersByGroup = new LinkedHashMap<>();
+        for (int i = 0; i < groupNames.size(); i++) {
+            usersByGroup.put(groupNames.get(i), members.get(i));
+        }
+        return GroupMembershipIndex.fromMembers(usersByGroup);
+    }
+
+    // Paginado a mano para que cada pagina pase por el limitador
+    private List<String> listGroupMembers(String groupName) {
+        List<String> usernames = new ArrayList<>();
+        String nextToken = null;
+        try {
+            do {
+                var req = ListUsersInGroupRequest.builder()
+                        .userPoolId(userPoolId)
+                        .groupName(groupName)
+                        .nextToken(nextToken)
+                        .build();
+                ListUsersInGroupResponse resp = call(QuotaCategory.USER_LIST, "listUsersInGroup",
+                        () -> client.listUsersInGroup(req));
+                resp.users().forEach(u -> usernames.add(u.username()));
+                nextToken = resp.nextToken();
+            } while (nextToken != null);
+            return usernames;
+        } catch (ResourceNotFoundException e) {
+            log.warn("Cognito group {} does not exist in pool, skipping", groupName);
+            return List.of();
+        }
+    }
+
     private List<String> loadGroups(String username) {
         var req = AdminListGroupsForUserRequest.builder()
                 .userPoolId(userPoolId)
                 .username(username)
                 .build();
 
-        return client.adminListGroupsForUser(req)
+        return call(QuotaCategory.USER_READ, "adminListGroupsForUser", () -> client.adminListGroupsForUser(req))
                 .groups()
                 .stream()
-                .map(GroupType::groupName) 
+                .map(GroupType::groupName)
                 .toList();
     }
 
@@ -0,0 +1,262 @@
+package com.clinic.users.infrastructure.adapter.out.cognito;
+
+import com.clinic.users.application.port.out.AsyncCognitoGateway;
+import com.clinic.users.domain.exception.DomainException;
+import com.clinic.users.domain.exception.ServiceUnavailableException;
+import com.clinic.users.domain.exception.ThrottledException;
+import com.clinic.users.domain.model.Group;
+import com.clinic.users.domain.model.User;
+import com.clinic.users.domain.model.UserPage;
+import com.clinic.users.infrastructure.concurrent.Futures;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityProviderAsyncClient;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.*;
+
+/**
+ * Adaptador no bloqueante sobre {@link CognitoIdentityProviderAsyncClient}:
+ * ningun hilo queda esperando la respuesta de Cognito. Solo lecturas; cada
+ * llamada pasa por el mismo breaker, limitador y metricas que el adaptador
+ * bloqueante, con los mismos nombres de operacion.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "aws.cognito.async.enabled", havingValue = "true")
+public class CognitoUserAdminAsyncAdapter implements AsyncCognitoGateway {
+
+    private final CognitoIdentityProviderAsyncClient client;
+    private final CognitoMapper mapper;
+    private final CognitoResilience resilience;
+    private final CognitoRateLimiter rateLimiter;
+    private final CognitoMetrics metrics;
+    private final String userPoolId;
+    private final String groupResolution;
+    private final Duration groupIndexTtl;
+
+    private volatile GroupMembershipIndex groupIndex;
+
+    // carga del indice en curso; la comparten todos los que llegan mientras tanto
+    private CompletableFuture<GroupMembershipIndex> loadingIndex;
+
+    public CognitoUserAdminAsyncAdapter(
+            CognitoIdentityProviderAsyncClient client,
+            CognitoMapper mapper,
+            CognitoResilience resilience,
+            CognitoRateLimiter rateLimiter,
+            CognitoMetrics metrics,
+            @Value("${aws.cognito.userPoolId}") String userPoolId,
+            @Value("${aws.cognito.groups.resolution:batched}") String groupResolution, // batched | per-user
+            @Value("${aws.cognito.groups.index-ttl:30s}") Duration groupIndexTtl) {
+        this.client = client;
+        this.mapper = mapper;
+        this.resilience = resilience;
+        this.rateLimiter = rateLimiter;
+        this.metrics = metrics;
+        this.userPoolId = userPoolId;
+        this.groupResolution = groupResolution;
+        this.groupIndexTtl = groupIndexTtl;
+    }
+
+    private DomainException wrap(String op, CognitoIdentityProviderException e) {
+        String msg = (e.awsErrorDetails() != null)
+                ? e.awsErrorDetails().errorMessage()
+                : e.getMessage();
+
+        log.error("Cognito operation {} failed: {}", op, msg);
+        if (e instanceof TooManyRequestsException) {
+            return new ThrottledException("Cognito error on " + op + ": " + msg, e);
+        }
+        if (e.statusCode() >= 500) {
+            return new ServiceUnavailableException("Cognito error on " + op + ": " + msg, e);
+        }
+        return new DomainException("Cognito error on " + op + ": " + msg, e);
+    }
+
+    // mismo orden que el adaptador bloqueante: el bulkhead se toma por intento
+    private <T> CompletableFuture<T> call(QuotaCategory category, String operation,
+                                          Supplier<CompletableFuture<T>> call) {
+        return rateLimiter.callAsync(category, () -> resilience.executeAsync(operation, category.isWrite(),
+                () -> metrics.recordAsync(category, operation, call)));
+    }
+
+    // Traduce los errores de Cognito del future a DomainException
+    private <T> CompletableFuture<T> translate(String op, CompletableFuture<T> future) {
+        return future.handle((value, error) -> {
+            if (error == null) {
+                return value;
+            }
+            Throwable cause = Futures.unwrap(error);
+            if (cause instanceof CognitoIdentityProviderException e) {
+                throw wrap(op, e);
+            }
+            throw new CompletionException(cause);
+        });
+    }
+
+    @Override
+    public CompletableFuture<User> adminGet(String username) {
+        // usuario y grupos se piden en paralelo
+        CompletableFuture<AdminGetUserResponse> user = call(QuotaCategory.USER_READ, "adminGetUser",
+                () -> client.adminGetUser(AdminGetUserRequest.builder()
+                        .userPoolId(userPoolId)
+                        .username(username)
+                        .build()));
+
+        return translate("adminGet", user.thenCombine(loadGroups(username), mapper::from));
+    }
+
+    @Override
+    public CompletableFuture<UserPage> listUsers(int limit, String filter, String cursor) {
+        ListUsersRequest req;
+        try {
+            req = ListUsersRequest.builder()
+                    .userPoolId(userPoolId)
+                    .limit(limit > 0 ? limit : 20)
+                    .filter(filter)
+                    .paginationToken(PaginationCursor.decode(cursor))
+                    .build();
+        } catch (DomainException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        return translate("listUsers", call(QuotaCategory.USER_LIST, "listUsers", () -> client.listUsers(req))
+                .thenCompose(resp -> withGroups(resp.users())
+                        .thenApply(users -> UserPage.builder()
+                                .users(users)
+                                .nextCursor(PaginationCursor.encode(resp.paginationToken()))
+                                .build())));
+    }
+
+    @Override
+    public CompletableFuture<List<String>> listGroupsForUser(String username) {
+        return translate("adminListGroupsForUser", loadGroups(username));
+    }
+
+    private CompletableFuture<List<User>> withGroups(List<UserType> users) {
+        if (users.isEmpty()) {
+            return CompletableFuture.completedFuture(List.of());
+        }
+
+        if ("per-user".equalsIgnoreCase(groupResolution)) {
+            List<CompletableFuture<User>> loads = users.stream()
+                    .map(userType -> loadGroups(userType.username())
+                            .thenApply(groups -> mapper.from(userType, groups)))
+                    .toList();
+            return CompletableFuture.allOf(loads.toArray(CompletableFuture[]::new))
+                    .thenApply(v -> loads.stream().map(CompletableFuture::join).toList());
+        }
+
+        return groupIndex().thenApply(index -> users.stream()
+                .map(userType -> mapper.from(userType, index.groupsOf(userType.username())))
+                .toList());
+    }
+
+    /**
+     * Indice vigente o la carga que ya esta en curso: con el indice vencido,
+     * solo la primera pagina que llega recorre los grupos.
+     */
+    private CompletableFuture<GroupMembershipIndex> groupIndex() {
+        GroupMembershipIndex current = groupIndex;
+        if (current != null && current.isFresh(groupIndexTtl, Instant.now())) {
+            return CompletableFuture.completedFuture(current);
+        }
+
+        CompletableFuture<GroupMembershipIndex> load;
+        synchronized (this) {
+            current = groupIndex;
+            if (current != null && current.isFresh(groupIndexTtl, Instant.now())) {
+                return CompletableFuture.completedFuture(current);
+            }
+            if (loadingIndex != null) {
+                return loadingIndex.copy();
+            }
+            load = new CompletableFuture<>();
+            loadingIndex = load;
+        }
+
+        // fuera del lock: el limitador puede esperar en este hilo
+        loadGroupIndex().whenComplete((index, error) -> {
+            synchronized (this) {
+                if (error == null) {
+                    groupIndex = index;
+                }
+                loadingIndex = null;
+            }
+            if (error == null) {
+                load.complete(index);
+            } else {
+                load.completeExceptionally(Futures.unwrap(error));
+            }
+        });
+        return load.copy();
+    }
+
+    private CompletableFuture<GroupMembershipIndex> loadGroupIndex() {
+        // Los grupos conocidos se recorren en paralelo
+        Map<String, CompletableFuture<List<String>>> members = new LinkedHashMap<>();
+        Arrays.stream(Group.values())
+                .forEach(g -> members.put(g.getIamName(), listGroupMembers(g.getIamName())));
+
+        return CompletableFuture.allOf(members.values().toArray(CompletableFuture[]::new))
+                .thenApply(v -> {
+                    Map<String, List<String>> usersByGroup = new LinkedHashMap<>();
+                    members.forEach((group, usernames) -> usersByGroup.put(group, usernames.join()));
+                    return GroupMembershipIndex.fromMembers(usersByGroup);
+                });
+    }
+
+    private CompletableFuture<List<String>> listGroupMembers(String groupName) {
+        return listGroupMembers(groupName, null, new ArrayList<>())
+                .exceptionally(error -> {
+                    if (Futures.unwrap(error) instanceof ResourceNotFoundException) {
+                        log.warn("Cognito group {} does not exist in pool, skipping", groupName);
+                        return List.of();
+                    }
+                    throw new CompletionException(Futures.unwrap(error));
+                });
+    }
+
+    // Paginado a mano para que cada pagina pase por el limitador
+    private CompletableFuture<List<String>> listGroupMembers(
+            String groupName, String nextToken, List<String> acc) {
+
+        var req = ListUsersInGroupRequest.builder()
+                .userPoolId(userPoolId)
+                .groupName(groupName)
+                .nextToken(nextToken)
+                .build();
+
+        return call(QuotaCategory.USER_LIST, "listUsersInGroup", () -> client.listUsersInGroup(req))
+                .thenCompose(resp -> {
+                    resp.users().forEach(u -> acc.add(u.username()));
+                    if (resp.nextToken() == null) {
+                        return CompletableFuture.completedFuture(acc);
+                    }
+                    return listGroupMembers(groupName, resp.nextToken(), acc);
+                });
+    }
+
+    private CompletableFuture<List<String>> loadGroups(String username) {
+        var req = AdminListGroupsForUserRequest.builder()
+                .userPoolId(userPoolId)
+                .username(username)
+                .build();
+
+        return call(QuotaCategory.USER_READ, "adminListGroupsForUser", () -> client.adminListGroupsForUser(req))
+                .thenApply(resp -> resp.groups().stream()
+                        .map(GroupType::groupName)
+                        .toList());
+    }
+}
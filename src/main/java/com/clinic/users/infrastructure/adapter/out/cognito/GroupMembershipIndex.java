@@ -0,0 +1,102 @@
+package com.clinic.users.infrastructure.adapter.out.cognito;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Indice username -> grupos construido con ListUsersInGroup sobre los grupos
+ * conocidos ({@link com.clinic.users.domain.model.Group}).
+ * Permite resolver los grupos de una pagina completa de usuarios en memoria;
+ * conserva tambien los miembros de cada grupo tal como se leyeron.
+ *
+ * Las listas son inmutables; {@link #apply} reemplaza las de un usuario y sus
+ * grupos para reflejar una escritura sin recorrer el pool otra vez.
+ */
+final class GroupMembershipIndex {
+
+    private final List<String> groups;
+    private final Map<String, List<String>> groupsByUser;
+    private final Map<String, List<String>> usersByGroup;
+    private final Instant loadedAt;
+
+    private GroupMembershipIndex(List<String> groups, Map<String, List<String>> groupsByUser,
+                                 Map<String, List<String>> usersByGroup, Instant loadedAt) {
+        this.groups = groups;
+        this.groupsByUser = groupsByUser;
+        this.usersByGroup = usersByGroup;
+        this.loadedAt = loadedAt;
+    }
+
+    /** Invierte grupo -> usernames (en orden de grupos) a username -> grupos. */
+    static GroupMembershipIndex fromMembers(Map<String, List<String>> usersByGroup) {
+        Map<String, List<String>> groupsByUser = new ConcurrentHashMap<>();
+        usersByGroup.forEach((group, usernames) -> usernames.forEach(username ->
+                groupsByUser.computeIfAbsent(username, k -> new ArrayList<>()).add(group)));
+
+        groupsByUser.replaceAll((username, groups) -> List.copyOf(groups));
+        Map<String, List<String>> members = new ConcurrentHashMap<>();
+        usersByGroup.forEach((group, usernames) -> members.put(group, List.copyOf(usernames)));
+        return new GroupMembershipIndex(List.copyOf(usersByGroup.keySet()), groupsByUser, members, Instant.now());
+    }
+
+    List<String> groupsOf(String username) {
+        return groupsByUser.getOrDefault(username, List.of());
+    }
+
+    /** Miembros del grupo; null si el grupo no es de los que recorre el indice. */
+    List<String> membersOf(String group) {
+        return usersByGroup.get(group);
+    }
+
+    boolean isFresh(Duration ttl, Instant now) {
+        return loadedAt.plus(ttl).isAfter(now);
+    }
+
+    Instant loadedAt() {
+        return loadedAt;
+    }
+
+    /**
+     * Refleja un cambio de membresia ya hecho en Cognito. Los grupos que el
+     * indice no recorre se ignoran. Quien escribe debe serializar las
+     * llamadas; las lecturas no se bloquean.
+     */
+    void apply(String username, Collection<String> add, Collection<String> remove) {
+        Set<String> current = new HashSet<>(groupsOf(username));
+        for (String group : remove) {
+            List<String> members = usersByGroup.get(group);
+            if (members != null && current.remove(group)) {
+                List<String> updated = new ArrayList<>(members);
+                updated.remove(username);
+                usersByGroup.put(group, List.copyOf(updated));
+            }
+        }
+        for (String group : add) {
+            List<String> members = usersByGroup.get(group);
+            if (members != null && current.add(group)) {
+                List<String> updated = new ArrayList<>(members);
+                updated.add(username);
+                usersByGroup.put(group, List.copyOf(updated));
+            }
+        }
+
+        List<String> ordered = groups.stream().filter(current::contains).toList();
+        if (ordered.isEmpty()) {
+            groupsByUser.remove(username);
+        } else {
+            groupsByUser.put(username, ordered);
+        }
+    }
+
+    /** Saca al usuario de todos los grupos (usuario borrado). */
+    void remove(String username) {
+        apply(username, List.of(), groupsOf(username));
+    }
+}
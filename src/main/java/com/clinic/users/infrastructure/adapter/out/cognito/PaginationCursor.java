@@ -0,0 +1,33 @@
+package com.clinic.users.infrastructure.adapter.out.cognito;
+
+import com.clinic.users.domain.exception.DomainException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * El PaginationToken de Cognito se expone como cursor opaco (base64 url-safe).
+ */
+final class PaginationCursor {
+
+    private PaginationCursor() {
+    }
+
+    static String encode(String paginationToken) {
+        if (paginationToken == null || paginationToken.isEmpty()) {
+            return null;
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(paginationToken.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static String decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new DomainException("Invalid cursor", e);
+        }
+    }
+}
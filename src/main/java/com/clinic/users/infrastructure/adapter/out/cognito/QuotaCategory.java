@@ -0,0 +1,20 @@
+package com.clinic.users.infrastructure.adapter.out.cognito;
+
+/**
+ * Categorias de cuota de Cognito usadas por el adaptador. Cognito limita cada
+ * categoria por separado (solicitudes por segundo por user pool).
+ */
+public enum QuotaCategory {
+    /** AdminCreateUser */
+    USER_CREATION,
+    /** AdminGetUser, AdminListGroupsForUser */
+    USER_READ,
+    /** AdminEnableUser, AdminDisableUser, AdminSetUserPassword, AdminAddUserToGroup, AdminUpdateUserAttributes */
+    USER_UPDATE,
+    /** ListUsers, ListUsersInGroup */
+    USER_LIST;
+
+    public boolean isWrite() {
+        return this == USER_CREATION || this == USER_UPDATE;
+    }
+}
@@ -0,0 +1,388 @@
+package com.clinic.users.infrastructure.adapter.out.inmemory;
+
+import com.clinic.users.application.port.out.CognitoGateway;
+import com.clinic.users.domain.exception.DomainException;
+import com.clinic.users.domain.exception.UserAlreadyExistsException;
+import com.clinic.users.domain.model.Group;
+import com.clinic.users.domain.model.GroupSet;
+import com.clinic.users.domain.model.User;
+import com.clinic.users.domain.model.UserAttributes;
+import com.clinic.users.domain.model.UserPage;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * User pool en memoria con la semantica que el servicio usa de Cognito,
+ * para pruebas de carga sin red ni cuota (perfil {@code inmemory}):
+ * <ul>
+ *   <li>usernames unicos (UsernameExists), {@code sub} generado en el alta;</li>
+ *   <li>grupos limitados a los de {@link Group} (ResourceNotFound);</li>
+ *   <li>solo los atributos del schema del pool (InvalidParameter); el
+ *       password y el estado del alta no se guardan como atributos;</li>
+ *   <li>ListUsers ordenado por username, limit 1..60 y token opaco;</li>
+ *   <li>filtros {@code attr = "v"} y {@code attr ^= "prefijo"} sobre username,
+ *       status ("Enabled"/"Disabled") o cualquier atributo.</li>
+ * </ul>
+ * Los errores usan los mismos mensajes y excepciones de dominio que
+ * CognitoUserAdminAdapter.
+ */
+@Slf4j
+@Component
+@Profile("inmemory")
+public class InMemoryCognitoGateway implements CognitoGateway {
+
+    static final int MAX_PAGE_SIZE = 60;
+
+    // Atributos del pool con los nombres del dominio (custom_document es custom:document en Cognito)
+    private static final Set<String> POOL_ATTRIBUTES = Set.of("given_name", "family_name", "email",
+            "email_verified", "phone_number", "address", "birthdate", "custom_document", "custom_role");
+
+    // Como CognitoMapper: vienen en el alta pero no son atributos del pool
+    private static final Set<String> NOT_ATTRIBUTES = Set.of("raw_password", "status");
+
+    private static final Pattern FILTER =
+            Pattern.compile("^\\s*([\\w:]+)\\s*(\\^?=)\\s*\"([^\"]*)\"\\s*$");
+
+    private final NavigableMap<String, StoredUser> users = new ConcurrentSkipListMap<>();
+
+    public InMemoryCognitoGateway(@Value("${users.inmemory.seed-users:0}") int seedUsers) {
+        seed(seedUsers);
+    }
+
+    /** Usuarios seedNNNNN, repartidos entre los grupos conocidos. */
+    void seed(int count) {
+        Group[] groups = Group.values();
+        for (int i = 1; i <= count; i++) {
+            String username = String.format("seed%05d", i);
+            Map<String, String> attrs = new HashMap<>();
+            attrs.put("given_name", "Seed");
+            attrs.put("family_name", "User " + i);
+            attrs.put("email", username + "@clinic.test");
+            attrs.put("phone_number", String.format("+57300%07d", i));
+            attrs.put("address", "Calle " + i);
+            attrs.put("birthdate", "01/01/1990");
+            attrs.put("custom_document", String.valueOf(1_000_000_000L + i));
+            StoredUser user = StoredUser.create(username, attrs);
+            user.groups = GroupSet.of(groups[i % groups.length]);
+            users.put(username, user);
+        }
+        if (count > 0) {
+            log.info("In-memory user pool seeded with {} users", count);
+        }
+    }
+
+    @Override
+    public User adminCreate(User user, String temporaryPassword, boolean sendInvite) {
+        StoredUser created = StoredUser.create(user.getUsername(), poolAttributes("adminCreate", user.getAttributes()));
+        created.password = temporaryPassword;
+        if (users.putIfAbsent(user.getUsername(), created) != null) {
+            throw new UserAlreadyExistsException("Cognito error on adminCreate: User account already exists.");
+        }
+        return created.toDomain(List.of());
+    }
+
+    @Override
+    public void adminEnable(String username) {
+        require(username, "adminEnable").setEnabled(true);
+    }
+
+    @Override
+    public void adminDisable(String username) {
+        require(username, "adminDisable").setEnabled(false);
+    }
+
+    @Override
+    public void adminDelete(String username) {
+        if (username == null || users.remove(username) == null) {
+            throw new DomainException("Cognito error on adminDelete: User does not exist.");
+        }
+    }
+
+    @Override
+    public void adminUpdateAttributes(String username, Map<String, String> attributes) {
+        StoredUser user = require(username, "adminUpdateUserAttributes");
+        Map<String, String> changes = poolAttributes("adminUpdateUserAttributes", attributes);
+        synchronized (user) {
+            UserAttributes.Builder merged = user.attributes.toBuilder();
+            changes.forEach(merged::put);
+            user.attributes = merged.build();
+            user.lastModified = Instant.now();
+        }
+    }
+
+    @Override
+    public void adminSetPassword(String username, String password, boolean permanent) {
+        StoredUser user = require(username, "adminSetPassword");
+        synchronized (user) {
+            user.password = password;
+            user.passwordPermanent = permanent;
+            user.lastModified = Instant.now();
+        }
+    }
+
+    @Override
+    public void adminUpdateGroups(String username, Collection<String> add, Collection<String> remove) {
+        GroupSet added = known(add, "adminAddUserToGroup");
+        GroupSet removed = known(remove, "adminRemoveUserFromGroup");
+        if (added.isEmpty() && removed.isEmpty()) return;
+
+        StoredUser user = require(username, added.isEmpty() ? "adminRemoveUserFromGroup" : "adminAddUserToGroup");
+        synchronized (user) {
+            user.groups = user.groups.minus(removed).union(added);
+        }
+    }
+
+    @Override
+    public User adminGet(String username) {
+        StoredUser user = require(username, "adminGet");
+        return user.toDomain(user.groupsSnapshot());
+    }
+
+    @Override
+    public User adminGetFresh(String username) {
+        return adminGet(username);
+    }
+
+    @Override
+    public Map<String, User> adminGetAll(Collection<String> usernames) {
+        Map<String, User> found = new HashMap<>();
+        for (String username : usernames) {
+            StoredUser user = username == null ? null : users.get(username);
+            if (user != null) {
+                found.put(username, user.toDomain(user.groupsSnapshot()));
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public UserPage listUsers(int limit, String filter, String cursor) {
+        int pageSize = limit > 0 ? limit : 20;
+        if (pageSize > MAX_PAGE_SIZE) {
+            throw new DomainException("Cognito error on listUsers: limit must be less than or equal to " + MAX_PAGE_SIZE);
+        }
+        Predicate<StoredUser> matches = parseFilter(filter);
+
+        String after = decodeCursor(cursor);
+        NavigableMap<String, StoredUser> tail = after == null ? users : users.tailMap(after, false);
+
+        List<User> page = new ArrayList<>(pageSize);
+        String last = null;
+        boolean more = false;
+        for (StoredUser user : tail.values()) {
+            if (!matches.test(user)) {
+                continue;
+            }
+            if (page.size() == pageSize) {
+                more = true;
+                break;
+            }
+            page.add(user.toDomain(user.groupsSnapshot()));
+            last = user.username;
+        }
+
+        return UserPage.builder()
+                .users(page)
+                .nextCursor(more ? encodeCursor(last) : null)
+                .build();
+    }
+
+    /** ListUsersInGroup: miembros del grupo en orden de username; lo usa el simulador HTTP. */
+    public UserPage listUsersInGroup(String group, int limit, String cursor) {
+        Group member = known(group, "listUsersInGroup");
+        int pageSize = limit > 0 ? Math.min(limit, MAX_PAGE_SIZE) : MAX_PAGE_SIZE;
+        String after = decodeCursor(cursor);
+        NavigableMap<String, StoredUser> tail = after == null ? users : users.tailMap(after, false);
+
+        List<User> page = new ArrayList<>(pageSize);
+        String last = null;
+        boolean more = false;
+        for (StoredUser user : tail.values()) {
+            GroupSet groups = user.groups;
+            if (!groups.contains(member)) {
+                continue;
+            }
+            if (page.size() == pageSize) {
+                more = true;
+                break;
+            }
+            page.add(user.toDomain(groups.iamNames()));
+            last = user.username;
+        }
+
+        return UserPage.builder()
+                .users(page)
+                .nextCursor(more ? encodeCursor(last) : null)
+                .build();
+    }
+
+    @Override
+    public List<String> listUsernamesInGroup(String group) {
+        Group member = known(group, "listUsersInGroup");
+        List<String> usernames = new ArrayList<>();
+        for (StoredUser user : users.values()) {
+            if (user.groups.contains(member)) {
+                usernames.add(user.username);
+            }
+        }
+        return usernames;
+    }
+
+    @Override
+    public List<String> listGroupsForUser(String username) {
+        return require(username, "adminListGroupsForUser").groupsSnapshot();
+    }
+
+    int size() {
+        return users.size();
+    }
+
+    private StoredUser require(String username, String op) {
+        StoredUser user = username == null ? null : users.get(username);
+        if (user == null) {
+            throw new DomainException("Cognito error on " + op + ": User does not exist.");
+        }
+        return user;
+    }
+
+    private static GroupSet known(Collection<String> groups, String op) {
+        GroupSet known = GroupSet.none();
+        if (groups != null) {
+            for (String group : groups) {
+                known = known.with(known(group, op));
+            }
+        }
+        return known;
+    }
+
+    private static Group known(String group, String op) {
+        Group known = Group.fromIamName(group);
+        if (known == null) {
+            throw new DomainException("Cognito error on " + op + "(" + group + "): Group not found.");
+        }
+        return known;
+    }
+
+    private static Predicate<StoredUser> parseFilter(String filter) {
+        if (filter == null || filter.isBlank()) {
+            return user -> true;
+        }
+        Matcher m = FILTER.matcher(filter);
+        if (!m.matches()) {
+            throw new DomainException("Cognito error on listUsers: Invalid filter " + filter);
+        }
+        String attribute = m.group(1);
+        boolean prefix = "^=".equals(m.group(2));
+        String value = m.group(3);
+
+        return user -> {
+            String actual = user.filterValue(attribute);
+            if (actual == null) {
+                return false;
+            }
+            return prefix ? actual.startsWith(value) : actual.equals(value);
+        };
+    }
+
+    private static String encodeCursor(String username) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(username.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new DomainException("Invalid cursor", e);
+        }
+    }
+
+    // Cognito rechaza el request entero si un atributo no esta en el schema (InvalidParameter)
+    private static Map<String, String> poolAttributes(String op, Map<String, String> attrs) {
+        Map<String, String> result = new HashMap<>();
+        if (attrs == null) {
+            return result;
+        }
+        attrs.forEach((name, value) -> {
+            if (NOT_ATTRIBUTES.contains(name) || value == null) {
+                return;
+            }
+            if (!POOL_ATTRIBUTES.contains(name)) {
+                throw new DomainException("Cognito error on " + op + ": Attributes did not conform to the schema: "
+                        + name + ": Attribute does not exist in the schema.");
+            }
+            result.put(name, value);
+        });
+        return result;
+    }
+
+    private static final class StoredUser {
+        private final String username;
+        private volatile UserAttributes attributes;
+        private volatile GroupSet groups = GroupSet.none();
+        private volatile boolean enabled = true;
+        // como en Cognito, los cambios de grupos no lo actualizan
+        private volatile Instant lastModified = Instant.now();
+        private String password;
+        private boolean passwordPermanent;
+
+        private StoredUser(String username, UserAttributes attributes) {
+            this.username = username;
+            this.attributes = attributes;
+        }
+
+        static StoredUser create(String username, Map<String, String> attrs) {
+            UserAttributes.Builder attributes = UserAttributes.builder();
+            attrs.forEach(attributes::put);
+            attributes.put("sub", UUID.randomUUID().toString());
+            return new StoredUser(username, attributes.build());
+        }
+
+        void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+            this.lastModified = Instant.now();
+        }
+
+        String filterValue(String attribute) {
+            return switch (attribute) {
+                case "username" -> username;
+                case "status" -> enabled ? "Enabled" : "Disabled";
+                default -> attributes.get(attribute);
+            };
+        }
+
+        List<String> groupsSnapshot() {
+            return groups.iamNames();
+        }
+
+        User toDomain(List<String> groups) {
+            return User.builder()
+                    .username(username)
+                    .enabled(enabled)
+                    .lastModified(lastModified)
+                    .attributes(attributes)
+                    .groups(groups)
+                    .build();
+        }
+    }
+}
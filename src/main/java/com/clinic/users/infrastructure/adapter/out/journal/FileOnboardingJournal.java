@@ -0,0 +1,486 @@
+package com.clinic.users.infrastructure.adapter.out.journal;
+
+import com.clinic.users.application.port.out.OnboardingJournal;
+import com.clinic.users.domain.exception.DomainException;
+import com.clinic.users.domain.model.OnboardingCommand;
+import com.clinic.users.domain.model.OnboardingStatus;
+import com.clinic.users.domain.model.OnboardingStatus.State;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Journal de onboarding en archivos de segmento de solo-append
+ * ({@code segment-NNNNNN.log}). Cada registro es
+ * {@code int longitud | int crc32c | json}; al releer, un registro truncado o
+ * con CRC invalido marca el final de lo escrito y se descarta.
+ *
+ * Un unico hilo escribe: toma todo lo que se acumulo en la cola, lo escribe
+ * entero en el segmento activo y hace un solo fsync para el lote (group
+ * commit), y recien entonces libera a los llamadores de {@link #append}. Si el
+ * lote falla, el segmento vuelve al tamaño que tenia antes de escribirlo: lo
+ * que se confirme despues nunca queda detras de un registro roto.
+ *
+ * Los segmentos se borran en orden, del mas viejo al mas nuevo: uno sin
+ * comandos pendientes puede tener el DONE/FAILED de un alta que sigue en un
+ * segmento anterior, y borrarlo antes haria que ese alta se repita al
+ * reiniciar. Los estados DONE se recuerdan un tiempo acotado.
+ */
+@Slf4j
+@Component
+public class FileOnboardingJournal implements OnboardingJournal, DisposableBean {
+
+    private static final String PREFIX = "segment-";
+    private static final String SUFFIX = ".log";
+
+    private final Path directory;
+    private final long segmentSize;
+    private final ObjectMapper json;
+
+    private static final int DONE_RETENTION = 10_000;
+
+    // PENDING y FAILED; los DONE pasan a recentlyDone, que se vacia solo
+    private final Map<String, OnboardingStatus> statuses = new ConcurrentHashMap<>();
+    private final Cache<String, OnboardingStatus> recentlyDone = Caffeine.newBuilder()
+            .maximumSize(DONE_RETENTION)
+            .expireAfterWrite(Duration.ofHours(24))
+            .build();
+    private final Map<String, OnboardingCommand> pending = new ConcurrentHashMap<>();
+
+    private final BlockingQueue<Write> queue = new LinkedBlockingQueue<>();
+    private final Thread writer;
+    private volatile boolean closed;
+
+    // solo los toca el hilo escritor (y el constructor antes de arrancarlo);
+    // una entrada por segmento que sigue en disco, con sus altas pendientes
+    private final TreeMap<Integer, Set<String>> liveBySegment = new TreeMap<>();
+    private final Map<String, Integer> segmentOf = new HashMap<>();
+    private FileChannel active;
+    private int activeIndex;
+
+    /** Registro tal como va al disco. */
+    record Entry(char type, String id, String username, List<String> groups, String password,
+                 Instant at, String error) {
+    }
+
+    private record Write(Entry entry, CompletableFuture<Void> durable) {
+    }
+
+    /** Como se abre cada segmento; los tests lo reemplazan para inyectar fallos de disco. */
+    interface SegmentOpener {
+        FileChannel open(Path path) throws IOException;
+    }
+
+    private final SegmentOpener opener;
+
+    @Autowired
+    public FileOnboardingJournal(
+            @Value("${users.onboarding.journal-dir}") Path directory,
+            @Value("${users.onboarding.segment-size:16777216}") long segmentSize,
+            ObjectMapper json) throws IOException {
+        this(directory, segmentSize, json, path -> FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND));
+    }
+
+    FileOnboardingJournal(Path directory, long segmentSize, ObjectMapper json, SegmentOpener opener)
+            throws IOException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.json = json;
+        this.opener = opener;
+
+        Files.createDirectories(directory);
+        replay();
+        openSegment(activeIndex + 1);
+        reclaimSegments();
+
+        writer = new Thread(this::writeLoop, "onboarding-journal");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public OnboardingCommand append(OnboardingCommand command) {
+        OnboardingCommand current = pending.putIfAbsent(command.getUsername(), command);
+        if (current != null) {
+            if (sameSteps(current, command)) {
+                // p. ej. una importacion reanudada: el comando del primer intento ya esta en curso
+                log.info("Onboarding of {} is already pending as {}", command.getUsername(), current.getId());
+                return current;
+            }
+            throw new DomainException("Onboarding of " + command.getUsername() + " is already pending");
+        }
+        try {
+            write(new Entry('E', command.getId(), command.getUsername(), command.getGroups(),
+                    command.getPassword(), command.getEnqueuedAt(), null));
+        } catch (RuntimeException e) {
+            pending.remove(command.getUsername(), command);
+            throw e;
+        }
+        recentlyDone.invalidate(command.getUsername());
+        statuses.put(command.getUsername(), OnboardingStatus.builder()
+                .username(command.getUsername())
+                .commandId(command.getId())
+                .state(State.PENDING)
+                .enqueuedAt(command.getEnqueuedAt())
+                .updatedAt(command.getEnqueuedAt())
+                .build());
+        return command;
+    }
+
+    private static boolean sameSteps(OnboardingCommand a, OnboardingCommand b) {
+        return Set.copyOf(a.getGroups()).equals(Set.copyOf(b.getGroups()))
+                && Objects.equals(a.getPassword(), b.getPassword());
+    }
+
+    @Override
+    public void markDone(OnboardingCommand command) {
+        finish(command, State.DONE, null);
+    }
+
+    @Override
+    public void markFailed(OnboardingCommand command, String error) {
+        finish(command, State.FAILED, error);
+    }
+
+    @Override
+    public void recordAttempt(OnboardingCommand command, String error) {
+        statuses.computeIfPresent(command.getUsername(), (username, status) ->
+                status.getCommandId().equals(command.getId())
+                        ? status.toBuilder()
+                            .attempts(status.getAttempts() + 1)
+                            .lastError(error)
+                            .updatedAt(Instant.now())
+                            .build()
+                        : status);
+    }
+
+    @Override
+    public List<OnboardingCommand> pending() {
+        return pending.values().stream()
+                .sorted((a, b) -> a.getEnqueuedAt().compareTo(b.getEnqueuedAt()))
+                .toList();
+    }
+
+    @Override
+    public Optional<OnboardingStatus> status(String username) {
+        OnboardingStatus status = statuses.get(username);
+        return Optional.ofNullable(status != null ? status : recentlyDone.getIfPresent(username));
+    }
+
+    @Override
+    public void destroy() throws InterruptedException, IOException {
+        closed = true;
+        writer.interrupt();
+        writer.join(5_000);
+        active.close();
+    }
+
+    private void finish(OnboardingCommand command, State state, String error) {
+        Instant now = Instant.now();
+        write(new Entry(state == State.DONE ? 'D' : 'F', command.getId(), command.getUsername(),
+                null, null, now, error));
+        pending.remove(command.getUsername(), command);
+        OnboardingStatus finished = statuses.computeIfPresent(command.getUsername(), (username, status) ->
+                status.toBuilder().state(state).lastError(error).updatedAt(now).build());
+        if (state == State.DONE && finished != null) {
+            statuses.remove(command.getUsername(), finished);
+            recentlyDone.put(command.getUsername(), finished);
+        }
+    }
+
+    private void write(Entry entry) {
+        if (closed) {
+            throw new DomainException("Onboarding journal is closed");
+        }
+        CompletableFuture<Void> durable = new CompletableFuture<>();
+        queue.add(new Write(entry, durable));
+        try {
+            durable.join();
+        } catch (CompletionException e) {
+            throw new DomainException("Could not write onboarding journal", e.getCause());
+        }
+    }
+
+    private void writeLoop() {
+        List<Write> batch = new ArrayList<>();
+        while (!closed) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                break;
+            }
+            queue.drainTo(batch);
+            long start = -1;
+            try {
+                ByteBuffer records = encode(batch);
+                // el lote va entero a un solo segmento: si falla, se deshace truncando
+                if (active.size() > 0 && active.size() + records.remaining() > segmentSize) {
+                    active.force(false);
+                    active.close();
+                    openSegment(activeIndex + 1);
+                }
+                start = active.size();
+                while (records.hasRemaining()) {
+                    active.write(records);
+                }
+                active.force(false);
+                batch.forEach(w -> track(w.entry()));
+                // fuera de la confirmacion: un borrado que falla no deshace el lote
+                reclaimSegments();
+                batch.forEach(w -> w.durable().complete(null));
+            } catch (IOException | RuntimeException e) {
+                log.error("Onboarding journal write failed: {}", e.getMessage());
+                if (start >= 0) {
+                    discardFrom(start);
+                }
+                batch.forEach(w -> w.durable().completeExceptionally(e));
+            }
+            batch.clear();
+        }
+        queue.forEach(w -> w.durable().completeExceptionally(new IOException("journal closed")));
+    }
+
+    private ByteBuffer encode(List<Write> batch) throws IOException {
+        List<byte[]> payloads = new ArrayList<>(batch.size());
+        int total = 0;
+        for (Write w : batch) {
+            byte[] payload = json.writeValueAsBytes(w.entry());
+            payloads.add(payload);
+            total += payload.length + 8;
+        }
+        ByteBuffer buf = ByteBuffer.allocate(total);
+        for (byte[] payload : payloads) {
+            CRC32C crc = new CRC32C();
+            crc.update(payload);
+            buf.putInt(payload.length).putInt((int) crc.getValue()).put(payload);
+        }
+        return buf.flip();
+    }
+
+    /**
+     * Deshace un lote que fallo a mitad de camino. Si ni siquiera se puede
+     * truncar, se pasa a un segmento nuevo: la cola rota queda al final del
+     * anterior y al releerlo solo se pierde lo que nunca se confirmo.
+     */
+    private void discardFrom(long position) {
+        try {
+            active.truncate(position);
+            active.force(false);
+        } catch (IOException e) {
+            log.error("Could not truncate onboarding journal segment {}, rolling to a new one: {}",
+                    activeIndex, e.getMessage());
+            try {
+                active.close();
+            } catch (IOException ignored) {
+                // el canal ya estaba roto
+            }
+            try {
+                openSegment(activeIndex + 1);
+            } catch (IOException again) {
+                log.error("Could not open a new onboarding journal segment: {}", again.getMessage());
+            }
+        }
+    }
+
+    // Tras el fsync: un alta queda viva en el segmento activo; un DONE/FAILED
+    // la saca del segmento donde se registro
+    private void track(Entry entry) {
+        if (entry.type() == 'E') {
+            segmentOf.put(entry.id(), activeIndex);
+            liveBySegment.computeIfAbsent(activeIndex, i -> new HashSet<>()).add(entry.id());
+            return;
+        }
+        Integer segment = segmentOf.remove(entry.id());
+        if (segment != null) {
+            liveBySegment.get(segment).remove(entry.id());
+        }
+    }
+
+    /**
+     * Borra los segmentos viejos sin altas pendientes, en orden y sin saltear
+     * ninguno: se frena en el primero que todavia hace falta (o que no se pudo
+     * borrar, y se reintenta con el proximo lote).
+     */
+    private void reclaimSegments() {
+        while (!liveBySegment.isEmpty()) {
+            Map.Entry<Integer, Set<String>> oldest = liveBySegment.firstEntry();
+            if (oldest.getKey() == activeIndex || !oldest.getValue().isEmpty()) {
+                return;
+            }
+            try {
+                Files.deleteIfExists(segmentPath(oldest.getKey()));
+            } catch (IOException e) {
+                log.warn("Could not delete onboarding journal segment {}: {}", oldest.getKey(), e.getMessage());
+                return;
+            }
+            liveBySegment.remove(oldest.getKey());
+        }
+    }
+
+    private void replay() throws IOException {
+        List<Path> segments;
+        try (Stream<Path> files = Files.list(directory)) {
+            segments = files.filter(f -> f.getFileName().toString().startsWith(PREFIX)
+                            && f.getFileName().toString().endsWith(SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+
+        Map<String, Entry> enqueued = new LinkedHashMap<>();
+        int records = 0;
+        for (Path segment : segments) {
+            int index = indexOf(segment);
+            activeIndex = Math.max(activeIndex, index);
+            liveBySegment.computeIfAbsent(index, i -> new HashSet<>());
+            for (Entry entry : readSegment(segment)) {
+                records++;
+                apply(entry, index, enqueued);
+            }
+        }
+
+        enqueued.values().forEach(e -> pending.put(e.username(), OnboardingCommand.builder()
+                .id(e.id())
+                .username(e.username())
+                .groups(e.groups())
+                .password(e.password())
+                .enqueuedAt(e.at())
+                .build()));
+
+        if (records > 0) {
+            log.info("Onboarding journal replayed {} records from {} segments, {} commands pending",
+                    records, segments.size(), pending.size());
+        }
+    }
+
+    private void apply(Entry entry, int segment, Map<String, Entry> enqueued) {
+        switch (entry.type()) {
+            case 'E' -> {
+                enqueued.put(entry.id(), entry);
+                segmentOf.put(entry.id(), segment);
+                liveBySegment.computeIfAbsent(segment, i -> new HashSet<>()).add(entry.id());
+                statuses.put(entry.username(), OnboardingStatus.builder()
+                        .username(entry.username())
+                        .commandId(entry.id())
+                        .state(State.PENDING)
+                        .enqueuedAt(entry.at())
+                        .updatedAt(entry.at())
+                        .build());
+            }
+            case 'D', 'F' -> {
+                enqueued.remove(entry.id());
+                Integer origin = segmentOf.remove(entry.id());
+                if (origin != null) {
+                    liveBySegment.get(origin).remove(entry.id());
+                }
+                OnboardingStatus status = statuses.get(entry.username());
+                if (status == null || !status.getCommandId().equals(entry.id())) {
+                    return;
+                }
+                OnboardingStatus finished = status.toBuilder()
+                        .state(entry.type() == 'D' ? State.DONE : State.FAILED)
+                        .lastError(entry.error())
+                        .updatedAt(entry.at())
+                        .build();
+                if (entry.type() == 'D') {
+                    statuses.remove(entry.username());
+                    recentlyDone.put(entry.username(), finished);
+                } else {
+                    statuses.put(entry.username(), finished);
+                }
+            }
+            default -> log.warn("Unknown onboarding journal record type {}", entry.type());
+        }
+    }
+
+    private List<Entry> readSegment(Path segment) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(8);
+            long position = 0;
+            long size = channel.size();
+            while (position + 8 <= size) {
+                header.clear();
+                channel.read(header, position);
+                header.flip();
+                int length = header.getInt();
+                int expected = header.getInt();
+                if (length <= 0 || position + 8 + length > size) {
+                    break;
+                }
+                ByteBuffer payload = ByteBuffer.allocate(length);
+                channel.read(payload, position + 8);
+                CRC32C crc = new CRC32C();
+                crc.update(payload.array());
+                if ((int) crc.getValue() != expected) {
+                    break;
+                }
+                try {
+                    entries.add(json.readValue(payload.array(), Entry.class));
+                } catch (IOException e) {
+                    break;
+                }
+                position += 8 + length;
+            }
+            if (position < size) {
+                // cola de una escritura interrumpida: nunca se confirmo a nadie
+                log.warn("Truncating torn tail of {} at byte {} of {}", segment.getFileName(), position, size);
+                channel.truncate(position);
+            }
+        }
+        return entries;
+    }
+
+    private void openSegment(int index) throws IOException {
+        activeIndex = index;
+        Path path = segmentPath(index);
+        active = opener.open(path);
+        liveBySegment.computeIfAbsent(index, i -> new HashSet<>());
+        try {
+            // puede llevar passwords (users.onboarding.defer-password)
+            Files.setPosixFilePermissions(path, PosixFilePermissions.fromString("rw-------"));
+        } catch (UnsupportedOperationException e) {
+            log.debug("Filesystem without POSIX permissions, journal segment keeps default ACLs");
+        }
+    }
+
+    private Path segmentPath(int index) {
+        return directory.resolve(String.format("%s%06d%s", PREFIX, index, SUFFIX));
+    }
+
+    private static int indexOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Integer.parseInt(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+}
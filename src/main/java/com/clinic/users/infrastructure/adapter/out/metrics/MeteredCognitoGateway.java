@@ -0,0 +1,132 @@
+package com.clinic.users.infrastructure.adapter.out.metrics;
+
+import com.clinic.users.application.port.out.CognitoGateway;
+import com.clinic.users.domain.exception.ThrottledException;
+import com.clinic.users.domain.model.User;
+import com.clinic.users.domain.model.UserPage;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Decorador externo de la cadena: mide cada metodo de {@link CognitoGateway}
+ * tal como lo ve la capa de aplicacion, con cache y coalescing incluidos.
+ * Timer {@code users.gateway} por method, outcome y exception.
+ * El costo real contra Cognito queda en {@code cognito.api.calls}.
+ */
+@RequiredArgsConstructor
+public class MeteredCognitoGateway implements CognitoGateway {
+
+    static final String TIMER = "users.gateway";
+
+    private final CognitoGateway delegate;
+    private final MeterRegistry registry;
+
+    @Override
+    public User adminCreate(User user, String temporaryPassword, boolean sendInvite) {
+        return timed("adminCreate", () -> delegate.adminCreate(user, temporaryPassword, sendInvite));
+    }
+
+    @Override
+    public void adminEnable(String username) {
+        timed("adminEnable", () -> {
+            delegate.adminEnable(username);
+            return null;
+        });
+    }
+
+    @Override
+    public void adminDisable(String username) {
+        timed("adminDisable", () -> {
+            delegate.adminDisable(username);
+            return null;
+        });
+    }
+
+    @Override
+    public void adminDelete(String username) {
+        timed("adminDelete", () -> {
+            delegate.adminDelete(username);
+            return null;
+        });
+    }
+
+    @Override
+    public void adminUpdateAttributes(String username, Map<String, String> attributes) {
+        timed("adminUpdateAttributes", () -> {
+            delegate.adminUpdateAttributes(username, attributes);
+            return null;
+        });
+    }
+
+    @Override
+    public void adminSetPassword(String username, String password, boolean permanent) {
+        timed("adminSetPassword", () -> {
+            delegate.adminSetPassword(username, password, permanent);
+            return null;
+        });
+    }
+
+    @Override
+    public void adminUpdateGroups(String username, Collection<String> add, Collection<String> remove) {
+        timed("adminUpdateGroups", () -> {
+            delegate.adminUpdateGroups(username, add, remove);
+            return null;
+        });
+    }
+
+    @Override
+    public User adminGet(String username) {
+        return timed("adminGet", () -> delegate.adminGet(username));
+    }
+
+    @Override
+    public User adminGetFresh(String username) {
+        return timed("adminGetFresh", () -> delegate.adminGetFresh(username));
+    }
+
+    @Override
+    public Map<String, User> adminGetAll(Collection<String> usernames) {
+        return timed("adminGetAll", () -> delegate.adminGetAll(usernames));
+    }
+
+    @Override
+    public UserPage listUsers(int limit, String filter, String cursor) {
+        return timed("listUsers", () -> delegate.listUsers(limit, filter, cursor));
+    }
+
+    @Override
+    public List<String> listGroupsForUser(String username) {
+        return timed("listGroupsForUser", () -> delegate.listGroupsForUser(username));
+    }
+
+    @Override
+    public List<String> listUsernamesInGroup(String group) {
+        return timed("listUsernamesInGroup", () -> delegate.listUsernamesInGroup(group));
+    }
+
+    private <T> T timed(String method, Supplier<T> call) {
+        Timer.Sample sample = Timer.start(registry);
+        String outcome = "success";
+        String exception = "none";
+        try {
+            return call.get();
+        } catch (RuntimeException e) {
+            outcome = e instanceof ThrottledException ? "throttled" : "error";
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(TIMER)
+                    .tag("method", method)
+                    .tag("outcome", outcome)
+                    .tag("exception", exception)
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .publishPercentileHistogram()
+                    .register(registry));
+        }
+    }
+}
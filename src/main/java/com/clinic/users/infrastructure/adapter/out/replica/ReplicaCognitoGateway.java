@@ -0,0 +1,148 @@
+package com.clinic.users.infrastructure.adapter.out.replica;
+
+import com.clinic.users.application.port.out.CognitoGateway;
+import com.clinic.users.domain.model.User;
+import com.clinic.users.domain.model.UserAttributes;
+import com.clinic.users.domain.model.UserPage;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Decorador que sirve las lecturas desde {@link UserPoolReplica} mientras
+ * este fresca, y aplica a la replica cada escritura que Cognito confirma.
+ * ListUsers con filtro va siempre a Cognito; una paginacion que empezo en la
+ * replica sigue en ella aunque se venza, porque sus cursores no son de Cognito.
+ */
+@RequiredArgsConstructor
+public class ReplicaCognitoGateway implements CognitoGateway {
+
+    private final CognitoGateway delegate;
+    private final UserPoolReplica replica;
+
+    @Override
+    public User adminCreate(User user, String temporaryPassword, boolean sendInvite) {
+        User created = delegate.adminCreate(user, temporaryPassword, sendInvite);
+        replica.put(created);
+        return created;
+    }
+
+    @Override
+    public void adminEnable(String username) {
+        delegate.adminEnable(username);
+        replica.apply(username, u -> {
+            u.setEnabled(true);
+            return u;
+        });
+    }
+
+    @Override
+    public void adminDisable(String username) {
+        delegate.adminDisable(username);
+        replica.apply(username, u -> {
+            u.setEnabled(false);
+            return u;
+        });
+    }
+
+    @Override
+    public void adminDelete(String username) {
+        delegate.adminDelete(username);
+        replica.remove(username);
+    }
+
+    @Override
+    public void adminUpdateAttributes(String username, Map<String, String> attributes) {
+        delegate.adminUpdateAttributes(username, attributes);
+        replica.apply(username, u -> {
+            UserAttributes.Builder merged = UserAttributes.of(u.getAttributes()).toBuilder();
+            attributes.forEach(merged::put);
+            u.setAttributes(merged.build());
+            return u;
+        });
+    }
+
+    @Override
+    public void adminSetPassword(String username, String password, boolean permanent) {
+        delegate.adminSetPassword(username, password, permanent);
+    }
+
+    @Override
+    public void adminUpdateGroups(String username, Collection<String> add, Collection<String> remove) {
+        delegate.adminUpdateGroups(username, add, remove);
+        replica.apply(username, u -> {
+            u.applyGroupChanges(add, remove);
+            return u;
+        });
+    }
+
+    @Override
+    public User adminGet(String username) {
+        if (replica.isFresh()) {
+            User user = replica.get(username);
+            if (user != null) {
+                return user;
+            }
+            // puede ser mas nuevo que la ultima recarga
+        }
+        return delegate.adminGet(username);
+    }
+
+    @Override
+    public User adminGetFresh(String username) {
+        return delegate.adminGetFresh(username);
+    }
+
+    @Override
+    public Map<String, User> adminGetAll(Collection<String> usernames) {
+        if (!replica.isFresh()) {
+            return delegate.adminGetAll(usernames);
+        }
+        Map<String, User> found = new HashMap<>();
+        List<String> misses = new ArrayList<>();
+        for (String username : usernames) {
+            User user = replica.get(username);
+            if (user != null) {
+                found.put(username, user);
+            } else {
+                misses.add(username);
+            }
+        }
+        // pueden ser mas nuevos que la ultima recarga
+        if (!misses.isEmpty()) {
+            found.putAll(delegate.adminGetAll(misses));
+        }
+        return found;
+    }
+
+    @Override
+    public UserPage listUsers(int limit, String filter, String cursor) {
+        boolean unfiltered = filter == null || filter.isBlank();
+        if (unfiltered && (UserPoolReplica.isReplicaCursor(cursor) || (cursor == null && replica.isFresh()))) {
+            return replica.page(limit, cursor);
+        }
+        return delegate.listUsers(limit, filter, cursor);
+    }
+
+    @Override
+    public List<String> listGroupsForUser(String username) {
+        if (replica.isFresh()) {
+            User user = replica.get(username);
+            if (user != null && user.getGroups() != null) {
+                return user.getGroups();
+            }
+        }
+        return delegate.listGroupsForUser(username);
+    }
+
+    @Override
+    public List<String> listUsernamesInGroup(String group) {
+        if (replica.isFresh()) {
+            return replica.usernamesInGroup(group);
+        }
+        return delegate.listUsernamesInGroup(group);
+    }
+}
@@ -0,0 +1,176 @@
+package com.clinic.users.infrastructure.adapter.out.replica;
+
+import com.clinic.users.domain.model.User;
+import com.clinic.users.domain.model.UserAttributes;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Formato binario de la foto de la replica. Los nombres de atributos y de
+ * grupos van una sola vez en un diccionario y cada usuario los referencia
+ * por indice:
+ * <pre>
+ * int magic | int version | long syncedAt(ms) | int n + n x str   (diccionario)
+ * int usuarios, por usuario:
+ *   str username | byte flags | long lastModified(ms, -1 = null)
+ *   short atributos x (short clave, str valor) | short grupos x short (-1 = null)
+ * str = short longitud + UTF-8
+ * </pre>
+ * Se escribe a un temporal y se renombra (atomico); se lee mapeando el
+ * archivo en memoria, sin copiarlo a un buffer intermedio.
+ */
+final class ReplicaSnapshot {
+
+    static final int MAGIC = 0x55505231; // "UPR1"
+    static final int VERSION = 1;
+
+    private static final int ENABLED = 1;
+    private static final int ENABLED_KNOWN = 2;
+
+    record Loaded(List<User> users, Instant syncedAt) {
+    }
+
+    private ReplicaSnapshot() {
+    }
+
+    static void write(Path path, Collection<User> users, Instant syncedAt) throws IOException {
+        Map<String, Integer> dictionary = new LinkedHashMap<>();
+        for (User user : users) {
+            if (user.getAttributes() != null) {
+                user.getAttributes().forEach((key, value) -> dictionary.putIfAbsent(key, dictionary.size()));
+            }
+            if (user.getGroups() != null) {
+                user.getGroups().forEach(group -> dictionary.putIfAbsent(group, dictionary.size()));
+            }
+        }
+        if (dictionary.size() > Short.MAX_VALUE) {
+            throw new IOException("Too many distinct attribute and group names: " + dictionary.size());
+        }
+
+        Path dir = path.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path tmp = Files.createTempFile(dir, path.getFileName().toString(), ".tmp");
+        try (OutputStream file = Files.newOutputStream(tmp);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file, 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(syncedAt.toEpochMilli());
+            out.writeInt(dictionary.size());
+            for (String name : dictionary.keySet()) {
+                writeString(out, name);
+            }
+
+            out.writeInt(users.size());
+            for (User user : users) {
+                writeString(out, user.getUsername());
+                int flags = user.getEnabled() == null ? 0
+                        : ENABLED_KNOWN | (user.getEnabled() ? ENABLED : 0);
+                out.writeByte(flags);
+                out.writeLong(user.getLastModified() == null ? -1 : user.getLastModified().toEpochMilli());
+
+                Map<String, String> attrs = user.getAttributes() == null ? Map.of() : user.getAttributes();
+                out.writeShort(attrs.size());
+                for (Map.Entry<String, String> attr : attrs.entrySet()) {
+                    out.writeShort(dictionary.get(attr.getKey()));
+                    writeString(out, attr.getValue());
+                }
+
+                List<String> groups = user.getGroups();
+                out.writeShort(groups == null ? -1 : groups.size());
+                if (groups != null) {
+                    for (String group : groups) {
+                        out.writeShort(dictionary.get(group));
+                    }
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    static Loaded read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buf.remaining() < 16 || buf.getInt() != MAGIC || buf.getInt() != VERSION) {
+                throw new IOException("Not a user pool snapshot: " + path);
+            }
+            Instant syncedAt = Instant.ofEpochMilli(buf.getLong());
+
+            String[] dictionary = new String[buf.getInt()];
+            for (int i = 0; i < dictionary.length; i++) {
+                dictionary[i] = readString(buf);
+            }
+
+            int count = buf.getInt();
+            List<User> users = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                String username = readString(buf);
+                int flags = buf.get();
+                long lastModified = buf.getLong();
+
+                int attrCount = buf.getShort();
+                UserAttributes.Builder attrs = UserAttributes.builder();
+                for (int a = 0; a < attrCount; a++) {
+                    String key = dictionary[buf.getShort()];
+                    attrs.put(key, readString(buf));
+                }
+
+                int groupCount = buf.getShort();
+                List<String> groups = null;
+                if (groupCount >= 0) {
+                    String[] names = new String[groupCount];
+                    for (int g = 0; g < groupCount; g++) {
+                        names[g] = dictionary[buf.getShort()];
+                    }
+                    groups = List.of(names);
+                }
+
+                users.add(User.builder()
+                        .username(username)
+                        .enabled((flags & ENABLED_KNOWN) == 0 ? null : (flags & ENABLED) != 0)
+                        .lastModified(lastModified < 0 ? null : Instant.ofEpochMilli(lastModified))
+                        .attributes(attrs.build())
+                        .groups(groups)
+                        .build());
+            }
+            return new Loaded(users, syncedAt);
+        } catch (RuntimeException e) {
+            // BufferUnderflow, indice fuera de rango...: archivo truncado o corrupto
+            throw new IOException("Corrupt user pool snapshot " + path + ": " + e, e);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 0xFFFF) {
+            throw new IOException("String too long for snapshot: " + bytes.length + " bytes");
+        }
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buf) {
+        int length = Short.toUnsignedInt(buf.getShort());
+        byte[] bytes = new byte[length];
+        buf.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,268 @@
+package com.clinic.users.infrastructure.adapter.out.replica;
+
+import com.clinic.users.application.port.out.CognitoGateway;
+import com.clinic.users.domain.exception.DomainException;
+import com.clinic.users.domain.model.User;
+import com.clinic.users.domain.model.UserPage;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.UnaryOperator;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Copia en memoria del user pool, ordenada por username.
+ *
+ * {@link #refresh()} recorre ListUsers completo (Cognito no filtra por
+ * fecha de modificacion) y solo reemplaza las entradas cuyo
+ * UserLastModifiedDate, estado o grupos cambiaron; los grupos llegan ya
+ * resueltos por el adaptador con un ListUsersInGroup por grupo. Las
+ * escrituras de este servicio se aplican al momento, y la siguiente
+ * recarga las pisa con lo que diga Cognito.
+ *
+ * Se considera fresca mientras la ultima recarga completa tenga menos de
+ * {@code maxStaleness}; si no, el gateway vuelve a leer de Cognito.
+ */
+@Slf4j
+public class UserPoolReplica {
+
+    static final int PAGE_SIZE = 60;
+    private static final String CURSOR_PREFIX = "r.";
+
+    private final CognitoGateway source;
+    private final Duration maxStaleness;
+    private final Path snapshotPath;
+
+    private final NavigableMap<String, User> users = new ConcurrentSkipListMap<>();
+    private volatile Instant syncedAt;
+    private volatile boolean dirty;
+    private volatile RefreshResult lastRefresh;
+
+    record RefreshResult(int users, int changed, int removed, long millis) {
+    }
+
+    public UserPoolReplica(CognitoGateway source, Duration maxStaleness, Path snapshotPath) {
+        this.source = source;
+        this.maxStaleness = maxStaleness;
+        this.snapshotPath = snapshotPath;
+    }
+
+    public boolean isFresh() {
+        Instant synced = syncedAt;
+        return synced != null && synced.plus(maxStaleness).isAfter(Instant.now());
+    }
+
+    /** Copia del usuario (User es mutable), o null si la replica no lo tiene. */
+    public User get(String username) {
+        User user = username == null ? null : users.get(username);
+        return user == null ? null : user.copy();
+    }
+
+    public List<String> usernamesInGroup(String group) {
+        List<String> usernames = new ArrayList<>();
+        for (User user : users.values()) {
+            if (user.getGroups() != null && user.getGroups().contains(group)) {
+                usernames.add(user.getUsername());
+            }
+        }
+        return usernames;
+    }
+
+    /** Pagina en orden de username; el cursor lo reconoce {@link #isReplicaCursor}. */
+    public UserPage page(int limit, String cursor) {
+        int pageSize = limit > 0 ? Math.min(limit, PAGE_SIZE) : 20;
+        String after = decodeCursor(cursor);
+        NavigableMap<String, User> tail = after == null ? users : users.tailMap(after, false);
+
+        List<User> page = new ArrayList<>(pageSize);
+        String last = null;
+        boolean more = false;
+        for (User user : tail.values()) {
+            if (page.size() == pageSize) {
+                more = true;
+                break;
+            }
+            page.add(user.copy());
+            last = user.getUsername();
+        }
+        return UserPage.builder()
+                .users(page)
+                .nextCursor(more ? encodeCursor(last) : null)
+                .build();
+    }
+
+    public static boolean isReplicaCursor(String cursor) {
+        return cursor != null && cursor.startsWith(CURSOR_PREFIX);
+    }
+
+    /** Alta confirmada por Cognito. */
+    void put(User user) {
+        users.put(user.getUsername(), user.copy());
+        dirty = true;
+    }
+
+    /** Baja confirmada por Cognito. */
+    void remove(String username) {
+        if (users.remove(username) != null) {
+            dirty = true;
+        }
+    }
+
+    /**
+     * Aplica una escritura ya confirmada por Cognito. lastModified queda en
+     * "ahora" para que la proxima recarga, que trae la fecha de Cognito,
+     * la reemplace.
+     */
+    void apply(String username, UnaryOperator<User> change) {
+        users.computeIfPresent(username, (key, user) -> {
+            User updated = change.apply(user.copy());
+            updated.setLastModified(Instant.now());
+            return updated;
+        });
+        dirty = true;
+    }
+
+    /** Recorrido completo contra el origen; reemplaza solo lo que cambio. */
+    public synchronized RefreshResult refresh() {
+        Instant start = Instant.now();
+        Set<String> seen = new HashSet<>(Math.max(16, users.size() * 2));
+        int changed = 0;
+
+        String cursor = null;
+        do {
+            UserPage page = source.listUsers(PAGE_SIZE, null, cursor);
+            for (User fresh : page.getUsers()) {
+                seen.add(fresh.getUsername());
+                User current = users.get(fresh.getUsername());
+                if (current == null || !sameVersion(current, fresh)) {
+                    users.put(fresh.getUsername(), fresh);
+                    changed++;
+                }
+            }
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        // Lo que no aparecio fue borrado en Cognito, salvo lo escrito aqui durante el recorrido
+        int removed = 0;
+        for (User user : users.values()) {
+            if (!seen.contains(user.getUsername())
+                    && (user.getLastModified() == null || user.getLastModified().isBefore(start))) {
+                users.remove(user.getUsername(), user);
+                removed++;
+            }
+        }
+
+        syncedAt = start;
+        if (changed > 0 || removed > 0) {
+            dirty = true;
+        }
+        RefreshResult result = new RefreshResult(users.size(), changed, removed,
+                Duration.between(start, Instant.now()).toMillis());
+        lastRefresh = result;
+        log.info("User pool replica refreshed: {} users, {} changed, {} removed in {} ms",
+                result.users(), changed, removed, result.millis());
+        return result;
+    }
+
+    /** Escribe la foto si hubo cambios desde la ultima. */
+    public synchronized boolean writeSnapshot() {
+        if (snapshotPath == null || !dirty || syncedAt == null) {
+            return false;
+        }
+        long start = System.nanoTime();
+        dirty = false;
+        try {
+            ReplicaSnapshot.write(snapshotPath, users.values(), syncedAt);
+            log.info("User pool snapshot written: {} users to {} in {} ms", users.size(), snapshotPath,
+                    Duration.ofNanos(System.nanoTime() - start).toMillis());
+            return true;
+        } catch (IOException e) {
+            dirty = true;
+            log.warn("Could not write user pool snapshot {}: {}", snapshotPath, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Carga la ultima foto, si existe. La replica queda con el syncedAt de
+     * la foto: si es mas vieja que maxStaleness no se sirve hasta el primer refresh.
+     */
+    public synchronized boolean loadSnapshot() {
+        if (snapshotPath == null || !Files.isRegularFile(snapshotPath)) {
+            return false;
+        }
+        long start = System.nanoTime();
+        try {
+            ReplicaSnapshot.Loaded loaded = ReplicaSnapshot.read(snapshotPath);
+            loaded.users().forEach(user -> users.put(user.getUsername(), user));
+            syncedAt = loaded.syncedAt();
+            log.info("User pool replica loaded from {}: {} users synced at {} in {} ms", snapshotPath,
+                    loaded.users().size(), loaded.syncedAt(),
+                    Duration.ofNanos(System.nanoTime() - start).toMillis());
+            return true;
+        } catch (IOException e) {
+            log.warn("Ignoring user pool snapshot: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    public int size() {
+        return users.size();
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("users", users.size());
+        body.put("fresh", isFresh());
+        body.put("syncedAt", syncedAt == null ? "never" : syncedAt.toString());
+        body.put("maxStaleness", maxStaleness.toString());
+        body.put("snapshotPath", snapshotPath == null ? "none" : snapshotPath.toString());
+        RefreshResult refresh = lastRefresh;
+        if (refresh != null) {
+            body.put("lastRefresh", Map.of(
+                    "changed", refresh.changed(),
+                    "removed", refresh.removed(),
+                    "millis", refresh.millis()));
+        }
+        return body;
+    }
+
+    private static boolean sameVersion(User current, User fresh) {
+        return Objects.equals(current.getLastModified(), fresh.getLastModified())
+                && Objects.equals(current.getEnabled(), fresh.getEnabled())
+                && Objects.equals(current.getGroups(), fresh.getGroups());
+    }
+
+    private static String encodeCursor(String username) {
+        return CURSOR_PREFIX + Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(username.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        if (!isReplicaCursor(cursor)) {
+            throw new DomainException("Invalid cursor");
+        }
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor.substring(CURSOR_PREFIX.length())),
+                    StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new DomainException("Invalid cursor", e);
+        }
+    }
+}
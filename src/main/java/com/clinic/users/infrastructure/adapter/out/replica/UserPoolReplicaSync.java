@@ -0,0 +1,34 @@
+package com.clinic.users.infrastructure.adapter.out.replica;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Recarga la replica cada {@code users.replica.refresh-interval} y, si
+ * cambio algo, reescribe la foto en disco. La primera recarga corre al
+ * arrancar; si habia foto, la replica ya sirve desde ella mientras tanto.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "users.replica", name = "enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class UserPoolReplicaSync {
+
+    private final UserPoolReplica replica;
+
+    @Scheduled(initialDelayString = "${users.replica.initial-delay:0s}",
+               fixedDelayString = "${users.replica.refresh-interval:30s}")
+    public void refresh() {
+        try {
+            replica.refresh();
+        } catch (RuntimeException e) {
+            log.warn("User pool replica refresh failed, serving {} users until the next attempt: {}",
+                    replica.size(), e.getMessage());
+            return;
+        }
+        replica.writeSnapshot();
+    }
+}
@@ -0,0 +1,300 @@
+package com.clinic.users.infrastructure.adapter.out.simulator;
+
+import com.clinic.users.domain.exception.DomainException;
+import com.clinic.users.domain.exception.UserAlreadyExistsException;
+import com.clinic.users.domain.model.User;
+import com.clinic.users.domain.model.UserAttributes;
+import com.clinic.users.domain.model.UserPage;
+import com.clinic.users.infrastructure.adapter.out.cognito.QuotaCategory;
+import com.clinic.users.infrastructure.adapter.out.inmemory.InMemoryCognitoGateway;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.http.SdkHttpClient;
+import software.amazon.awssdk.http.async.SdkAsyncHttpClient;
+
+/**
+ * Cognito local que se porta mal de forma realista, detras del cliente real
+ * del SDK (aws.cognito.http.client=simulator): CognitoUserAdminAdapter, el
+ * adaptador no bloqueante, limitador, breaker y timeouts corren sin cambios
+ * y sin red.
+ *
+ * Cada llamada, en este orden:
+ * <ol>
+ *   <li>cuota por categoria (solicitudes/segundo) -> TooManyRequestsException;</li>
+ *   <li>latencia lognormal por operacion;</li>
+ *   <li>con probabilidad timeout-rate se cuelga hasta que el SDK aborte el intento;</li>
+ *   <li>con probabilidad error-rate responde InternalErrorException (500);</li>
+ *   <li>si no, ejecuta la operacion sobre un pool en memoria
+ *       (UserNotFoundException, UsernameExistsException, ...).</li>
+ * </ol>
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "aws.cognito.http.client", havingValue = "simulator")
+public class CognitoSimulator {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private static final Map<String, QuotaCategory> CATEGORIES = Map.ofEntries(
+            Map.entry("AdminCreateUser", QuotaCategory.USER_CREATION),
+            Map.entry("AdminGetUser", QuotaCategory.USER_READ),
+            Map.entry("AdminListGroupsForUser", QuotaCategory.USER_READ),
+            Map.entry("AdminEnableUser", QuotaCategory.USER_UPDATE),
+            Map.entry("AdminDisableUser", QuotaCategory.USER_UPDATE),
+            Map.entry("AdminDeleteUser", QuotaCategory.USER_UPDATE),
+            Map.entry("AdminSetUserPassword", QuotaCategory.USER_UPDATE),
+            Map.entry("AdminUpdateUserAttributes", QuotaCategory.USER_UPDATE),
+            Map.entry("AdminAddUserToGroup", QuotaCategory.USER_UPDATE),
+            Map.entry("AdminRemoveUserFromGroup", QuotaCategory.USER_UPDATE),
+            Map.entry("ListUsers", QuotaCategory.USER_LIST),
+            Map.entry("ListUsersInGroup", QuotaCategory.USER_LIST));
+
+    // Schema del pool real; el pool en memoria guarda los custom attributes con los nombres del dominio
+    private static final Map<String, String> POOL_NAMES = Map.of(
+            "given_name", "given_name",
+            "family_name", "family_name",
+            "email", "email",
+            "email_verified", "email_verified",
+            "phone_number", "phone_number",
+            "address", "address",
+            "birthdate", "birthdate",
+            "custom:document", "custom_document",
+            "custom:role", "custom_role");
+    private static final Map<String, String> WIRE_NAMES = Map.of(
+            "custom_document", "custom:document",
+            "custom_role", "custom:role");
+
+    private final InMemoryCognitoGateway pool;
+    private final LatencyModel defaultLatency;
+    private final Map<String, LatencyModel> latencies;
+    private final Map<QuotaCategory, QuotaWindow> quotas = new EnumMap<>(QuotaCategory.class);
+    private final double errorRate;
+    private final double timeoutRate;
+    private final Duration hang;
+
+    public CognitoSimulator(
+            @Value("${aws.cognito.simulator.seed-users:1000}") int seedUsers,
+            @Value("${aws.cognito.simulator.latency.default:40ms/250ms}") String defaultLatency,
+            @Value("${aws.cognito.simulator.latency.operations:}") String latencies,
+            @Value("${aws.cognito.simulator.quota.user-creation:50}") int userCreationQuota,
+            @Value("${aws.cognito.simulator.quota.user-read:120}") int userReadQuota,
+            @Value("${aws.cognito.simulator.quota.user-update:25}") int userUpdateQuota,
+            @Value("${aws.cognito.simulator.quota.user-list:30}") int userListQuota,
+            @Value("${aws.cognito.simulator.error-rate:0.0}") double errorRate,
+            @Value("${aws.cognito.simulator.timeout-rate:0.0}") double timeoutRate,
+            @Value("${aws.cognito.simulator.hang:30s}") Duration hang) {
+        this.pool = new InMemoryCognitoGateway(seedUsers);
+        this.defaultLatency = LatencyModel.parse(defaultLatency);
+        this.latencies = LatencyModel.parseByOperation(latencies);
+        this.quotas.put(QuotaCategory.USER_CREATION, new QuotaWindow(userCreationQuota));
+        this.quotas.put(QuotaCategory.USER_READ, new QuotaWindow(userReadQuota));
+        this.quotas.put(QuotaCategory.USER_UPDATE, new QuotaWindow(userUpdateQuota));
+        this.quotas.put(QuotaCategory.USER_LIST, new QuotaWindow(userListQuota));
+        this.errorRate = errorRate;
+        this.timeoutRate = timeoutRate;
+        this.hang = hang;
+        log.warn("Cognito simulator enabled: no calls will reach AWS");
+    }
+
+    /** Cliente HTTP para el CognitoIdentityProviderClient real. */
+    public SdkHttpClient httpClient() {
+        return new SimulatedCognitoHttpClient(this);
+    }
+
+    /** Lo mismo para el CognitoIdentityProviderAsyncClient (aws.cognito.async.enabled). */
+    public SdkAsyncHttpClient asyncHttpClient() {
+        return new SimulatedCognitoAsyncHttpClient(this);
+    }
+
+    record Response(int status, String body) {
+    }
+
+    Response handle(String operation, byte[] body) throws IOException {
+        QuotaCategory category = CATEGORIES.get(operation);
+        if (category != null && !quotas.get(category).tryAcquire()) {
+            return error(400, "TooManyRequestsException", "Too many requests");
+        }
+
+        Random random = ThreadLocalRandom.current();
+        sleep(latencies.getOrDefault(operation, defaultLatency).sampleNanos(random));
+
+        if (random.nextDouble() < timeoutRate) {
+            // el intento solo termina cuando el SDK lo aborta por apiCallAttemptTimeout
+            sleep(hang.toNanos());
+        }
+        if (random.nextDouble() < errorRate) {
+            return error(500, "InternalErrorException", "Simulated internal error");
+        }
+
+        try {
+            return new Response(200, JSON.writeValueAsString(execute(operation, JSON.readTree(body))));
+        } catch (UserAlreadyExistsException e) {
+            return error(400, "UsernameExistsException", "User account already exists.");
+        } catch (InvalidAttributeException e) {
+            return error(400, "InvalidParameterException", e.getMessage());
+        } catch (DomainException e) {
+            return translate(e);
+        }
+    }
+
+    private ObjectNode execute(String operation, JsonNode req) {
+        ObjectNode resp = JSON.createObjectNode();
+        String username = req.path("Username").asText(null);
+        switch (operation) {
+            case "AdminCreateUser" -> {
+                User user = User.builder()
+                        .username(username)
+                        .enabled(true)
+                        .attributes(attributes(req.path("UserAttributes")))
+                        .build();
+                resp.set("User", userType(
+                        pool.adminCreate(user, req.path("TemporaryPassword").asText(null), false), "Attributes"));
+            }
+            case "AdminGetUser" -> resp.setAll(userType(pool.adminGet(username), "UserAttributes"));
+            case "AdminListGroupsForUser" -> {
+                ArrayNode groups = resp.putArray("Groups");
+                pool.listGroupsForUser(username).forEach(g -> groups.addObject().put("GroupName", g));
+            }
+            case "AdminEnableUser" -> pool.adminEnable(username);
+            case "AdminDisableUser" -> pool.adminDisable(username);
+            case "AdminDeleteUser" -> pool.adminDelete(username);
+            case "AdminUpdateUserAttributes" -> pool.adminUpdateAttributes(username,
+                    attributes(req.path("UserAttributes")));
+            case "AdminSetUserPassword" -> pool.adminSetPassword(username,
+                    req.path("Password").asText(), req.path("Permanent").asBoolean());
+            case "AdminAddUserToGroup" -> pool.adminAddToGroups(username, List.of(req.path("GroupName").asText()));
+            case "AdminRemoveUserFromGroup" -> pool.adminUpdateGroups(username,
+                    List.of(), List.of(req.path("GroupName").asText()));
+            case "ListUsers" -> {
+                UserPage page = pool.listUsers(req.path("Limit").asInt(60),
+                        req.path("Filter").asText(null), req.path("PaginationToken").asText(null));
+                users(resp, page);
+                if (page.getNextCursor() != null) {
+                    resp.put("PaginationToken", page.getNextCursor());
+                }
+            }
+            case "ListUsersInGroup" -> {
+                UserPage page = pool.listUsersInGroup(req.path("GroupName").asText(),
+                        req.path("Limit").asInt(60), req.path("NextToken").asText(null));
+                users(resp, page);
+                if (page.getNextCursor() != null) {
+                    resp.put("NextToken", page.getNextCursor());
+                }
+            }
+            default -> throw new DomainException("Unsupported operation " + operation);
+        }
+        return resp;
+    }
+
+    private static void users(ObjectNode resp, UserPage page) {
+        ArrayNode users = resp.putArray("Users");
+        page.getUsers().forEach(u -> users.add(userType(u, "Attributes")));
+    }
+
+    private static ObjectNode userType(User user, String attributesField) {
+        ObjectNode node = JSON.createObjectNode();
+        node.put("Username", user.getUsername());
+        node.put("Enabled", Boolean.TRUE.equals(user.getEnabled()));
+        node.put("UserStatus", "CONFIRMED");
+        if (user.getLastModified() != null) {
+            // timestamps del protocolo JSON 1.1: segundos epoch con fraccion
+            node.put("UserLastModifiedDate", user.getLastModified().toEpochMilli() / 1000.0);
+        }
+        ArrayNode attrs = node.putArray(attributesField);
+        user.getAttributes().forEach((name, value) -> attrs.addObject()
+                .put("Name", WIRE_NAMES.getOrDefault(name, name))
+                .put("Value", value));
+        return node;
+    }
+
+    // Como Cognito, un atributo fuera del schema rechaza el request entero
+    private static UserAttributes attributes(JsonNode attrs) {
+        UserAttributes.Builder builder = UserAttributes.builder();
+        attrs.forEach(a -> {
+            String name = a.path("Name").asText();
+            String poolName = POOL_NAMES.get(name);
+            if (poolName == null) {
+                throw new InvalidAttributeException("Attributes did not conform to the schema: "
+                        + name + ": Attribute does not exist in the schema.");
+            }
+            builder.put(poolName, a.path("Value").asText());
+        });
+        return builder.build();
+    }
+
+    private static final class InvalidAttributeException extends RuntimeException {
+        InvalidAttributeException(String message) {
+            super(message);
+        }
+    }
+
+    // los mensajes del pool en memoria son los de Cognito
+    private static Response translate(DomainException e) {
+        String message = e.getMessage();
+        if (message.endsWith("User does not exist.")) {
+            return error(400, "UserNotFoundException", "User does not exist.");
+        }
+        if (message.endsWith("Group not found.")) {
+            return error(400, "ResourceNotFoundException", "Group not found.");
+        }
+        // sin el prefijo que agrega el pool: el adaptador pone el suyo
+        return error(400, "InvalidParameterException", message.replaceFirst("^Cognito error on \\w+: ", ""));
+    }
+
+    private static Response error(int status, String type, String message) {
+        ObjectNode node = JSON.createObjectNode();
+        node.put("__type", type);
+        node.put("message", message);
+        return new Response(status, node.toString());
+    }
+
+    private static void sleep(long nanos) throws IOException {
+        if (nanos <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Simulated call aborted");
+        }
+    }
+
+    /** Ventana fija de un segundo, como las cuotas de Cognito. 0 = sin limite. */
+    static final class QuotaWindow {
+        private final int perSecond;
+        private long second;
+        private int used;
+
+        QuotaWindow(int perSecond) {
+            this.perSecond = perSecond;
+        }
+
+        synchronized boolean tryAcquire() {
+            if (perSecond <= 0) {
+                return true;
+            }
+            long now = System.nanoTime() / 1_000_000_000L;
+            if (now != second) {
+                second = now;
+                used = 0;
+            }
+            return ++used <= perSecond;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.clinic.users.infrastructure.adapter.out.simulator;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.springframework.boot.convert.DurationStyle;
+
+/**
+ * Latencia lognormal definida por su mediana y su p99: la cola larga de un
+ * servicio remoto sin tener que elegir mu/sigma a mano.
+ */
+record LatencyModel(Duration median, Duration p99) {
+
+    // z de la normal estandar en el percentil 99
+    private static final double Z_99 = 2.3263;
+
+    static final LatencyModel NONE = new LatencyModel(Duration.ZERO, Duration.ZERO);
+
+    long sampleNanos(Random random) {
+        if (median.isZero()) {
+            return 0;
+        }
+        double mu = Math.log(median.toNanos());
+        double sigma = Math.max(0, (Math.log(Math.max(p99.toNanos(), median.toNanos())) - mu) / Z_99);
+        return (long) Math.exp(mu + sigma * random.nextGaussian());
+    }
+
+    /** "40ms/250ms" -> mediana 40ms, p99 250ms. */
+    static LatencyModel parse(String value) {
+        String[] parts = value.trim().split("/");
+        Duration median = DurationStyle.detectAndParse(parts[0].trim());
+        Duration p99 = parts.length > 1 ? DurationStyle.detectAndParse(parts[1].trim()) : median;
+        return new LatencyModel(median, p99);
+    }
+
+    /** "AdminGetUser:30ms/200ms,ListUsers:80ms/600ms" */
+    static Map<String, LatencyModel> parseByOperation(String value) {
+        Map<String, LatencyModel> models = new HashMap<>();
+        if (value == null || value.isBlank()) {
+            return models;
+        }
+        for (String entry : value.split(",")) {
+            int colon = entry.indexOf(':');
+            models.put(entry.substring(0, colon).trim(), parse(entry.substring(colon + 1)));
+        }
+        return models;
+    }
+}
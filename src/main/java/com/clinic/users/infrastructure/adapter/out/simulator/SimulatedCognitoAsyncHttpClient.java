@@ -0,0 +1,120 @@
+package com.clinic.users.infrastructure.adapter.out.simulator;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.http.SdkHttpResponse;
+import software.amazon.awssdk.http.async.AsyncExecuteRequest;
+import software.amazon.awssdk.http.async.SdkAsyncHttpClient;
+
+/**
+ * Lo mismo que {@link SimulatedCognitoHttpClient} para el cliente no
+ * bloqueante. La latencia simulada corre en hilos propios (el "servidor"),
+ * nunca en el hilo que llama; si el SDK cancela el intento por
+ * apiCallAttemptTimeout, el hilo se interrumpe.
+ */
+final class SimulatedCognitoAsyncHttpClient implements SdkAsyncHttpClient {
+
+    private static final String TARGET_PREFIX = "AWSCognitoIdentityProviderService.";
+
+    private final CognitoSimulator simulator;
+    private final ExecutorService server;
+
+    SimulatedCognitoAsyncHttpClient(CognitoSimulator simulator) {
+        this.simulator = simulator;
+        AtomicInteger counter = new AtomicInteger();
+        this.server = Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "cognito-simulator-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> execute(AsyncExecuteRequest request) {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        String target = request.request().firstMatchingHeader("X-Amz-Target").orElse("");
+        String operation = target.startsWith(TARGET_PREFIX)
+                ? target.substring(TARGET_PREFIX.length())
+                : target;
+
+        body(request).thenAccept(body -> {
+            Future<?> call = server.submit(() -> {
+                try {
+                    CognitoSimulator.Response response = simulator.handle(operation, body);
+                    byte[] bytes = response.body().getBytes(StandardCharsets.UTF_8);
+                    request.responseHandler().onHeaders(SdkHttpResponse.builder()
+                            .statusCode(response.status())
+                            .putHeader("Content-Type", "application/x-amz-json-1.1")
+                            .putHeader("Content-Length", String.valueOf(bytes.length))
+                            .build());
+                    request.responseHandler().onStream(AsyncRequestBody.fromBytes(bytes));
+                    done.complete(null);
+                } catch (Exception e) {
+                    request.responseHandler().onError(e);
+                    done.completeExceptionally(e);
+                }
+            });
+            // el SDK cancela el future cuando vence el intento
+            done.whenComplete((v, error) -> {
+                if (error != null) {
+                    call.cancel(true);
+                }
+            });
+        }).exceptionally(error -> {
+            request.responseHandler().onError(error);
+            done.completeExceptionally(error);
+            return null;
+        });
+        return done;
+    }
+
+    @Override
+    public String clientName() {
+        return "CognitoSimulator";
+    }
+
+    @Override
+    public void close() {
+        server.shutdownNow();
+    }
+
+    // El body de un request JSON 1.1 es chico: se junta entero antes de llamar al simulador
+    private static CompletableFuture<byte[]> body(AsyncExecuteRequest request) {
+        CompletableFuture<byte[]> body = new CompletableFuture<>();
+        request.requestContentPublisher().subscribe(new Subscriber<ByteBuffer>() {
+            private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+            @Override
+            public void onSubscribe(Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(ByteBuffer buffer) {
+                byte[] bytes = new byte[buffer.remaining()];
+                buffer.get(bytes);
+                out.writeBytes(bytes);
+            }
+
+            @Override
+            public void onError(Throwable error) {
+                body.completeExceptionally(error);
+            }
+
+            @Override
+            public void onComplete() {
+                body.complete(out.size() == 0 ? "{}".getBytes(StandardCharsets.UTF_8) : out.toByteArray());
+            }
+        });
+        return body;
+    }
+}
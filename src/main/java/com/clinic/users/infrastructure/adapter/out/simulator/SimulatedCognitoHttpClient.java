@@ -0,0 +1,87 @@
+package com.clinic.users.infrastructure.adapter.out.simulator;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import software.amazon.awssdk.http.AbortableInputStream;
+import software.amazon.awssdk.http.ContentStreamProvider;
+import software.amazon.awssdk.http.ExecutableHttpRequest;
+import software.amazon.awssdk.http.HttpExecuteRequest;
+import software.amazon.awssdk.http.HttpExecuteResponse;
+import software.amazon.awssdk.http.SdkHttpClient;
+import software.amazon.awssdk.http.SdkHttpResponse;
+
+/**
+ * Transporte del SDK que, en vez de abrir un socket, entrega la solicitud
+ * AWS JSON 1.1 (X-Amz-Target + body) a {@link CognitoSimulator}. El SDK
+ * firma, serializa, deserializa errores y aplica timeouts como siempre.
+ */
+final class SimulatedCognitoHttpClient implements SdkHttpClient {
+
+    private static final String TARGET_PREFIX = "AWSCognitoIdentityProviderService.";
+
+    private final CognitoSimulator simulator;
+
+    SimulatedCognitoHttpClient(CognitoSimulator simulator) {
+        this.simulator = simulator;
+    }
+
+    @Override
+    public ExecutableHttpRequest prepareRequest(HttpExecuteRequest request) {
+        return new ExecutableHttpRequest() {
+            private volatile Thread caller;
+
+            @Override
+            public HttpExecuteResponse call() throws IOException {
+                caller = Thread.currentThread();
+                try {
+                    String target = request.httpRequest().firstMatchingHeader("X-Amz-Target").orElse("");
+                    String operation = target.startsWith(TARGET_PREFIX)
+                            ? target.substring(TARGET_PREFIX.length())
+                            : target;
+                    CognitoSimulator.Response response = simulator.handle(operation, body(request));
+
+                    byte[] bytes = response.body().getBytes(StandardCharsets.UTF_8);
+                    return HttpExecuteResponse.builder()
+                            .response(SdkHttpResponse.builder()
+                                    .statusCode(response.status())
+                                    .putHeader("Content-Type", "application/x-amz-json-1.1")
+                                    .putHeader("Content-Length", String.valueOf(bytes.length))
+                                    .build())
+                            .responseBody(AbortableInputStream.create(new ByteArrayInputStream(bytes)))
+                            .build();
+                } finally {
+                    caller = null;
+                }
+            }
+
+            @Override
+            public void abort() {
+                Thread thread = caller;
+                if (thread != null) {
+                    thread.interrupt();
+                }
+            }
+        };
+    }
+
+    @Override
+    public String clientName() {
+        return "CognitoSimulator";
+    }
+
+    @Override
+    public void close() {
+    }
+
+    private static byte[] body(HttpExecuteRequest request) throws IOException {
+        ContentStreamProvider provider = request.contentStreamProvider().orElse(null);
+        if (provider == null) {
+            return "{}".getBytes(StandardCharsets.UTF_8);
+        }
+        try (InputStream in = provider.newStream()) {
+            return in.readAllBytes();
+        }
+    }
+}
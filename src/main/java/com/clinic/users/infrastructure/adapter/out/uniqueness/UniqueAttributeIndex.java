@@ -0,0 +1,162 @@
+package com.clinic.users.infrastructure.adapter.out.uniqueness;
+
+import com.clinic.users.domain.exception.UserAlreadyExistsException;
+import com.clinic.users.domain.model.User;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Indice local cedula -> username y email -> username, para rechazar altas
+ * duplicadas sin recorrer el pool (ListUsers no filtra por atributos custom).
+ *
+ * Se alimenta de las escrituras que pasan por el gateway, de cada usuario
+ * leido y de una sincronizacion periodica ({@link UniqueAttributeIndexSync}).
+ * Las busquedas no toman locks; las escrituras se serializan, que a la
+ * cuota de altas de Cognito no es un cuello de botella.
+ */
+public class UniqueAttributeIndex {
+
+    private final Map<String, String> byDocument = new ConcurrentHashMap<>();
+    private final Map<String, String> byEmail = new ConcurrentHashMap<>();
+    /** username -> claves que tiene indexadas, para soltarlas si cambian. */
+    private final Map<String, Keys> byUsername = new ConcurrentHashMap<>();
+
+    private volatile Instant lastSync;
+
+    record Keys(String document, String email) {
+    }
+
+    /** Lo que hizo una reserva, para poder deshacerla. */
+    public record Reservation(String username, Keys previous, Keys reserved) {
+    }
+
+    /** Dueño actual de la cedula, o null. */
+    public String ownerOfDocument(String document) {
+        String key = documentKey(document);
+        return key == null ? null : byDocument.get(key);
+    }
+
+    /** Dueño actual del email, o null. */
+    public String ownerOfEmail(String email) {
+        String key = emailKey(email);
+        return key == null ? null : byEmail.get(key);
+    }
+
+    /**
+     * Reserva la cedula y el email del usuario antes de crearlo. Si otro
+     * username ya tiene alguno no reserva nada y lanza
+     * {@link UserAlreadyExistsException}.
+     */
+    public synchronized Reservation reserve(User user) {
+        return reserve(user.getUsername(), keysOf(user.getAttributes()));
+    }
+
+    /**
+     * Igual que {@link #reserve(User)} para un cambio de atributos: solo
+     * cuentan la cedula o el email que vengan en {@code changed}; los demas
+     * se mantienen. Null si el cambio no toca ninguno.
+     */
+    public synchronized Reservation reserve(String username, Map<String, String> changed) {
+        Keys requested = keysOf(changed);
+        if (requested.document() == null && requested.email() == null) {
+            return null;
+        }
+        Keys current = byUsername.get(username);
+        return reserve(username, new Keys(
+                requested.document() != null ? requested.document() : current == null ? null : current.document(),
+                requested.email() != null ? requested.email() : current == null ? null : current.email()));
+    }
+
+    private Reservation reserve(String username, Keys keys) {
+        String documentOwner = keys.document() == null ? null : byDocument.get(keys.document());
+        if (documentOwner != null && !documentOwner.equals(username)) {
+            throw new UserAlreadyExistsException("Document " + keys.document() + " is already registered");
+        }
+        String emailOwner = keys.email() == null ? null : byEmail.get(keys.email());
+        if (emailOwner != null && !emailOwner.equals(username)) {
+            throw new UserAlreadyExistsException("Email " + keys.email() + " is already registered");
+        }
+        Keys previous = byUsername.get(username);
+        replace(username, keys);
+        return new Reservation(username, previous, keys);
+    }
+
+    /**
+     * Deshace una reserva cuyo alta fallo: vuelve a las claves que el
+     * username tenia antes (p. ej. si el alta fallo porque ya existia),
+     * salvo que otra escritura las haya cambiado entretanto.
+     */
+    public synchronized void release(Reservation reservation) {
+        if (reservation.reserved().equals(byUsername.get(reservation.username()))) {
+            replace(reservation.username(), reservation.previous());
+        }
+    }
+
+    /** Registra el estado conocido de un usuario (alta confirmada, lectura o sync). */
+    public synchronized void index(User user) {
+        if (user == null || user.getUsername() == null || user.getAttributes() == null) {
+            return;
+        }
+        replace(user.getUsername(), keysOf(user.getAttributes()));
+    }
+
+    /** Suelta las claves de un usuario borrado. */
+    public synchronized void remove(String username) {
+        replace(username, null);
+    }
+
+    void markSynced(Instant at) {
+        lastSync = at;
+    }
+
+    public Map<String, Object> snapshot() {
+        return Map.of(
+                "users", byUsername.size(),
+                "documents", byDocument.size(),
+                "emails", byEmail.size(),
+                "lastSync", lastSync == null ? "never" : lastSync.toString());
+    }
+
+    // Un valor tomado por otro username se deja: gana el primero, el sync lo corrige
+    private void replace(String username, Keys keys) {
+        Keys previous = keys == null ? byUsername.remove(username) : byUsername.put(username, keys);
+        if (previous != null) {
+            if (previous.document() != null) {
+                byDocument.remove(previous.document(), username);
+            }
+            if (previous.email() != null) {
+                byEmail.remove(previous.email(), username);
+            }
+        }
+        if (keys != null) {
+            if (keys.document() != null) {
+                byDocument.putIfAbsent(keys.document(), username);
+            }
+            if (keys.email() != null) {
+                byEmail.putIfAbsent(keys.email(), username);
+            }
+        }
+    }
+
+    private static Keys keysOf(Map<String, String> attrs) {
+        if (attrs == null) {
+            return new Keys(null, null);
+        }
+        String document = attrs.get("custom:document");
+        if (document == null) {
+            document = attrs.get("custom_document");
+        }
+        return new Keys(documentKey(document), emailKey(attrs.get("email")));
+    }
+
+    private static String documentKey(String document) {
+        return document == null || document.isBlank() ? null : document.trim();
+    }
+
+    // Cognito compara emails sin distinguir mayusculas
+    private static String emailKey(String email) {
+        return email == null || email.isBlank() ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,50 @@
+package com.clinic.users.infrastructure.adapter.out.uniqueness;
+
+import com.clinic.users.application.port.out.CognitoGateway;
+import java.time.Duration;
+import java.time.Instant;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Recorre el pool completo cada {@code users.uniqueness.sync-interval} para
+ * recoger usuarios creados o modificados fuera de este servicio. La primera
+ * pasada corre al arrancar, en el hilo del scheduler; hasta que termina el
+ * indice solo conoce lo que paso por el gateway.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "users.uniqueness", name = {"enabled", "sync.enabled"}, havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class UniqueAttributeIndexSync {
+
+    static final int PAGE_SIZE = 60;
+
+    private final CognitoGateway gateway;
+    private final UniqueAttributeIndex index;
+
+    @Scheduled(initialDelayString = "${users.uniqueness.sync-initial-delay:0s}",
+               fixedDelayString = "${users.uniqueness.sync-interval:15m}")
+    public void sync() {
+        Instant start = Instant.now();
+        long users = 0;
+        try {
+            // cada pagina pasa por UniquenessCognitoGateway, que indexa sus usuarios
+            String cursor = null;
+            do {
+                var page = gateway.listUsers(PAGE_SIZE, null, cursor);
+                users += page.getUsers().size();
+                cursor = page.getNextCursor();
+            } while (cursor != null);
+
+            index.markSynced(start);
+            log.info("Uniqueness index synced: {} users in {} ms",
+                    users, Duration.between(start, Instant.now()).toMillis());
+        } catch (RuntimeException e) {
+            log.warn("Uniqueness index sync stopped after {} users: {}", users, e.getMessage());
+        }
+    }
+}
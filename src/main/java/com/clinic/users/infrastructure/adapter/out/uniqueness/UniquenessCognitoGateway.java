@@ -0,0 +1,116 @@
+package com.clinic.users.infrastructure.adapter.out.uniqueness;
+
+import com.clinic.users.application.port.out.CognitoGateway;
+import com.clinic.users.domain.model.User;
+import com.clinic.users.domain.model.UserPage;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Decorador que hace cumplir cedula y email unicos: reserva ambos en
+ * {@link UniqueAttributeIndex} antes de AdminCreateUser (un duplicado falla
+ * sin llamar a Cognito) y los suelta si el alta falla o el usuario se
+ * borra. Cada usuario que vuelve de Cognito actualiza el indice.
+ */
+@RequiredArgsConstructor
+public class UniquenessCognitoGateway implements CognitoGateway {
+
+    private final CognitoGateway delegate;
+    private final UniqueAttributeIndex index;
+
+    @Override
+    public User adminCreate(User user, String temporaryPassword, boolean sendInvite) {
+        if (user == null || user.getUsername() == null) {
+            return delegate.adminCreate(user, temporaryPassword, sendInvite);
+        }
+        UniqueAttributeIndex.Reservation reservation = index.reserve(user);
+        User created;
+        try {
+            created = delegate.adminCreate(user, temporaryPassword, sendInvite);
+        } catch (RuntimeException e) {
+            index.release(reservation);
+            throw e;
+        }
+        index.index(created);
+        return created;
+    }
+
+    @Override
+    public void adminEnable(String username) {
+        delegate.adminEnable(username);
+    }
+
+    @Override
+    public void adminDisable(String username) {
+        delegate.adminDisable(username);
+    }
+
+    @Override
+    public void adminDelete(String username) {
+        delegate.adminDelete(username);
+        index.remove(username);
+    }
+
+    @Override
+    public void adminUpdateAttributes(String username, Map<String, String> attributes) {
+        UniqueAttributeIndex.Reservation reservation = index.reserve(username, attributes);
+        try {
+            delegate.adminUpdateAttributes(username, attributes);
+        } catch (RuntimeException e) {
+            if (reservation != null) {
+                index.release(reservation);
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void adminSetPassword(String username, String password, boolean permanent) {
+        delegate.adminSetPassword(username, password, permanent);
+    }
+
+    @Override
+    public void adminUpdateGroups(String username, Collection<String> add, Collection<String> remove) {
+        delegate.adminUpdateGroups(username, add, remove);
+    }
+
+    @Override
+    public User adminGet(String username) {
+        User user = delegate.adminGet(username);
+        index.index(user);
+        return user;
+    }
+
+    @Override
+    public User adminGetFresh(String username) {
+        User user = delegate.adminGetFresh(username);
+        index.index(user);
+        return user;
+    }
+
+    @Override
+    public Map<String, User> adminGetAll(Collection<String> usernames) {
+        Map<String, User> users = delegate.adminGetAll(usernames);
+        users.values().forEach(index::index);
+        return users;
+    }
+
+    @Override
+    public UserPage listUsers(int limit, String filter, String cursor) {
+        UserPage page = delegate.listUsers(limit, filter, cursor);
+        page.getUsers().forEach(index::index);
+        return page;
+    }
+
+    @Override
+    public List<String> listGroupsForUser(String username) {
+        return delegate.listGroupsForUser(username);
+    }
+
+    @Override
+    public List<String> listUsernamesInGroup(String group) {
+        return delegate.listUsernamesInGroup(group);
+    }
+}
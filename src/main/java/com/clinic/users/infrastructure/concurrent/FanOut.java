@@ -0,0 +1,105 @@
+package com.clinic.users.infrastructure.concurrent;
+
+import com.clinic.users.domain.exception.DomainException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Ejecuta llamadas independientes en paralelo con un limite de concurrencia
+ * por fan-out. Sin executor (modo sequential) todo corre en el hilo que llama.
+ * Las excepciones de las tareas se relanzan tal cual.
+ */
+public class FanOut implements AutoCloseable {
+
+    private final ExecutorService executor;
+    private final int maxConcurrency;
+
+    public FanOut(ExecutorService executor, int maxConcurrency) {
+        this.executor = executor;
+        this.maxConcurrency = Math.max(1, maxConcurrency);
+    }
+
+    public static FanOut sequential() {
+        return new FanOut(null, 1);
+    }
+
+    public <T, R> List<R> map(Collection<T> items, Function<T, R> task) {
+        if (executor == null || items.size() <= 1) {
+            return items.stream().map(task).toList();
+        }
+
+        // El que llama toma el permiso antes de enviar: nunca hay mas de
+        // maxConcurrency tareas de este fan-out en vuelo
+        Semaphore permits = new Semaphore(maxConcurrency);
+        List<Future<R>> futures = new ArrayList<>(items.size());
+        try {
+            for (T item : items) {
+                permits.acquire();
+                futures.add(executor.submit(() -> {
+                    try {
+                        return task.apply(item);
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+
+            List<R> results = new ArrayList<>(futures.size());
+            for (Future<R> future : futures) {
+                results.add(await(future));
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DomainException("Interrupted while waiting for Cognito calls", e);
+        } finally {
+            futures.forEach(f -> f.cancel(true));
+        }
+    }
+
+    public <A, B, R> R both(Supplier<A> first, Supplier<B> second, BiFunction<A, B, R> combine) {
+        if (executor == null) {
+            return combine.apply(first.get(), second.get());
+        }
+
+        Future<B> other = executor.submit(second::get);
+        try {
+            A a = first.get();
+            return combine.apply(a, await(other));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DomainException("Interrupted while waiting for Cognito calls", e);
+        } finally {
+            other.cancel(true);
+        }
+    }
+
+    private static <T> T await(Future<T> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new DomainException("Cognito call failed", e.getCause());
+        }
+    }
+
+    @Override
+    public void close() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+}
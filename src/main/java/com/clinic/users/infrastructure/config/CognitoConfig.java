@@ -1,11 +1,26 @@
 package com.clinic.users.infrastructure.config;
 
+import com.clinic.users.infrastructure.adapter.out.simulator.CognitoSimulator;
+import java.time.Duration;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import software.amazon.awssdk.auth.credentials.*;
+import software.amazon.awssdk.core.retry.RetryPolicy;
+import software.amazon.awssdk.core.retry.RetryUtils;
+import software.amazon.awssdk.core.retry.conditions.RetryCondition;
+import software.amazon.awssdk.http.SdkHttpClient;
+import software.amazon.awssdk.http.apache.ApacheHttpClient;
+import software.amazon.awssdk.http.crt.AwsCrtHttpClient;
+import software.amazon.awssdk.http.crt.TcpKeepAliveConfiguration;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
 import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityProviderAsyncClient;
+import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityProviderAsyncClientBuilder;
 import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityProviderClient;
+import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityProviderClientBuilder;
 
 @Configuration
 public class CognitoConfig {
@@ -28,9 +43,145 @@ public class CognitoConfig {
     @Value("${aws.sessionToken:}")
     private String sessionToken;
 
+    @Value("${aws.cognito.rate-limit.enabled:true}")
+    private boolean rateLimitEnabled;
+
+    // Sin estos limites un Cognito lento deja los hilos esperando los timeouts por defecto del SDK
+    @Value("${aws.cognito.timeouts.api-call:5s}")
+    private Duration apiCallTimeout;
+
+    @Value("${aws.cognito.timeouts.api-call-attempt:2s}")
+    private Duration apiCallAttemptTimeout;
+
+    @Value("${aws.cognito.http.client:apache}") // apache | crt | simulator
+    private String httpClient;
+
+    @Value("${aws.cognito.http.max-connections:64}")
+    private int maxConnections;
+
+    @Value("${aws.cognito.http.connection-timeout:2s}")
+    private Duration connectionTimeout;
+
+    // Solo apache: CRT no expone timeout de socket, lo cubre apiCallAttemptTimeout
+    @Value("${aws.cognito.http.socket-timeout:5s}")
+    private Duration socketTimeout;
+
+    @Value("${aws.cognito.http.connection-acquisition-timeout:1s}")
+    private Duration connectionAcquisitionTimeout;
+
+    @Value("${aws.cognito.http.connection-max-idle-time:60s}")
+    private Duration connectionMaxIdleTime;
+
+    // Vida maxima de una conexion (apache); 0 = sin limite
+    @Value("${aws.cognito.http.connection-ttl:0s}")
+    private Duration connectionTtl;
+
+    @Value("${aws.cognito.http.tcp-keep-alive:true}")
+    private boolean tcpKeepAlive;
+
+    @Bean
+    public CognitoIdentityProviderClient cognitoClient(
+            AwsCredentialsProvider cognitoCredentialsProvider,
+            ObjectProvider<CognitoSimulator> simulator) {
+        CognitoIdentityProviderClientBuilder builder = CognitoIdentityProviderClient.builder();
+        // aws.cognito.http.client=simulator: mismo cliente y adaptador, sin red
+        CognitoSimulator sim = simulator.getIfAvailable();
+        if (sim != null) {
+            builder.httpClient(sim.httpClient());
+        } else {
+            builder.httpClientBuilder(httpClientBuilder());
+        }
+
+        return builder
+                .region(Region.of(region))
+                .credentialsProvider(cognitoCredentialsProvider)
+                .overrideConfiguration(o -> {
+                    o.apiCallTimeout(apiCallTimeout)
+                            .apiCallAttemptTimeout(apiCallAttemptTimeout);
+                    if (rateLimitEnabled) {
+                        // CognitoRateLimiter reintenta los throttling y ajusta su tasa: el SDK no debe ocultarlos
+                        o.retryPolicy(withoutThrottlingRetries());
+                    }
+                })
+                .build();
+    }
+
+    // Cliente no bloqueante (Netty) para CognitoUserAdminAsyncAdapter
     @Bean
-    public CognitoIdentityProviderClient cognitoClient() {
-        AwsCredentialsProvider provider = switch (authMode.toLowerCase()) {
+    @ConditionalOnProperty(name = "aws.cognito.async.enabled", havingValue = "true")
+    public CognitoIdentityProviderAsyncClient cognitoAsyncClient(
+            AwsCredentialsProvider cognitoCredentialsProvider,
+            ObjectProvider<CognitoSimulator> simulator) {
+        CognitoIdentityProviderAsyncClientBuilder builder = CognitoIdentityProviderAsyncClient.builder();
+        // con el simulador las lecturas no bloqueantes tampoco salen a la red
+        CognitoSimulator sim = simulator.getIfAvailable();
+        if (sim != null) {
+            builder.httpClient(sim.asyncHttpClient());
+        } else {
+            builder.httpClientBuilder(NettyNioAsyncHttpClient.builder()
+                    .maxConcurrency(maxConnections)
+                    .connectionTimeout(connectionTimeout)
+                    .connectionAcquisitionTimeout(connectionAcquisitionTimeout)
+                    .connectionMaxIdleTime(connectionMaxIdleTime)
+                    .useIdleConnectionReaper(true)
+                    .tcpKeepAlive(tcpKeepAlive));
+        }
+
+        return builder
+                .region(Region.of(region))
+                .credentialsProvider(cognitoCredentialsProvider)
+                .overrideConfiguration(o -> {
+                    o.apiCallTimeout(apiCallTimeout)
+                            .apiCallAttemptTimeout(apiCallAttemptTimeout);
+                    if (rateLimitEnabled) {
+                        o.retryPolicy(withoutThrottlingRetries());
+                    }
+                })
+                .build();
+    }
+
+    // El SDK es dueño del cliente HTTP construido desde el builder y lo cierra con el cliente de Cognito
+    private SdkHttpClient.Builder<?> httpClientBuilder() {
+        return switch (httpClient.toLowerCase()) {
+            case "crt" -> AwsCrtHttpClient.builder()
+                    .maxConcurrency(maxConnections)
+                    .connectionTimeout(connectionTimeout)
+                    .connectionMaxIdleTime(connectionMaxIdleTime)
+                    .tcpKeepAliveConfiguration(tcpKeepAlive
+                            ? TcpKeepAliveConfiguration.builder()
+                                    .keepAliveInterval(Duration.ofSeconds(30))
+                                    .keepAliveTimeout(Duration.ofSeconds(5))
+                                    .build()
+                            : null);
+            default -> {
+                ApacheHttpClient.Builder apache = ApacheHttpClient.builder()
+                        .maxConnections(maxConnections)
+                        .connectionTimeout(connectionTimeout)
+                        .socketTimeout(socketTimeout)
+                        .connectionAcquisitionTimeout(connectionAcquisitionTimeout)
+                        .connectionMaxIdleTime(connectionMaxIdleTime)
+                        .useIdleConnectionReaper(true)
+                        .tcpKeepAlive(tcpKeepAlive);
+                if (!connectionTtl.isZero()) {
+                    apache.connectionTimeToLive(connectionTtl);
+                }
+                yield apache;
+            }
+        };
+    }
+
+    private static RetryPolicy withoutThrottlingRetries() {
+        RetryCondition defaults = RetryCondition.defaultRetryCondition();
+        return RetryPolicy.builder()
+                .retryCondition(ctx -> !(ctx.exception() != null && RetryUtils.isThrottlingException(ctx.exception()))
+                        && defaults.shouldRetry(ctx))
+                .build();
+    }
+
+    // Compartido por los clientes y por CognitoConnectionWarmer, que lo resuelve antes del primer request
+    @Bean
+    public AwsCredentialsProvider cognitoCredentialsProvider() {
+        return switch (authMode.toLowerCase()) {
             case "static" -> {
                 if (sessionToken != null && !sessionToken.isBlank()) {
                     yield StaticCredentialsProvider.create(
@@ -43,10 +194,5 @@ public class CognitoConfig {
                     (profile == null || profile.isBlank()) ? "default" : profile);
             default -> DefaultCredentialsProvider.create();
         };
-
-        return CognitoIdentityProviderClient.builder()
-                .region(Region.of(region))
-                .credentialsProvider(provider)
-                .build();
     }
 }
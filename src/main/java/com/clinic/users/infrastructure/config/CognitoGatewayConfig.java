@@ -0,0 +1,136 @@
+package com.clinic.users.infrastructure.config;
+
+import com.clinic.users.application.port.out.AsyncCognitoGateway;
+import com.clinic.users.application.port.out.CognitoGateway;
+import com.clinic.users.infrastructure.adapter.out.cache.CachingAsyncCognitoGateway;
+import com.clinic.users.infrastructure.adapter.out.cache.CachingCognitoGateway;
+import com.clinic.users.infrastructure.adapter.out.cache.CoalescingCognitoGateway;
+import com.clinic.users.infrastructure.adapter.out.cache.CognitoUserCache;
+import com.clinic.users.infrastructure.adapter.out.cognito.BlockingAsyncCognitoGateway;
+import com.clinic.users.infrastructure.adapter.out.cognito.CognitoUserAdminAdapter;
+import com.clinic.users.infrastructure.adapter.out.cognito.CognitoUserAdminAsyncAdapter;
+import com.clinic.users.infrastructure.adapter.out.inmemory.InMemoryCognitoGateway;
+import com.clinic.users.infrastructure.adapter.out.metrics.MeteredCognitoGateway;
+import com.clinic.users.infrastructure.adapter.out.replica.ReplicaCognitoGateway;
+import com.clinic.users.infrastructure.adapter.out.replica.UserPoolReplica;
+import com.clinic.users.infrastructure.adapter.out.uniqueness.UniqueAttributeIndex;
+import com.clinic.users.infrastructure.adapter.out.uniqueness.UniquenessCognitoGateway;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.file.Path;
+import java.time.Duration;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+/**
+ * Arma la cadena de decoradores que ve la capa de aplicacion delante del
+ * adaptador de Cognito.
+ */
+@Configuration
+public class CognitoGatewayConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "users.cache", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public CognitoUserCache cognitoUserCache(
+            @Value("${users.cache.maximum-size:10000}") long maximumSize,
+            @Value("${users.cache.ttl:60s}") Duration ttl,
+            @Value("${users.cache.stale-ttl:15m}") Duration staleTtl) {
+        return new CognitoUserCache(maximumSize, ttl, staleTtl);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "users.uniqueness", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public UniqueAttributeIndex uniqueAttributeIndex() {
+        return new UniqueAttributeIndex();
+    }
+
+    /**
+     * Replica local del pool (users.replica.enabled=true). Se recarga contra
+     * el adaptador directo y arranca desde la ultima foto en disco, si hay.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "users.replica", name = "enabled", havingValue = "true")
+    public UserPoolReplica userPoolReplica(
+            ObjectProvider<CognitoUserAdminAdapter> adapter,
+            ObjectProvider<InMemoryCognitoGateway> inMemory,
+            @Value("${users.replica.max-staleness:2m}") Duration maxStaleness,
+            @Value("${users.replica.snapshot-path:}") String snapshotPath) {
+        UserPoolReplica replica = new UserPoolReplica(base(adapter, inMemory), maxStaleness,
+                snapshotPath.isBlank() ? null : Path.of(snapshotPath));
+        replica.loadSnapshot();
+        return replica;
+    }
+
+    @Bean
+    @Primary
+    public CognitoGateway cognitoGateway(
+            ObjectProvider<CognitoUserAdminAdapter> adapter,
+            ObjectProvider<InMemoryCognitoGateway> inMemory,
+            ObjectProvider<CognitoUserCache> userCache,
+            ObjectProvider<UniqueAttributeIndex> uniqueIndex,
+            ObjectProvider<UserPoolReplica> replica,
+            MeterRegistry meterRegistry,
+            @Value("${users.coalescing.enabled:true}") boolean coalescing) {
+
+        CognitoGateway gateway = base(adapter, inMemory);
+
+        if (coalescing) {
+            gateway = new CoalescingCognitoGateway(gateway);
+        }
+
+        // las lecturas que sirve la replica siguen pasando por el indice de unicidad
+        UserPoolReplica pool = replica.getIfAvailable();
+        if (pool != null) {
+            gateway = new ReplicaCognitoGateway(gateway, pool);
+        }
+
+        // antes del cache: ve cada alta y cada usuario que llega de Cognito
+        UniqueAttributeIndex index = uniqueIndex.getIfAvailable();
+        if (index != null) {
+            gateway = new UniquenessCognitoGateway(gateway, index);
+        }
+
+        CognitoUserCache cache = userCache.getIfAvailable();
+        if (cache != null) {
+            gateway = new CachingCognitoGateway(gateway, cache);
+        }
+
+        return new MeteredCognitoGateway(gateway, meterRegistry);
+    }
+
+    // perfil inmemory: mismo stack de decoradores sobre el pool en memoria
+    private static CognitoGateway base(
+            ObjectProvider<CognitoUserAdminAdapter> adapter,
+            ObjectProvider<InMemoryCognitoGateway> inMemory) {
+        CognitoGateway gateway = inMemory.getIfAvailable();
+        return gateway != null ? gateway : adapter.getObject();
+    }
+
+    /**
+     * Sin cliente asincrono los casos de uso async corren sobre la cadena
+     * bloqueante; con aws.cognito.async.enabled=true se usa
+     * CognitoUserAdminAsyncAdapter (ver {@link #asyncCognitoGateway}).
+     */
+    @Bean
+    @ConditionalOnProperty(name = "aws.cognito.async.enabled", havingValue = "false", matchIfMissing = true)
+    public AsyncCognitoGateway blockingAsyncCognitoGateway(CognitoGateway cognitoGateway) {
+        return new BlockingAsyncCognitoGateway(cognitoGateway);
+    }
+
+    /**
+     * Con el cliente asincrono las lecturas comparten la cache de usuarios de
+     * la cadena bloqueante, asi no ven un usuario distinto segun el camino.
+     */
+    @Bean
+    @Primary
+    @ConditionalOnProperty(name = "aws.cognito.async.enabled", havingValue = "true")
+    public AsyncCognitoGateway asyncCognitoGateway(
+            CognitoUserAdminAsyncAdapter adapter,
+            ObjectProvider<CognitoUserCache> userCache) {
+        CognitoUserCache cache = userCache.getIfAvailable();
+        return cache != null ? new CachingAsyncCognitoGateway(adapter, cache) : adapter;
+    }
+}
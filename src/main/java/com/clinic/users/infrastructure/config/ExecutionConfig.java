@@ -0,0 +1,109 @@
+package com.clinic.users.infrastructure.config;
+
+import com.clinic.users.infrastructure.concurrent.FanOut;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+@Slf4j
+@Configuration
+public class ExecutionConfig {
+
+    @Value("${users.execution.mode:platform}") // sequential | platform | virtual
+    private String mode;
+
+    @Value("${users.execution.fanout.max-concurrency:8}")
+    private int maxConcurrency;
+
+    @Value("${users.execution.platform.max-threads:64}")
+    private int platformMaxThreads;
+
+    @Value("${users.batch.parallelism:8}")
+    private int batchParallelism;
+
+    @Value("${users.creation.parallelism:16}")
+    private int creationParallelism;
+
+    @Value("${users.onboarding.parallelism:2}")
+    private int onboardingParallelism;
+
+    @Value("${spring.task.scheduling.pool.size:2}")
+    private int schedulingPoolSize;
+
+    @Bean
+    public FanOut cognitoFanOut() {
+        return switch (mode.toLowerCase()) {
+            case "sequential" -> FanOut.sequential();
+            case "virtual" -> new FanOut(virtualOrPlatformExecutor(), maxConcurrency);
+            default -> new FanOut(platformExecutor(), maxConcurrency);
+        };
+    }
+
+    // Cuantos usuarios de un alta masiva avanzan a la vez contra Cognito
+    @Bean
+    public ExecutorService provisioningExecutor() {
+        return Executors.newFixedThreadPool(batchParallelism, namedThreads("user-provisioning-"));
+    }
+
+    // Pasos en paralelo de un alta individual: separado del de lotes para que un
+    // alta interactiva no espere detras de miles de filas. Sin cola: si esta
+    // lleno, el paso corre en el hilo del request
+    @Bean
+    public ExecutorService creationExecutor() {
+        return new ThreadPoolExecutor(0, creationParallelism, 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), namedThreads("user-creation-"), (task, pool) -> task.run());
+    }
+
+    // Drena el journal de onboarding; tambien agenda los reintentos con backoff
+    @Bean
+    public ScheduledExecutorService onboardingExecutor() {
+        return Executors.newScheduledThreadPool(onboardingParallelism, namedThreads("user-onboarding-"));
+    }
+
+    // Un ScheduledExecutorService como bean apaga el taskScheduler de Boot y los
+    // @Scheduled (recorridos completos del pool) terminarian en el pool de onboarding
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(schedulingPoolSize);
+        scheduler.setThreadNamePrefix("scheduling-");
+        return scheduler;
+    }
+
+    // Executors.newVirtualThreadPerTaskExecutor existe desde JDK 21; el proyecto compila con 17
+    private ExecutorService virtualOrPlatformExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            log.warn("Virtual threads need JDK 21+, running fan-out on platform threads");
+            return platformExecutor();
+        }
+    }
+
+    // Si el pool se llena (o ya se cerro) la tarea corre en el hilo que llama
+    private ExecutorService platformExecutor() {
+        return new ThreadPoolExecutor(0, platformMaxThreads, 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), namedThreads("cognito-fanout-"), (task, pool) -> task.run());
+    }
+
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger seq = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, prefix + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+}
@@ -2,8 +2,15 @@ package com.clinic.users;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
 
+// application.properties gana sobre el application.yaml de test: los overrides van aca.
+// El contexto de prueba no tiene un pool que recorrer ni escribe el journal fuera de target
 @SpringBootTest
+@TestPropertySource(properties = {
+		"users.uniqueness.sync.enabled=false",
+		"users.onboarding.journal-dir=target/test-onboarding"
+})
 class UsersApplicationTests {
 
 	@Test
@@ -0,0 +1,115 @@
+package com.clinic.users.application.service;
+
+import com.clinic.users.application.port.out.CognitoGateway;
+import com.clinic.users.domain.exception.DomainException;
+import com.clinic.users.domain.model.Group;
+import com.clinic.users.domain.model.GroupQueryResult;
+import com.clinic.users.domain.model.GroupSet;
+import com.clinic.users.domain.model.User;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GroupQueryServiceTest {
+
+    @Mock
+    private CognitoGateway gateway;
+
+    private final List<Runnable> refreshes = new ArrayList<>();
+    private GroupQueryService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new GroupQueryService(gateway, refreshes::add, Duration.ofMinutes(1));
+    }
+
+    private void stubMembers() {
+        when(gateway.listUsernamesInGroup(anyString())).thenReturn(List.of());
+        when(gateway.listUsernamesInGroup("doctor")).thenReturn(List.of("carol", "ana", "bob"));
+        when(gateway.listUsernamesInGroup("support")).thenReturn(List.of("bob", "dave", "ana"));
+        when(gateway.listUsernamesInGroup("nurse")).thenReturn(List.of("erin"));
+    }
+
+    @Test
+    void shouldIntersectGroupsInUsernameOrder() {
+        stubMembers();
+
+        GroupQueryResult result = service.membersOfAll(GroupSet.of(Group.MEDICO, Group.SOPORTE), 100);
+
+        assertEquals(2, result.getCount());
+        assertEquals(List.of("ana", "bob"), result.getUsernames());
+        assertEquals(List.of("doctor", "support"), result.getGroups().iamNames());
+    }
+
+    @Test
+    void shouldUnionGroupsAndCapUsernamesAtLimit() {
+        stubMembers();
+
+        GroupQueryResult result = service.membersOfAny(
+                GroupSet.of(Group.MEDICO, Group.SOPORTE, Group.ENFERMERA), 3);
+
+        assertEquals(5, result.getCount());
+        assertEquals(List.of("ana", "bob", "carol"), result.getUsernames());
+    }
+
+    @Test
+    void shouldLoadIndexOncePerTtl() {
+        stubMembers();
+
+        service.membersOfAll(GroupSet.of(Group.MEDICO), 0);
+        service.membersOfAny(GroupSet.of(Group.SOPORTE), 0);
+
+        verify(gateway, times(1)).listUsernamesInGroup("doctor");
+        verify(gateway, times(Group.values().length)).listUsernamesInGroup(anyString());
+    }
+
+    @Test
+    void shouldServeStaleIndexWhileRefreshingInBackground() {
+        service = new GroupQueryService(gateway, refreshes::add, Duration.ZERO);
+        stubMembers();
+        service.membersOfAll(GroupSet.of(Group.MEDICO), 0);
+
+        when(gateway.listUsernamesInGroup("doctor")).thenReturn(List.of("ana"));
+        assertEquals(3, service.membersOfAll(GroupSet.of(Group.MEDICO), 0).getCount());
+        assertEquals(3, service.membersOfAll(GroupSet.of(Group.MEDICO), 0).getCount());
+        // una sola recarga pendiente aunque lleguen varias consultas
+        assertEquals(1, refreshes.size());
+
+        refreshes.get(0).run();
+
+        assertEquals(1, service.membersOfAll(GroupSet.of(Group.MEDICO), 0).getCount());
+        verify(gateway, times(2)).listUsernamesInGroup("doctor");
+    }
+
+    @Test
+    void shouldRejectEmptyGroupsAndOutOfRangeLimit() {
+        assertThrows(DomainException.class, () -> service.membersOfAll(GroupSet.none(), 10));
+        assertThrows(DomainException.class,
+                () -> service.membersOfAny(GroupSet.of(Group.MEDICO), GroupQueryService.MAX_LIMIT + 1));
+        verifyNoInteractions(gateway);
+    }
+
+    @Test
+    void shouldResolveMembershipAsBitmask() {
+        User user = User.builder().groups(List.of("support", "doctor", "pilots")).build();
+
+        assertEquals(GroupSet.of(Group.MEDICO, Group.SOPORTE), user.membership());
+        assertTrue(user.isMemberOf(Group.SOPORTE));
+        assertFalse(user.isMemberOf(Group.RRHH));
+        assertEquals(List.of("doctor", "support"), user.membership().iamNames());
+
+        user.setGroups(List.of("nurse"));
+        assertEquals(GroupSet.of(Group.ENFERMERA), user.membership());
+        assertEquals(GroupSet.of(Group.ENFERMERA), user.copy().membership());
+    }
+}
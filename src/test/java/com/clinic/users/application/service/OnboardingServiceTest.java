@@ -0,0 +1,110 @@
+package com.clinic.users.application.service;
+
+import com.clinic.users.application.port.in.UserAdminUseCase;
+import com.clinic.users.domain.exception.ThrottledException;
+import com.clinic.users.domain.exception.DomainException;
+import com.clinic.users.domain.model.OnboardingStatus;
+import com.clinic.users.infrastructure.adapter.out.journal.FileOnboardingJournal;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class OnboardingServiceTest {
+
+    @TempDir
+    Path dir;
+
+    private final UserAdminUseCase adminUseCase = mock(UserAdminUseCase.class);
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+    private FileOnboardingJournal journal;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        journal = new FileOnboardingJournal(dir, 1 << 20, new ObjectMapper().findAndRegisterModules());
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        executor.shutdownNow();
+        journal.destroy();
+    }
+
+    private OnboardingService service() {
+        return new OnboardingService(adminUseCase, journal, executor, 3, Duration.ofMillis(5));
+    }
+
+    private OnboardingStatus awaitTerminal(String username) throws InterruptedException {
+        for (int i = 0; i < 200; i++) {
+            OnboardingStatus status = journal.status(username).orElseThrow();
+            if (status.getState() != OnboardingStatus.State.PENDING) {
+                return status;
+            }
+            Thread.sleep(10);
+        }
+        fail("onboarding of " + username + " did not finish");
+        return null;
+    }
+
+    @Test
+    void shouldApplyGroupsInTheBackground() throws Exception {
+        OnboardingStatus status = service().completeOnboarding("ana", List.of("doctor"), null);
+
+        assertEquals(OnboardingStatus.State.PENDING, status.getState());
+
+        assertEquals(OnboardingStatus.State.DONE, awaitTerminal("ana").getState());
+        verify(adminUseCase).addUserToGroups("ana", List.of("doctor"));
+        verify(adminUseCase, never()).setPermanentPassword(anyString(), anyString());
+    }
+
+    @Test
+    void shouldRetryTransientFailuresWithBackoff() throws Exception {
+        doThrow(new ThrottledException("slow down"))
+                .doThrow(new ThrottledException("slow down"))
+                .doNothing()
+                .when(adminUseCase).addUserToGroups("bob", List.of("nurse"));
+
+        service().completeOnboarding("bob", List.of("nurse"), "Secreta#2024");
+
+        OnboardingStatus status = awaitTerminal("bob");
+        assertEquals(OnboardingStatus.State.DONE, status.getState());
+        assertEquals(2, status.getAttempts());
+        verify(adminUseCase).setPermanentPassword("bob", "Secreta#2024");
+    }
+
+    @Test
+    void shouldGiveUpAfterMaxAttempts() throws Exception {
+        doThrow(new ThrottledException("slow down"))
+                .when(adminUseCase).addUserToGroups("eve", List.of("support"));
+
+        service().completeOnboarding("eve", List.of("support"), null);
+
+        OnboardingStatus status = awaitTerminal("eve");
+        assertEquals(OnboardingStatus.State.FAILED, status.getState());
+        assertTrue(status.getLastError().contains("slow down"));
+        assertTrue(journal.pending().isEmpty());
+    }
+
+    @Test
+    void shouldRejectAnInvalidDeferredPasswordUpFront() {
+        assertThrows(DomainException.class, () -> service()
+                .completeOnboarding("ana", List.of("doctor"), "short"));
+        assertTrue(journal.status("ana").isEmpty());
+        verifyNoInteractions(adminUseCase);
+    }
+
+    @Test
+    void shouldReturnDoneWhenThereIsNothingToDefer() {
+        assertTrue(service().completeOnboarding("ana", List.of(), null).isDone());
+        assertTrue(journal.status("ana").isEmpty());
+    }
+}
@@ -2,7 +2,12 @@ package com.clinic.users.application.service;
 
 import com.clinic.users.application.port.out.CognitoGateway;
 import com.clinic.users.domain.exception.DomainException;
+import com.clinic.users.domain.exception.VersionConflictException;
+import com.clinic.users.domain.model.GroupChanges;
 import com.clinic.users.domain.model.User;
+import com.clinic.users.domain.model.UserAttributes;
+import com.clinic.users.domain.model.UserLookup;
+import com.clinic.users.domain.model.UserPage;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -25,7 +30,7 @@ class UserAdminServiceTest {
 
     @BeforeEach
     void setUp() {
-        service = new UserAdminService(gateway);
+        service = new UserAdminService(gateway, 500);
     }
 
     private Map<String, String> buildValidAttributes() {
@@ -43,7 +48,7 @@ class UserAdminServiceTest {
         Map<String, String> attrs = new HashMap<>();
         attrs.put("custom_document", "1234567890");
         attrs.put("email", "user@test.com");
-        attrs.put("phone_number", "1234567890");
+        attrs.put("phone_number", "+571234567890");
         attrs.put("address", "Calle 123");
         attrs.put("birthdate", "01/01/1990");   
         attrs.put("raw_password", "Passw0rd!");
@@ -115,14 +120,14 @@ class UserAdminServiceTest {
     @Test
     void shouldFailWhenPhoneIsInvalid() {
         User input = buildValidUser();
-        input.getAttributes().put("phone_number", "1234567890123"); // >10 dígitos
+        input.getAttributes().put("phone_number", "3001234567"); // sin + ni codigo de pais
 
         DomainException ex = assertThrows(
                 DomainException.class,
                 () -> service.createUser(input, true)
         );
 
-        assertTrue(ex.getMessage().toLowerCase().contains("phone must have 1 to 10 digits"));
+        assertTrue(ex.getMessage().toLowerCase().contains("phone must be in e.164 format"));
         verify(gateway, never()).adminCreate(any(), anyBoolean());
     }
 
@@ -241,7 +246,7 @@ class UserAdminServiceTest {
     void shouldValidateUpdatableDataWhenAllFieldsValid() {
         Map<String, String> attrs = new HashMap<>();
         attrs.put("email", "updated@test.com");
-        attrs.put("phone_number", "3010000000");
+        attrs.put("phone_number", "+573010000000");
         attrs.put("address", "Nueva direccion 123");
         attrs.put("birthdate", "31/12/1995");
 
@@ -280,4 +285,198 @@ class UserAdminServiceTest {
 
         verify(gateway, never()).adminAddToGroups(anyString(), anyList());
     }
+
+    @Test
+    void shouldSendOnlyTheAttributesThatChanged() {
+        when(gateway.adminGet("user123")).thenReturn(buildValidUser());
+        Map<String, String> changes = new HashMap<>();
+        changes.put("email", "user@test.com");
+        changes.put("address", "Carrera 7");
+        changes.put("phone_number", null);
+
+        User updated = service.updateAttributes("user123", changes, null);
+
+        verify(gateway).adminUpdateAttributes("user123", Map.of("address", "Carrera 7"));
+        assertEquals("Carrera 7", updated.getAttributes().get("address"));
+        assertEquals("+571234567890", updated.getAttributes().get("phone_number"));
+    }
+
+    @Test
+    void shouldNotWriteWhenThePatchChangesNothing() {
+        User user = buildValidUser();
+        when(gateway.adminGet("user123")).thenReturn(user);
+        when(gateway.adminGetFresh("user123")).thenReturn(user);
+
+        User updated = service.updateAttributes("user123", Map.of("email", "user@test.com"), null);
+
+        assertSame(user, updated);
+        verify(gateway, never()).adminUpdateAttributes(anyString(), anyMap());
+    }
+
+    @Test
+    void shouldNotDropAPatchThatOnlyLooksLikeANoopAgainstTheCache() {
+        User cached = buildValidUser();
+        cached.getAttributes().put("address", "Carrera 7");
+        when(gateway.adminGet("user123")).thenReturn(cached);
+        // en Cognito la direccion ya cambio por otro camino
+        User fresh = buildValidUser();
+        fresh.getAttributes().put("address", "Calle 9");
+        when(gateway.adminGetFresh("user123")).thenReturn(fresh);
+
+        User updated = service.updateAttributes("user123", Map.of("address", "Carrera 7"), null);
+
+        verify(gateway).adminUpdateAttributes("user123", Map.of("address", "Carrera 7"));
+        assertEquals("Carrera 7", updated.getAttributes().get("address"));
+    }
+
+    @Test
+    void shouldRejectAnUpdateBasedOnAStaleVersion() {
+        User user = buildValidUser();
+        when(gateway.adminGet("user123")).thenReturn(user);
+        String version = UserAttributes.of(user.getAttributes()).fingerprint();
+
+        when(gateway.adminGetFresh("user123")).thenReturn(user);
+
+        service.updateAttributes("user123", Map.of("address", "Carrera 7"), version);
+        assertThrows(VersionConflictException.class,
+                () -> service.updateAttributes("user123", Map.of("address", "Calle 9"), "0123456789abcdef01234567"));
+
+        verify(gateway, times(1)).adminUpdateAttributes(anyString(), anyMap());
+        verify(gateway, times(1)).adminGetFresh("user123");
+    }
+
+    @Test
+    void shouldConfirmAVersionMismatchAgainstAFreshRead() {
+        User cached = buildValidUser();
+        User fresh = buildValidUser();
+        fresh.getAttributes().put("address", "Calle 9");
+        when(gateway.adminGet("user123")).thenReturn(cached);
+        when(gateway.adminGetFresh("user123")).thenReturn(fresh);
+
+        // el cliente leyo la version nueva (p. ej. por el GET asincrono) y la cache aun tiene la anterior
+        User updated = service.updateAttributes("user123", Map.of("address", "Carrera 7"),
+                UserAttributes.of(fresh.getAttributes()).fingerprint());
+
+        assertEquals("Carrera 7", updated.getAttributes().get("address"));
+        verify(gateway).adminUpdateAttributes("user123", Map.of("address", "Carrera 7"));
+    }
+
+    @Test
+    void shouldOnlyApplyTheGroupDelta() {
+        when(gateway.listGroupsForUser("user123")).thenReturn(List.of("doctor", "humanR"));
+
+        GroupChanges changes = service.setGroups("user123", List.of("MEDICO", "support"));
+
+        assertEquals(List.of("support"), changes.getAdded());
+        assertEquals(List.of("humanR"), changes.getRemoved());
+        assertEquals(List.of("doctor"), changes.getUnchanged());
+        verify(gateway).adminUpdateGroups("user123", List.of("support"), List.of("humanR"));
+    }
+
+    @Test
+    void shouldCostOneReadWhenGroupsAlreadyMatch() {
+        when(gateway.listGroupsForUser("user123")).thenReturn(List.of("nurse", "doctor"));
+
+        GroupChanges changes = service.setGroups("user123", List.of("doctor", "nurse", "doctor"));
+
+        assertTrue(changes.isNoop());
+        verify(gateway).listGroupsForUser("user123");
+        verifyNoMoreInteractions(gateway);
+    }
+
+    @Test
+    void shouldLeaveGroupsItDoesNotManageAlone() {
+        when(gateway.listGroupsForUser("user123")).thenReturn(List.of("us-east-1_pool_Google", "nurse"));
+
+        GroupChanges changes = service.setGroups("user123", List.of());
+
+        assertEquals(List.of("nurse"), changes.getRemoved());
+        verify(gateway).adminUpdateGroups("user123", List.of(), List.of("nurse"));
+    }
+
+    @Test
+    void shouldRejectUnknownGroupsBeforeReading() {
+        assertThrows(DomainException.class, () -> service.setGroups("user123", List.of("admins")));
+        verifyNoInteractions(gateway);
+    }
+
+    @Test
+    void shouldStreamAllPagesLazily() {
+        User first = User.builder().username("user1").build();
+        User second = User.builder().username("user2").build();
+
+        when(gateway.listUsers(60, null, null))
+                .thenReturn(UserPage.builder().users(List.of(first)).nextCursor("c1").build());
+        when(gateway.listUsers(60, null, "c1"))
+                .thenReturn(UserPage.builder().users(List.of(second)).build());
+
+        List<String> usernames = service.streamAll(60, null)
+                .map(User::getUsername)
+                .toList();
+
+        assertEquals(List.of("user1", "user2"), usernames);
+        verify(gateway, times(2)).listUsers(anyInt(), any(), any());
+    }
+
+    @Test
+    void shouldNotFetchNextPageUntilConsumed() {
+        User first = User.builder().username("user1").build();
+
+        when(gateway.listUsers(60, null, null))
+                .thenReturn(UserPage.builder().users(List.of(first)).nextCursor("c1").build());
+
+        User found = service.streamAll(60, null).findFirst().orElseThrow();
+
+        assertEquals("user1", found.getUsername());
+        verify(gateway, never()).listUsers(anyInt(), any(), eq("c1"));
+    }
+
+    @Test
+    void shouldReuseGroupsLoadedByAdminGet() {
+        User user = User.builder()
+                .username("user123")
+                .groups(List.of("doctor"))
+                .build();
+        when(gateway.adminGet("user123")).thenReturn(user);
+
+        User result = service.findByUsername("user123");
+
+        assertEquals(List.of("doctor"), result.getGroups());
+        verify(gateway, never()).listGroupsForUser(anyString());
+    }
+
+    @Test
+    void shouldLoadGroupsWhenAdminGetDidNotReturnThem() {
+        User user = User.builder().username("user123").build();
+        when(gateway.adminGet("user123")).thenReturn(user);
+        when(gateway.listGroupsForUser("user123")).thenReturn(List.of("nurse"));
+
+        User result = service.findByUsername("user123");
+
+        assertEquals(List.of("nurse"), result.getGroups());
+    }
+
+    @Test
+    void shouldLookUpRepeatedUsernamesOnceAndKeepRequestOrder() {
+        User doctor = User.builder().username("doctor1").groups(List.of("doctor")).build();
+        when(gateway.adminGetAll(anyCollection())).thenReturn(Map.of("doctor1", doctor));
+
+        List<UserLookup> result = service.findAll(List.of("ghost", "doctor1", "ghost"));
+
+        assertEquals(List.of("ghost", "doctor1", "ghost"),
+                result.stream().map(UserLookup::getUsername).toList());
+        assertFalse(result.get(0).isFound());
+        assertSame(doctor, result.get(1).getUser());
+        verify(gateway).adminGetAll(argThat(names -> List.copyOf(names).equals(List.of("ghost", "doctor1"))));
+    }
+
+    @Test
+    void shouldRejectBatchGetOverTheLimitCountingDistinctUsernames() {
+        service = new UserAdminService(gateway, 2);
+        when(gateway.adminGetAll(anyCollection())).thenReturn(Map.of());
+
+        assertEquals(3, service.findAll(List.of("a", "b", "a")).size());
+        assertThrows(DomainException.class, () -> service.findAll(List.of("a", "b", "c")));
+        assertThrows(DomainException.class, () -> service.findAll(List.of("a", " ")));
+    }
 }
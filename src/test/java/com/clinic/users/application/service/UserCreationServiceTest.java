@@ -0,0 +1,192 @@
+package com.clinic.users.application.service;
+
+import com.clinic.users.application.port.in.OnboardingUseCase;
+import com.clinic.users.application.port.out.CognitoGateway;
+import com.clinic.users.domain.exception.DomainException;
+import com.clinic.users.domain.exception.ThrottledException;
+import com.clinic.users.domain.exception.UserAlreadyExistsException;
+import com.clinic.users.domain.model.OnboardingStatus;
+import com.clinic.users.domain.model.ProvisioningRequest;
+import com.clinic.users.domain.model.ProvisioningResult;
+import com.clinic.users.domain.model.ProvisioningResult.Status;
+import com.clinic.users.domain.model.User;
+import com.clinic.users.domain.model.UserCreation;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserCreationServiceTest {
+
+    @Mock
+    private CognitoGateway gateway;
+
+    @Mock
+    private OnboardingUseCase onboarding;
+
+    private UserCreationService service(String mode, boolean deferPassword) {
+        return new UserCreationService(gateway, onboarding, Runnable::run, mode, deferPassword);
+    }
+
+    private ProvisioningRequest buildRequest(String username) {
+        Map<String, String> attrs = new HashMap<>();
+        attrs.put("custom_document", "1234567890");
+        attrs.put("email", username + "@test.com");
+        attrs.put("phone_number", "+571234567890");
+        attrs.put("address", "Calle 123");
+        attrs.put("birthdate", "01/01/1990");
+        attrs.put("raw_password", "Passw0rd!");
+
+        return ProvisioningRequest.builder()
+                .user(User.builder().username(username).attributes(attrs).build())
+                .groups(List.of("doctor"))
+                .password("Passw0rd!")
+                .build();
+    }
+
+    private void stubCreate(String username) {
+        when(gateway.adminCreate(any(User.class), eq("Passw0rd!"), eq(false)))
+                .thenReturn(User.builder().username(username).enabled(true).build());
+    }
+
+    @Test
+    void shouldFoldThePasswordIntoCreateAndRunTheRestInline() {
+        stubCreate("ana");
+
+        UserCreation creation = service("sync", false).create(buildRequest("ana"));
+
+        assertTrue(creation.isComplete());
+        assertEquals("ana", creation.getUser().getUsername());
+        verify(gateway).adminAddToGroups("ana", List.of("doctor"));
+        verify(gateway).adminSetPassword("ana", "Passw0rd!", true);
+        assertTrue(creation.getTimings().keySet().containsAll(List.of("validate", "create", "groups", "password")));
+        verifyNoInteractions(onboarding);
+    }
+
+    @Test
+    void shouldDeleteTheUserWhenAPostStepFails() {
+        stubCreate("ana");
+        doThrow(new ThrottledException("slow down")).when(gateway).adminAddToGroups("ana", List.of("doctor"));
+
+        assertThrows(ThrottledException.class, () -> service("sync", false).create(buildRequest("ana")));
+
+        // el otro paso igual corrio; se compensa cuando ambos terminaron
+        verify(gateway).adminSetPassword("ana", "Passw0rd!", true);
+        verify(gateway).adminDelete("ana");
+        verify(gateway, never()).adminDisable(anyString());
+    }
+
+    @Test
+    void shouldDisableTheUserWhenItCannotBeDeleted() {
+        stubCreate("ana");
+        doThrow(new DomainException("boom")).when(gateway).adminSetPassword("ana", "Passw0rd!", true);
+        doThrow(new DomainException("still down")).when(gateway).adminDelete("ana");
+
+        DomainException error = assertThrows(DomainException.class,
+                () -> service("sync", false).create(buildRequest("ana")));
+
+        assertEquals("boom", error.getMessage());
+        verify(gateway).adminDisable("ana");
+    }
+
+    @Test
+    void shouldRejectAnInvalidPasswordBeforeCreatingAnything() {
+        ProvisioningRequest request = buildRequest("ana").toBuilder().password("short").build();
+
+        assertThrows(DomainException.class, () -> service("sync", false).create(request));
+
+        verifyNoInteractions(gateway, onboarding);
+    }
+
+    @Test
+    void shouldSetThePasswordInlineAndHandGroupsToTheJournal() {
+        stubCreate("ana");
+        OnboardingStatus pending = OnboardingStatus.builder()
+                .username("ana")
+                .state(OnboardingStatus.State.PENDING)
+                .build();
+        when(onboarding.completeOnboarding("ana", List.of("doctor"), null)).thenReturn(pending);
+
+        UserCreation creation = service("write-behind", false).create(buildRequest("ana"));
+
+        assertFalse(creation.isComplete());
+        assertSame(pending, creation.getOnboarding());
+        verify(gateway).adminSetPassword("ana", "Passw0rd!", true);
+        verify(gateway, never()).adminAddToGroups(anyString(), anyList());
+    }
+
+    @Test
+    void shouldJournalThePasswordOnlyWhenDeferred() {
+        stubCreate("ana");
+        when(onboarding.completeOnboarding("ana", List.of("doctor"), "Passw0rd!"))
+                .thenReturn(OnboardingStatus.builder().username("ana").state(OnboardingStatus.State.PENDING).build());
+
+        service("write-behind", true).create(buildRequest("ana"));
+
+        verify(gateway, never()).adminSetPassword(anyString(), anyString(), anyBoolean());
+    }
+
+    @Test
+    void shouldDeleteTheUserWhenTheJournalRejectsTheCommand() {
+        stubCreate("ana");
+        when(onboarding.completeOnboarding("ana", List.of("doctor"), null))
+                .thenThrow(new DomainException("Could not write onboarding journal"));
+
+        assertThrows(DomainException.class, () -> service("write-behind", false).create(buildRequest("ana")));
+
+        verify(gateway).adminDelete("ana");
+    }
+
+    @Test
+    void shouldLetCognitoGenerateTheTemporaryPasswordWhenInviting() {
+        when(gateway.adminCreate(any(User.class), isNull(), eq(true)))
+                .thenReturn(User.builder().username("ana").enabled(true).build());
+
+        service("sync", false).create(buildRequest("ana").toBuilder().sendInvite(true).build());
+
+        // el password elegido no viaja en el mail de invitacion; se fija despues como permanente
+        verify(gateway, never()).adminCreate(any(User.class), eq("Passw0rd!"), anyBoolean());
+        verify(gateway).adminSetPassword("ana", "Passw0rd!", true);
+    }
+
+    @Test
+    void shouldResumeAnExistingUserOnlyWhenItIsTheSamePerson() {
+        ProvisioningRequest request = buildRequest("ana").toBuilder().allowExisting(true).build();
+        when(gateway.adminCreate(any(User.class), eq("Passw0rd!"), eq(false)))
+                .thenThrow(new UserAlreadyExistsException("User account already exists"));
+        when(gateway.adminGetAll(List.of("ana"))).thenReturn(Map.of("ana", request.getUser()));
+
+        ProvisioningResult result = service("sync", false).provision(0, request);
+
+        assertEquals(Status.RESUMED, result.getStatus());
+        verify(gateway).adminAddToGroups("ana", List.of("doctor"));
+        verify(gateway).adminSetPassword("ana", "Passw0rd!", true);
+        verify(gateway, never()).adminDelete(anyString());
+    }
+
+    @Test
+    void shouldNotTouchAnotherPersonsAccountWhenResuming() {
+        ProvisioningRequest request = buildRequest("ana").toBuilder().allowExisting(true).build();
+        User someoneElse = buildRequest("ana").getUser().toBuilder()
+                .attributes(Map.of("custom_document", "9999999999", "email", "other@test.com"))
+                .build();
+        when(gateway.adminCreate(any(User.class), eq("Passw0rd!"), eq(false)))
+                .thenThrow(new UserAlreadyExistsException("Document already registered"));
+        when(gateway.adminGetAll(List.of("ana"))).thenReturn(Map.of("ana", someoneElse));
+
+        ProvisioningResult result = service("sync", false).provision(0, request);
+
+        assertEquals(Status.FAILED, result.getStatus());
+        assertEquals("create", result.getFailedStep());
+        verify(gateway, never()).adminAddToGroups(anyString(), anyList());
+        verify(gateway, never()).adminSetPassword(anyString(), anyString(), anyBoolean());
+        verify(gateway, never()).adminDelete(anyString());
+    }
+}
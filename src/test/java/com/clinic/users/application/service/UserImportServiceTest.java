@@ -0,0 +1,104 @@
+package com.clinic.users.application.service;
+
+import com.clinic.users.application.port.in.UserProvisioningUseCase;
+import com.clinic.users.application.port.out.ImportCheckpointStore;
+import com.clinic.users.domain.model.ImportRecord;
+import com.clinic.users.domain.model.ImportReport;
+import com.clinic.users.domain.model.ProvisioningRequest;
+import com.clinic.users.domain.model.ProvisioningResult;
+import com.clinic.users.domain.model.ProvisioningResult.Status;
+import com.clinic.users.domain.model.User;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserImportServiceTest {
+
+    @Mock
+    private UserProvisioningUseCase provisioning;
+
+    private final Map<String, Long> checkpoints = new HashMap<>();
+    private final List<Long> saved = new ArrayList<>();
+
+    private UserImportService service;
+
+    @BeforeEach
+    void setUp() {
+        ImportCheckpointStore store = new ImportCheckpointStore() {
+            @Override
+            public long load(String importId) {
+                return checkpoints.getOrDefault(importId, 0L);
+            }
+
+            @Override
+            public void save(String importId, long nextRecord) {
+                checkpoints.put(importId, nextRecord);
+                saved.add(nextRecord);
+            }
+        };
+        service = new UserImportService(provisioning, store, 2);
+
+        lenient().when(provisioning.provision(anyList())).thenAnswer(inv -> {
+            List<ProvisioningRequest> batch = inv.getArgument(0);
+            return batch.stream()
+                    .map(r -> ProvisioningResult.builder()
+                            .username(r.getUser().getUsername())
+                            .status(r.isAllowExisting() ? Status.RESUMED : Status.CREATED)
+                            .build())
+                    .toList();
+        });
+    }
+
+    private List<ImportRecord> records(int count) {
+        return LongStream.range(0, count)
+                .mapToObj(i -> ImportRecord.of(i, ProvisioningRequest.builder()
+                        .user(User.builder().username("user" + i).build())
+                        .build()))
+                .toList();
+    }
+
+    @Test
+    void shouldCheckpointAfterEveryBatch() {
+        ImportReport report = service.importUsers("hr-2024", records(5).iterator());
+
+        assertEquals(5, report.getCreated());
+        assertEquals(List.of(2L, 4L, 5L), saved);
+        verify(provisioning, times(3)).provision(anyList());
+    }
+
+    @Test
+    void shouldResumeFromCheckpointToleratingExistingUsersInFirstBatch() {
+        checkpoints.put("hr-2024", 2L);
+
+        ImportReport report = service.importUsers("hr-2024", records(5).iterator());
+
+        assertEquals(2, report.getResumedFrom());
+        assertEquals(2, report.getSkipped());
+        assertEquals(2, report.getResumed());
+        assertEquals(1, report.getCreated());
+    }
+
+    @Test
+    void shouldReportUnreadableRecordsWithoutSendingThem() {
+        List<ImportRecord> records = new ArrayList<>(records(1));
+        records.add(ImportRecord.unreadable(1, "No enum constant"));
+
+        ImportReport report = service.importUsers("hr-2024", records.iterator());
+
+        assertEquals(1, report.getInvalid());
+        assertEquals(1, report.getErrors().get(0).getIndex());
+        assertEquals("parse", report.getErrors().get(0).getFailedStep());
+    }
+}
@@ -0,0 +1,106 @@
+package com.clinic.users.application.service;
+
+import com.clinic.users.application.port.in.OnboardingUseCase;
+import com.clinic.users.application.port.out.CognitoGateway;
+import com.clinic.users.domain.exception.DomainException;
+import com.clinic.users.domain.model.ProvisioningRequest;
+import com.clinic.users.domain.model.ProvisioningResult;
+import com.clinic.users.domain.model.ProvisioningResult.Status;
+import com.clinic.users.domain.model.User;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserProvisioningServiceTest {
+
+    @Mock
+    private CognitoGateway gateway;
+
+    @Mock
+    private OnboardingUseCase onboarding;
+
+    private UserProvisioningService service;
+
+    @BeforeEach
+    void setUp() {
+        UserCreationService creation = new UserCreationService(gateway, onboarding, Runnable::run, "sync", false);
+        service = new UserProvisioningService(creation, Runnable::run, 10);
+    }
+
+    private ProvisioningRequest buildRequest(String username) {
+        Map<String, String> attrs = new HashMap<>();
+        attrs.put("custom_document", "1234567890");
+        attrs.put("email", username + "@test.com");
+        attrs.put("phone_number", "+571234567890");
+        attrs.put("address", "Calle 123");
+        attrs.put("birthdate", "01/01/1990");
+        attrs.put("raw_password", "Passw0rd!");
+
+        return ProvisioningRequest.builder()
+                .user(User.builder().username(username).attributes(attrs).build())
+                .groups(List.of("doctor"))
+                .password("Passw0rd!")
+                .build();
+    }
+
+    @Test
+    void shouldRunAllStepsForEveryValidUser() {
+        List<ProvisioningResult> results = service.provision(
+                List.of(buildRequest("user1"), buildRequest("user2")));
+
+        assertTrue(results.stream().allMatch(r -> r.getStatus() == Status.CREATED));
+        verify(gateway, times(2)).adminCreate(any(User.class), eq("Passw0rd!"), eq(false));
+        verify(gateway).adminAddToGroups("user1", List.of("doctor"));
+        verify(gateway).adminSetPassword("user2", "Passw0rd!", true);
+    }
+
+    @Test
+    void shouldReportInvalidEntriesWithoutCallingCognito() {
+        ProvisioningRequest invalid = buildRequest("user2");
+        invalid.getUser().getAttributes().put("email", "invalid-email");
+
+        List<ProvisioningResult> results = service.provision(
+                List.of(buildRequest("user1"), invalid, buildRequest("user1")));
+
+        assertEquals(Status.CREATED, results.get(0).getStatus());
+        assertEquals(Status.INVALID, results.get(1).getStatus());
+        assertEquals("Email is not valid", results.get(1).getError());
+        assertEquals(Status.INVALID, results.get(2).getStatus());
+        assertEquals("Duplicate username in batch", results.get(2).getError());
+        verify(gateway, times(1)).adminCreate(any(User.class), any(), anyBoolean());
+    }
+
+    @Test
+    void shouldReportFailedStep() {
+        doThrow(new DomainException("Cognito error on adminAddUserToGroup(doctor): boom"))
+                .when(gateway).adminAddToGroups(eq("user1"), anyList());
+
+        ProvisioningResult result = service.provision(List.of(buildRequest("user1"))).get(0);
+
+        assertEquals(Status.FAILED, result.getStatus());
+        assertEquals("groups", result.getFailedStep());
+        verify(gateway, never()).adminSetPassword(anyString(), anyString(), anyBoolean());
+        // misma saga que el alta individual: no queda un usuario a medias
+        verify(gateway).adminDelete("user1");
+    }
+
+    @Test
+    void shouldRejectBatchOverMaximumSize() {
+        List<ProvisioningRequest> requests = IntStream.range(0, 11)
+                .mapToObj(i -> buildRequest("user" + i))
+                .toList();
+
+        assertThrows(DomainException.class, () -> service.provision(requests));
+        verifyNoInteractions(gateway);
+    }
+}
@@ -0,0 +1,81 @@
+package com.clinic.users.domain.model;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserAttributesTest {
+
+    @Test
+    void shouldBehaveAsReadOnlyMapAcrossSchemaAndOverflow() {
+        Map<String, String> source = new HashMap<>();
+        source.put("email", "ana@clinic.com");
+        source.put("custom:role", "DOCTOR");
+        source.put("custom:shift", "night");
+
+        UserAttributes attrs = UserAttributes.of(source);
+
+        assertEquals(source, attrs);
+        assertEquals(source.hashCode(), attrs.hashCode());
+        assertEquals(3, attrs.size());
+        assertEquals("night", attrs.get("custom:shift"));
+        assertNull(attrs.get("given_name"));
+        assertFalse(attrs.containsKey("given_name"));
+        assertThrows(UnsupportedOperationException.class, () -> attrs.put("email", "x@clinic.com"));
+    }
+
+    @Test
+    void shouldIterateSchemaAttributesInSchemaOrderThenOverflow() {
+        UserAttributes attrs = UserAttributes.builder()
+                .put("custom:shift", "night")
+                .put("email", "ana@clinic.com")
+                .put("given_name", "Ana")
+                .build();
+
+        assertEquals(List.of("given_name", "email", "custom:shift"), List.copyOf(attrs.keySet()));
+    }
+
+    @Test
+    void shouldCopyOnWithAndDropNullValues() {
+        UserAttributes attrs = UserAttributes.builder()
+                .put("email", "ana@clinic.com")
+                .put("custom_role", null)
+                .build();
+
+        UserAttributes withStatus = attrs.with("status", "ACTIVE");
+
+        assertEquals(1, attrs.size());
+        assertEquals(Map.of("email", "ana@clinic.com", "status", "ACTIVE"), withStatus);
+        assertSame(attrs, UserAttributes.of(attrs));
+        assertSame(UserAttributes.empty(), UserAttributes.of(Map.of()));
+    }
+
+    @Test
+    void shouldShareAttributesWhenCopyingUsers() {
+        User user = User.builder()
+                .username("ana")
+                .attributes(UserAttributes.builder().put("email", "ana@clinic.com").build())
+                .groups(List.of("doctor"))
+                .build();
+
+        User copy = user.copy();
+
+        assertSame(user.getAttributes(), copy.getAttributes());
+        assertNotSame(user.getGroups(), copy.getGroups());
+    }
+
+    @Test
+    void fingerprintDependsOnContentNotOnInsertionOrder() {
+        UserAttributes a = UserAttributes.builder()
+                .put("email", "ana@clinic.com").put("locale", "es").put("nickname", "ani").build();
+        UserAttributes b = UserAttributes.builder()
+                .put("nickname", "ani").put("locale", "es").put("email", "ana@clinic.com").build();
+
+        assertEquals(a.fingerprint(), b.fingerprint());
+        assertNotEquals(a.fingerprint(), a.with("email", "otra@clinic.com").fingerprint());
+        assertNotEquals(a.fingerprint(), a.with("nickname", null).fingerprint());
+    }
+}
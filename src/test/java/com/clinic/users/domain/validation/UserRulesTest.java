@@ -0,0 +1,112 @@
+package com.clinic.users.domain.validation;
+
+import com.clinic.users.domain.exception.ValidationException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserRulesTest {
+
+    private Map<String, String> validAttributes() {
+        Map<String, String> attrs = new HashMap<>();
+        attrs.put("custom_document", "1234567890");
+        attrs.put("email", "user@test.com");
+        attrs.put("phone_number", "+571234567890");
+        attrs.put("address", "Calle 123");
+        attrs.put("birthdate", "29/02/1992");
+        attrs.put("raw_password", "Passw0rd!");
+        return attrs;
+    }
+
+    @Test
+    void shouldReturnSharedEmptyResultWhenValid() {
+        assertSame(Map.of(), UserRules.checkNewUser("user123", validAttributes()));
+        assertSame(Map.of(), UserRules.checkUpdate(Map.of("email", "new@test.co")));
+    }
+
+    @Test
+    void shouldCollectEveryViolationInOnePass() {
+        Map<String, String> attrs = validAttributes();
+        attrs.put("email", "not-an-email");
+        attrs.put("phone_number", "3001234567");
+        attrs.remove("birthdate");
+        attrs.put("raw_password", "weakpass");
+
+        Map<String, String> violations = UserRules.checkNewUser("bad user!", attrs);
+
+        assertEquals(List.of("username", "email", "phone", "birthdate", "password"),
+                List.copyOf(violations.keySet()));
+        assertEquals("Birthdate is required", violations.get("birthdate"));
+
+        ValidationException ex = assertThrows(ValidationException.class, () -> UserRules.requireValid(violations));
+        assertTrue(ex.getMessage().contains("Email is not valid"));
+        assertTrue(ex.getMessage().contains("Phone must be in E.164 format (+ country code and number)"));
+    }
+
+    @Test
+    void shouldOnlyCheckPresentFieldsOnUpdate() {
+        assertSame(Map.of(), UserRules.checkUpdate(Map.of("given_name", "Ana")));
+        assertEquals(Map.of("address", "Address must be <= 30 characters"),
+                UserRules.checkUpdate(Map.of("address", "x".repeat(31))));
+    }
+
+    @Test
+    void shouldValidateEmails() {
+        for (String valid : List.of("a@b.co", "first.last+tag@clinic.com.co", "x_y%z-1@sub-domain.example.org")) {
+            assertTrue(Scanners.email(valid), valid);
+        }
+        for (String invalid : List.of("plain", "a@b", "a@@b.co", "@b.co", "a@-b.co", "a@b-.co", "a@b..co",
+                "a@b.c", "a@b.c0", "a b@c.co", "a@b.co.")) {
+            assertFalse(Scanners.email(invalid), invalid);
+        }
+    }
+
+    @Test
+    void shouldRequireE164Phones() {
+        for (String valid : List.of("+573001234567", "+12025550123", "+44", "+123456789012345")) {
+            assertTrue(Scanners.phone(valid), valid);
+        }
+        for (String invalid : List.of("3001234567", "+", "+5", "+0573001234567", "+1234567890123456",
+                "+57 300 1234567", "+57-3001234567", "57+3001234567", "")) {
+            assertFalse(Scanners.phone(invalid), invalid);
+        }
+    }
+
+    @Test
+    void shouldValidateCalendarDatesWithoutFormatter() {
+        assertTrue(Scanners.date("29/02/2024") > 0);
+        assertEquals(-1, Scanners.date("29/02/2023"));
+        assertEquals(-1, Scanners.date("31/04/2020"));
+        assertEquals(-1, Scanners.date("1990-01-01"));
+        assertEquals(-1, Scanners.date("1/1/1990"));
+        assertEquals(-1, Scanners.date("00/01/1990"));
+    }
+
+    @Test
+    void shouldComputeAgeAgainstToday() {
+        DateTimeFormatter format = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+        LocalDate today = LocalDate.now();
+
+        assertEquals(30, Scanners.age(Scanners.date(today.minusYears(30).format(format))));
+        assertEquals(29, Scanners.age(Scanners.date(today.minusYears(30).plusDays(1).format(format))));
+        assertEquals(-1, Scanners.age(Scanners.date(today.plusDays(1).format(format))));
+        assertEquals(Map.of("birthdate", "Age must be between 0 and 150 years"),
+                UserRules.checkUpdate(Map.of("birthdate", "01/01/1800")));
+    }
+
+    @Test
+    void shouldMatchPasswordPolicy() {
+        assertTrue(UserRules.isValidPassword("Passw0rd!"));
+        assertFalse(UserRules.isValidPassword("Passw0rd"));
+        assertFalse(UserRules.isValidPassword("passw0rd!"));
+        assertFalse(UserRules.isValidPassword("Password!"));
+        assertFalse(UserRules.isValidPassword("P4ss!"));
+        assertFalse(UserRules.isValidPassword("Passw0rd!\n"));
+        assertFalse(UserRules.isValidPassword(null));
+    }
+}
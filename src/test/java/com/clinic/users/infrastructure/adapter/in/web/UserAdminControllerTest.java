@@ -1,26 +1,47 @@
 package com.clinic.users.infrastructure.adapter.in.web;
 
+import com.clinic.users.application.port.in.OnboardingUseCase;
 import com.clinic.users.application.port.in.UserAdminUseCase;
+import com.clinic.users.application.port.in.UserCreationUseCase;
+import com.clinic.users.application.port.in.UserQueryAsyncUseCase;
 import com.clinic.users.application.port.in.UserQueryUseCase;
+import com.clinic.users.domain.exception.DomainException;
+import com.clinic.users.domain.exception.VersionConflictException;
 import com.clinic.users.domain.model.Group;
+import com.clinic.users.domain.model.OnboardingStatus;
+import com.clinic.users.domain.model.ProvisioningRequest;
 import com.clinic.users.domain.model.User;
+import com.clinic.users.domain.model.UserCreation;
+import com.clinic.users.domain.model.UserPage;
 import com.clinic.users.infrastructure.adapter.in.web.dto.CreateUserRequest;
 import com.clinic.users.infrastructure.adapter.in.web.dto.UserResponse;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.Duration;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(UserAdminController.class)
@@ -38,6 +59,15 @@ class UserAdminControllerTest {
     @MockBean
     private UserQueryUseCase queryUseCase;
 
+    @MockBean
+    private UserQueryAsyncUseCase queryAsyncUseCase;
+
+    @MockBean
+    private OnboardingUseCase onboardingUseCase;
+
+    @MockBean
+    private UserCreationUseCase creationUseCase;
+
     private User buildUserFromRequest(CreateUserRequest req) {
         Map<String, String> attrs = new HashMap<>();
         attrs.put("given_name", req.getFirstName());
@@ -59,14 +89,14 @@ class UserAdminControllerTest {
     }
 
     @Test
-    void shouldReturnOkWhenCreateUserWithValidRequest() throws Exception {
+    void shouldReturnAcceptedWithStatusHandleWhenOnboardingIsDeferred() throws Exception {
         CreateUserRequest request = CreateUserRequest.builder()
                 .username("user123")
                 .firstName("Ana")
                 .lastName("Perez")
                 .document("123456789")
                 .email("user@test.com")
-                .phone("+3001234567")
+                .phone("+573001234567")
                 .address("Calle 123")
                 .birthdate("01/01/1990")
                 .password("Passw0rd!")
@@ -76,17 +106,99 @@ class UserAdminControllerTest {
 
         User created = buildUserFromRequest(request);
 
-        when(adminUseCase.createUser(any(User.class), anyBoolean()))
-                .thenReturn(created);
+        when(creationUseCase.create(any(ProvisioningRequest.class)))
+                .thenReturn(UserCreation.builder()
+                        .user(created)
+                        .onboarding(OnboardingStatus.builder()
+                                .username("user123")
+                                .state(OnboardingStatus.State.PENDING)
+                                .build())
+                        .timings(Map.of("create", Duration.ofMillis(80)))
+                        .build());
 
         mockMvc.perform(post("/api/users")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(mapper.writeValueAsString(request)))
-                .andExpect(status().isOk())
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/users/user123/onboarding"))
+                .andExpect(header().string("Server-Timing", "create;dur=80.0"))
                 .andExpect(jsonPath("$.username").value("user123"))
                 .andExpect(jsonPath("$.enabled").value(true));
     }
 
+    @Test
+    void shouldReturnOkWhenOnboardingRanInline() throws Exception {
+        CreateUserRequest request = CreateUserRequest.builder()
+                .username("user123")
+                .firstName("Ana")
+                .lastName("Perez")
+                .document("123456789")
+                .email("user@test.com")
+                .phone("+573001234567")
+                .address("Calle 123")
+                .birthdate("01/01/1990")
+                .password("Passw0rd!")
+                .role(Group.MEDICO)
+                .build();
+
+        Map<String, Duration> timings = new LinkedHashMap<>();
+        timings.put("create", Duration.ofMillis(80));
+        timings.put("password", Duration.ofNanos(41_250_000));
+        timings.put("groups", Duration.ofMillis(43));
+        when(creationUseCase.create(any(ProvisioningRequest.class)))
+                .thenReturn(UserCreation.builder()
+                        .user(buildUserFromRequest(request))
+                        .timings(timings)
+                        .build());
+
+        mockMvc.perform(post("/api/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Location"))
+                .andExpect(header().string("Server-Timing",
+                        "create;dur=80.0, password;dur=41.3, groups;dur=43.0"));
+
+        verify(creationUseCase).create(argThat(r -> r.getGroups().equals(List.of("doctor"))
+                && "Passw0rd!".equals(r.getPassword())
+                && "user123".equals(r.getUser().getUsername())));
+    }
+
+    @Test
+    void shouldPatchWithIfMatchAndReturnTheNewETag() throws Exception {
+        User updated = User.builder()
+                .username("user123")
+                .enabled(true)
+                .attributes(Map.of("email", "new@clinic.com"))
+                .build();
+        when(adminUseCase.updateAttributes(eq("user123"), any(), eq("abc123")))
+                .thenReturn(updated);
+
+        mockMvc.perform(patch("/api/users/{username}", "user123")
+                        .header("If-Match", "W/\"abc123\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"new@clinic.com\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", UserAdminController.etag(updated)))
+                .andExpect(jsonPath("$.attributes.email").value("new@clinic.com"));
+
+        verify(adminUseCase).updateAttributes(eq("user123"),
+                argThat(changes -> "new@clinic.com".equals(changes.get("email")) && changes.get("address") == null),
+                eq("abc123"));
+    }
+
+    @Test
+    void shouldReturnPreconditionFailedOnAStaleETag() throws Exception {
+        when(adminUseCase.updateAttributes(eq("user123"), any(), eq("old")))
+                .thenThrow(new VersionConflictException("User user123 was modified"));
+
+        mockMvc.perform(patch("/api/users/{username}", "user123")
+                        .header("If-Match", "\"old\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"address\":\"Calle 9\"}"))
+                .andExpect(status().isPreconditionFailed());
+    }
+
     @Test
     void shouldReturnBadRequestWhenEmailIsMissing() throws Exception {
         CreateUserRequest request = CreateUserRequest.builder()
@@ -95,7 +207,7 @@ class UserAdminControllerTest {
                 .lastName("Perez")
                 .document("123456789")
                 // sin email
-                .phone("3001234567")
+                .phone("+573001234567")
                 .address("Calle 123")
                 .birthdate("01/01/1990")
                 .password("Passw0rd!")
@@ -109,9 +221,70 @@ class UserAdminControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    void shouldReturnEveryRuleViolationPerField() throws Exception {
+        CreateUserRequest request = CreateUserRequest.builder()
+                .username("user123")
+                .firstName("Ana")
+                .lastName("Perez")
+                .document("123456789")
+                .email("user@test")
+                .phone("3001234567")
+                .address("Calle 123")
+                .birthdate("31/02/1990")
+                .password("Passw0rd!")
+                .role(Group.RRHH)
+                .build();
+
+        mockMvc.perform(post("/api/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.details.email").value("Email is not valid"))
+                .andExpect(jsonPath("$.details.phone").value("Phone must be in E.164 format (+ country code and number)"))
+                .andExpect(jsonPath("$.details.birthdate").value("Birthdate must be in format DD/MM/YYYY"));
+    }
+
     @Test
     void shouldReturnNoContentWhenDeleteUser() throws Exception {
         mockMvc.perform(delete("/api/users/{username}", "user123"))
                 .andExpect(status().isNoContent());
     }
+
+    @Test
+    void shouldReturnNextCursorHeaderWhenListHasMorePages() throws Exception {
+        User user = User.builder()
+                .username("user123")
+                .enabled(true)
+                .attributes(new HashMap<>())
+                .groups(List.of())
+                .build();
+
+        when(queryAsyncUseCase.list(eq(20), isNull(), eq("abc")))
+                .thenReturn(CompletableFuture.completedFuture(
+                        UserPage.builder().users(List.of(user)).nextCursor("def").build()));
+
+        MvcResult pending = mockMvc.perform(get("/api/users").param("cursor", "abc"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(pending))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "def"))
+                .andExpect(jsonPath("$[0].username").value("user123"));
+    }
+
+    @Test
+    void shouldReturnBadRequestWhenAsyncLookupFails() throws Exception {
+        when(queryAsyncUseCase.findByUsername("ghost"))
+                .thenReturn(CompletableFuture.failedFuture(new DomainException("Cognito error on adminGet: User does not exist.")));
+
+        MvcResult pending = mockMvc.perform(get("/api/users/{username}", "ghost"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(pending))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Cognito error on adminGet: User does not exist."));
+    }
 }
@@ -0,0 +1,88 @@
+package com.clinic.users.infrastructure.adapter.in.web;
+
+import com.clinic.users.application.port.in.UserImportUseCase;
+import com.clinic.users.application.port.in.UserProvisioningUseCase;
+import com.clinic.users.application.port.in.UserQueryUseCase;
+import com.clinic.users.domain.exception.DomainException;
+import com.clinic.users.domain.model.User;
+import com.clinic.users.domain.model.UserLookup;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(UserBatchController.class)
+class UserBatchControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private UserProvisioningUseCase provisioningUseCase;
+
+    @MockBean
+    private UserImportUseCase importUseCase;
+
+    @MockBean
+    private UserQueryUseCase queryUseCase;
+
+    private User user(String username) {
+        return User.builder()
+                .username(username)
+                .enabled(true)
+                .attributes(Map.of("email", username + "@clinic.com"))
+                .groups(List.of("doctor"))
+                .build();
+    }
+
+    @Test
+    void shouldReturnOneResultPerUsernameInRequestOrder() throws Exception {
+        when(queryUseCase.findAll(List.of("bob02", "ghost", "ana01", "bob02"))).thenReturn(List.of(
+                new UserLookup("bob02", user("bob02")),
+                new UserLookup("ghost", null),
+                new UserLookup("ana01", user("ana01")),
+                new UserLookup("bob02", user("bob02"))));
+
+        mockMvc.perform(post("/api/users:batchGet")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"usernames\":[\"bob02\",\"ghost\",\"ana01\",\"bob02\"]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.requested").value(4))
+                .andExpect(jsonPath("$.found").value(3))
+                .andExpect(jsonPath("$.results[0].username").value("bob02"))
+                .andExpect(jsonPath("$.results[0].user.groups[0]").value("doctor"))
+                .andExpect(jsonPath("$.results[1].username").value("ghost"))
+                .andExpect(jsonPath("$.results[1].found").value(false))
+                .andExpect(jsonPath("$.results[1].user").doesNotExist())
+                .andExpect(jsonPath("$.results[2].username").value("ana01"))
+                .andExpect(jsonPath("$.results[3].username").value("bob02"));
+    }
+
+    @Test
+    void shouldRejectEmptyUsernamesList() throws Exception {
+        mockMvc.perform(post("/api/users:batchGet")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"usernames\":[]}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldReturnBadRequestWhenBatchIsOverTheLimit() throws Exception {
+        when(queryUseCase.findAll(anyList()))
+                .thenThrow(new DomainException("Batch get must have at most 500 usernames"));
+
+        mockMvc.perform(post("/api/users:batchGet")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"usernames\":[\"a\",\"b\"]}"))
+                .andExpect(status().isBadRequest());
+    }
+}
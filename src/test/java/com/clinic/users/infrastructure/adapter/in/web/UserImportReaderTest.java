@@ -0,0 +1,69 @@
+package com.clinic.users.infrastructure.adapter.in.web;
+
+import com.clinic.users.domain.exception.DomainException;
+import com.clinic.users.domain.model.ImportRecord;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserImportReaderTest {
+
+    private final ObjectMapper json = new ObjectMapper().findAndRegisterModules();
+
+    private List<ImportRecord> read(String content, UserImportReader.Format format) {
+        UserImportReader reader = new UserImportReader(new BufferedReader(new StringReader(content)), format, json);
+        List<ImportRecord> records = new ArrayList<>();
+        reader.forEachRemaining(records::add);
+        return records;
+    }
+
+    @Test
+    void shouldMapCsvColumnsByHeaderInAnyOrderAndCase() {
+        List<ImportRecord> records = read("""
+                Email,username,role,document,password,sendInvite
+                "ana@clinic.com",ana01,medico,123456789,"Pass,w0rd""!",true
+                """, UserImportReader.Format.CSV);
+
+        assertEquals(1, records.size());
+        ImportRecord record = records.get(0);
+        assertNull(record.getError());
+        assertEquals("ana01", record.getRequest().getUser().getUsername());
+        assertEquals("ana@clinic.com", record.getRequest().getUser().getAttributes().get("email"));
+        assertEquals("123456789", record.getRequest().getUser().getAttributes().get("custom_document"));
+        assertEquals("Pass,w0rd\"!", record.getRequest().getPassword());
+        assertEquals(List.of("doctor"), record.getRequest().getGroups());
+        assertTrue(record.getRequest().isSendInvite());
+    }
+
+    @Test
+    void shouldNumberRecordsSkippingBlankLinesAndKeepGoingAfterAnUnreadableOne() {
+        List<ImportRecord> records = read("""
+                {"username":"ana01","role":"MEDICO"}
+
+                {not json
+                {"username":"bob02","role":"PILOTO"}
+                {"username":"carl03"}
+                """, UserImportReader.Format.NDJSON);
+
+        assertEquals(List.of(0L, 1L, 2L, 3L), records.stream().map(ImportRecord::getNumber).toList());
+        assertNull(records.get(0).getError());
+        assertNotNull(records.get(1).getError());
+        assertNotNull(records.get(2).getError());
+        assertEquals("carl03", records.get(3).getRequest().getUser().getUsername());
+    }
+
+    @Test
+    void shouldRejectCsvWithoutHeader() {
+        assertThrows(DomainException.class, () -> read("", UserImportReader.Format.CSV));
+    }
+
+    @Test
+    void shouldSplitQuotedCsvFields() {
+        assertEquals(List.of("a", "b,c", "d\"e", ""), UserImportReader.splitCsv("a,\"b,c\",\"d\"\"e\","));
+    }
+}
@@ -0,0 +1,77 @@
+package com.clinic.users.infrastructure.adapter.out.cache;
+
+import com.clinic.users.application.port.out.AsyncCognitoGateway;
+import com.clinic.users.domain.exception.ServiceUnavailableException;
+import com.clinic.users.domain.model.User;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CachingAsyncCognitoGatewayTest {
+
+    @Mock
+    private AsyncCognitoGateway delegate;
+
+    private CognitoUserCache cache;
+    private CachingAsyncCognitoGateway gateway;
+
+    @BeforeEach
+    void setUp() {
+        cache = new CognitoUserCache(100, Duration.ofMinutes(1));
+        gateway = new CachingAsyncCognitoGateway(delegate, cache);
+    }
+
+    private User buildUser() {
+        return User.builder()
+                .username("user123")
+                .enabled(true)
+                .attributes(new HashMap<>())
+                .groups(List.of("doctor"))
+                .build();
+    }
+
+    @Test
+    void shouldServeHitsFromSharedCache() {
+        cache.put("user123", buildUser());
+
+        assertEquals("user123", gateway.adminGet("user123").join().getUsername());
+        verifyNoInteractions(delegate);
+    }
+
+    @Test
+    void shouldCoalesceConcurrentMissesAndHandOutCopies() {
+        CompletableFuture<User> pending = new CompletableFuture<>();
+        when(delegate.adminGet("user123")).thenReturn(pending);
+
+        CompletableFuture<User> first = gateway.adminGet("user123");
+        CompletableFuture<User> second = gateway.adminGet("user123");
+        pending.complete(buildUser());
+
+        assertNotSame(first.join(), second.join());
+        first.join().setEnabled(false);
+        assertTrue(gateway.adminGet("user123").join().getEnabled());
+        verify(delegate, times(1)).adminGet("user123");
+    }
+
+    @Test
+    void shouldServeLastKnownCopyWhenCognitoIsUnavailable() throws InterruptedException {
+        cache = new CognitoUserCache(100, Duration.ofMillis(1), Duration.ofMinutes(1));
+        gateway = new CachingAsyncCognitoGateway(delegate, cache);
+        cache.put("user123", buildUser());
+        Thread.sleep(20);
+        when(delegate.adminGet("user123"))
+                .thenReturn(CompletableFuture.failedFuture(new ServiceUnavailableException("down")));
+
+        assertEquals("user123", gateway.adminGet("user123").join().getUsername());
+    }
+}
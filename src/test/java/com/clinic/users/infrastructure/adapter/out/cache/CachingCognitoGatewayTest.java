@@ -0,0 +1,125 @@
+package com.clinic.users.infrastructure.adapter.out.cache;
+
+import com.clinic.users.application.port.out.CognitoGateway;
+import com.clinic.users.domain.model.Group;
+import com.clinic.users.domain.model.User;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CachingCognitoGatewayTest {
+
+    @Mock
+    private CognitoGateway delegate;
+
+    private CognitoUserCache cache;
+    private CachingCognitoGateway gateway;
+
+    @BeforeEach
+    void setUp() {
+        cache = new CognitoUserCache(100, Duration.ofMinutes(1));
+        gateway = new CachingCognitoGateway(delegate, cache);
+    }
+
+    private User buildUser() {
+        return User.builder()
+                .username("user123")
+                .enabled(true)
+                .attributes(new HashMap<>())
+                .groups(List.of("doctor"))
+                .build();
+    }
+
+    @Test
+    void shouldServeRepeatedReadsFromCache() {
+        when(delegate.adminGet("user123")).thenReturn(buildUser());
+
+        gateway.adminGet("user123");
+        User second = gateway.adminGet("user123");
+
+        assertEquals("user123", second.getUsername());
+        verify(delegate, times(1)).adminGet("user123");
+        assertEquals(1, cache.stats().hitCount());
+        assertEquals(1, cache.stats().missCount());
+    }
+
+    @Test
+    void shouldNotLeakMutationsIntoCachedEntry() {
+        when(delegate.adminGet("user123")).thenReturn(buildUser());
+
+        gateway.adminGet("user123").setGroups(List.of());
+
+        assertEquals(List.of("doctor"), gateway.adminGet("user123").getGroups());
+    }
+
+    @Test
+    void shouldUpdateCachedEntryWhenUserIsDisabled() {
+        when(delegate.adminGet("user123")).thenReturn(buildUser());
+        gateway.adminGet("user123");
+
+        gateway.adminDisable("user123");
+
+        assertFalse(gateway.adminGet("user123").getEnabled());
+        verify(delegate, times(1)).adminGet("user123");
+    }
+
+    @Test
+    void shouldMergeGroupsIntoCachedEntry() {
+        when(delegate.adminGet("user123")).thenReturn(buildUser());
+        gateway.adminGet("user123");
+
+        gateway.adminAddToGroups("user123", List.of("support", "doctor"));
+
+        assertEquals(List.of("doctor", "support"), gateway.listGroupsForUser("user123"));
+        assertTrue(gateway.adminGet("user123").isMemberOf(Group.SOPORTE));
+        verify(delegate, never()).listGroupsForUser(anyString());
+    }
+
+    @Test
+    void shouldInvalidateEntryWhenPasswordChanges() {
+        when(delegate.adminGet("user123")).thenReturn(buildUser());
+        gateway.adminGet("user123");
+
+        gateway.adminSetPassword("user123", "Passw0rd!", true);
+        gateway.adminGet("user123");
+
+        verify(delegate, times(2)).adminGet("user123");
+    }
+
+    @Test
+    void shouldInvalidateEntryWhenWriteFails() {
+        when(delegate.adminGet("user123")).thenReturn(buildUser());
+        gateway.adminGet("user123");
+        doThrow(new RuntimeException("boom")).when(delegate).adminEnable("user123");
+
+        assertThrows(RuntimeException.class, () -> gateway.adminEnable("user123"));
+
+        assertNull(cache.getIfPresent("user123"));
+    }
+
+    @Test
+    void shouldBatchGetOnlyTheUsersMissingFromCache() {
+        when(delegate.adminGet("user123")).thenReturn(buildUser());
+        gateway.adminGet("user123");
+        User other = buildUser().toBuilder().username("user456").build();
+        when(delegate.adminGetAll(List.of("user456", "ghost"))).thenReturn(Map.of("user456", other));
+
+        Map<String, User> found = gateway.adminGetAll(List.of("user123", "user456", "ghost"));
+
+        assertEquals(Set.of("user123", "user456"), found.keySet());
+        // el que vino del lote queda en cache para la siguiente lectura
+        gateway.adminGet("user456");
+        verify(delegate, never()).adminGet("user456");
+    }
+}
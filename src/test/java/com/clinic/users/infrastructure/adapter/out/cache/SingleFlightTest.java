@@ -0,0 +1,148 @@
+package com.clinic.users.infrastructure.adapter.out.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    @Test
+    void shouldShareOneCallBetweenConcurrentCallers() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>();
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        List<Thread> callers = new CopyOnWriteArrayList<>();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(pool.submit(() -> {
+                    callers.add(Thread.currentThread());
+                    return flight.execute("user123", () -> {
+                        calls.incrementAndGet();
+                        await(release);
+                        return "value";
+                    });
+                }));
+            }
+
+            // el lider queda en el latch y los demas en join(): todos entraron al vuelo
+            awaitParked(callers, 8);
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertEquals("value", result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(1, calls.get());
+        assertEquals(0, flight.inFlight());
+    }
+
+    @Test
+    void shouldReleaseWaitersWhenTheLeaderThrowsAnError() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>();
+        CountDownLatch release = new CountDownLatch(1);
+        List<Thread> callers = new CopyOnWriteArrayList<>();
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                results.add(pool.submit(() -> {
+                    callers.add(Thread.currentThread());
+                    return flight.execute("user123", () -> {
+                        await(release);
+                        throw new AssertionError("boom");
+                    });
+                }));
+            }
+
+            awaitParked(callers, 2);
+            release.countDown();
+
+            for (Future<String> result : results) {
+                ExecutionException e = assertThrows(ExecutionException.class,
+                        () -> result.get(5, TimeUnit.SECONDS));
+                assertInstanceOf(AssertionError.class, e.getCause());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(0, flight.inFlight());
+    }
+
+    @Test
+    void shouldPropagateFailureAndAllowRetry() {
+        SingleFlight<String, String> flight = new SingleFlight<>();
+
+        assertThrows(IllegalStateException.class,
+                () -> flight.execute("user123", () -> {
+                    throw new IllegalStateException("boom");
+                }));
+
+        assertEquals("ok", flight.execute("user123", () -> "ok"));
+    }
+
+    @Test
+    void shouldShareOneAsyncCallUntilItCompletes() {
+        SingleFlight<String, String> flight = new SingleFlight<>();
+        AtomicInteger calls = new AtomicInteger();
+        CompletableFuture<String> response = new CompletableFuture<>();
+
+        CompletableFuture<String> first = flight.executeAsync("user123", () -> {
+            calls.incrementAndGet();
+            return response;
+        });
+        CompletableFuture<String> second = flight.executeAsync("user123", () -> {
+            calls.incrementAndGet();
+            return CompletableFuture.completedFuture("other");
+        });
+        assertEquals(1, flight.inFlight());
+
+        response.complete("value");
+
+        assertEquals("value", first.join());
+        assertEquals("value", second.join());
+        assertEquals(1, calls.get());
+        assertEquals(0, flight.inFlight());
+        assertEquals("again", flight.executeAsync("user123", () -> CompletableFuture.completedFuture("again")).join());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void awaitParked(List<Thread> threads, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (threads.size() < expected || !threads.stream().allMatch(SingleFlightTest::isParked)) {
+            if (System.nanoTime() > deadline) {
+                fail("Callers did not reach the single flight");
+            }
+            Thread.sleep(1);
+        }
+    }
+
+    private static boolean isParked(Thread thread) {
+        Thread.State state = thread.getState();
+        return state == Thread.State.WAITING || state == Thread.State.TIMED_WAITING;
+    }
+}
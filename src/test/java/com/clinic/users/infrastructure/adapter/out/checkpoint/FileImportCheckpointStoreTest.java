@@ -0,0 +1,44 @@
+package com.clinic.users.infrastructure.adapter.out.checkpoint;
+
+import com.clinic.users.domain.exception.DomainException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileImportCheckpointStoreTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void shouldStartAtZeroAndResumeFromTheLastSavedRecord() {
+        FileImportCheckpointStore store = new FileImportCheckpointStore(dir.resolve("imports"));
+        assertEquals(0, store.load("hr-01"));
+
+        store.save("hr-01", 100);
+        store.save("hr-01", 250);
+
+        assertEquals(250, new FileImportCheckpointStore(dir.resolve("imports")).load("hr-01"));
+        assertFalse(Files.exists(dir.resolve("imports/hr-01.checkpoint.tmp")));
+    }
+
+    @Test
+    void shouldFailOnACorruptCheckpointInsteadOfRestartingFromZero() throws Exception {
+        FileImportCheckpointStore store = new FileImportCheckpointStore(dir);
+        Files.writeString(dir.resolve("hr-01.checkpoint"), "12x");
+
+        assertThrows(DomainException.class, () -> store.load("hr-01"));
+    }
+
+    @Test
+    void shouldRejectImportIdsThatAreNotPlainNames() {
+        FileImportCheckpointStore store = new FileImportCheckpointStore(dir.resolve("imports"));
+
+        assertThrows(DomainException.class, () -> store.save("../escape", 1));
+        assertThrows(DomainException.class, () -> store.load("a/b"));
+        assertFalse(Files.exists(dir.resolve("escape.checkpoint")));
+    }
+}
@@ -0,0 +1,48 @@
+package com.clinic.users.infrastructure.adapter.out.cognito;
+
+import com.clinic.users.domain.model.User;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.AttributeType;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.UserType;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CognitoMapperTest {
+
+    private final CognitoMapper mapper = new CognitoMapper();
+
+    @Test
+    void shouldSendOnlyPoolAttributesWithTheirCognitoNames() {
+        Map<String, String> attrs = new LinkedHashMap<>();
+        attrs.put("email", "ana@clinic.com");
+        attrs.put("custom_document", "1234567");
+        attrs.put("custom_role", "DOCTOR");
+        attrs.put("status", "ACTIVE");
+        attrs.put("raw_password", "Secreta#2024");
+
+        Map<String, String> sent = new LinkedHashMap<>();
+        mapper.toAttributes(attrs).forEach(a -> sent.put(a.name(), a.value()));
+
+        assertEquals(Map.of(
+                "email", "ana@clinic.com",
+                "custom:document", "1234567",
+                "custom:role", "DOCTOR"), sent);
+    }
+
+    @Test
+    void shouldReadCustomAttributesBackUnderTheDomainNames() {
+        User user = mapper.from(UserType.builder()
+                .username("ana")
+                .enabled(true)
+                .attributes(
+                        AttributeType.builder().name("email").value("ana@clinic.com").build(),
+                        AttributeType.builder().name("custom:document").value("1234567").build())
+                .build(), List.of());
+
+        assertEquals("1234567", user.getAttributes().get("custom_document"));
+        assertNull(user.getAttributes().get("custom:document"));
+    }
+}
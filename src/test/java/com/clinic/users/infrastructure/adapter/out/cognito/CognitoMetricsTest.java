@@ -0,0 +1,50 @@
+package com.clinic.users.infrastructure.adapter.out.cognito;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.TooManyRequestsException;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.UserNotFoundException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CognitoMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final CognitoMetrics metrics = new CognitoMetrics(registry);
+
+    @Test
+    void shouldTimeSuccessfulCalls() {
+        assertEquals("ok", metrics.record(QuotaCategory.USER_READ, "adminGetUser", () -> "ok"));
+
+        assertEquals(1, registry.get(CognitoMetrics.CALLS)
+                .tags("operation", "adminGetUser", "outcome", "success", "error", "none")
+                .timer().count());
+        assertEquals(0, registry.get(CognitoMetrics.IN_FLIGHT).gauge().value());
+    }
+
+    @Test
+    void shouldTagErrorsWithAwsErrorCodeAndCountThrottles() {
+        TooManyRequestsException throttled = TooManyRequestsException.builder()
+                .statusCode(400)
+                .awsErrorDetails(AwsErrorDetails.builder().errorCode("TooManyRequestsException").build())
+                .build();
+        UserNotFoundException notFound = UserNotFoundException.builder()
+                .statusCode(400)
+                .awsErrorDetails(AwsErrorDetails.builder().errorCode("UserNotFoundException").build())
+                .build();
+
+        assertThrows(TooManyRequestsException.class,
+                () -> metrics.record(QuotaCategory.USER_CREATION, "adminCreateUser", () -> { throw throttled; }));
+        assertThrows(UserNotFoundException.class,
+                () -> metrics.record(QuotaCategory.USER_READ, "adminGetUser", () -> { throw notFound; }));
+
+        assertEquals(1, registry.get(CognitoMetrics.THROTTLES)
+                .tags("operation", "adminCreateUser", "category", "USER_CREATION")
+                .counter().count());
+        assertEquals(1, registry.get(CognitoMetrics.CALLS)
+                .tags("operation", "adminGetUser", "outcome", "error", "error", "UserNotFoundException")
+                .timer().count());
+        assertTrue(registry.find(CognitoMetrics.THROTTLES).tags("operation", "adminGetUser").counters().isEmpty());
+    }
+}
@@ -0,0 +1,92 @@
+package com.clinic.users.infrastructure.adapter.out.cognito;
+
+import com.clinic.users.domain.exception.ThrottledException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.TooManyRequestsException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CognitoRateLimiterTest {
+
+    private CognitoRateLimiter limiter(double rate, Duration maxWait) {
+        return new CognitoRateLimiter(true, rate, rate, rate, rate, 3,
+                maxWait, Duration.ofMillis(1), Duration.ofMillis(5));
+    }
+
+    @Test
+    void shouldRetryThrottledCallAndLowerRate() {
+        CognitoRateLimiter limiter = limiter(100, Duration.ofSeconds(1));
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = limiter.call(QuotaCategory.USER_READ, () -> {
+            if (calls.incrementAndGet() == 1) {
+                throw TooManyRequestsException.builder().message("Rate exceeded").build();
+            }
+            return "ok";
+        });
+
+        assertEquals("ok", result);
+        Map<String, Object> stats = limiter.snapshot().get(QuotaCategory.USER_READ);
+        assertEquals(1L, stats.get("throttled"));
+        assertEquals(1L, stats.get("retries"));
+        assertTrue((double) stats.get("currentRate") < 100);
+    }
+
+    @Test
+    void shouldRetryThrottledAsyncCallWithoutBlocking() {
+        CognitoRateLimiter limiter = limiter(100, Duration.ofSeconds(1));
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = limiter.callAsync(QuotaCategory.USER_READ, () -> calls.incrementAndGet() == 1
+                ? CompletableFuture.<String>failedFuture(
+                        TooManyRequestsException.builder().message("Rate exceeded").build())
+                : CompletableFuture.completedFuture("ok")).join();
+
+        assertEquals("ok", result);
+        assertEquals(2, calls.get());
+        assertEquals(1L, limiter.snapshot().get(QuotaCategory.USER_READ).get("retries"));
+    }
+
+    @Test
+    void shouldWaitForAnAsyncPermitWithoutBlockingTheCaller() {
+        CognitoRateLimiter limiter = limiter(2, Duration.ofSeconds(2));
+        limiter.callAsync(QuotaCategory.USER_READ, () -> CompletableFuture.completedFuture("first")).join();
+        limiter.callAsync(QuotaCategory.USER_READ, () -> CompletableFuture.completedFuture("second")).join();
+
+        // sin tokens: el permiso llega en ~500ms, pero la llamada vuelve enseguida
+        long start = System.nanoTime();
+        CompletableFuture<String> third = limiter.callAsync(QuotaCategory.USER_READ,
+                () -> CompletableFuture.completedFuture("third"));
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 100);
+        assertFalse(third.isDone());
+
+        assertEquals("third", third.join());
+    }
+
+    @Test
+    void shouldGiveUpAfterMaxAttempts() {
+        CognitoRateLimiter limiter = limiter(100, Duration.ofSeconds(1));
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThrows(TooManyRequestsException.class, () -> limiter.call(QuotaCategory.USER_UPDATE, () -> {
+            calls.incrementAndGet();
+            throw TooManyRequestsException.builder().message("Rate exceeded").build();
+        }));
+
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    void shouldFailFastWhenQuotaIsSaturated() {
+        CognitoRateLimiter limiter = limiter(1, Duration.ZERO);
+
+        limiter.call(QuotaCategory.USER_CREATION, () -> "first");
+
+        assertThrows(ThrottledException.class, () -> limiter.call(QuotaCategory.USER_CREATION, () -> "second"));
+        assertEquals(1L, limiter.snapshot().get(QuotaCategory.USER_CREATION).get("rejected"));
+    }
+}
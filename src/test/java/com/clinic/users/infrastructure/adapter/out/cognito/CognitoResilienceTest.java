@@ -0,0 +1,133 @@
+package com.clinic.users.infrastructure.adapter.out.cognito;
+
+import com.clinic.users.domain.exception.ServiceUnavailableException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.InternalErrorException;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.UserNotFoundException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CognitoResilienceTest {
+
+    private CognitoResilience resilience(Duration openDuration) {
+        return new CognitoResilience(true, 2, 2, Duration.ofMillis(10), 4, 2, 0.5, openDuration);
+    }
+
+    private static String timeout() {
+        throw SdkClientException.create("Read timed out");
+    }
+
+    @Test
+    void shouldOpenCircuitAndFailFastAfterRepeatedFailures() {
+        CognitoResilience resilience = resilience(Duration.ofMinutes(1));
+        AtomicInteger calls = new AtomicInteger();
+
+        for (int i = 0; i < 2; i++) {
+            assertThrows(ServiceUnavailableException.class,
+                    () -> resilience.execute("adminGetUser", false, () -> {
+                        calls.incrementAndGet();
+                        return timeout();
+                    }));
+        }
+
+        assertThrows(ServiceUnavailableException.class,
+                () -> resilience.execute("adminGetUser", false, () -> {
+                    calls.incrementAndGet();
+                    return "user";
+                }));
+        assertEquals(2, calls.get());
+        assertEquals("user", resilience.execute("listUsers", false, () -> "user"));
+    }
+
+    @Test
+    void shouldOpenCircuitForFailedAsyncCalls() {
+        CognitoResilience resilience = resilience(Duration.ofMinutes(1));
+        AtomicInteger calls = new AtomicInteger();
+
+        for (int i = 0; i < 2; i++) {
+            CompletionException error = assertThrows(CompletionException.class,
+                    () -> resilience.executeAsync("adminGetUser", false, () -> {
+                        calls.incrementAndGet();
+                        return CompletableFuture.<String>failedFuture(SdkClientException.create("Read timed out"));
+                    }).join());
+            assertInstanceOf(ServiceUnavailableException.class, error.getCause());
+        }
+
+        assertThrows(CompletionException.class, () -> resilience.executeAsync("adminGetUser", false, () -> {
+            calls.incrementAndGet();
+            return CompletableFuture.completedFuture("user");
+        }).join());
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void shouldRejectAsyncCallsRightAwayWhenTheBulkheadIsFull() {
+        CognitoResilience resilience = new CognitoResilience(true, 1, 1, Duration.ofSeconds(5), 4, 2, 0.5,
+                Duration.ofMinutes(1));
+        CompletableFuture<String> pending = new CompletableFuture<>();
+        resilience.executeAsync("adminGetUser", false, () -> pending);
+
+        // con max-wait de 5s, el rechazo no espera
+        long start = System.nanoTime();
+        CompletionException error = assertThrows(CompletionException.class,
+                () -> resilience.executeAsync("adminGetUser", false,
+                        () -> CompletableFuture.completedFuture("user")).join());
+        assertInstanceOf(ServiceUnavailableException.class, error.getCause());
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 1000);
+
+        pending.complete("user");
+        assertEquals("user", resilience.executeAsync("adminGetUser", false,
+                () -> CompletableFuture.completedFuture("user")).join());
+    }
+
+    @Test
+    void shouldNotCountClientErrorsAsFailures() {
+        CognitoResilience resilience = resilience(Duration.ofMinutes(1));
+
+        for (int i = 0; i < 4; i++) {
+            assertThrows(UserNotFoundException.class, () -> resilience.execute("adminGetUser", false, () -> {
+                throw UserNotFoundException.builder().message("User does not exist.").statusCode(400).build();
+            }));
+        }
+
+        assertEquals("user", resilience.execute("adminGetUser", false, () -> "user"));
+    }
+
+    @Test
+    void shouldCloseCircuitAfterSuccessfulTrial() throws InterruptedException {
+        CognitoResilience resilience = resilience(Duration.ofMillis(20));
+        for (int i = 0; i < 2; i++) {
+            assertThrows(ServiceUnavailableException.class,
+                    () -> resilience.execute("adminGetUser", false, CognitoResilienceTest::timeout));
+        }
+
+        Thread.sleep(30);
+
+        assertEquals("user", resilience.execute("adminGetUser", false, () -> "user"));
+        assertEquals("user", resilience.execute("adminGetUser", false, () -> "user"));
+    }
+
+    @Test
+    void shouldTurnServerErrorsIntoServiceUnavailableAndCountThem() {
+        CognitoResilience resilience = resilience(Duration.ofMinutes(1));
+        InternalErrorException outage = (InternalErrorException) InternalErrorException.builder()
+                .message("Internal server error").statusCode(500).build();
+
+        for (int i = 0; i < 2; i++) {
+            ServiceUnavailableException e = assertThrows(ServiceUnavailableException.class,
+                    () -> resilience.execute("adminGetUser", false, () -> {
+                        throw outage;
+                    }));
+            assertSame(outage, e.getCause());
+        }
+
+        ServiceUnavailableException open = assertThrows(ServiceUnavailableException.class,
+                () -> resilience.execute("adminGetUser", false, () -> "user"));
+        assertTrue(open.getMessage().contains("circuit open"));
+    }
+}
@@ -0,0 +1,123 @@
+package com.clinic.users.infrastructure.adapter.out.cognito;
+
+import com.clinic.users.domain.model.UserPage;
+import com.clinic.users.infrastructure.concurrent.FanOut;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityProviderClient;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.AdminAddUserToGroupRequest;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.AdminListGroupsForUserRequest;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.AdminListGroupsForUserResponse;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.ListUsersInGroupRequest;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.ListUsersInGroupResponse;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.ListUsersRequest;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.ListUsersResponse;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.UserType;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CognitoUserAdminAdapterTest {
+
+    @Mock
+    private CognitoIdentityProviderClient client;
+
+    // las recargas en segundo plano quedan aca hasta que el test las corre
+    private final List<Runnable> background = new ArrayList<>();
+    private final Map<String, List<String>> members = new HashMap<>(Map.of("doctor", List.of("ana")));
+    private CognitoUserAdminAdapter adapter;
+
+    @BeforeEach
+    void setUp() {
+        adapter = new CognitoUserAdminAdapter(client, new CognitoMapper(), FanOut.sequential(),
+                new CognitoRateLimiter(true, 100, 100, 100, 100, 3,
+                        Duration.ofSeconds(1), Duration.ofMillis(1), Duration.ofMillis(5)),
+                new CognitoResilience(true, 10, 10, Duration.ofMillis(10), 10, 5, 0.5, Duration.ofMinutes(1)),
+                new CognitoMetrics(new SimpleMeterRegistry()),
+                background::add);
+        ReflectionTestUtils.setField(adapter, "userPoolId", "pool");
+        ReflectionTestUtils.setField(adapter, "groupResolution", "batched");
+        ReflectionTestUtils.setField(adapter, "groupIndexTtl", Duration.ofMinutes(1));
+
+        lenient().when(client.listUsersInGroup(any(ListUsersInGroupRequest.class))).thenAnswer(inv -> {
+            ListUsersInGroupRequest req = inv.getArgument(0);
+            return ListUsersInGroupResponse.builder()
+                    .users(members.getOrDefault(req.groupName(), List.of()).stream()
+                            .map(u -> UserType.builder().username(u).build())
+                            .toList())
+                    .build();
+        });
+    }
+
+    @Test
+    void shouldPatchTheGroupIndexOnWriteInsteadOfReloadingIt() {
+        assertEquals(List.of("ana"), adapter.listUsernamesInGroup("doctor"));
+        verify(client, times(5)).listUsersInGroup(any(ListUsersInGroupRequest.class));
+
+        adapter.adminUpdateGroups("bob", List.of("doctor"), List.of());
+        adapter.adminUpdateGroups("ana", List.of(), List.of("doctor"));
+
+        assertEquals(List.of("bob"), adapter.listUsernamesInGroup("doctor"));
+        verify(client).adminAddUserToGroup(any(AdminAddUserToGroupRequest.class));
+        verify(client, times(5)).listUsersInGroup(any(ListUsersInGroupRequest.class));
+        assertTrue(background.isEmpty());
+    }
+
+    @Test
+    void shouldNotHoldABulkheadSlotWhileWaitingForQuota() throws Exception {
+        // un solo lugar para lecturas; listUsers con 1 permiso por segundo
+        CognitoUserAdminAdapter adapter = new CognitoUserAdminAdapter(client, new CognitoMapper(),
+                FanOut.sequential(),
+                new CognitoRateLimiter(true, 100, 100, 100, 1, 3,
+                        Duration.ofSeconds(5), Duration.ofMillis(1), Duration.ofMillis(5)),
+                new CognitoResilience(true, 1, 1, Duration.ofMillis(10), 10, 5, 0.5, Duration.ofMinutes(1)),
+                new CognitoMetrics(new SimpleMeterRegistry()),
+                background::add);
+        ReflectionTestUtils.setField(adapter, "userPoolId", "pool");
+        ReflectionTestUtils.setField(adapter, "groupResolution", "per-user");
+        when(client.listUsers(any(ListUsersRequest.class))).thenReturn(ListUsersResponse.builder().build());
+        when(client.adminListGroupsForUser(any(AdminListGroupsForUserRequest.class)))
+                .thenReturn(AdminListGroupsForUserResponse.builder().build());
+
+        adapter.listUsers(20, null, null);
+        CompletableFuture<UserPage> waiting = CompletableFuture.supplyAsync(() -> adapter.listUsers(20, null, null));
+        Thread.sleep(200);
+
+        // mientras listUsers espera su permiso, otra lectura entra al bulkhead
+        assertEquals(List.of(), adapter.listGroupsForUser("ana"));
+        assertFalse(waiting.isDone());
+        assertTrue(waiting.get(5, TimeUnit.SECONDS).getUsers().isEmpty());
+    }
+
+    @Test
+    void shouldServeTheStaleIndexWhileItReloadsInTheBackground() {
+        ReflectionTestUtils.setField(adapter, "groupIndexTtl", Duration.ZERO);
+        assertEquals(List.of("ana"), adapter.listUsernamesInGroup("doctor"));
+
+        members.put("doctor", List.of("ana", "carl"));
+        // vencido: responde con el anterior y agenda una sola recarga
+        assertEquals(List.of("ana"), adapter.listUsernamesInGroup("doctor"));
+        assertEquals(List.of("ana"), adapter.listUsernamesInGroup("doctor"));
+        assertEquals(1, background.size());
+
+        // una escritura durante la recarga no se pierde al reemplazar el indice
+        adapter.adminUpdateGroups("bob", List.of("doctor"), List.of());
+        background.remove(0).run();
+
+        assertEquals(List.of("ana", "carl", "bob"), adapter.listUsernamesInGroup("doctor"));
+    }
+}
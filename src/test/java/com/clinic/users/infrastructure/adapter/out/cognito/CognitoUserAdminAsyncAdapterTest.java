@@ -0,0 +1,98 @@
+package com.clinic.users.infrastructure.adapter.out.cognito;
+
+import com.clinic.users.domain.exception.ServiceUnavailableException;
+import com.clinic.users.domain.model.UserPage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityProviderAsyncClient;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.AdminGetUserRequest;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.AdminListGroupsForUserRequest;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.AdminListGroupsForUserResponse;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.InternalErrorException;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.ListUsersInGroupRequest;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.ListUsersInGroupResponse;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.ListUsersRequest;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.ListUsersResponse;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.UserType;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CognitoUserAdminAsyncAdapterTest {
+
+    @Mock
+    private CognitoIdentityProviderAsyncClient client;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private CognitoUserAdminAsyncAdapter adapter;
+
+    @BeforeEach
+    void setUp() {
+        adapter = new CognitoUserAdminAsyncAdapter(client, new CognitoMapper(),
+                new CognitoResilience(true, 10, 10, Duration.ofMillis(10), 10, 5, 0.5, Duration.ofMinutes(1)),
+                new CognitoRateLimiter(true, 100, 100, 100, 100, 3,
+                        Duration.ofSeconds(1), Duration.ofMillis(1), Duration.ofMillis(5)),
+                new CognitoMetrics(registry),
+                "pool", "batched", Duration.ofMinutes(1));
+    }
+
+    private static ListUsersResponse page(String... usernames) {
+        return ListUsersResponse.builder()
+                .users(List.of(usernames).stream()
+                        .map(u -> UserType.builder().username(u).enabled(true).build())
+                        .toList())
+                .build();
+    }
+
+    @Test
+    void shouldLoadGroupIndexOnceForConcurrentPages() {
+        CompletableFuture<ListUsersInGroupResponse> members = new CompletableFuture<>();
+        when(client.listUsers(any(ListUsersRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(page("ana")));
+        when(client.listUsersInGroup(any(ListUsersInGroupRequest.class))).thenReturn(members);
+
+        CompletableFuture<UserPage> first = adapter.listUsers(20, null, null);
+        CompletableFuture<UserPage> second = adapter.listUsers(20, null, null);
+        members.complete(ListUsersInGroupResponse.builder()
+                .users(UserType.builder().username("ana").build())
+                .build());
+
+        assertEquals(List.of("doctor", "nurse", "administrative", "humanR", "support"),
+                first.join().getUsers().get(0).getGroups());
+        assertEquals(first.join().getUsers().get(0).getGroups(), second.join().getUsers().get(0).getGroups());
+        // un recorrido por grupo, no uno por pagina
+        verify(client, times(5)).listUsersInGroup(any(ListUsersInGroupRequest.class));
+
+        adapter.listUsers(20, null, null).join();
+        verify(client, times(5)).listUsersInGroup(any(ListUsersInGroupRequest.class));
+    }
+
+    @Test
+    void shouldTurnServerErrorsIntoServiceUnavailableAndRecordThem() {
+        when(client.adminGetUser(any(AdminGetUserRequest.class))).thenReturn(CompletableFuture.failedFuture(
+                InternalErrorException.builder().message("boom").statusCode(500).build()));
+        when(client.adminListGroupsForUser(any(AdminListGroupsForUserRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(AdminListGroupsForUserResponse.builder().build()));
+
+        CompletionException error = assertThrows(CompletionException.class,
+                () -> adapter.adminGet("ana").join());
+
+        assertInstanceOf(ServiceUnavailableException.class, error.getCause());
+        assertEquals(1, registry.get(CognitoMetrics.CALLS)
+                .tags("operation", "adminGetUser", "outcome", "error")
+                .timer().count());
+        assertEquals(1, registry.get(CognitoMetrics.CALLS)
+                .tags("operation", "adminListGroupsForUser", "outcome", "success")
+                .timer().count());
+    }
+}
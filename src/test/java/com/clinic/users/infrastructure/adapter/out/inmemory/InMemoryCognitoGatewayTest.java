@@ -0,0 +1,134 @@
+package com.clinic.users.infrastructure.adapter.out.inmemory;
+
+import com.clinic.users.domain.exception.DomainException;
+import com.clinic.users.domain.exception.UserAlreadyExistsException;
+import com.clinic.users.domain.model.User;
+import com.clinic.users.domain.model.UserPage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryCognitoGatewayTest {
+
+    private final InMemoryCognitoGateway gateway = new InMemoryCognitoGateway(0);
+
+    private User user(String username) {
+        return User.builder()
+                .username(username)
+                .enabled(true)
+                .attributes(Map.of("email", username + "@clinic.com", "raw_password", "Secreta#2024"))
+                .build();
+    }
+
+    @Test
+    void shouldCreateUserWithSubAndWithoutPasswordAttribute() {
+        User created = gateway.adminCreate(user("jdoe"), false);
+
+        assertEquals("jdoe", created.getUsername());
+        assertNotNull(created.getAttributes().get("sub"));
+        assertFalse(created.getAttributes().containsKey("raw_password"));
+        assertThrows(UserAlreadyExistsException.class, () -> gateway.adminCreate(user("jdoe"), false));
+    }
+
+    @Test
+    void shouldRejectAttributesOutsideThePoolSchema() {
+        User user = User.builder()
+                .username("jdoe")
+                .enabled(true)
+                .attributes(Map.of("email", "jdoe@clinic.com", "nickname", "JD"))
+                .build();
+
+        DomainException error = assertThrows(DomainException.class, () -> gateway.adminCreate(user, false));
+        assertTrue(error.getMessage().contains("nickname: Attribute does not exist in the schema"));
+        assertThrows(DomainException.class, () -> gateway.adminGet("jdoe"));
+
+        gateway.adminCreate(user("jdoe"), false);
+        assertThrows(DomainException.class,
+                () -> gateway.adminUpdateAttributes("jdoe", Map.of("custom:nickname", "JD")));
+    }
+
+    @Test
+    void shouldTrackGroupsAndEnabledState() {
+        gateway.adminCreate(user("jdoe"), false);
+        gateway.adminAddToGroups("jdoe", List.of("doctor", "support"));
+        gateway.adminDisable("jdoe");
+
+        User found = gateway.adminGet("jdoe");
+        assertFalse(found.getEnabled());
+        assertEquals(List.of("doctor", "support"), found.getGroups());
+        assertThrows(DomainException.class, () -> gateway.adminAddToGroups("jdoe", List.of("pilots")));
+        assertThrows(DomainException.class, () -> gateway.adminGet("ghost"));
+    }
+
+    @Test
+    void shouldListGroupMembersInUsernameOrder() {
+        gateway.adminCreate(user("zoe"), false);
+        gateway.adminCreate(user("adam"), false);
+        gateway.adminCreate(user("mia"), false);
+        gateway.adminAddToGroups("zoe", List.of("nurse"));
+        gateway.adminAddToGroups("adam", List.of("nurse", "doctor"));
+
+        assertEquals(List.of("adam", "zoe"), gateway.listUsernamesInGroup("nurse"));
+        assertEquals(List.of("doctor", "nurse"), gateway.listGroupsForUser("adam"));
+        assertThrows(DomainException.class, () -> gateway.listUsernamesInGroup("pilots"));
+    }
+
+    @Test
+    void shouldPaginateInUsernameOrder() {
+        gateway.seed(45);
+
+        List<String> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            UserPage page = gateway.listUsers(20, null, cursor);
+            page.getUsers().forEach(u -> seen.add(u.getUsername()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(45, seen.size());
+        assertEquals("seed00001", seen.get(0));
+        assertEquals("seed00045", seen.get(44));
+        assertThrows(DomainException.class, () -> gateway.listUsers(61, null, null));
+    }
+
+    @Test
+    void shouldApplyCognitoFilterSemantics() {
+        gateway.seed(30);
+        gateway.adminDisable("seed00003");
+
+        assertEquals(10, gateway.listUsers(60, "username ^= \"seed0002\"", null).getUsers().size());
+        assertEquals(List.of("seed00007"), gateway.listUsers(60, "email = \"seed00007@clinic.test\"", null)
+                .getUsers().stream().map(User::getUsername).toList());
+        assertEquals(List.of("seed00003"), gateway.listUsers(60, "status = \"Disabled\"", null)
+                .getUsers().stream().map(User::getUsername).toList());
+        assertThrows(DomainException.class, () -> gateway.listUsers(10, "email contains x", null));
+    }
+
+    @Test
+    void shouldAddAndRemoveGroupsInOneUpdate() {
+        gateway.adminCreate(user("jdoe"), false);
+        gateway.adminAddToGroups("jdoe", List.of("doctor", "humanR"));
+
+        gateway.adminUpdateGroups("jdoe", List.of("support"), List.of("humanR"));
+
+        assertEquals(List.of("doctor", "support"), gateway.listGroupsForUser("jdoe"));
+        assertThrows(DomainException.class,
+                () -> gateway.adminUpdateGroups("jdoe", List.of(), List.of("admins")));
+    }
+
+    @Test
+    void shouldBatchGetExistingUsersWithGroupsAndSkipMissingOnes() {
+        gateway.adminCreate(user("jdoe"), false);
+        gateway.adminAddToGroups("jdoe", List.of("doctor"));
+        gateway.adminCreate(user("asmith"), false);
+
+        Map<String, User> found = gateway.adminGetAll(List.of("jdoe", "ghost", "asmith"));
+
+        assertEquals(2, found.size());
+        assertEquals(List.of("doctor"), found.get("jdoe").getGroups());
+        assertFalse(found.containsKey("ghost"));
+    }
+}
@@ -0,0 +1,298 @@
+package com.clinic.users.infrastructure.adapter.out.journal;
+
+import com.clinic.users.domain.exception.DomainException;
+import com.clinic.users.domain.model.OnboardingCommand;
+import com.clinic.users.domain.model.OnboardingStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileOnboardingJournalTest {
+
+    @TempDir
+    Path dir;
+
+    private final ObjectMapper json = new ObjectMapper().findAndRegisterModules();
+    private FileOnboardingJournal journal;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        journal.destroy();
+    }
+
+    private FileOnboardingJournal open() throws IOException {
+        return new FileOnboardingJournal(dir, 1 << 20, json);
+    }
+
+    private FileOnboardingJournal reopen() throws Exception {
+        journal.destroy();
+        return open();
+    }
+
+    private static OnboardingCommand command(String username) {
+        return OnboardingCommand.builder()
+                .id(username + "-1")
+                .username(username)
+                .groups(List.of("doctor"))
+                .password("Secreta#2024")
+                .enqueuedAt(Instant.now())
+                .build();
+    }
+
+    private long segments() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.count();
+        }
+    }
+
+    @Test
+    void shouldReplayOnlyUnfinishedCommandsAfterRestart() throws Exception {
+        journal = open();
+        OnboardingCommand ana = command("ana");
+        OnboardingCommand bob = command("bob");
+        journal.append(ana);
+        journal.append(bob);
+        journal.markDone(ana);
+
+        journal = reopen();
+
+        List<OnboardingCommand> pending = journal.pending();
+        assertEquals(List.of("bob"), pending.stream().map(OnboardingCommand::getUsername).toList());
+        assertEquals("Secreta#2024", pending.get(0).getPassword());
+        assertEquals(List.of("doctor"), pending.get(0).getGroups());
+        assertEquals(OnboardingStatus.State.DONE, journal.status("ana").orElseThrow().getState());
+        assertEquals(OnboardingStatus.State.PENDING, journal.status("bob").orElseThrow().getState());
+    }
+
+    @Test
+    void shouldRejectASecondPendingCommandForTheSameUser() throws Exception {
+        journal = open();
+        journal.append(command("ana"));
+
+        OnboardingCommand otherGroups = OnboardingCommand.builder()
+                .id("ana-2")
+                .username("ana")
+                .groups(List.of("nurse"))
+                .enqueuedAt(Instant.now())
+                .build();
+        assertThrows(DomainException.class, () -> journal.append(otherGroups));
+    }
+
+    @Test
+    void shouldHandBackAnEquivalentPendingCommand() throws Exception {
+        journal = open();
+        OnboardingCommand first = command("ana");
+        journal.append(first);
+
+        // mismo alta reintentada (importacion reanudada), con otro id
+        OnboardingCommand again = first.toBuilder().id("ana-2").build();
+
+        assertSame(first, journal.append(again));
+        assertEquals(List.of(first), journal.pending());
+    }
+
+    @Test
+    void shouldNotReplayACommandWhoseMarkerLivesInALaterSegment() throws Exception {
+        // segmentos chicos: cada lote pasa al siguiente
+        journal = new FileOnboardingJournal(dir, 1, json);
+        OnboardingCommand ana = command("ana");
+        OnboardingCommand bob = command("bob");
+        OnboardingCommand carl = command("carl");
+        journal.append(ana);
+        journal.append(bob);
+        journal.markDone(bob);
+        journal.append(carl);
+        journal.markDone(carl);
+        journal.destroy();
+
+        journal = new FileOnboardingJournal(dir, 1, json);
+
+        assertEquals(List.of("ana"), journal.pending().stream().map(OnboardingCommand::getUsername).toList());
+        assertEquals(OnboardingStatus.State.DONE, journal.status("bob").orElseThrow().getState());
+
+        journal.markDone(journal.pending().get(0));
+        journal = reopen();
+        assertTrue(journal.pending().isEmpty());
+        assertEquals(1, segments(), "only the new active segment is left");
+    }
+
+    @Test
+    void shouldDeleteSegmentsOnceEverythingInThemFinished() throws Exception {
+        journal = open();
+        OnboardingCommand ana = command("ana");
+        journal.append(ana);
+
+        journal = reopen();
+        assertEquals(2, segments(), "old segment with a pending command plus the new active one");
+
+        journal.markFailed(journal.pending().get(0), "UserNotFound");
+        assertEquals(1, segments());
+        assertEquals("UserNotFound", journal.status("ana").orElseThrow().getLastError());
+
+        journal = reopen();
+        assertTrue(journal.pending().isEmpty());
+    }
+
+    @Test
+    void shouldDropATornTailAndKeepWhatWasDurable() throws Exception {
+        journal = open();
+        journal.append(command("ana"));
+        journal.destroy();
+
+        Path segment;
+        try (Stream<Path> files = Files.list(dir)) {
+            segment = files.findFirst().orElseThrow();
+        }
+        // un registro a medio escribir: cabecera que promete mas bytes de los que hay
+        Files.write(segment, new byte[] {0, 0, 1, 0, 1, 2, 3}, StandardOpenOption.APPEND);
+        long torn = Files.size(segment);
+
+        journal = open();
+
+        assertEquals(List.of("ana"), journal.pending().stream().map(OnboardingCommand::getUsername).toList());
+        assertTrue(Files.size(segment) < torn);
+    }
+
+    @Test
+    void shouldKeepLaterCommandsWhenABatchFailsHalfWritten() throws Exception {
+        AtomicBoolean failNextWrite = new AtomicBoolean();
+        journal = new FileOnboardingJournal(dir, 1 << 20, json,
+                path -> new TornWriteChannel(FileChannel.open(path,
+                        StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND),
+                        failNextWrite));
+        journal.append(command("before"));
+
+        failNextWrite.set(true);
+        assertThrows(DomainException.class, () -> journal.append(command("torn")));
+        journal.append(command("after"));
+
+        journal = reopen();
+
+        assertEquals(List.of("before", "after"),
+                journal.pending().stream().map(OnboardingCommand::getUsername).toList());
+        assertTrue(journal.status("torn").isEmpty());
+    }
+
+    /** Escribe la mitad del buffer y falla, como un disco lleno a mitad de un lote. */
+    private static final class TornWriteChannel extends FileChannel {
+
+        private final FileChannel delegate;
+        private final AtomicBoolean failNextWrite;
+
+        TornWriteChannel(FileChannel delegate, AtomicBoolean failNextWrite) {
+            this.delegate = delegate;
+            this.failNextWrite = failNextWrite;
+        }
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            if (failNextWrite.compareAndSet(true, false)) {
+                ByteBuffer half = src.duplicate();
+                half.limit(src.position() + src.remaining() / 2);
+                delegate.write(half);
+                delegate.force(false);
+                throw new IOException("No space left on device");
+            }
+            return delegate.write(src);
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            return delegate.read(dst);
+        }
+
+        @Override
+        public long read(ByteBuffer[] dsts, int offset, int length) throws IOException {
+            return delegate.read(dsts, offset, length);
+        }
+
+        @Override
+        public long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+            return delegate.write(srcs, offset, length);
+        }
+
+        @Override
+        public long position() throws IOException {
+            return delegate.position();
+        }
+
+        @Override
+        public FileChannel position(long newPosition) throws IOException {
+            delegate.position(newPosition);
+            return this;
+        }
+
+        @Override
+        public long size() throws IOException {
+            return delegate.size();
+        }
+
+        @Override
+        public FileChannel truncate(long size) throws IOException {
+            delegate.truncate(size);
+            return this;
+        }
+
+        @Override
+        public void force(boolean metaData) throws IOException {
+            delegate.force(metaData);
+        }
+
+        @Override
+        public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+            return delegate.transferTo(position, count, target);
+        }
+
+        @Override
+        public long transferFrom(ReadableByteChannel src, long position, long count) throws IOException {
+            return delegate.transferFrom(src, position, count);
+        }
+
+        @Override
+        public int read(ByteBuffer dst, long position) throws IOException {
+            return delegate.read(dst, position);
+        }
+
+        @Override
+        public int write(ByteBuffer src, long position) throws IOException {
+            return delegate.write(src, position);
+        }
+
+        @Override
+        public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException {
+            return delegate.map(mode, position, size);
+        }
+
+        @Override
+        public FileLock lock(long position, long size, boolean shared) throws IOException {
+            return delegate.lock(position, size, shared);
+        }
+
+        @Override
+        public FileLock tryLock(long position, long size, boolean shared) throws IOException {
+            return delegate.tryLock(position, size, shared);
+        }
+
+        @Override
+        protected void implCloseChannel() throws IOException {
+            delegate.close();
+        }
+    }
+}
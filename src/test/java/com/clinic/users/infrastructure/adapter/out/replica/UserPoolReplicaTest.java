@@ -0,0 +1,120 @@
+package com.clinic.users.infrastructure.adapter.out.replica;
+
+import com.clinic.users.application.port.out.CognitoGateway;
+import com.clinic.users.domain.model.User;
+import com.clinic.users.domain.model.UserPage;
+import com.clinic.users.infrastructure.adapter.out.inmemory.InMemoryCognitoGateway;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class UserPoolReplicaTest {
+
+    private final InMemoryCognitoGateway pool = new InMemoryCognitoGateway(130);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void shouldReplaceOnlyChangedUsersOnRefresh() {
+        UserPoolReplica replica = new UserPoolReplica(pool, Duration.ofMinutes(1), null);
+
+        UserPoolReplica.RefreshResult first = replica.refresh();
+        assertEquals(130, first.changed());
+        assertTrue(replica.isFresh());
+
+        pool.adminDisable("seed00042");
+        pool.adminAddToGroups("seed00007", List.of("support"));
+
+        UserPoolReplica.RefreshResult second = replica.refresh();
+        assertEquals(2, second.changed());
+        assertFalse(replica.get("seed00042").getEnabled());
+        assertTrue(replica.get("seed00007").getGroups().contains("support"));
+    }
+
+    @Test
+    void shouldPageInUsernameOrderWithItsOwnCursor() {
+        UserPoolReplica replica = new UserPoolReplica(pool, Duration.ofMinutes(1), null);
+        replica.refresh();
+
+        List<String> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            UserPage page = replica.page(50, cursor);
+            page.getUsers().forEach(u -> seen.add(u.getUsername()));
+            cursor = page.getNextCursor();
+            assertTrue(cursor == null || UserPoolReplica.isReplicaCursor(cursor));
+        } while (cursor != null);
+
+        assertEquals(130, seen.size());
+        assertEquals(seen.stream().sorted().toList(), seen);
+    }
+
+    @Test
+    void shouldRestoreTheSamePoolFromSnapshot() {
+        Path snapshot = dir.resolve("pool.snapshot");
+        pool.adminDisable("seed00003");
+        UserPoolReplica replica = new UserPoolReplica(pool, Duration.ofMinutes(1), snapshot);
+        replica.refresh();
+        assertTrue(replica.writeSnapshot());
+        assertFalse(replica.writeSnapshot(), "nothing changed since the last snapshot");
+
+        CognitoGateway unreachable = mock(CognitoGateway.class);
+        UserPoolReplica restarted = new UserPoolReplica(unreachable, Duration.ofMinutes(1), snapshot);
+        assertTrue(restarted.loadSnapshot());
+
+        assertEquals(130, restarted.size());
+        assertTrue(restarted.isFresh());
+        for (String username : List.of("seed00001", "seed00003", "seed00130")) {
+            User expected = replica.get(username);
+            User loaded = restarted.get(username);
+            assertEquals(expected.getEnabled(), loaded.getEnabled());
+            assertEquals(expected.getGroups(), loaded.getGroups());
+            assertEquals(expected.getLastModified().toEpochMilli(), loaded.getLastModified().toEpochMilli());
+            assertEquals(Map.copyOf(expected.getAttributes()), Map.copyOf(loaded.getAttributes()));
+        }
+        verifyNoInteractions(unreachable);
+    }
+
+    @Test
+    void shouldServeReadsFromFreshReplicaAndApplyWrites() {
+        CognitoGateway source = spy(pool);
+        UserPoolReplica replica = new UserPoolReplica(source, Duration.ofMinutes(1), null);
+        ReplicaCognitoGateway gateway = new ReplicaCognitoGateway(source, replica);
+        replica.refresh();
+        clearInvocations(source);
+
+        gateway.adminDisable("seed00010");
+        gateway.adminAddToGroups("seed00010", List.of("support"));
+
+        User user = gateway.adminGet("seed00010");
+        assertFalse(user.getEnabled());
+        assertTrue(user.getGroups().contains("support"));
+        assertEquals(20, gateway.listUsers(20, null, null).getUsers().size());
+        verify(source, never()).adminGet(anyString());
+        verify(source, never()).listUsers(anyInt(), any(), any());
+
+        // con filtro va a Cognito
+        gateway.listUsers(20, "username ^= \"seed0001\"", null);
+        verify(source).listUsers(20, "username ^= \"seed0001\"", null);
+    }
+
+    @Test
+    void shouldFallBackToCognitoWhenStale() {
+        CognitoGateway source = spy(pool);
+        UserPoolReplica replica = new UserPoolReplica(source, Duration.ZERO, null);
+        ReplicaCognitoGateway gateway = new ReplicaCognitoGateway(source, replica);
+        replica.refresh();
+
+        gateway.adminGet("seed00010");
+
+        verify(source).adminGet("seed00010");
+    }
+}
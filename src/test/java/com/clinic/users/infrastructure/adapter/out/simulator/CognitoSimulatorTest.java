@@ -0,0 +1,162 @@
+package com.clinic.users.infrastructure.adapter.out.simulator;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletionException;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.exception.ApiCallAttemptTimeoutException;
+import software.amazon.awssdk.core.exception.ApiCallTimeoutException;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.core.retry.RetryPolicy;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityProviderAsyncClient;
+import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityProviderClient;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.AdminGetUserResponse;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.AttributeType;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.InternalErrorException;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.InvalidParameterException;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.ListUsersResponse;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.TooManyRequestsException;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.UserNotFoundException;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.UsernameExistsException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CognitoSimulatorTest {
+
+    private static CognitoSimulator simulator(int readQuota, double errorRate, double timeoutRate) {
+        return new CognitoSimulator(30, "0ms", "", 0, readQuota, 0, 0,
+                errorRate, timeoutRate, Duration.ofSeconds(30));
+    }
+
+    // La primera llamada de cada cliente arma el SDK y puede pasar de cientos de ms:
+    // solo el test de timeouts usa un limite corto, y ahi el simulador se cuelga adrede
+    private static final Duration ATTEMPT_TIMEOUT = Duration.ofSeconds(5);
+    private static final Duration SHORT_ATTEMPT_TIMEOUT = Duration.ofMillis(300);
+
+    // el cliente real del SDK sobre el simulador, sin reintentos para ver cada respuesta
+    private static CognitoIdentityProviderClient client(CognitoSimulator simulator) {
+        return client(simulator, ATTEMPT_TIMEOUT);
+    }
+
+    private static CognitoIdentityProviderClient client(CognitoSimulator simulator, Duration attemptTimeout) {
+        return CognitoIdentityProviderClient.builder()
+                .region(Region.US_EAST_1)
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("a", "b")))
+                .httpClient(simulator.httpClient())
+                .overrideConfiguration(o -> o
+                        .retryPolicy(RetryPolicy.none())
+                        .apiCallAttemptTimeout(attemptTimeout))
+                .build();
+    }
+
+    @Test
+    void shouldServeCognitoOperationsThroughTheRealClient() {
+        CognitoIdentityProviderClient client = client(simulator(0, 0, 0));
+
+        AdminGetUserResponse user = client.adminGetUser(r -> r.userPoolId("pool").username("seed00007"));
+        assertEquals("seed00007", user.username());
+        assertTrue(user.userAttributes().stream().anyMatch(a -> a.name().equals("email")));
+
+        ListUsersResponse page = client.listUsers(r -> r.userPoolId("pool").limit(20));
+        assertEquals(20, page.users().size());
+        assertNotNull(page.paginationToken());
+        assertEquals(10, client.listUsers(r -> r.userPoolId("pool").limit(20)
+                .paginationToken(page.paginationToken())).users().size());
+
+        client.adminCreateUser(r -> r.userPoolId("pool").username("jdoe")
+                .userAttributes(AttributeType.builder().name("email").value("jdoe@clinic.com").build()));
+        client.adminAddUserToGroup(r -> r.userPoolId("pool").username("jdoe").groupName("nurse"));
+        assertEquals(List.of("nurse"), client.adminListGroupsForUser(r -> r.userPoolId("pool").username("jdoe"))
+                .groups().stream().map(g -> g.groupName()).toList());
+    }
+
+    @Test
+    void shouldServeTheAsyncClientToo() {
+        CognitoIdentityProviderAsyncClient client = CognitoIdentityProviderAsyncClient.builder()
+                .region(Region.US_EAST_1)
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("a", "b")))
+                .httpClient(simulator(0, 0, 0).asyncHttpClient())
+                .overrideConfiguration(o -> o
+                        .retryPolicy(RetryPolicy.none())
+                        .apiCallAttemptTimeout(ATTEMPT_TIMEOUT))
+                .build();
+
+        assertEquals("seed00007", client.adminGetUser(r -> r.userPoolId("pool").username("seed00007"))
+                .join().username());
+        CompletionException error = assertThrows(CompletionException.class,
+                () -> client.adminGetUser(r -> r.userPoolId("pool").username("ghost")).join());
+        assertInstanceOf(UserNotFoundException.class, error.getCause());
+    }
+
+    @Test
+    void shouldAnswerWithCognitoErrors() {
+        CognitoIdentityProviderClient client = client(simulator(0, 0, 0));
+
+        assertThrows(UserNotFoundException.class,
+                () -> client.adminGetUser(r -> r.userPoolId("pool").username("ghost")));
+        assertThrows(UsernameExistsException.class,
+                () -> client.adminCreateUser(r -> r.userPoolId("pool").username("seed00001")));
+    }
+
+    @Test
+    void shouldRejectAttributesOutsideThePoolSchema() {
+        CognitoIdentityProviderClient client = client(simulator(0, 0, 0));
+
+        InvalidParameterException error = assertThrows(InvalidParameterException.class,
+                () -> client.adminCreateUser(r -> r.userPoolId("pool").username("jdoe").userAttributes(
+                        AttributeType.builder().name("email").value("jdoe@clinic.com").build(),
+                        AttributeType.builder().name("raw_password").value("Secreta#2024").build())));
+        assertTrue(error.awsErrorDetails().errorMessage().startsWith("Attributes did not conform to the schema"));
+        assertThrows(UserNotFoundException.class,
+                () -> client.adminGetUser(r -> r.userPoolId("pool").username("jdoe")));
+
+        client.adminCreateUser(r -> r.userPoolId("pool").username("jdoe").userAttributes(
+                AttributeType.builder().name("custom:document").value("1234567").build()));
+        assertTrue(client.adminGetUser(r -> r.userPoolId("pool").username("jdoe")).userAttributes().stream()
+                .anyMatch(a -> a.name().equals("custom:document") && a.value().equals("1234567")));
+    }
+
+    @Test
+    void shouldThrottleAboveQuota() {
+        CognitoIdentityProviderClient client = client(simulator(2, 0, 0));
+
+        // una ventana de un segundo puede partir la rafaga: basta con que alguna llamada sea rechazada
+        assertThrows(TooManyRequestsException.class, () -> {
+            for (int i = 0; i < 10; i++) {
+                client.adminGetUser(r -> r.userPoolId("pool").username("seed00001"));
+            }
+        });
+    }
+
+    @Test
+    void shouldInjectServerErrorsAndTimeouts() {
+        InternalErrorException error = assertThrows(InternalErrorException.class,
+                () -> client(simulator(0, 1.0, 0)).adminGetUser(r -> r.userPoolId("pool").username("seed00001")));
+        assertEquals(500, error.statusCode());
+
+        SdkClientException timeout = assertThrows(SdkClientException.class,
+                () -> client(simulator(0, 0, 1.0), SHORT_ATTEMPT_TIMEOUT)
+                        .adminGetUser(r -> r.userPoolId("pool").username("seed00001")));
+        assertTrue(timeout instanceof ApiCallAttemptTimeoutException || timeout instanceof ApiCallTimeoutException,
+                timeout.getClass().getName());
+    }
+
+    @Test
+    void shouldSampleLognormalLatencyAroundMedian() {
+        LatencyModel model = LatencyModel.parse("40ms/250ms");
+        Random random = new Random(42);
+        long[] samples = new long[10_000];
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = model.sampleNanos(random);
+        }
+        Arrays.sort(samples);
+
+        assertEquals(40, samples[5_000] / 1_000_000.0, 4);
+        assertEquals(250, samples[9_900] / 1_000_000.0, 40);
+    }
+}
@@ -0,0 +1,108 @@
+package com.clinic.users.infrastructure.adapter.out.uniqueness;
+
+import com.clinic.users.domain.exception.UserAlreadyExistsException;
+import com.clinic.users.domain.model.User;
+import com.clinic.users.infrastructure.adapter.out.inmemory.InMemoryCognitoGateway;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UniquenessCognitoGatewayTest {
+
+    private final InMemoryCognitoGateway pool = new InMemoryCognitoGateway(0);
+    private final UniqueAttributeIndex index = new UniqueAttributeIndex();
+    private final UniquenessCognitoGateway gateway = new UniquenessCognitoGateway(pool, index);
+
+    private User user(String username, String document, String email) {
+        return User.builder()
+                .username(username)
+                .enabled(true)
+                .attributes(Map.of("custom_document", document, "email", email))
+                .build();
+    }
+
+    @Test
+    void shouldRejectDuplicateDocumentOrEmailBeforeCallingCognito() {
+        gateway.adminCreate(user("ana", "1001", "ana@clinic.com"), false);
+
+        assertThrows(UserAlreadyExistsException.class,
+                () -> gateway.adminCreate(user("bob", "1001", "bob@clinic.com"), false));
+        assertThrows(UserAlreadyExistsException.class,
+                () -> gateway.adminCreate(user("bob", "1002", " ANA@clinic.com"), false));
+        assertThrows(Exception.class, () -> pool.adminGet("bob"));
+
+        gateway.adminCreate(user("bob", "1002", "bob@clinic.com"), false);
+        assertEquals("bob", index.ownerOfDocument("1002"));
+    }
+
+    @Test
+    void shouldMoveKeysOnUpdateAndRejectTakenOnes() {
+        gateway.adminCreate(user("ana", "1001", "ana@clinic.com"), false);
+        gateway.adminCreate(user("bob", "1002", "bob@clinic.com"), false);
+
+        assertThrows(UserAlreadyExistsException.class,
+                () -> gateway.adminUpdateAttributes("bob", Map.of("email", "Ana@clinic.com")));
+        assertEquals("bob@clinic.com", pool.adminGet("bob").getAttributes().get("email"));
+
+        gateway.adminUpdateAttributes("bob", Map.of("email", "roberto@clinic.com"));
+        assertEquals("bob", index.ownerOfEmail("roberto@clinic.com"));
+        assertNull(index.ownerOfEmail("bob@clinic.com"));
+        assertEquals("bob", index.ownerOfDocument("1002"));
+    }
+
+    @Test
+    void shouldKeepExistingOwnerWhenCognitoRejectsTheCreate() {
+        gateway.adminCreate(user("ana", "1001", "ana@clinic.com"), false);
+
+        // mismo username con otros datos: Cognito responde UsernameExists
+        assertThrows(UserAlreadyExistsException.class,
+                () -> gateway.adminCreate(user("ana", "2002", "other@clinic.com"), false));
+
+        assertEquals("ana", index.ownerOfDocument("1001"));
+        assertEquals("ana", index.ownerOfEmail("ana@clinic.com"));
+        assertNull(index.ownerOfDocument("2002"));
+    }
+
+    @Test
+    void shouldLearnUsersCreatedOutsideThisServiceOnSync() {
+        InMemoryCognitoGateway seeded = new InMemoryCognitoGateway(3);
+        UniquenessCognitoGateway seededGateway = new UniquenessCognitoGateway(seeded, index);
+        String seededDocument = seeded.adminGet("seed00002").getAttributes().get("custom_document");
+        assertNull(index.ownerOfDocument(seededDocument));
+
+        new UniqueAttributeIndexSync(seededGateway, index).sync();
+
+        assertEquals("seed00002", index.ownerOfDocument(seededDocument));
+        assertThrows(UserAlreadyExistsException.class,
+                () -> seededGateway.adminCreate(user("copycat", seededDocument, "copy@clinic.com"), false));
+    }
+
+    @Test
+    void shouldLetOnlyOneConcurrentCreateClaimADocument() throws Exception {
+        ExecutorService threads = Executors.newFixedThreadPool(8);
+        AtomicInteger created = new AtomicInteger();
+        List<CompletableFuture<Void>> calls = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            String username = "user" + i;
+            calls.add(CompletableFuture.runAsync(() -> {
+                try {
+                    gateway.adminCreate(user(username, "7777", username + "@clinic.com"), false);
+                    created.incrementAndGet();
+                } catch (UserAlreadyExistsException expected) {
+                    // perdio la carrera
+                }
+            }, threads));
+        }
+        CompletableFuture.allOf(calls.toArray(CompletableFuture[]::new)).get();
+        threads.shutdown();
+
+        assertEquals(1, created.get());
+    }
+}
@@ -0,0 +1,60 @@
+package com.clinic.users.infrastructure.concurrent;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FanOutTest {
+
+    @Test
+    void shouldKeepOrderAndRespectConcurrencyCap() {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+
+        try (FanOut fanOut = new FanOut(Executors.newFixedThreadPool(16), 3)) {
+            List<Integer> result = fanOut.map(IntStream.range(0, 20).boxed().toList(), i -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                sleep(5);
+                running.decrementAndGet();
+                return i * 2;
+            });
+
+            assertEquals(IntStream.range(0, 20).map(i -> i * 2).boxed().toList(), result);
+        }
+
+        assertTrue(maxRunning.get() <= 3);
+    }
+
+    @Test
+    void shouldRethrowTaskException() {
+        try (FanOut fanOut = new FanOut(Executors.newFixedThreadPool(2), 2)) {
+            assertThrows(IllegalStateException.class, () -> fanOut.both(
+                    () -> "user",
+                    () -> {
+                        throw new IllegalStateException("boom");
+                    },
+                    (a, b) -> a));
+        }
+    }
+
+    @Test
+    void shouldRunInlineWhenSequential() {
+        Thread caller = Thread.currentThread();
+
+        List<Thread> threads = FanOut.sequential().map(List.of(1, 2), i -> Thread.currentThread());
+
+        assertEquals(List.of(caller, caller), threads);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}